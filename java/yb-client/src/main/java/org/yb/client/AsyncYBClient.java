@@ -262,6 +262,8 @@ public class AsyncYBClient implements AutoCloseable {
 
   private final String certFile;
 
+  private final RpcMetrics rpcMetrics = new RpcMetrics();
+
   private volatile boolean closed;
 
   private AsyncYBClient(AsyncYBClientBuilder b) {
@@ -388,6 +390,42 @@ public class AsyncYBClient implements AutoCloseable {
     return d.addCallback(cb);
   }
 
+  /**
+   * Create a reader of the changes of a tablet from a CDC stream. The reader fetches the changes
+   * from the tablet leader ahead of consumption, and starts fetching right away.
+   * @param table the table to get changes for.
+   * @param streamId the stream to get changes for.
+   * @param tablet the tablet to get changes for.
+   * @param term the leader term to start getting changes for.
+   * @param index the log index to start get changes for.
+   * @param maxBufferedResponses the maximum number of responses fetched ahead of consumption.
+   * @param maxBufferedBytes the size of the fetched responses above which fetching pauses.
+   * @return the reader, to be closed once done.
+   */
+  public CDCStreamReader newCDCStreamReader(
+          final YBTable table, final String streamId, LocatedTablet tablet, long term, long index,
+          int maxBufferedResponses, long maxBufferedBytes) {
+    checkIsClosed();
+    final String tabletId = new String(tablet.getTabletId(), Charset.forName("UTF-8"));
+    final byte[] partitionKey = tablet.getPartition().getPartitionKeyStart();
+    CDCStreamReader reader = new CDCStreamReader(new CDCStreamReader.Source() {
+      @Override
+      public Deferred<GetChangesResponse> getChanges(long term, long index) {
+        GetChangesRequest rpc =
+            new GetChangesRequest(table, streamId, tabletId, term, index, partitionKey);
+        rpc.setTimeoutMillis(defaultOperationTimeoutMs);
+        return sendRpcToTablet(rpc);
+      }
+
+      @Override
+      public void schedule(Runnable task, long delayMs) {
+        newTimeout(timeout -> task.run(), delayMs);
+      }
+    }, tabletId, term, index, maxBufferedResponses, maxBufferedBytes);
+    reader.start();
+    return reader;
+  }
+
   /**
    * Check if the server is ready to serve requests.
    * @param hp host port of the server.
@@ -413,6 +451,28 @@ public class AsyncYBClient implements AutoCloseable {
     return d;
   }
 
+  /**
+   * List the tablets hosted by a tserver, with their state and on disk sizes.
+   * @param hp host port of the tserver.
+   * @return a deferred object for the response from the tserver.
+   */
+  public Deferred<ListTabletsResponse> listTablets(final HostAndPort hp) {
+    checkIsClosed();
+    TabletClient client = newSimpleClient(hp);
+    if (client == null) {
+      throw new IllegalStateException("Could not create a client to " + hp.toString());
+    }
+
+    ListTabletsRequest rpc = new ListTabletsRequest();
+    rpc.maxAttempts = 1;
+    rpc.setTimeoutMillis(defaultAdminOperationTimeoutMs);
+
+    Deferred<ListTabletsResponse> d = rpc.getDeferred();
+    rpc.attempt++;
+    client.sendRpc(rpc);
+    return d;
+  }
+
   /**
    * Create a table on the cluster with the specified name and schema. Default table
    * configurations are used, mainly the table will have one tablet.
@@ -1057,6 +1117,23 @@ public class AsyncYBClient implements AutoCloseable {
     return defaultAdminOperationTimeoutMs;
   }
 
+  /**
+   * Get the client-side statistics of the RPCs sent by this client.
+   * @return the RPC metrics registry of this client
+   */
+  public RpcMetrics getRpcMetrics() {
+    return rpcMetrics;
+  }
+
+  /**
+   * Renders the per-method RPC statistics along with the pending and in-flight RPC counts of
+   * every open connection, in the Prometheus text exposition format.
+   * @return the metrics as a Prometheus text document
+   */
+  public String getRpcMetricsAsPrometheusText() {
+    return rpcMetrics.toPrometheusText(getTableClients());
+  }
+
   /**
    * Get the timeout used when waiting to read data from a socket. Will be triggered when nothing
    * has been read on a socket connected to a tablet server for {@code timeout} milliseconds.
@@ -1369,10 +1446,11 @@ public class AsyncYBClient implements AutoCloseable {
    * @param cause What was cause of the last failed attempt, if known.
    * You can pass {@code null} if the cause is unknown.
    */
-  static <R> Deferred<R> tooManyAttemptsOrTimeout(final YRpc<R> request,
-                                                  final YBException cause) {
+  <R> Deferred<R> tooManyAttemptsOrTimeout(final YRpc<R> request,
+                                           final YBException cause) {
     String message;
     if (request.deadlineTracker.timedOut()) {
+      rpcMetrics.recordTimeout(request);
       message = "Time out: ";
     } else {
       message = "Too many attempts: ";
@@ -1548,6 +1626,7 @@ public class AsyncYBClient implements AutoCloseable {
    * a RPC, so we need to demote it and retry.
    */
   <R> void handleNotLeader(final YRpc<R> rpc, YBException ex, TabletClient server) {
+    rpcMetrics.recordNotLeader(rpc);
     rpc.getTablet().demoteLeader(server);
     handleRetryableError(rpc, ex, server);
   }
@@ -0,0 +1,320 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+import com.stumbleupon.async.Callback;
+import com.stumbleupon.async.Deferred;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yb.Opid;
+import org.yb.annotations.InterfaceAudience;
+import org.yb.annotations.InterfaceStability;
+import org.yb.cdc.CdcService.CDCRecordPB;
+import org.yb.cdc.CdcService.GetChangesResponsePB;
+
+/**
+ * Reads the changes of a tablet from a CDC stream, fetching them ahead of consumption: the next
+ * GetChanges request is sent as soon as the previous response arrives, from its checkpoint, while
+ * the records already received are being consumed. Up to maxBufferedResponses responses, and about
+ * maxBufferedBytes of records, are buffered before fetching pauses until the consumer catches up.
+ *
+ * Requests are routed to the tablet leader through the tablet cache of the client, which retries
+ * them on leader changes. Requests that fail anyway are retried with an exponential backoff, up to
+ * {@link #MAX_RETRIES} times in a row, after which the reader fails.
+ *
+ * The records are consumed with {@link #hasNext()} and {@link #next()}, which block until records
+ * are available, or with {@link #poll(long, TimeUnit)}. The reader is meant to be consumed by a
+ * single thread.
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class CDCStreamReader implements Iterator<CDCRecordPB>, AutoCloseable {
+  private static final Logger LOG = LoggerFactory.getLogger(CDCStreamReader.class);
+
+  static final int MAX_RETRIES = 10;
+  static final long MIN_RETRY_DELAY_MS = 100;
+  static final long MAX_RETRY_DELAY_MS = 10000;
+  // Delays between requests while the tablet has no new changes.
+  static final long MIN_IDLE_DELAY_MS = 10;
+  static final long MAX_IDLE_DELAY_MS = 1000;
+
+  /**
+   * Sends the GetChanges requests of the reader and schedules its delayed retries.
+   */
+  interface Source {
+    Deferred<GetChangesResponse> getChanges(long term, long index);
+
+    void schedule(Runnable task, long delayMs);
+  }
+
+  private final Source source;
+  private final String tabletId;
+  private final int maxBufferedResponses;
+  private final long maxBufferedBytes;
+
+  // Responses received and not consumed yet. Guarded by this.
+  private final ArrayDeque<GetChangesResponsePB> responses = new ArrayDeque<>();
+  // Serialized size of the buffered responses. Guarded by this.
+  private long bufferedBytes;
+  // Checkpoint to send the next request from. Guarded by this.
+  private long fetchTerm;
+  private long fetchIndex;
+  // Whether a request is in flight or scheduled. Guarded by this.
+  private boolean fetching;
+  private int consecutiveFailures;
+  private long idleDelayMs;
+  private Exception failure;
+  private boolean closed;
+
+  // The response being consumed, and the checkpoint of the responses consumed before it. Only
+  // accessed by the consumer.
+  private GetChangesResponsePB current;
+  private int currentRecord;
+  private long consumedTerm;
+  private long consumedIndex;
+
+  CDCStreamReader(Source source, String tabletId, long term, long index,
+                  int maxBufferedResponses, long maxBufferedBytes) {
+    if (maxBufferedResponses < 1) {
+      throw new IllegalArgumentException("maxBufferedResponses must be positive");
+    }
+    this.source = source;
+    this.tabletId = tabletId;
+    this.fetchTerm = term;
+    this.fetchIndex = index;
+    this.consumedTerm = term;
+    this.consumedIndex = index;
+    this.maxBufferedResponses = maxBufferedResponses;
+    this.maxBufferedBytes = maxBufferedBytes;
+  }
+
+  void start() {
+    synchronized (this) {
+      fetching = true;
+    }
+    fetch();
+  }
+
+  private void fetch() {
+    long term;
+    long index;
+    synchronized (this) {
+      if (closed) {
+        fetching = false;
+        return;
+      }
+      term = fetchTerm;
+      index = fetchIndex;
+    }
+    Callback<Void, GetChangesResponse> cb = new Callback<Void, GetChangesResponse>() {
+      @Override
+      public Void call(GetChangesResponse response) {
+        onResponse(response);
+        return null;
+      }
+    };
+    Callback<Void, Exception> eb = new Callback<Void, Exception>() {
+      @Override
+      public Void call(Exception e) {
+        onFailure(e);
+        return null;
+      }
+    };
+    try {
+      source.getChanges(term, index).addCallbacks(cb, eb);
+    } catch (Exception e) {
+      onFailure(e);
+    }
+  }
+
+  private boolean isFull() {
+    return responses.size() >= maxBufferedResponses || bufferedBytes >= maxBufferedBytes;
+  }
+
+  private void onResponse(GetChangesResponse response) {
+    GetChangesResponsePB resp = response.getResp();
+    long delayMs = 0;
+    synchronized (this) {
+      if (closed) {
+        fetching = false;
+        return;
+      }
+      if (resp.hasError()) {
+        failure = new CDCErrorException(response.getTsUUID(), resp.getError());
+        fetching = false;
+        notifyAll();
+        return;
+      }
+      consecutiveFailures = 0;
+      if (resp.hasCheckpoint()) {
+        fetchTerm = resp.getCheckpoint().getOpId().getTerm();
+        fetchIndex = resp.getCheckpoint().getOpId().getIndex();
+      }
+      if (resp.getRecordsCount() > 0) {
+        responses.add(resp);
+        bufferedBytes += resp.getSerializedSize();
+        idleDelayMs = 0;
+        notifyAll();
+      } else {
+        idleDelayMs = idleDelayMs == 0 ?
+            MIN_IDLE_DELAY_MS : Math.min(idleDelayMs * 2, MAX_IDLE_DELAY_MS);
+        delayMs = idleDelayMs;
+      }
+      if (isFull()) {
+        // Resumed by the consumer.
+        fetching = false;
+        return;
+      }
+    }
+    if (delayMs > 0) {
+      source.schedule(this::fetch, delayMs);
+    } else {
+      fetch();
+    }
+  }
+
+  private void onFailure(Exception e) {
+    long delayMs;
+    synchronized (this) {
+      if (closed) {
+        fetching = false;
+        return;
+      }
+      if (e instanceof CDCErrorException || ++consecutiveFailures > MAX_RETRIES) {
+        failure = e;
+        fetching = false;
+        notifyAll();
+        return;
+      }
+      delayMs = Math.min(MIN_RETRY_DELAY_MS << (consecutiveFailures - 1), MAX_RETRY_DELAY_MS);
+    }
+    LOG.warn("Failed to get the changes of tablet {}, retrying in {} ms", tabletId, delayMs, e);
+    source.schedule(this::fetch, delayMs);
+  }
+
+  /**
+   * Makes the next record available as current[currentRecord], waiting up to timeoutNanos for it,
+   * or forever if timeoutNanos is negative.
+   * @return false if no record is available in time, or if the reader is closed.
+   */
+  private boolean advance(long timeoutNanos) throws InterruptedException {
+    if (current != null && currentRecord < current.getRecordsCount()) {
+      return true;
+    }
+    if (current != null) {
+      consumedTerm = current.getCheckpoint().getOpId().getTerm();
+      consumedIndex = current.getCheckpoint().getOpId().getIndex();
+      current = null;
+    }
+    boolean resume = false;
+    synchronized (this) {
+      long deadline = System.nanoTime() + timeoutNanos;
+      while (responses.isEmpty()) {
+        if (failure != null) {
+          throw new IllegalStateException(
+              "Failed to get the changes of tablet " + tabletId, failure);
+        }
+        if (closed) {
+          return false;
+        }
+        if (timeoutNanos < 0) {
+          wait();
+        } else {
+          long remaining = deadline - System.nanoTime();
+          if (remaining <= 0) {
+            return false;
+          }
+          TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+      }
+      current = responses.poll();
+      currentRecord = 0;
+      bufferedBytes -= current.getSerializedSize();
+      if (!fetching && failure == null && !closed && !isFull()) {
+        fetching = true;
+        resume = true;
+      }
+    }
+    if (resume) {
+      fetch();
+    }
+    return true;
+  }
+
+  /**
+   * Waits until a record is available. Only returns false once the reader is closed.
+   * @throws IllegalStateException if the reader failed to get the changes of the tablet.
+   */
+  @Override
+  public boolean hasNext() {
+    try {
+      return advance(-1);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for changes", e);
+    }
+  }
+
+  @Override
+  public CDCRecordPB next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return current.getRecords(currentRecord++);
+  }
+
+  /**
+   * Returns the next record, waiting up to the given time for it.
+   * @return the next record, or null if there is none in time or the reader is closed.
+   * @throws IllegalStateException if the reader failed to get the changes of the tablet.
+   */
+  public CDCRecordPB poll(long timeout, TimeUnit unit) throws InterruptedException {
+    if (!advance(Math.max(unit.toNanos(timeout), 0))) {
+      return null;
+    }
+    return current.getRecords(currentRecord++);
+  }
+
+  /**
+   * Returns the checkpoint up to which the records were consumed, to resume reading from.
+   */
+  public Opid.OpIdPB getCheckpoint() {
+    if (current != null && currentRecord == current.getRecordsCount()) {
+      return current.getCheckpoint().getOpId();
+    }
+    return Opid.OpIdPB.newBuilder().setTerm(consumedTerm).setIndex(consumedIndex).build();
+  }
+
+  /**
+   * Returns the number of responses fetched ahead of the consumer.
+   */
+  public synchronized int getNumBufferedResponses() {
+    return responses.size();
+  }
+
+  @Override
+  public void close() {
+    synchronized (this) {
+      closed = true;
+      responses.clear();
+      bufferedBytes = 0;
+      notifyAll();
+    }
+  }
+}
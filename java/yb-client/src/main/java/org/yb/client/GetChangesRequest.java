@@ -22,18 +22,32 @@ import org.yb.util.Pair;
 import org.yb.cdc.CdcService.GetChangesRequestPB;
 import org.yb.cdc.CdcService.GetChangesResponsePB;
 
-public class GetChangesRequest extends YRpc<GetChangesResponse> {
+public class GetChangesRequest extends YRpc<GetChangesResponse> implements YRpc.HasKey {
   private final String streamId;
   private final String tabletId;
   private final long term;
   private final long index;
+  // A partition key of the tablet, to route the request to its leader, or null when the request
+  // is sent to a given tablet server.
+  private final byte[] partitionKey;
 
   public GetChangesRequest(YBTable table, String streamId, String tabletId, long term, long index) {
+    this(table, streamId, tabletId, term, index, null);
+  }
+
+  GetChangesRequest(YBTable table, String streamId, String tabletId, long term, long index,
+                    byte[] partitionKey) {
     super(table);
     this.streamId = streamId;
     this.tabletId = tabletId;
     this.term = term;
     this.index = index;
+    this.partitionKey = partitionKey;
+  }
+
+  @Override
+  public byte[] partitionKey() {
+    return partitionKey;
   }
 
   @Override
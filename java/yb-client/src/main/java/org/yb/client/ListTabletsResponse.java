@@ -0,0 +1,54 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+package org.yb.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.yb.annotations.InterfaceAudience;
+import org.yb.tablet.Tablet.TabletStatusPB;
+import org.yb.tserver.Tserver.ListTabletsResponsePB.StatusAndSchemaPB;
+import org.yb.tserver.Tserver.TabletServerErrorPB;
+
+@InterfaceAudience.Public
+public class ListTabletsResponse extends YRpcResponse {
+  private final TabletServerErrorPB serverError;
+  // Status of the tablets hosted by the tserver, including their on disk sizes.
+  private final List<TabletStatusPB> tabletStatuses;
+
+  ListTabletsResponse(long ellapsedMillis, String uuid, TabletServerErrorPB error,
+                      List<StatusAndSchemaPB> statusAndSchemas) {
+    super(ellapsedMillis, uuid);
+    this.serverError = error;
+    this.tabletStatuses = new ArrayList<>(statusAndSchemas.size());
+    for (StatusAndSchemaPB statusAndSchema : statusAndSchemas) {
+      tabletStatuses.add(statusAndSchema.getTabletStatus());
+    }
+  }
+
+  public boolean hasError() {
+    return serverError != null;
+  }
+
+  public String errorMessage() {
+    if (serverError == null) {
+      return "";
+    }
+
+    return serverError.getStatus().getMessage();
+  }
+
+  public List<TabletStatusPB> getTabletStatuses() {
+    return tabletStatuses;
+  }
+}
@@ -36,6 +36,8 @@ import org.yb.annotations.InterfaceAudience;
 import org.yb.annotations.InterfaceStability;
 import org.yb.Common.PartitionSchemaPB.HashSchema;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -122,6 +124,158 @@ public class PartitionSchema {
     return isSimple;
   }
 
+  /**
+   * Returns the 16 bit hash code of the encoded hash column values of a row of a table with a
+   * multi column hash schema, as computed by YBPartition::HashColumnCompoundValue. This is the
+   * value returned by partition_hash() in YCQL.
+   *
+   * @param compound the hash column values, encoded with {@link HashColumnsEncoder}
+   * @return the hash code, between 0 and 0xFFFF
+   */
+  public static int hashColumnCompoundValue(byte[] compound) {
+    long h = hash64(compound, HASH_SEED);
+    long h1 = h >>> 48;
+    long h2 = 3 * (h >>> 32);
+    long h3 = 5 * (h >>> 16);
+    long h4 = 7 * (h & 0xffff);
+    return (int) ((h1 ^ h2 ^ h3 ^ h4) & 0xffff);
+  }
+
+  /**
+   * Encodes a hash code into the partition key of a table with a multi column hash schema. The
+   * partition keys of the tablets of such a table are hash codes encoded the same way.
+   */
+  public static byte[] encodeMultiColumnHashValue(int hashCode) {
+    return new byte[] { (byte) (hashCode >>> 8), (byte) hashCode };
+  }
+
+  /**
+   * Decodes the hash code of a partition key of a table with a multi column hash schema. The empty
+   * key, which starts the first tablet, decodes to 0.
+   */
+  public static int decodeMultiColumnHashValue(byte[] partitionKey) {
+    if (partitionKey.length == 0) {
+      return 0;
+    }
+    return ((partitionKey[0] & 0xff) << 8) | (partitionKey[1] & 0xff);
+  }
+
+  // Seed of the hash of the hash column values.
+  private static final long HASH_SEED = 97;
+
+  // Bob Jenkins' 64 bit hash (lookup2), as Hash64StringWithSeed in gutil/hash/jenkins.cc.
+  private static long hash64(byte[] s, long seed) {
+    // a, b and c of the reference implementation.
+    long[] abc = { 0xe08c1d668b756f82L, 0xe08c1d668b756f82L, seed };
+    int offset = 0;
+    int keylen = s.length;
+    for (; keylen >= 24; keylen -= 24, offset += 24) {
+      abc[0] += word64At(s, offset);
+      abc[1] += word64At(s, offset + 8);
+      abc[2] += word64At(s, offset + 16);
+      mix(abc);
+    }
+    abc[2] += s.length;
+    for (int i = 0; i < keylen; i++) {
+      long v = s[offset + i] & 0xffL;
+      if (i < 16) {
+        abc[i / 8] += v << (8 * (i % 8));
+      } else {
+        // The first byte of c is reserved for the length.
+        abc[2] += v << (8 * (i - 15));
+      }
+    }
+    mix(abc);
+    return abc[2];
+  }
+
+  private static long word64At(byte[] s, int offset) {
+    long word = 0;
+    for (int i = 7; i >= 0; i--) {
+      word = (word << 8) | (s[offset + i] & 0xffL);
+    }
+    return word;
+  }
+
+  private static void mix(long[] abc) {
+    long a = abc[0];
+    long b = abc[1];
+    long c = abc[2];
+    a -= b; a -= c; a ^= (c >>> 43);
+    b -= c; b -= a; b ^= (a << 9);
+    c -= a; c -= b; c ^= (b >>> 8);
+    a -= b; a -= c; a ^= (c >>> 38);
+    b -= c; b -= a; b ^= (a << 23);
+    c -= a; c -= b; c ^= (b >>> 5);
+    a -= b; a -= c; a ^= (c >>> 35);
+    b -= c; b -= a; b ^= (a << 49);
+    c -= a; c -= b; c ^= (b >>> 11);
+    a -= b; a -= c; a ^= (c >>> 12);
+    b -= c; b -= a; b ^= (a << 18);
+    c -= a; c -= b; c ^= (b >>> 22);
+    abc[0] = a;
+    abc[1] = b;
+    abc[2] = c;
+  }
+
+  /**
+   * Encodes the hash column values of a row, in the order of the hash columns of the table, the
+   * way the server does before hashing them: integers in big endian order, strings and binaries
+   * as their bytes.
+   */
+  public static class HashColumnsEncoder {
+    private final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+
+    public HashColumnsEncoder appendInt8(byte value) {
+      buf.write(value);
+      return this;
+    }
+
+    public HashColumnsEncoder appendInt16(short value) {
+      return appendBigEndian(value, 2);
+    }
+
+    public HashColumnsEncoder appendInt32(int value) {
+      return appendBigEndian(value, 4);
+    }
+
+    public HashColumnsEncoder appendInt64(long value) {
+      return appendBigEndian(value, 8);
+    }
+
+    public HashColumnsEncoder appendString(String value) {
+      return appendBinary(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public HashColumnsEncoder appendBinary(byte[] value) {
+      buf.write(value, 0, value.length);
+      return this;
+    }
+
+    private HashColumnsEncoder appendBigEndian(long value, int size) {
+      for (int shift = 8 * (size - 1); shift >= 0; shift -= 8) {
+        buf.write((int) (value >>> shift));
+      }
+      return this;
+    }
+
+    /** Returns the hash code of the values appended so far. */
+    public int getHashCode() {
+      return hashColumnCompoundValue(buf.toByteArray());
+    }
+
+    /** Returns the partition key of the values appended so far. */
+    public byte[] getPartitionKey() {
+      return encodeMultiColumnHashValue(getHashCode());
+    }
+
+    /** Clears the values, to encode the ones of another row. */
+    public HashColumnsEncoder reset() {
+      buf.reset();
+      return this;
+    }
+  }
+
   public static class RangeSchema {
     private final List<Integer> columns;
 
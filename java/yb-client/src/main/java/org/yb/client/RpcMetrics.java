@@ -0,0 +1,316 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+package org.yb.client;
+
+import org.yb.annotations.InterfaceAudience;
+import org.yb.annotations.InterfaceStability;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client-side RPC statistics of an {@link AsyncYBClient}, kept per (service, method) pair.
+ * <p>
+ * All the counters are updated from the Netty IO threads and the retry timer without taking any
+ * lock, so recording is cheap enough to be always on. Reading is done through
+ * {@link #getAllMethodMetrics()} or {@link #toPrometheusText()}; the values read are not a
+ * consistent snapshot across counters, which is fine for monitoring purposes.
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class RpcMetrics {
+
+  /**
+   * Upper bounds, in microseconds, of the latency histogram buckets. The last, implicit bucket
+   * holds everything above the last bound.
+   */
+  static final long[] LATENCY_BUCKET_BOUNDS_US = {
+      100, 250, 500, 1000, 2500, 5000, 10000, 25000, 50000, 100000, 250000, 500000, 1000000,
+      2500000, 5000000, 10000000
+  };
+
+  private static final String METRIC_PREFIX = "yb_client_rpc_";
+
+  private final ConcurrentHashMap<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+  /**
+   * Statistics of a single RPC method.
+   */
+  public static class MethodMetrics {
+    private final String service;
+    private final String method;
+
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder responses = new LongAdder();
+    private final LongAdder serverTooBusyRetries = new LongAdder();
+    private final LongAdder notLeaderRedirects = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder latencySumUs = new LongAdder();
+    private final AtomicLongArray latencyBuckets =
+        new AtomicLongArray(LATENCY_BUCKET_BOUNDS_US.length + 1);
+
+    MethodMetrics(String service, String method) {
+      this.service = service;
+      this.method = method;
+    }
+
+    void recordAttempt(long requestBytes) {
+      attempts.increment();
+      bytesSent.add(requestBytes);
+    }
+
+    void recordResponse(long latencyNanos, long responseBytes) {
+      final long latencyUs = Math.max(0, latencyNanos / 1000);
+      responses.increment();
+      bytesReceived.add(responseBytes);
+      latencySumUs.add(latencyUs);
+      latencyBuckets.incrementAndGet(bucketFor(latencyUs));
+    }
+
+    public String getService() {
+      return service;
+    }
+
+    public String getMethod() {
+      return method;
+    }
+
+    /** Number of times a request for this method was written to a connection. */
+    public long getAttempts() {
+      return attempts.sum();
+    }
+
+    /** Number of responses received, successful or not. */
+    public long getResponses() {
+      return responses.sum();
+    }
+
+    /** Number of retries caused by ERROR_SERVER_TOO_BUSY. */
+    public long getServerTooBusyRetries() {
+      return serverTooBusyRetries.sum();
+    }
+
+    /** Number of retries caused by the contacted server not being the leader. */
+    public long getNotLeaderRedirects() {
+      return notLeaderRedirects.sum();
+    }
+
+    /** Number of RPCs that were failed because their deadline expired. */
+    public long getTimeouts() {
+      return timeouts.sum();
+    }
+
+    public long getBytesSent() {
+      return bytesSent.sum();
+    }
+
+    public long getBytesReceived() {
+      return bytesReceived.sum();
+    }
+
+    public long getLatencySumMicros() {
+      return latencySumUs.sum();
+    }
+
+    /**
+     * @return the count of responses in each latency bucket, see
+     * {@link RpcMetrics#getLatencyBucketBoundsMicros()}. The last element counts the responses
+     * slower than the last bound.
+     */
+    public long[] getLatencyBuckets() {
+      long[] result = new long[latencyBuckets.length()];
+      for (int i = 0; i < result.length; i++) {
+        result[i] = latencyBuckets.get(i);
+      }
+      return result;
+    }
+
+    @Override
+    public String toString() {
+      return "MethodMetrics(service=" + service + ", method=" + method +
+          ", attempts=" + getAttempts() + ", responses=" + getResponses() +
+          ", serverTooBusyRetries=" + getServerTooBusyRetries() +
+          ", notLeaderRedirects=" + getNotLeaderRedirects() +
+          ", timeouts=" + getTimeouts() + ")";
+    }
+  }
+
+  static int bucketFor(long latencyUs) {
+    int low = 0;
+    int high = LATENCY_BUCKET_BOUNDS_US.length;
+    // Find the first bound that is >= latencyUs.
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (LATENCY_BUCKET_BOUNDS_US[mid] < latencyUs) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  MethodMetrics forRpc(YRpc<?> rpc) {
+    return forMethod(rpc.serviceName(), rpc.method());
+  }
+
+  MethodMetrics forMethod(String service, String method) {
+    final String key = service + '.' + method;
+    // get() first so that the common case never locks a bin of the map.
+    MethodMetrics metrics = methods.get(key);
+    if (metrics == null) {
+      metrics = methods.computeIfAbsent(key, k -> new MethodMetrics(service, method));
+    }
+    return metrics;
+  }
+
+  void recordAttempt(YRpc<?> rpc, long requestBytes) {
+    forRpc(rpc).recordAttempt(requestBytes);
+  }
+
+  void recordResponse(YRpc<?> rpc, long latencyNanos, long responseBytes) {
+    forRpc(rpc).recordResponse(latencyNanos, responseBytes);
+  }
+
+  void recordServerTooBusy(YRpc<?> rpc) {
+    forRpc(rpc).serverTooBusyRetries.increment();
+  }
+
+  void recordNotLeader(YRpc<?> rpc) {
+    forRpc(rpc).notLeaderRedirects.increment();
+  }
+
+  void recordTimeout(YRpc<?> rpc) {
+    forRpc(rpc).timeouts.increment();
+  }
+
+  /**
+   * @return the statistics of the given method, or null if no RPC was sent for it yet.
+   */
+  public MethodMetrics getMethodMetrics(String service, String method) {
+    return methods.get(service + '.' + method);
+  }
+
+  /**
+   * @return the statistics of all the methods called so far, sorted by service and method.
+   */
+  public List<MethodMetrics> getAllMethodMetrics() {
+    List<MethodMetrics> result = new ArrayList<>(methods.values());
+    result.sort(Comparator.comparing(MethodMetrics::getService)
+        .thenComparing(MethodMetrics::getMethod));
+    return result;
+  }
+
+  public static long[] getLatencyBucketBoundsMicros() {
+    return LATENCY_BUCKET_BOUNDS_US.clone();
+  }
+
+  /**
+   * Renders the per-method statistics in the Prometheus text exposition format.
+   */
+  public String toPrometheusText() {
+    return toPrometheusText(Collections.<TabletClient>emptyList());
+  }
+
+  /**
+   * Renders the per-method statistics, followed by the queue depths of the given connections, in
+   * the Prometheus text exposition format.
+   */
+  String toPrometheusText(Collection<TabletClient> clients) {
+    final List<MethodMetrics> all = getAllMethodMetrics();
+    final StringBuilder sb = new StringBuilder();
+
+    appendHeader(sb, "attempts_total", "counter", "RPC attempts sent.");
+    for (MethodMetrics m : all) {
+      appendSample(sb, "attempts_total", m, null, m.getAttempts());
+    }
+    appendHeader(sb, "server_too_busy_total", "counter",
+        "Retries caused by ERROR_SERVER_TOO_BUSY.");
+    for (MethodMetrics m : all) {
+      appendSample(sb, "server_too_busy_total", m, null, m.getServerTooBusyRetries());
+    }
+    appendHeader(sb, "not_leader_total", "counter", "Retries caused by not-leader responses.");
+    for (MethodMetrics m : all) {
+      appendSample(sb, "not_leader_total", m, null, m.getNotLeaderRedirects());
+    }
+    appendHeader(sb, "timeouts_total", "counter", "RPCs failed because of their deadline.");
+    for (MethodMetrics m : all) {
+      appendSample(sb, "timeouts_total", m, null, m.getTimeouts());
+    }
+    appendHeader(sb, "sent_bytes_total", "counter", "Serialized request bytes.");
+    for (MethodMetrics m : all) {
+      appendSample(sb, "sent_bytes_total", m, null, m.getBytesSent());
+    }
+    appendHeader(sb, "received_bytes_total", "counter", "Response bytes.");
+    for (MethodMetrics m : all) {
+      appendSample(sb, "received_bytes_total", m, null, m.getBytesReceived());
+    }
+
+    appendHeader(sb, "latency_microseconds", "histogram", "Latency of a single RPC attempt.");
+    for (MethodMetrics m : all) {
+      long[] buckets = m.getLatencyBuckets();
+      long cumulative = 0;
+      for (int i = 0; i < buckets.length; i++) {
+        cumulative += buckets[i];
+        String le = i < LATENCY_BUCKET_BOUNDS_US.length ?
+            Long.toString(LATENCY_BUCKET_BOUNDS_US[i]) : "+Inf";
+        appendSample(sb, "latency_microseconds_bucket", m, le, cumulative);
+      }
+      appendSample(sb, "latency_microseconds_sum", m, null, m.getLatencySumMicros());
+      appendSample(sb, "latency_microseconds_count", m, null, cumulative);
+    }
+
+    if (!clients.isEmpty()) {
+      appendHeader(sb, "pending", "gauge", "RPCs queued while a connection is being set up.");
+      for (TabletClient client : clients) {
+        appendServerSample(sb, "pending", client, client.getPendingRpcsCount());
+      }
+      appendHeader(sb, "inflight", "gauge", "RPCs sent and awaiting a response.");
+      for (TabletClient client : clients) {
+        appendServerSample(sb, "inflight", client, client.getInflightRpcsCount());
+      }
+    }
+    return sb.toString();
+  }
+
+  private static void appendHeader(StringBuilder sb, String name, String type, String help) {
+    sb.append("# HELP ").append(METRIC_PREFIX).append(name).append(' ').append(help).append('\n');
+    sb.append("# TYPE ").append(METRIC_PREFIX).append(name).append(' ').append(type).append('\n');
+  }
+
+  private static void appendSample(StringBuilder sb, String name, MethodMetrics m, String le,
+                                   long value) {
+    sb.append(METRIC_PREFIX).append(name)
+        .append("{service=\"").append(m.getService())
+        .append("\",method=\"").append(m.getMethod()).append('"');
+    if (le != null) {
+      sb.append(",le=\"").append(le).append('"');
+    }
+    sb.append("} ").append(value).append('\n');
+  }
+
+  private static void appendServerSample(StringBuilder sb, String name, TabletClient client,
+                                         int value) {
+    sb.append(METRIC_PREFIX).append(name)
+        .append("{server=\"").append(client.getUuid().replace("\"", "\\\"")).append("\"} ")
+        .append(value).append('\n');
+  }
+}
@@ -47,6 +47,7 @@ import org.jboss.netty.channel.ConnectTimeoutException;
 import org.jboss.netty.handler.timeout.ReadTimeoutException;
 import org.yb.WireProtocol;
 import org.yb.annotations.InterfaceAudience;
+import org.yb.cdc.CdcService;
 import org.yb.master.Master;
 import org.yb.rpc.RpcHeader;
 import org.yb.tserver.Tserver;
@@ -231,6 +232,8 @@ public class TabletClient extends ReplayingDecoder<VoidEnum> {
         rpc.errback(e);  // Make the RPC fail with the exception.
         return null;
     }
+    rpc.sendTimeNanos = System.nanoTime();
+    ybClient.getRpcMetrics().recordAttempt(rpc, payload.readableBytes());
     final YRpc<?> oldrpc = rpcs_inflight.put(rpcid, rpc);
     if (oldrpc != null) {
       final String wtf = getPeerUuidLoggingString() +
@@ -386,6 +389,8 @@ public class TabletClient extends ReplayingDecoder<VoidEnum> {
         exception = ex;
       }
     }
+    ybClient.getRpcMetrics().recordResponse(rpc, start - rpc.sendTimeNanos,
+        buf.readerIndex() - rdx);
     if (LOG.isDebugEnabled()) {
       LOG.debug(getPeerUuidLoggingString() + "rpcid=" + rpcid
           + ", response size=" + (buf.readerIndex() - rdx) + " bytes"
@@ -403,6 +408,7 @@ public class TabletClient extends ReplayingDecoder<VoidEnum> {
 
     // This check is specifically for the ERROR_SERVER_TOO_BUSY case above.
     if (retryableHeaderException != null) {
+      ybClient.getRpcMetrics().recordServerTooBusy(rpc);
       ybClient.handleRetryableError(rpc, retryableHeaderException, this);
       return null;
     }
@@ -431,6 +437,17 @@ public class TabletClient extends ReplayingDecoder<VoidEnum> {
         } else {
           decoded = null;
         }
+
+      } else if (decoded.getSecond() instanceof CdcService.CDCErrorPB &&
+                 rpc.getTablet() != null) {
+        // Only RPCs routed through the tablet cache can be sent to another tablet server.
+        CdcService.CDCErrorPB error = (CdcService.CDCErrorPB) decoded.getSecond();
+        exception = dispatchCDCErrorOrReturnException(rpc, error);
+        if (exception == null) {
+          return null;
+        } else {
+          decoded = null;
+        }
       }
     }
 
@@ -489,6 +506,31 @@ public class TabletClient extends ReplayingDecoder<VoidEnum> {
     return null;
   }
 
+  /**
+   * Retries the CDC requests that failed because the tablet server is not, or not yet, serving the
+   * tablet as its leader. Builds and returns an exception for the other errors.
+   * @param rpc The original RPC call that triggered the error.
+   * @param error The error the CDC service sent.
+   * @return An exception if we couldn't dispatch the error, or null.
+   */
+  private Exception dispatchCDCErrorOrReturnException(YRpc rpc, CdcService.CDCErrorPB error) {
+    CDCErrorException ex = new CDCErrorException(uuid, error);
+    switch (error.getCode()) {
+      case TABLET_NOT_FOUND:
+      case NOT_LEADER:
+        ybClient.handleNotLeader(rpc, ex, this);
+        break;
+      case LEADER_NOT_READY:
+      case TABLET_NOT_RUNNING:
+      case NOT_RUNNING:
+        ybClient.handleRetryableError(rpc, ex, this);
+        break;
+      default:
+        return ex;
+    }
+    return null;
+  }
+
   /**
    * Provides different handling for various kinds of master errors: re-uses the
    * mechanisms already in place for handling tablet server errors as much as possible.
@@ -748,6 +790,20 @@ public class TabletClient extends ReplayingDecoder<VoidEnum> {
     return uuid;
   }
 
+  /**
+   * @return the number of RPCs queued while waiting for the connection to be established
+   */
+  synchronized int getPendingRpcsCount() {
+    return pending_rpcs == null ? 0 : pending_rpcs.size();
+  }
+
+  /**
+   * @return the number of RPCs sent to the server and still awaiting a response
+   */
+  int getInflightRpcsCount() {
+    return rpcs_inflight.size();
+  }
+
   public String toString() {
     final StringBuilder buf = new StringBuilder(13 + 10 + 6 + 64 + 7 + 32 + 16 + 1 + 17 + 2 + 1);
     buf.append("TabletClient@")           // =13
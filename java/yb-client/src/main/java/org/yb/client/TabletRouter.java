@@ -0,0 +1,98 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.yb.annotations.InterfaceAudience;
+import org.yb.annotations.InterfaceStability;
+
+/**
+ * Finds the tablet of a table holding a partition key, from a snapshot of the tablet locations of
+ * the table. Clients use it to group the rows they write by tablet, so that each batch is sent to
+ * a single tablet leader.
+ *
+ * The snapshot is not refreshed: after the tablets of the table are split or moved, rows are still
+ * routed according to the old boundaries, which only makes the grouping less effective.
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class TabletRouter {
+  // Sorted by partition key start.
+  private final List<LocatedTablet> tablets;
+  private final byte[][] partitionKeyStarts;
+
+  public TabletRouter(List<LocatedTablet> tablets) {
+    if (tablets.isEmpty()) {
+      throw new IllegalArgumentException("No tablets to route to");
+    }
+    List<LocatedTablet> sorted = new ArrayList<>(tablets);
+    sorted.sort((t1, t2) -> t1.getPartition().compareTo(t2.getPartition()));
+    this.tablets = Collections.unmodifiableList(sorted);
+    this.partitionKeyStarts = new byte[sorted.size()][];
+    for (int i = 0; i < sorted.size(); i++) {
+      partitionKeyStarts[i] = sorted.get(i).getPartition().getPartitionKeyStart();
+    }
+  }
+
+  /**
+   * Creates a router from the current tablet locations of a table.
+   * @param table the table
+   * @param deadline deadline in milliseconds to get the tablet locations
+   */
+  public static TabletRouter forTable(YBTable table, long deadline) throws Exception {
+    return new TabletRouter(table.getTabletsLocations(deadline));
+  }
+
+  public int getNumTablets() {
+    return tablets.size();
+  }
+
+  public LocatedTablet getTablet(int tabletIndex) {
+    return tablets.get(tabletIndex);
+  }
+
+  public List<LocatedTablet> getTablets() {
+    return tablets;
+  }
+
+  /**
+   * Returns the index of the tablet whose partition holds the given partition key: the last tablet
+   * whose partition starts at or before the key.
+   */
+  public int getTabletIndex(byte[] partitionKey) {
+    int low = 0;
+    int high = partitionKeyStarts.length - 1;
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (Bytes.memcmp(partitionKeyStarts[mid], partitionKey) <= 0) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Returns the index of the tablet holding the rows with the given hash code, for a table with a
+   * multi column hash schema.
+   * @see PartitionSchema#hashColumnCompoundValue
+   */
+  public int getTabletIndexForHashCode(int hashCode) {
+    return getTabletIndex(PartitionSchema.encodeMultiColumnHashValue(hashCode));
+  }
+}
@@ -817,6 +817,16 @@ public class YBClient implements AutoCloseable {
     return d.join(getDefaultAdminOperationTimeoutMs());
   }
 
+  /**
+   * List the tablets hosted by a tserver, with their state and on disk sizes.
+   * @param hp the host and port of the tserver.
+   * @return the tablets of the tserver.
+   */
+  public ListTabletsResponse listTablets(HostAndPort hp) throws Exception {
+    Deferred<ListTabletsResponse> d = asyncClient.listTablets(hp);
+    return d.join(getDefaultAdminOperationTimeoutMs());
+  }
+
   public interface Condition {
     boolean get() throws Exception;
   }
@@ -1238,6 +1248,14 @@ public class YBClient implements AutoCloseable {
     return asyncClient.getDefaultAdminOperationTimeoutMs();
   }
 
+  /**
+   * Get the client-side statistics of the RPCs sent by this client.
+   * @return the RPC metrics registry of the underlying async client
+   */
+  public RpcMetrics getRpcMetrics() {
+    return asyncClient.getRpcMetrics();
+  }
+
   /**
    * Builder class to use in order to connect to YB.
    * All the parameters beyond those in the constructors are optional.
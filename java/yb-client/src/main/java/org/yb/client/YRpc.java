@@ -115,6 +115,10 @@ public abstract class YRpc<R> {
   // Maximum number of attempts to try the RPC. Default 100 times.
   byte maxAttempts = 100;
 
+  // System.nanoTime() at which the current attempt was written to the connection. Only used for
+  // the client-side RPC metrics, see RpcMetrics.
+  long sendTimeNanos;  // package-private for TabletClient only.
+
   // Whether or not retries for this RPC should always go to the same server. This is required in
   // some cases where we do not want the RPC retries to hit a different server serving the same
   // tablet.
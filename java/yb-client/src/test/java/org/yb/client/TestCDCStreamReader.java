@@ -0,0 +1,184 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import static org.yb.AssertionWrappers.assertEquals;
+import static org.yb.AssertionWrappers.assertFalse;
+import static org.yb.AssertionWrappers.assertNull;
+import static org.yb.AssertionWrappers.assertTrue;
+import static org.yb.AssertionWrappers.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.stumbleupon.async.Deferred;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.yb.Opid;
+import org.yb.YBTestRunner;
+import org.yb.cdc.CdcService.CDCCheckpointPB;
+import org.yb.cdc.CdcService.CDCErrorPB;
+import org.yb.cdc.CdcService.CDCRecordPB;
+import org.yb.cdc.CdcService.GetChangesResponsePB;
+
+@RunWith(value=YBTestRunner.class)
+public class TestCDCStreamReader {
+
+  // Records the requests of a reader, to be answered by the test.
+  private static class FakeSource implements CDCStreamReader.Source {
+    final List<Opid.OpIdPB> requests = new ArrayList<>();
+    final List<Deferred<GetChangesResponse>> pending = new ArrayList<>();
+    final List<Runnable> scheduled = new ArrayList<>();
+    final List<Long> delays = new ArrayList<>();
+
+    @Override
+    public Deferred<GetChangesResponse> getChanges(long term, long index) {
+      requests.add(Opid.OpIdPB.newBuilder().setTerm(term).setIndex(index).build());
+      Deferred<GetChangesResponse> d = new Deferred<>();
+      pending.add(d);
+      return d;
+    }
+
+    @Override
+    public void schedule(Runnable task, long delayMs) {
+      scheduled.add(task);
+      delays.add(delayMs);
+    }
+
+    // Answers the last request with records up to the given index.
+    void respond(long term, long fromIndex, long toIndex) {
+      GetChangesResponsePB.Builder resp = GetChangesResponsePB.newBuilder();
+      for (long i = fromIndex + 1; i <= toIndex; i++) {
+        resp.addRecords(CDCRecordPB.newBuilder()
+            .setTime(i)
+            .setOperation(CDCRecordPB.OperationType.WRITE));
+      }
+      resp.setCheckpoint(CDCCheckpointPB.newBuilder().setOpId(
+          Opid.OpIdPB.newBuilder().setTerm(term).setIndex(toIndex)));
+      pending.get(pending.size() - 1).callback(new GetChangesResponse(0, "ts", resp.build()));
+    }
+
+    void fail(Exception e) {
+      pending.get(pending.size() - 1).callback(e);
+    }
+
+    void runScheduled() {
+      List<Runnable> tasks = new ArrayList<>(scheduled);
+      scheduled.clear();
+      for (Runnable task : tasks) {
+        task.run();
+      }
+    }
+  }
+
+  private static Opid.OpIdPB opId(long term, long index) {
+    return Opid.OpIdPB.newBuilder().setTerm(term).setIndex(index).build();
+  }
+
+  @Test
+  public void testFetchesAhead() throws Exception {
+    FakeSource source = new FakeSource();
+    CDCStreamReader reader = new CDCStreamReader(source, "tablet", 0, 0, 2, Long.MAX_VALUE);
+    reader.start();
+    assertEquals(1, source.requests.size());
+
+    // Each response is followed by the request from its checkpoint, before any consumption.
+    source.respond(1, 0, 3);
+    assertEquals(2, source.requests.size());
+    assertEquals(opId(1, 3), source.requests.get(1));
+    source.respond(1, 3, 5);
+    // Two responses are buffered: fetching pauses.
+    assertEquals(2, source.requests.size());
+    assertEquals(2, reader.getNumBufferedResponses());
+
+    // Starting on a response resumes fetching.
+    assertTrue(reader.hasNext());
+    assertEquals(3, source.requests.size());
+    assertEquals(opId(1, 5), source.requests.get(2));
+    for (int i = 0; i < 3; i++) {
+      reader.next();
+    }
+    assertEquals(opId(1, 3), reader.getCheckpoint());
+    reader.next();
+    reader.next();
+    assertEquals(opId(1, 5), reader.getCheckpoint());
+    assertNull(reader.poll(10, TimeUnit.MILLISECONDS));
+
+    reader.close();
+    assertFalse(reader.hasNext());
+  }
+
+  @Test
+  public void testBacksOff() throws Exception {
+    FakeSource source = new FakeSource();
+    CDCStreamReader reader = new CDCStreamReader(source, "tablet", 1, 7, 2, Long.MAX_VALUE);
+    reader.start();
+    assertEquals(opId(1, 7), source.requests.get(0));
+
+    // No new changes: the next requests are delayed more and more.
+    source.respond(1, 7, 7);
+    source.runScheduled();
+    source.respond(1, 7, 7);
+    assertEquals(CDCStreamReader.MIN_IDLE_DELAY_MS, (long) source.delays.get(0));
+    assertEquals(2 * CDCStreamReader.MIN_IDLE_DELAY_MS, (long) source.delays.get(1));
+    source.runScheduled();
+
+    // Failed requests are retried from the same checkpoint, with an exponential backoff.
+    source.delays.clear();
+    for (int i = 0; i < CDCStreamReader.MAX_RETRIES; i++) {
+      source.fail(new NonRecoverableException("timed out"));
+      source.runScheduled();
+    }
+    assertEquals(CDCStreamReader.MIN_RETRY_DELAY_MS, (long) source.delays.get(0));
+    assertEquals(2 * CDCStreamReader.MIN_RETRY_DELAY_MS, (long) source.delays.get(1));
+    assertEquals(CDCStreamReader.MAX_RETRY_DELAY_MS,
+                 (long) source.delays.get(CDCStreamReader.MAX_RETRIES - 1));
+    assertEquals(opId(1, 7), source.requests.get(source.requests.size() - 1));
+
+    // A success resets the retries, which eventually run out.
+    source.respond(1, 7, 8);
+    for (int i = 0; i <= CDCStreamReader.MAX_RETRIES; i++) {
+      source.fail(new NonRecoverableException("timed out"));
+      source.runScheduled();
+    }
+    assertTrue(source.scheduled.isEmpty());
+
+    // The records received are consumed before the failure is reported.
+    reader.next();
+    assertEquals(opId(1, 8), reader.getCheckpoint());
+    try {
+      reader.hasNext();
+      fail("Expected the reader to fail");
+    } catch (IllegalStateException e) {
+      assertTrue(e.getCause() instanceof NonRecoverableException);
+    }
+  }
+
+  @Test
+  public void testServerErrorsAreNotRetried() throws Exception {
+    FakeSource source = new FakeSource();
+    CDCStreamReader reader = new CDCStreamReader(source, "tablet", 0, 0, 1, Long.MAX_VALUE);
+    reader.start();
+    source.fail(new CDCErrorException("ts", CDCErrorPB.newBuilder()
+        .setCode(CDCErrorPB.Code.CHECKPOINT_TOO_OLD).build()));
+    assertTrue(source.scheduled.isEmpty());
+    try {
+      reader.poll(1, TimeUnit.SECONDS);
+      fail("Expected the reader to fail");
+    } catch (IllegalStateException e) {
+      assertTrue(e.getCause() instanceof CDCErrorException);
+    }
+  }
+}
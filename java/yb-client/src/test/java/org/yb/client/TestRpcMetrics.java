@@ -0,0 +1,97 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+package org.yb.client;
+
+import static org.yb.AssertionWrappers.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.yb.YBTestRunner;
+
+@RunWith(value=YBTestRunner.class)
+public class TestRpcMetrics {
+
+  @Test
+  public void testBuckets() {
+    assertEquals(0, RpcMetrics.bucketFor(0));
+    assertEquals(0, RpcMetrics.bucketFor(100));
+    assertEquals(1, RpcMetrics.bucketFor(101));
+    assertEquals(3, RpcMetrics.bucketFor(1000));
+    int last = RpcMetrics.LATENCY_BUCKET_BOUNDS_US.length;
+    assertEquals(last, RpcMetrics.bucketFor(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void testRecordAndExport() {
+    RpcMetrics metrics = new RpcMetrics();
+    RpcMetrics.MethodMetrics write = metrics.forMethod("yb.tserver.TabletServerService", "Write");
+    write.recordAttempt(100);
+    write.recordAttempt(50);
+    write.recordResponse(2000000, 30);  // 2ms
+    assertSame(write, metrics.forMethod("yb.tserver.TabletServerService", "Write"));
+    assertNull(metrics.getMethodMetrics("yb.tserver.TabletServerService", "Read"));
+
+    assertEquals(2, write.getAttempts());
+    assertEquals(1, write.getResponses());
+    assertEquals(150, write.getBytesSent());
+    assertEquals(30, write.getBytesReceived());
+    assertEquals(2000, write.getLatencySumMicros());
+    assertEquals(1, write.getLatencyBuckets()[RpcMetrics.bucketFor(2000)]);
+
+    String text = metrics.toPrometheusText();
+    assertTrue(text.contains("# TYPE yb_client_rpc_latency_microseconds histogram"));
+    assertTrue(text.contains(
+        "yb_client_rpc_attempts_total{service=\"yb.tserver.TabletServerService\"," +
+        "method=\"Write\"} 2"));
+    assertTrue(text.contains(
+        "yb_client_rpc_latency_microseconds_bucket{service=\"yb.tserver.TabletServerService\"," +
+        "method=\"Write\",le=\"+Inf\"} 1"));
+  }
+
+  @Test
+  public void testConcurrentUpdates() throws Exception {
+    final RpcMetrics metrics = new RpcMetrics();
+    final int numThreads = 8;
+    final int numOps = 10000;
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < numThreads; t++) {
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < numOps; i++) {
+          RpcMetrics.MethodMetrics m = metrics.forMethod("svc", "m" + (i % 4));
+          m.recordAttempt(1);
+          m.recordResponse(i * 1000L, 1);
+        }
+      }));
+    }
+    for (Thread t : threads) {
+      t.start();
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+    long attempts = 0;
+    long bucketed = 0;
+    for (RpcMetrics.MethodMetrics m : metrics.getAllMethodMetrics()) {
+      attempts += m.getAttempts();
+      for (long count : m.getLatencyBuckets()) {
+        bucketed += count;
+      }
+    }
+    assertEquals(4, metrics.getAllMethodMetrics().size());
+    assertEquals(numThreads * numOps, attempts);
+    assertEquals(numThreads * numOps, bucketed);
+  }
+}
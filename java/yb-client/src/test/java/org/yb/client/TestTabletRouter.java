@@ -0,0 +1,114 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.client;
+
+import static org.yb.AssertionWrappers.assertEquals;
+import static org.yb.AssertionWrappers.assertFalse;
+import static org.yb.AssertionWrappers.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.protobuf.ByteString;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.yb.Common.PartitionPB;
+import org.yb.YBTestRunner;
+import org.yb.master.Master.TabletLocationsPB;
+
+@RunWith(value=YBTestRunner.class)
+public class TestTabletRouter {
+
+  // The tablets of a hash partitioned table, as created by the master.
+  private static List<LocatedTablet> hashTablets(int numTablets) {
+    List<LocatedTablet> tablets = new ArrayList<>();
+    for (int i = 0; i < numTablets; i++) {
+      int start = i * 0x10000 / numTablets;
+      int end = (i + 1) * 0x10000 / numTablets;
+      PartitionPB.Builder partition = PartitionPB.newBuilder()
+          .setPartitionKeyStart(ByteString.copyFrom(
+              i == 0 ? new byte[0] : PartitionSchema.encodeMultiColumnHashValue(start)))
+          .setPartitionKeyEnd(ByteString.copyFrom(
+              i == numTablets - 1 ? new byte[0] : PartitionSchema.encodeMultiColumnHashValue(end)));
+      tablets.add(new LocatedTablet(TabletLocationsPB.newBuilder()
+          .setTabletId(ByteString.copyFromUtf8("tablet-" + i))
+          .setPartition(partition)
+          .setStale(false)
+          .build()));
+    }
+    // The router does not depend on the order of the locations.
+    List<LocatedTablet> shuffled = new ArrayList<>(tablets.subList(1, numTablets));
+    shuffled.add(tablets.get(0));
+    return shuffled;
+  }
+
+  @Test
+  public void testMultiColumnHashValueEncoding() {
+    for (int hashCode : new int[] { 0, 1, 0x7fff, 0x8000, 0xfffe, 0xffff }) {
+      byte[] key = PartitionSchema.encodeMultiColumnHashValue(hashCode);
+      assertEquals(2, key.length);
+      assertEquals(hashCode, PartitionSchema.decodeMultiColumnHashValue(key));
+    }
+    assertEquals(0, PartitionSchema.decodeMultiColumnHashValue(new byte[0]));
+  }
+
+  @Test
+  public void testHashCodes() {
+    PartitionSchema.HashColumnsEncoder encoder = new PartitionSchema.HashColumnsEncoder();
+    Set<Integer> hashCodes = new HashSet<>();
+    // Values of all lengths around the 24 byte blocks of the hash.
+    StringBuilder value = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      int hashCode = encoder.reset().appendString(value.toString()).getHashCode();
+      assertTrue(hashCode >= 0 && hashCode <= 0xffff);
+      assertEquals(hashCode, encoder.reset().appendString(value.toString()).getHashCode());
+      hashCodes.add(hashCode);
+      value.append((char) ('a' + i % 26));
+    }
+    // Distinct values spread over the hash space.
+    assertTrue(hashCodes.size() > 95);
+
+    // Integers are hashed in big endian order.
+    assertEquals(encoder.reset().appendInt32(0x01020304).getHashCode(),
+                 encoder.reset().appendBinary(new byte[] { 1, 2, 3, 4 }).getHashCode());
+    assertFalse(encoder.reset().appendInt32(1).getHashCode() ==
+                encoder.reset().appendInt64(1).getHashCode());
+  }
+
+  @Test
+  public void testRouting() {
+    TabletRouter router = new TabletRouter(hashTablets(4));
+    assertEquals(4, router.getNumTablets());
+    assertEquals(0, router.getTabletIndexForHashCode(0));
+    assertEquals(0, router.getTabletIndexForHashCode(0x3fff));
+    assertEquals(1, router.getTabletIndexForHashCode(0x4000));
+    assertEquals(2, router.getTabletIndexForHashCode(0x8000));
+    assertEquals(3, router.getTabletIndexForHashCode(0xffff));
+    assertEquals("tablet-2", new String(router.getTablet(2).getTabletId()));
+    assertEquals(0, router.getTabletIndex(new byte[0]));
+
+    // Every hash code lands in the tablet whose partition holds it.
+    router = new TabletRouter(hashTablets(7));
+    for (int hashCode = 0; hashCode <= 0xffff; hashCode += 13) {
+      Partition partition = router.getTablet(router.getTabletIndexForHashCode(hashCode))
+          .getPartition();
+      byte[] key = PartitionSchema.encodeMultiColumnHashValue(hashCode);
+      assertTrue(Bytes.memcmp(partition.getPartitionKeyStart(), key) <= 0);
+      assertTrue(partition.isEndPartition() ||
+                 Bytes.memcmp(key, partition.getPartitionKeyEnd()) < 0);
+    }
+  }
+}
@@ -15,30 +15,29 @@ package org.yb.minicluster;
 
 import com.google.common.base.Preconditions;
 import com.google.common.net.HostAndPort;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yb.BaseYBTest;
 import org.yb.client.TestUtils;
+import org.yb.perf.PerfBaseline;
+import org.yb.perf.PerfResult;
+import org.yb.perf.PerfRunner;
 import org.yb.util.SanitizerUtil;
 import org.yb.util.Timeouts;
 
-import java.net.MalformedURLException;
-import java.net.URL;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.Arrays;
 
+import static org.yb.AssertionWrappers.assertTrue;
 import static org.yb.AssertionWrappers.fail;
 
 /**
@@ -314,57 +313,73 @@ public class BaseMiniClusterTest extends BaseYBTest {
         miniCluster.getClient().openTableByUUID(tableUUID));
   }
 
+  /**
+   * @return a scraper of the given metrics of the tablets of a table on all tservers.
+   */
+  protected MetricsScraper tabletMetricsScraper(String tableUUID,
+                                                String... metricNames) throws Exception {
+    return new MetricsScraper(miniCluster.getTabletServers().values())
+        .entityType("tablet")
+        .entityIds(getTabletIds(tableUUID))
+        .metrics(metricNames);
+  }
+
   protected int getTableCounterMetricByTableUUID(String tableUUID,
                                                  String metricName) throws Exception {
-    int value = 0;
-    Set<String> tabletIds = getTabletIds(tableUUID);
-    for (MiniYBDaemon ts : miniCluster.getTabletServers().values()) {
-      try {
-        URL url = new URL(String.format("http://%s:%d/metrics",
-            ts.getLocalhostIP(),
-            ts.getWebPort()));
-        Scanner scanner = new Scanner(url.openConnection().getInputStream());
-        JsonParser parser = new JsonParser();
-        JsonElement tree = parser.parse(scanner.useDelimiter("\\A").next());
-        for (JsonElement elem : tree.getAsJsonArray()) {
-          JsonObject obj = elem.getAsJsonObject();
-          if (obj.get("type").getAsString().equals("tablet") &&
-              tabletIds.contains(obj.get("id").getAsString())) {
-            value += new Metrics(obj).getCounter(metricName).value;
-          }
-        }
-      } catch (MalformedURLException e) {
-        throw new InternalError(e.getMessage());
-      }
-    }
-    return value;
+    return Math.toIntExact(tabletMetricsScraper(tableUUID, metricName).scrape().sum(metricName));
   }
 
   protected RocksDBMetrics getRocksDBMetricByTableUUID(String tableUUID) throws Exception {
-    Set<String> tabletIds = getTabletIds(tableUUID);
+    final String seekMetric = "rocksdb_number_db_seek";
+    final String nextMetric = "rocksdb_number_db_next";
+    MetricsSnapshot snapshot = tabletMetricsScraper(tableUUID, seekMetric, nextMetric).scrape();
     RocksDBMetrics metrics = new RocksDBMetrics();
-    for (MiniYBDaemon ts : miniCluster.getTabletServers().values()) {
-      try {
-        URL url = new URL(String.format("http://%s:%d/metrics",
-            ts.getLocalhostIP(),
-            ts.getWebPort()));
-        Scanner scanner = new Scanner(url.openConnection().getInputStream());
-        JsonParser parser = new JsonParser();
-        JsonElement tree = parser.parse(scanner.useDelimiter("\\A").next());
-        for (JsonElement elem : tree.getAsJsonArray()) {
-          JsonObject obj = elem.getAsJsonObject();
-          if (obj.get("type").getAsString().equals("tablet") &&
-              tabletIds.contains(obj.get("id").getAsString())) {
-            metrics.add(new RocksDBMetrics(new Metrics(obj)));
-          }
-        }
-      } catch (MalformedURLException e) {
-        throw new InternalError(e.getMessage());
-      }
-    }
+    metrics.seekCount = Math.toIntExact(snapshot.sum(seekMetric));
+    metrics.nextCount = Math.toIntExact(snapshot.sum(nextMetric));
     return metrics;
   }
 
+  // Counter source over the read/write RPC counts of all tservers, for PerfRunner.
+  protected PerfRunner.CounterSource ioCounterSource() {
+    return () -> {
+      IOMetrics total = new IOMetrics();
+      for (MiniYBDaemon ts : miniCluster.getTabletServers().values()) {
+        total.add(createIOMetrics(ts));
+      }
+      Map<String, Long> counters = new HashMap<>();
+      counters.put("local_read", (long) total.localReadCount);
+      counters.put("local_write", (long) total.localWriteCount);
+      counters.put("remote_read", (long) total.remoteReadCount);
+      counters.put("remote_write", (long) total.remoteWriteCount);
+      return counters;
+    };
+  }
+
+  // Counter source over the RocksDB seek/next counts of the tablets of a table, for PerfRunner.
+  protected PerfRunner.CounterSource rocksDBCounterSource(String tableUUID) {
+    return () -> {
+      RocksDBMetrics metrics = getRocksDBMetricByTableUUID(tableUUID);
+      Map<String, Long> counters = new HashMap<>();
+      counters.put("seek", (long) metrics.seekCount);
+      counters.put("next", (long) metrics.nextCount);
+      return counters;
+    };
+  }
+
+  /**
+   * Writes the given results next to the surefire report of the current test and compares them
+   * with the baseline checked in for this test class, see {@link PerfBaseline}. Latencies are
+   * only compared in release builds.
+   */
+  protected void assertPerfResults(List<PerfResult> results) throws Exception {
+    PerfBaseline.writeResults(results, new File(TestUtils.getTestReportFilePrefix() + "perf.json"));
+    PerfBaseline baseline = PerfBaseline.load(getClass());
+    List<String> regressions = new ArrayList<>();
+    for (PerfResult result : results) {
+      regressions.addAll(baseline.findRegressions(result, TestUtils.isReleaseBuild()));
+    }
+    assertTrue("Performance regressions: " + regressions, regressions.isEmpty());
+  }
 
   @AfterClass
   public static void tearDownAfterClass() throws Exception {
@@ -16,12 +16,21 @@ package org.yb.minicluster;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 public class ExternalDaemonLogErrorListener implements LogErrorListener {
 
   private static final Logger LOG = LoggerFactory.getLogger(ExternalDaemonLogErrorListener.class);
 
-  private final Object serverStartEventMonitor = new Object();
-  private boolean sawServerStarting = false;
+  /**
+   * Completed when the "RPC server started" line shows up in the log, or completed exceptionally
+   * if the process exits before that.
+   */
+  private final CompletableFuture<Void> serverStarted = new CompletableFuture<>();
+  private volatile long serverStartedAtMs = -1;
   private LogPrinter logPrinter;
 
   // These messages in the log will cause a test failure in the end.
@@ -43,15 +52,11 @@ public class ExternalDaemonLogErrorListener implements LogErrorListener {
 
   @Override
   public void handleLine(String line) {
-    synchronized (serverStartEventMonitor) {
-      if (sawServerStarting)
-        return;
-    }
+    if (serverStarted.isDone() && !serverStarted.isCompletedExceptionally())
+      return;
     if (line.contains("RPC server started.")) {
-      synchronized (serverStartEventMonitor) {
-        sawServerStarting = true;
-        serverStartEventMonitor.notifyAll();
-      }
+      serverStartedAtMs = System.currentTimeMillis();
+      serverStarted.complete(null);
     }
     if (errorLogLine == null) {
       for (String pattern : ERROR_LOG_PATTERNS) {
@@ -72,21 +77,42 @@ public class ExternalDaemonLogErrorListener implements LogErrorListener {
     }
   }
 
+  /**
+   * @return a future that completes once the server has logged that its RPC server started, and
+   *         fails if the process exited before that
+   */
+  public CompletableFuture<Void> getServerStartedFuture() {
+    return serverStarted;
+  }
+
+  /**
+   * @return the wall clock time at which the server start message was seen, or -1 if it was not
+   */
+  public long getServerStartedAtMs() {
+    return serverStartedAtMs;
+  }
+
+  /**
+   * Called when the monitored process exits, so that anyone waiting for the server to start is
+   * woken up right away instead of waiting for the deadline.
+   */
+  public void handleProcessExit(int exitCode) {
+    serverStarted.completeExceptionally(new RuntimeException(
+        "Process exited with code " + exitCode + " before a 'server starting' message appeared. " +
+        "Log: " + processDescription));
+  }
+
   public void waitForServerStartingLogLine(long deadlineMs) throws InterruptedException {
     long timeoutMs = deadlineMs - System.currentTimeMillis();
-    synchronized (serverStartEventMonitor) {
-      long timeLeftMs = deadlineMs - System.currentTimeMillis();
-      while (timeLeftMs > 0 && !sawServerStarting) {
-        serverStartEventMonitor.wait(timeLeftMs);
-        timeLeftMs = deadlineMs - System.currentTimeMillis();
-      }
-      if (!sawServerStarting) {
-        throw new RuntimeException(
-            "Timed out waiting for a 'server starting' message to appear. " +
-            "Waited for " + timeoutMs + ". Log: " + processDescription);
-      }
+    try {
+      serverStarted.get(Math.max(timeoutMs, 0), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException ex) {
+      throw new RuntimeException(
+          "Timed out waiting for a 'server starting' message to appear. " +
+          "Waited for " + timeoutMs + ". Log: " + processDescription);
+    } catch (ExecutionException ex) {
+      throw (RuntimeException) ex.getCause();
     }
-
   }
 
   @Override
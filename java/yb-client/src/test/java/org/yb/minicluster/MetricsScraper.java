@@ -0,0 +1,258 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.minicluster;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Scrapes selected metrics from the {@code /metrics} endpoint of a set of daemons.
+ * <p>
+ * Unlike {@link Metrics}, which builds a JSON tree of the whole response, the response is read
+ * with a streaming {@link JsonReader} and only the requested metrics of the requested entities
+ * are kept, as longs. All the daemons are scraped in parallel, so taking a snapshot costs about
+ * one HTTP round trip regardless of the cluster size. Typical usage:
+ * <pre>
+ *   MetricsScraper scraper = new MetricsScraper(miniCluster.getTabletServers().values())
+ *       .entityType("tablet")
+ *       .entityIds(tabletIds)
+ *       .metrics("rocksdb_write_self");
+ *   MetricsSnapshot before = scraper.scrape();
+ *   ...
+ *   long writes = scraper.scrape().delta(before).sum("rocksdb_write_self");
+ * </pre>
+ */
+public class MetricsScraper {
+
+  private static final int CONNECT_TIMEOUT_MS = 10000;
+  private static final int READ_TIMEOUT_MS = 60000;
+
+  private static final ExecutorService SCRAPE_EXECUTOR = Executors.newCachedThreadPool(
+      new ThreadFactoryBuilder()
+          .setNameFormat("metrics-scraper-%d")
+          .setDaemon(true)
+          .build());
+
+  private final List<MiniYBDaemon> daemons;
+  private String entityType;
+  private Set<String> entityIds;
+  private Set<String> metricNames;
+
+  public MetricsScraper(Collection<MiniYBDaemon> daemons) {
+    this.daemons = new ArrayList<>(daemons);
+  }
+
+  /** Scrapes all the masters and tablet servers of the given cluster. */
+  public static MetricsScraper forCluster(MiniYBCluster cluster) {
+    List<MiniYBDaemon> daemons = new ArrayList<>(cluster.getMasters().values());
+    daemons.addAll(cluster.getTabletServers().values());
+    return new MetricsScraper(daemons);
+  }
+
+  /** Only keep entities of this type ("server", "tablet", "table"...). */
+  public MetricsScraper entityType(String entityType) {
+    this.entityType = entityType;
+    return this;
+  }
+
+  /** Only keep entities with one of these ids. */
+  public MetricsScraper entityIds(Collection<String> entityIds) {
+    this.entityIds = new HashSet<>(entityIds);
+    return this;
+  }
+
+  /** Only keep these metrics. Without this call, all the metrics are kept. */
+  public MetricsScraper metrics(String... metricNames) {
+    this.metricNames = new HashSet<>(Arrays.asList(metricNames));
+    return this;
+  }
+
+  /** Scrapes all the daemons in parallel and waits for the result. */
+  public MetricsSnapshot scrape() throws Exception {
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    Map<MetricsSnapshot.Key, Long> values = new HashMap<>();
+    Map<MetricsSnapshot.Key, Long> histogramSums = new HashMap<>();
+    for (MiniYBDaemon daemon : daemons) {
+      futures.add(CompletableFuture.runAsync(() -> {
+        Map<MetricsSnapshot.Key, Long> daemonValues = new HashMap<>();
+        Map<MetricsSnapshot.Key, Long> daemonSums = new HashMap<>();
+        try {
+          scrape(daemon, daemonValues, daemonSums);
+        } catch (IOException e) {
+          throw new RuntimeException("Failed to scrape metrics of " + daemon, e);
+        }
+        synchronized (values) {
+          values.putAll(daemonValues);
+          histogramSums.putAll(daemonSums);
+        }
+      }, SCRAPE_EXECUTOR));
+    }
+    try {
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException && cause.getCause() instanceof IOException) {
+        throw (IOException) cause.getCause();
+      }
+      throw e;
+    }
+    return new MetricsSnapshot(values, histogramSums);
+  }
+
+  private void scrape(MiniYBDaemon daemon,
+                      Map<MetricsSnapshot.Key, Long> values,
+                      Map<MetricsSnapshot.Key, Long> histogramSums) throws IOException {
+    final String server = daemon.getLocalhostIP() + ":" + daemon.getWebPort();
+    URL url = new URL("http://" + server + "/metrics");
+    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+    connection.setReadTimeout(READ_TIMEOUT_MS);
+    try (InputStream in = connection.getInputStream()) {
+      parse(server, in, values, histogramSums);
+    } finally {
+      connection.disconnect();
+    }
+  }
+
+  /**
+   * Parses a {@code /metrics} response, which is an array of entities of the form
+   * {@code {"type": ..., "id": ..., "attributes": {...}, "metrics": [{"name": ..., ...}]}}.
+   */
+  void parse(String server, InputStream in,
+             Map<MetricsSnapshot.Key, Long> values,
+             Map<MetricsSnapshot.Key, Long> histogramSums) throws IOException {
+    JsonReader reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    reader.beginArray();
+    while (reader.hasNext()) {
+      parseEntity(server, reader, values, histogramSums);
+    }
+    reader.endArray();
+  }
+
+  private void parseEntity(String server, JsonReader reader,
+                           Map<MetricsSnapshot.Key, Long> values,
+                           Map<MetricsSnapshot.Key, Long> histogramSums) throws IOException {
+    String type = null;
+    String id = null;
+    // Metrics of interest, kept until the type and id of the entity are known. The server
+    // writes them before the metrics, in which case non-matching entities are skipped entirely.
+    List<ParsedMetric> metrics = new ArrayList<>();
+    reader.beginObject();
+    while (reader.hasNext()) {
+      switch (reader.nextName()) {
+        case "type":
+          type = reader.nextString();
+          break;
+        case "id":
+          id = reader.nextString();
+          break;
+        case "metrics":
+          if ((type != null && !matchesType(type)) || (id != null && !matchesId(id))) {
+            reader.skipValue();
+          } else {
+            parseMetrics(reader, metrics);
+          }
+          break;
+        default:
+          reader.skipValue();
+      }
+    }
+    reader.endObject();
+
+    if (type == null || id == null || !matchesType(type) || !matchesId(id)) {
+      return;
+    }
+    for (ParsedMetric metric : metrics) {
+      MetricsSnapshot.Key key = new MetricsSnapshot.Key(server, type, id, metric.name);
+      values.put(key, metric.value);
+      if (metric.histogramSum != null) {
+        histogramSums.put(key, metric.histogramSum);
+      }
+    }
+  }
+
+  private boolean matchesType(String type) {
+    return entityType == null || entityType.equals(type);
+  }
+
+  private boolean matchesId(String id) {
+    return entityIds == null || entityIds.contains(id);
+  }
+
+  private static final class ParsedMetric {
+    String name;
+    long value;
+    Long histogramSum;
+  }
+
+  private void parseMetrics(JsonReader reader, List<ParsedMetric> metrics) throws IOException {
+    reader.beginArray();
+    while (reader.hasNext()) {
+      ParsedMetric metric = new ParsedMetric();
+      boolean hasValue = false;
+      reader.beginObject();
+      while (reader.hasNext()) {
+        String field = reader.nextName();
+        if (field.equals("name")) {
+          metric.name = reader.nextString();
+        } else if ((field.equals("value") || field.equals("total_count")) &&
+                   reader.peek() == JsonToken.NUMBER) {
+          metric.value = readLong(reader);
+          hasValue = true;
+        } else if (field.equals("total_sum") && reader.peek() == JsonToken.NUMBER) {
+          metric.histogramSum = readLong(reader);
+        } else {
+          reader.skipValue();
+        }
+      }
+      reader.endObject();
+      if (hasValue && metric.name != null &&
+          (metricNames == null || metricNames.contains(metric.name))) {
+        metrics.add(metric);
+      }
+    }
+    reader.endArray();
+  }
+
+  // Reads an integral or floating point number as a long, without going through double for
+  // integral values so that large counters are exact.
+  private static long readLong(JsonReader reader) throws IOException {
+    String literal = reader.nextString();
+    try {
+      return Long.parseLong(literal);
+    } catch (NumberFormatException e) {
+      return (long) Double.parseDouble(literal);
+    }
+  }
+}
@@ -0,0 +1,166 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.minicluster;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Values of a set of metrics scraped by {@link MetricsScraper} from a set of servers, as
+ * primitive longs so that busy counters do not overflow.
+ * <p>
+ * Counters and gauges are read from their {@code value} field, histograms from their
+ * {@code total_count} field; {@link #sumOfHistogramSums} gives access to {@code total_sum}.
+ * Snapshots are immutable, {@link #delta} returns a new snapshot with the increase of each value
+ * since an earlier one.
+ */
+public class MetricsSnapshot {
+
+  /** Identifies one metric of one entity (server, tablet, table...) of one server. */
+  static final class Key {
+    final String server;
+    final String entityType;
+    final String entityId;
+    final String metric;
+
+    Key(String server, String entityType, String entityId, String metric) {
+      this.server = server;
+      this.entityType = entityType;
+      this.entityId = entityId;
+      this.metric = metric;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return server.equals(other.server) && entityType.equals(other.entityType) &&
+          entityId.equals(other.entityId) && metric.equals(other.metric);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = server.hashCode();
+      result = 31 * result + entityType.hashCode();
+      result = 31 * result + entityId.hashCode();
+      return 31 * result + metric.hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return server + "/" + entityType + "/" + entityId + "/" + metric;
+    }
+  }
+
+  private final Map<Key, Long> values;
+  private final Map<Key, Long> histogramSums;
+
+  MetricsSnapshot(Map<Key, Long> values, Map<Key, Long> histogramSums) {
+    this.values = values;
+    this.histogramSums = histogramSums;
+  }
+
+  /**
+   * @return the value of a metric of an entity of a server, or 0 if it was not found
+   * @param server  the web server address of the daemon, as {@code host:port}
+   */
+  public long get(String server, String entityType, String entityId, String metric) {
+    Long value = values.get(new Key(server, entityType, entityId, metric));
+    return value == null ? 0 : value;
+  }
+
+  /** @return the sum of a metric over all the scraped servers and entities. */
+  public long sum(String metric) {
+    return sum(null, metric);
+  }
+
+  /**
+   * @return the sum of a metric over all the scraped servers and the entities of the given type
+   *         (all entities if null)
+   */
+  public long sum(String entityType, String metric) {
+    return sum(values, entityType, metric);
+  }
+
+  /** @return the sum of the {@code total_sum} field of a histogram over all entities. */
+  public long sumOfHistogramSums(String metric) {
+    return sum(histogramSums, null, metric);
+  }
+
+  private static long sum(Map<Key, Long> map, String entityType, String metric) {
+    long result = 0;
+    for (Map.Entry<Key, Long> entry : map.entrySet()) {
+      Key key = entry.getKey();
+      if (key.metric.equals(metric) &&
+          (entityType == null || key.entityType.equals(entityType))) {
+        result += entry.getValue();
+      }
+    }
+    return result;
+  }
+
+  /** @return the sum of a metric over all entities of each server, keyed by server address. */
+  public Map<String, Long> sumByServer(String metric) {
+    Map<String, Long> result = new TreeMap<>();
+    for (Map.Entry<Key, Long> entry : values.entrySet()) {
+      if (entry.getKey().metric.equals(metric)) {
+        result.merge(entry.getKey().server, entry.getValue(), Long::sum);
+      }
+    }
+    return result;
+  }
+
+  /** @return the addresses of the servers that contributed values to this snapshot. */
+  public Set<String> getServers() {
+    Set<String> result = new TreeSet<>();
+    for (Key key : values.keySet()) {
+      result.add(key.server);
+    }
+    return result;
+  }
+
+  /**
+   * @return a snapshot holding, for every value of this snapshot, its increase since
+   *         {@code earlier}. Values missing from {@code earlier} (e.g. new tablets) are
+   *         considered to have started at 0.
+   */
+  public MetricsSnapshot delta(MetricsSnapshot earlier) {
+    return new MetricsSnapshot(subtract(values, earlier.values),
+                               subtract(histogramSums, earlier.histogramSums));
+  }
+
+  private static Map<Key, Long> subtract(Map<Key, Long> later, Map<Key, Long> earlier) {
+    Map<Key, Long> result = new HashMap<>(later.size() * 2);
+    for (Map.Entry<Key, Long> entry : later.entrySet()) {
+      Long initial = earlier.get(entry.getKey());
+      result.put(entry.getKey(), entry.getValue() - (initial == null ? 0 : initial));
+    }
+    return Collections.unmodifiableMap(result);
+  }
+
+  @Override
+  public String toString() {
+    Map<String, Long> sorted = new TreeMap<>();
+    for (Map.Entry<Key, Long> entry : values.entrySet()) {
+      sorted.put(entry.getKey().toString(), entry.getValue());
+    }
+    return sorted.toString();
+  }
+}
@@ -93,6 +93,17 @@ public class MiniYBCluster implements AutoCloseable {
 
   private static final int YB_CLIENT_ADMIN_OPERATION_TIMEOUT_SEC = 120;
 
+  // How long to wait for all daemons of a cluster to log that their RPC servers have started.
+  private static final long DAEMON_STARTUP_TIMEOUT_MS = 120000;
+
+  // How long a newly launched process has to stay alive for us to consider it launched, when we
+  // are not waiting for its RPC server to start.
+  private static final long PROCESS_LAUNCH_CHECK_MS = 300;
+
+  // Backoff bounds used when polling the master for registered tablet servers.
+  private static final long MIN_TSERVER_POLL_INTERVAL_MS = 10;
+  private static final long MAX_TSERVER_POLL_INTERVAL_MS = 200;
+
   // Timeout for waiting process to terminate.
   private static final long PROCESS_TERMINATE_TIMEOUT_MS =
       (long) (180 * 1000 * SanitizerUtil.getTimeoutMultiplier());
@@ -144,6 +155,10 @@ public class MiniYBCluster implements AutoCloseable {
 
   private String certFile = null;
 
+  // Wall clock time it took the last start or restart of the whole cluster to get all daemons to
+  // the point where their RPC servers have started.
+  private long lastStartupTimeMs = -1;
+
   /**
    * Not to be invoked directly, but through a {@link MiniYBClusterBuilder}.
    */
@@ -255,11 +270,15 @@ public class MiniYBCluster implements AutoCloseable {
    * @return true if there are at least as many TS as expected, otherwise false
    */
   public boolean waitForTabletServers(int expected) throws Exception {
-    int count = 0;
     Stopwatch stopwatch = Stopwatch.createStarted();
+    long pollIntervalMs = MIN_TSERVER_POLL_INTERVAL_MS;
+    int count = syncClient.listTabletServers().getTabletServersCount();
     while (count < expected &&
         stopwatch.elapsed(MILLISECONDS) < clusterParameters.defaultTimeoutMs) {
-      Thread.sleep(200);
+      // Tablet servers register with the master on their first heartbeat, so start polling quickly
+      // and back off towards the heartbeat interval.
+      Thread.sleep(pollIntervalMs);
+      pollIntervalMs = Math.min(pollIntervalMs * 2, MAX_TSERVER_POLL_INTERVAL_MS);
       count = syncClient.listTabletServers().getTabletServersCount();
     }
     boolean success = count >= expected;
@@ -431,11 +450,46 @@ public class MiniYBCluster implements AutoCloseable {
       LOG.info("Environment variable " + envVarName + ": " +
                (envVarValue == null ? "not set" : envVarValue));
     }
+    final Stopwatch stopwatch = Stopwatch.createStarted();
+    // Launch all the masters and tablet servers without waiting for any of them in between. Tablet
+    // servers keep retrying their heartbeats until the masters are up, so there is no need to wait
+    // for the masters first.
     LOG.info("Starting {} masters...", numMasters);
     startMasters(numMasters, baseDirPath, masterArgs);
 
     LOG.info("Starting {} tablet servers...", numTservers);
     startTabletServers(numTservers, perTServerArgs, commonTServerArgs, tserverEnvVars);
+
+    waitForDaemonsToStart(getAllDaemons());
+    lastStartupTimeMs = stopwatch.elapsed(MILLISECONDS);
+    LOG.info("Started {} masters and {} tablet servers in {} ms",
+        numMasters, numTservers, lastStartupTimeMs);
+  }
+
+  private List<MiniYBDaemon> getAllDaemons() {
+    List<MiniYBDaemon> daemons = new ArrayList<>(masterProcesses.values());
+    daemons.addAll(tserverProcesses.values());
+    return daemons;
+  }
+
+  /**
+   * Waits for all the given daemons to log that their RPC servers have started. The daemons start
+   * concurrently, so this takes as long as the slowest of them. Fails right away if any of the
+   * processes exits in the meantime.
+   */
+  private void waitForDaemonsToStart(Collection<MiniYBDaemon> daemons) throws Exception {
+    final long deadlineMs = System.currentTimeMillis() + DAEMON_STARTUP_TIMEOUT_MS;
+    for (MiniYBDaemon daemon : daemons) {
+      daemon.waitForServerStartLogMessage(deadlineMs);
+    }
+  }
+
+  /**
+   * @return the time in milliseconds it took the last start or restart of the whole cluster to get
+   *         the RPC servers of all the daemons started, or -1 if the cluster was never started
+   */
+  public long getLastStartupTimeMs() {
+    return lastStartupTimeMs;
   }
 
   private void startTabletServers(
@@ -453,12 +507,7 @@ public class MiniYBCluster implements AutoCloseable {
         concatenatedArgs.addAll(tserverArgs.get(i));
       }
       concatenatedArgs.addAll(commonTServerArgs);
-      startTServer(concatenatedArgs, tserverEnvVars);
-    }
-
-    long tserverStartupDeadlineMs = System.currentTimeMillis() + 60000;
-    for (MiniYBDaemon tserverProcess : tserverProcesses.values()) {
-      tserverProcess.waitForServerStartLogMessage(tserverStartupDeadlineMs);
+      launchTServer(concatenatedArgs, null, null, tserverEnvVars);
     }
   }
 
@@ -499,6 +548,17 @@ public class MiniYBCluster implements AutoCloseable {
   public void startTServer(List<String> tserverArgs, String tserverBindAddress,
                            Integer tserverRpcPort,
                            Map<String, String> tserverEnvVars) throws Exception {
+    checkProcessLaunched(
+        launchTServer(tserverArgs, tserverBindAddress, tserverRpcPort, tserverEnvVars));
+  }
+
+  /**
+   * Launches a tablet server process without waiting for it to start.
+   * @return the launched tablet server
+   */
+  private MiniYBDaemon launchTServer(List<String> tserverArgs, String tserverBindAddress,
+                                     Integer tserverRpcPort,
+                                     Map<String, String> tserverEnvVars) throws Exception {
     LOG.info("Starting a tablet server: " +
         "tserverArgs=" + tserverArgs +
         ", tserverBindAddress=" + tserverBindAddress +
@@ -573,6 +633,7 @@ public class MiniYBCluster implements AutoCloseable {
       pathsToDelete.add(flagsPath);
     }
     pathsToDelete.add(dataDirPath);
+    return daemon;
   }
 
   /**
@@ -640,6 +701,7 @@ public class MiniYBCluster implements AutoCloseable {
     final MiniYBDaemon daemon = configureAndStartProcess(
         MiniYBDaemonType.MASTER, masterCmdLine.toArray(new String[masterCmdLine.size()]),
         masterBindAddress, rpcPort, webPort, -1, -1, -1, dataDirPath, null);
+    checkProcessLaunched(daemon);
 
     final HostAndPort masterHostPort = HostAndPort.fromParts(masterBindAddress, rpcPort);
     masterHostPorts.add(masterHostPort);
@@ -672,7 +734,8 @@ public class MiniYBCluster implements AutoCloseable {
   /**
    * Start the specified number of master servers with ports starting from a specified
    * number. Finds free web and RPC ports up front for all of the masters first, then
-   * starts them on those ports, populating 'masters' map.
+   * launches them on those ports, populating 'masters' map. Does not wait for the masters to
+   * start.
    *
    * @param numMasters number of masters to start
    * @param baseDirPath  the base directory where the mini cluster stores its data
@@ -729,11 +792,6 @@ public class MiniYBCluster implements AutoCloseable {
       }
       pathsToDelete.add(dataDirPath);
     }
-
-    long startupDeadlineMs = System.currentTimeMillis() + 120000;
-    for (MiniYBDaemon masterProcess : masterProcesses.values()) {
-      masterProcess.waitForServerStartLogMessage(startupDeadlineMs);
-    }
   }
 
   /**
@@ -791,38 +849,33 @@ public class MiniYBCluster implements AutoCloseable {
                          pgsqlWebPort, cqlWebPort, redisWebPort, dataDirPath);
     logPrinters.add(daemon.getLogPrinter());
 
-    Thread.sleep(300);
-    try {
-      int ev = proc.exitValue();
-      throw new Exception("We tried starting a process (" + command[0] + ") but it exited with " +
-          "value=" + ev + (daemon.getLogPrinter().getError() == null ?
-                           "" : ", error: " + daemon.getLogPrinter().getError()));
-    } catch (IllegalThreadStateException ex) {
-      // This means the process is still alive, it's like reverse psychology.
-    }
-
-    LOG.info("Started " + command[0] + " as pid " + ProcessUtil.pidOfProcess(proc));
+    LOG.info("Launched " + command[0] + " as pid " + ProcessUtil.pidOfProcess(proc));
 
     return daemon;
   }
 
+  /**
+   * Makes sure a process we launched does not exit right away, for daemons we are not going to
+   * wait on with {@link #waitForDaemonsToStart}. Returns as soon as the process exits.
+   */
+  private void checkProcessLaunched(MiniYBDaemon daemon) throws Exception {
+    final Process proc = daemon.getProcess();
+    if (proc.waitFor(PROCESS_LAUNCH_CHECK_MS, MILLISECONDS)) {
+      throw new Exception("We tried starting a process (" + daemon.getCommandLine()[0] +
+          ") but it exited with value=" + proc.exitValue() +
+          (daemon.getLogPrinter().getError() == null ?
+           "" : ", error: " + daemon.getLogPrinter().getError()));
+    }
+  }
+
   private MiniYBDaemon restart(MiniYBDaemon daemon) throws Exception {
     String[] command = daemon.getCommandLine();
     LOG.info("Restarting process: {}", Joiner.on(" ").join(command));
     daemon = daemon.restart();
     logPrinters.add(daemon.getLogPrinter());
 
-    Process proc = daemon.getProcess();
-    Thread.sleep(300);
-    try {
-      int ev = proc.exitValue();
-      throw new Exception("We tried starting a process (" + command[0] + ") but it exited with " +
-          "value=" + ev);
-    } catch (IllegalThreadStateException ex) {
-      // This means the process is still alive, it's like reverse psychology.
-    }
-
-    LOG.info("Restarted " + command[0] + " as pid " + ProcessUtil.pidOfProcess(proc));
+    LOG.info("Restarted " + command[0] + " as pid " +
+             ProcessUtil.pidOfProcess(daemon.getProcess()));
 
     return daemon;
   }
@@ -843,6 +896,7 @@ public class MiniYBCluster implements AutoCloseable {
     shutdownDaemons();
 
     LOG.info("Restarting mini cluster");
+    final Stopwatch stopwatch = Stopwatch.createStarted();
     for (MiniYBDaemon master : masters) {
       master = restart(master);
       masterProcesses.put(master.getHostAndPort(), master);
@@ -851,10 +905,12 @@ public class MiniYBCluster implements AutoCloseable {
       tserver = restart(tserver);
       tserverProcesses.put(tserver.getHostAndPort(), tserver);
     }
+    waitForDaemonsToStart(getAllDaemons());
+    lastStartupTimeMs = stopwatch.elapsed(MILLISECONDS);
 
     startSyncClient(waitForMasterLeader);
 
-    LOG.info("Restarted mini cluster");
+    LOG.info("Restarted mini cluster, daemons started in {} ms", lastStartupTimeMs);
   }
 
   private void processCoreFile(MiniYBDaemon daemon) throws Exception {
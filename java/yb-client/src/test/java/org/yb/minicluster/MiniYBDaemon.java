@@ -22,6 +22,7 @@ import org.yb.util.*;
 import java.io.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -159,6 +160,7 @@ public class MiniYBDaemon {
         LOG.info("Interrupted when waiting for process to complete: " + this, ex);
         return;
       }
+      logListener.handleProcessExit(exitCode);
 
       try {
         handleTermination(exitCode);
@@ -225,6 +227,7 @@ public class MiniYBDaemon {
     this.pgsqlWebPort = pgsqlWebPort;
     this.redisWebPort = redisWebPort;
     this.dataDirPath = dataDirPath;
+    this.launchTimeMs = System.currentTimeMillis();
     this.logListener = new ExternalDaemonLogErrorListener(getLogPrefix());
     this.logPrinter = new LogPrinter(process.getInputStream(), getLogPrefix(), logListener);
     LOG.info("Started stdout/stderr threads for mini YB daemon: " + this);
@@ -287,6 +290,7 @@ public class MiniYBDaemon {
   private final int pgsqlWebPort;
   private final int redisWebPort;
   private final String dataDirPath;
+  private final long launchTimeMs;
   private final CountDownLatch shutdownLatch = new CountDownLatch(1);
   private final LogPrinter logPrinter;
   private final ExternalDaemonLogErrorListener logListener;
@@ -333,7 +337,25 @@ public class MiniYBDaemon {
 
   public void waitForServerStartLogMessage(long deadlineMs) throws InterruptedException {
     logListener.waitForServerStartingLogLine(deadlineMs);
-    LOG.info("Saw an 'RPC server started' message from " + this);
+    LOG.info("Saw an 'RPC server started' message from " + this + " " + getStartupTimeMs() +
+             " ms after launch");
+  }
+
+  /**
+   * @return a future that completes when this daemon logs that its RPC server started, or fails as
+   *         soon as the process exits without doing so
+   */
+  public CompletableFuture<Void> getServerStartedFuture() {
+    return logListener.getServerStartedFuture();
+  }
+
+  /**
+   * @return the time in milliseconds between launching the process and its RPC server starting, or
+   *         -1 if it has not started yet
+   */
+  public long getStartupTimeMs() {
+    long serverStartedAtMs = logListener.getServerStartedAtMs();
+    return serverStartedAtMs < 0 ? -1 : serverStartedAtMs - launchTimeMs;
   }
 
   public void terminate() throws Exception {
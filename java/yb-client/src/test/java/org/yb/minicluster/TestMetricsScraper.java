@@ -0,0 +1,86 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package org.yb.minicluster;
+
+import static org.yb.AssertionWrappers.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.yb.YBTestRunner;
+
+@RunWith(value=YBTestRunner.class)
+public class TestMetricsScraper {
+
+  private static String metricsJson(long writeSelf, long histogramCount) {
+    return "[" +
+        "{\"type\": \"server\", \"id\": \"yb.tabletserver\", \"attributes\": {}, \"metrics\": [" +
+        "  {\"name\": \"rocksdb_write_self\", \"value\": 1}]}," +
+        "{\"type\": \"tablet\", \"id\": \"t1\", \"attributes\": {\"table_name\": \"test\"}," +
+        " \"metrics\": [" +
+        "  {\"name\": \"rocksdb_write_self\", \"value\": " + writeSelf + "}," +
+        "  {\"name\": \"rocksdb_number_db_seek\", \"value\": 7}," +
+        "  {\"name\": \"handler_latency\", \"total_count\": " + histogramCount + "," +
+        "   \"min\": 0, \"mean\": 12.5, \"percentile_99\": 40, \"total_sum\": 9000000000}]}," +
+        // Metrics listed before the entity id.
+        "{\"metrics\": [{\"name\": \"rocksdb_write_self\", \"value\": 5}]," +
+        " \"type\": \"tablet\", \"id\": \"t2\"}," +
+        "{\"type\": \"tablet\", \"id\": \"other\", \"metrics\": [" +
+        "  {\"name\": \"rocksdb_write_self\", \"value\": 1000}]}" +
+        "]";
+  }
+
+  private static MetricsSnapshot parse(MetricsScraper scraper, String json) throws Exception {
+    Map<MetricsSnapshot.Key, Long> values = new HashMap<>();
+    Map<MetricsSnapshot.Key, Long> sums = new HashMap<>();
+    scraper.parse("127.0.0.1:9000",
+        new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), values, sums);
+    return new MetricsSnapshot(values, sums);
+  }
+
+  @Test
+  public void testFiltering() throws Exception {
+    MetricsScraper scraper = new MetricsScraper(Collections.emptyList())
+        .entityType("tablet")
+        .entityIds(Arrays.asList("t1", "t2"))
+        .metrics("rocksdb_write_self", "handler_latency");
+    MetricsSnapshot snapshot = parse(scraper, metricsJson(3000000000L, 10));
+    assertEquals(3000000005L, snapshot.sum("rocksdb_write_self"));
+    assertEquals(3000000000L,
+        snapshot.get("127.0.0.1:9000", "tablet", "t1", "rocksdb_write_self"));
+    assertEquals(10, snapshot.sum("tablet", "handler_latency"));
+    assertEquals(9000000000L, snapshot.sumOfHistogramSums("handler_latency"));
+    assertEquals(0, snapshot.sum("rocksdb_number_db_seek"));
+    assertEquals(0, snapshot.sum("server", "rocksdb_write_self"));
+  }
+
+  @Test
+  public void testDelta() throws Exception {
+    MetricsScraper scraper = new MetricsScraper(Collections.emptyList());
+    MetricsSnapshot before = parse(scraper, metricsJson(Integer.MAX_VALUE, 10));
+    MetricsSnapshot after = parse(scraper, metricsJson(Integer.MAX_VALUE + 3L, 12));
+    MetricsSnapshot delta = after.delta(before);
+    assertEquals(3, delta.sum("tablet", "rocksdb_write_self"));
+    assertEquals(0, delta.sum("server", "rocksdb_write_self"));
+    assertEquals(2, delta.sum("handler_latency"));
+    assertEquals(Collections.singletonMap("127.0.0.1:9000", 3L),
+        delta.sumByServer("rocksdb_write_self"));
+  }
+}
@@ -0,0 +1,90 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+package org.yb.perf;
+
+import java.util.Arrays;
+
+/**
+ * Collects raw latency samples, in nanoseconds, of the iterations of a perf run. Benchmarks
+ * in integration tests run at most a few thousand iterations, so all samples are kept and
+ * percentiles are exact.
+ */
+public class LatencyHistogram {
+
+  private long[] samples = new long[64];
+  private int count = 0;
+  private boolean sorted = true;
+
+  public void record(long latencyNanos) {
+    if (count == samples.length) {
+      samples = Arrays.copyOf(samples, count * 2);
+    }
+    samples[count++] = latencyNanos;
+    sorted = false;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  public long getMinNanos() {
+    return count == 0 ? 0 : sortedSamples()[0];
+  }
+
+  public long getMaxNanos() {
+    return count == 0 ? 0 : sortedSamples()[count - 1];
+  }
+
+  public long getTotalNanos() {
+    long total = 0;
+    for (int i = 0; i < count; i++) {
+      total += samples[i];
+    }
+    return total;
+  }
+
+  public double getMeanNanos() {
+    return count == 0 ? 0 : (double) getTotalNanos() / count;
+  }
+
+  /**
+   * @param percentile a value in [0, 100]
+   * @return the smallest sample such that at least {@code percentile} percent of the samples are
+   *         less than or equal to it, or 0 if nothing was recorded
+   */
+  public long getPercentileNanos(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("Invalid percentile: " + percentile);
+    }
+    if (count == 0) {
+      return 0;
+    }
+    int rank = (int) Math.ceil(percentile / 100 * count);
+    return sortedSamples()[Math.max(rank, 1) - 1];
+  }
+
+  private long[] sortedSamples() {
+    if (!sorted) {
+      Arrays.sort(samples, 0, count);
+      sorted = true;
+    }
+    return samples;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("count = %d, min = %.3f ms, p50 = %.3f ms, p99 = %.3f ms, max = %.3f ms",
+        count, getMinNanos() / 1e6, getPercentileNanos(50) / 1e6, getPercentileNanos(99) / 1e6,
+        getMaxNanos() / 1e6);
+  }
+}
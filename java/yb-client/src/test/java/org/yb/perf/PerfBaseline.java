@@ -0,0 +1,201 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+package org.yb.perf;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expected performance of the queries of a test class, checked in as the test resource
+ * {@code <TestClassSimpleName>/perf_baseline.json}:
+ * <pre>
+ * {
+ *   "default_tolerance": { "counters": 0.1, "latency": 0.5 },
+ *   "queries": {
+ *     "point_select": {
+ *       "counters_per_iteration": { "rocksdb.seek": 1.0, "io.remote_read": 1.0 },
+ *       "latency": { "p50_ms": 1.5, "p99_ms": 6.0 },
+ *       "tolerance": { "latency": 1.0 }
+ *     }
+ *   }
+ * }
+ * </pre>
+ * Tolerances are relative: a value regresses when it exceeds the baseline by more than the given
+ * fraction. Only increases are reported, improvements are logged so that the baseline can be
+ * tightened. The results file written by {@link #writeResults} uses the same format, so a new
+ * baseline can be produced by copying it over the checked-in one.
+ */
+public class PerfBaseline {
+  private static final Logger LOG = LoggerFactory.getLogger(PerfBaseline.class);
+
+  public static final String RESOURCE_NAME = "perf_baseline.json";
+
+  static final double DEFAULT_COUNTER_TOLERANCE = 0.1;
+  static final double DEFAULT_LATENCY_TOLERANCE = 0.5;
+
+  // Counters averaged over iterations are often small (e.g. 1 seek per query), so allow this much
+  // absolute slack on top of the relative tolerance.
+  static final double COUNTER_ABSOLUTE_SLACK = 0.5;
+
+  private static final String[] LATENCY_PERCENTILES = { "p50_ms", "p90_ms", "p99_ms" };
+
+  private final JsonObject root;
+
+  PerfBaseline(JsonObject root) {
+    this.root = root;
+  }
+
+  /**
+   * Loads the baseline of the given test class. A missing resource is not an error: an empty
+   * baseline is returned and every result is reported as new.
+   */
+  public static PerfBaseline load(Class<?> testClass) throws IOException {
+    String resource = "/" + testClass.getSimpleName() + "/" + RESOURCE_NAME;
+    try (InputStream in = testClass.getResourceAsStream(resource)) {
+      if (in == null) {
+        LOG.info("No perf baseline found at " + resource);
+        return new PerfBaseline(new JsonObject());
+      }
+      return parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+  }
+
+  static PerfBaseline parse(Reader reader) {
+    return new PerfBaseline(new JsonParser().parse(reader).getAsJsonObject());
+  }
+
+  public boolean hasQuery(String name) {
+    return getQuery(name) != null;
+  }
+
+  /**
+   * Compares a result with its baseline.
+   *
+   * @param result        the result to check
+   * @param checkLatency  whether latencies should be compared too; they are only meaningful in
+   *                      release builds on dedicated hardware, while counters are deterministic
+   * @return a human readable description of every regression, empty if there is none
+   */
+  public List<String> findRegressions(PerfResult result, boolean checkLatency) {
+    List<String> regressions = new ArrayList<>();
+    JsonObject query = getQuery(result.getName());
+    if (query == null) {
+      LOG.info("No perf baseline for " + result.getName() + ", current values: " +
+          result.toJson());
+      return regressions;
+    }
+
+    JsonObject counters = getObject(query, "counters_per_iteration");
+    if (counters != null) {
+      double tolerance = getTolerance(query, "counters", DEFAULT_COUNTER_TOLERANCE);
+      for (Map.Entry<String, JsonElement> entry : counters.entrySet()) {
+        Double actual = result.getCounterPerIteration(entry.getKey());
+        if (actual == null) {
+          regressions.add(String.format("%s: counter %s was not collected",
+              result.getName(), entry.getKey()));
+          continue;
+        }
+        double expected = entry.getValue().getAsDouble();
+        double limit = Math.max(expected * (1 + tolerance), expected + COUNTER_ABSOLUTE_SLACK);
+        check(regressions, result.getName(), "counter " + entry.getKey(), expected, actual,
+            limit);
+      }
+    }
+
+    JsonObject latency = getObject(query, "latency");
+    if (checkLatency && latency != null) {
+      JsonObject actualLatency = result.toJson().getAsJsonObject("latency");
+      double tolerance = getTolerance(query, "latency", DEFAULT_LATENCY_TOLERANCE);
+      for (String percentile : LATENCY_PERCENTILES) {
+        if (latency.has(percentile)) {
+          double expected = latency.get(percentile).getAsDouble();
+          check(regressions, result.getName(), "latency " + percentile, expected,
+              actualLatency.get(percentile).getAsDouble(), expected * (1 + tolerance));
+        }
+      }
+    }
+    return regressions;
+  }
+
+  private static void check(List<String> regressions, String name, String what,
+                            double expected, double actual, double limit) {
+    if (actual > limit) {
+      regressions.add(String.format("%s: %s is %.3f, baseline %.3f, limit %.3f",
+          name, what, actual, expected, limit));
+    } else if (actual < expected) {
+      LOG.info(String.format("%s: %s improved to %.3f from baseline %.3f",
+          name, what, actual, expected));
+    }
+  }
+
+  private JsonObject getQuery(String name) {
+    JsonObject queries = getObject(root, "queries");
+    return queries == null ? null : getObject(queries, name);
+  }
+
+  private double getTolerance(JsonObject query, String kind, double defaultValue) {
+    JsonObject tolerance = getObject(query, "tolerance");
+    if (tolerance != null && tolerance.has(kind)) {
+      return tolerance.get(kind).getAsDouble();
+    }
+    JsonObject defaults = getObject(root, "default_tolerance");
+    if (defaults != null && defaults.has(kind)) {
+      return defaults.get(kind).getAsDouble();
+    }
+    return defaultValue;
+  }
+
+  private static JsonObject getObject(JsonObject parent, String name) {
+    JsonElement elem = parent.get(name);
+    return elem != null && elem.isJsonObject() ? elem.getAsJsonObject() : null;
+  }
+
+  /** Renders results in the baseline format. */
+  public static JsonObject toBaselineJson(Collection<PerfResult> results) {
+    JsonObject queries = new JsonObject();
+    for (PerfResult result : results) {
+      queries.add(result.getName(), result.toJson());
+    }
+    JsonObject root = new JsonObject();
+    root.add("queries", queries);
+    return root;
+  }
+
+  public static void writeResults(Collection<PerfResult> results, File file) throws IOException {
+    Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    try (Writer writer =
+             new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+      gson.toJson(toBaselineJson(results), writer);
+    }
+    LOG.info("Wrote perf results to " + file);
+  }
+}
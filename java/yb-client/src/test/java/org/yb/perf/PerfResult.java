@@ -0,0 +1,95 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+package org.yb.perf;
+
+import com.google.gson.JsonObject;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Outcome of a single {@link PerfRunner#run} call: the latencies of the measured iterations and
+ * how much each server-side counter advanced over them.
+ */
+public class PerfResult {
+
+  private final String name;
+  private final LatencyHistogram latencies;
+  private final Map<String, Long> counterDeltas;
+
+  PerfResult(String name, LatencyHistogram latencies, Map<String, Long> counterDeltas) {
+    this.name = name;
+    this.latencies = latencies;
+    this.counterDeltas = Collections.unmodifiableMap(new TreeMap<>(counterDeltas));
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getIterations() {
+    return latencies.getCount();
+  }
+
+  public LatencyHistogram getLatencies() {
+    return latencies;
+  }
+
+  /** Total increase of each counter over all the measured iterations. */
+  public Map<String, Long> getCounterDeltas() {
+    return counterDeltas;
+  }
+
+  /**
+   * @return the average increase of the given counter per measured iteration, or null if the
+   *         counter was not collected
+   */
+  public Double getCounterPerIteration(String counter) {
+    Long delta = counterDeltas.get(counter);
+    if (delta == null || getIterations() == 0) {
+      return null;
+    }
+    return (double) delta / getIterations();
+  }
+
+  public double getLatencyMillis(double percentile) {
+    return latencies.getPercentileNanos(percentile) / 1e6;
+  }
+
+  public JsonObject toJson() {
+    JsonObject latency = new JsonObject();
+    latency.addProperty("min_ms", latencies.getMinNanos() / 1e6);
+    latency.addProperty("mean_ms", latencies.getMeanNanos() / 1e6);
+    latency.addProperty("p50_ms", getLatencyMillis(50));
+    latency.addProperty("p90_ms", getLatencyMillis(90));
+    latency.addProperty("p99_ms", getLatencyMillis(99));
+    latency.addProperty("max_ms", latencies.getMaxNanos() / 1e6);
+
+    JsonObject counters = new JsonObject();
+    for (String counter : counterDeltas.keySet()) {
+      counters.addProperty(counter, getCounterPerIteration(counter));
+    }
+
+    JsonObject result = new JsonObject();
+    result.addProperty("iterations", getIterations());
+    result.add("latency", latency);
+    result.add("counters_per_iteration", counters);
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return name + ": " + latencies + ", counter deltas = " + counterDeltas;
+  }
+}
@@ -0,0 +1,118 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+package org.yb.perf;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runs a piece of test code repeatedly and measures it. The first {@code warmupIterations} runs
+ * are not measured, so that caches, prepared statements and connections are in a steady state.
+ * Each measured run is timed individually with {@link System#nanoTime()}. The registered
+ * counter sources are snapshotted right before the first and right after the last measured run,
+ * which keeps the (HTTP based) metric scraping out of the timed section.
+ * <p>
+ * Usage:
+ * <pre>
+ *   PerfResult result = new PerfRunner("point_select")
+ *       .warmupIterations(10)
+ *       .iterations(100)
+ *       .addCounters("rocksdb", rocksDBCounterSource(tableUUID))
+ *       .run(() -> runQueryWithRowCount(stmt, query, 1));
+ * </pre>
+ */
+public class PerfRunner {
+  private static final Logger LOG = LoggerFactory.getLogger(PerfRunner.class);
+
+  /** Code under measurement. */
+  public interface Body {
+    void run() throws Exception;
+  }
+
+  /** Provides the current values of a set of monotonically increasing counters. */
+  public interface CounterSource {
+    Map<String, Long> snapshot() throws Exception;
+  }
+
+  private final String name;
+  private int warmupIterations = 1;
+  private int iterations = 10;
+  private final Map<String, CounterSource> counterSources = new LinkedHashMap<>();
+
+  public PerfRunner(String name) {
+    this.name = name;
+  }
+
+  public PerfRunner warmupIterations(int warmupIterations) {
+    if (warmupIterations < 0) {
+      throw new IllegalArgumentException("Invalid warmup iterations: " + warmupIterations);
+    }
+    this.warmupIterations = warmupIterations;
+    return this;
+  }
+
+  public PerfRunner iterations(int iterations) {
+    if (iterations <= 0) {
+      throw new IllegalArgumentException("Invalid iterations: " + iterations);
+    }
+    this.iterations = iterations;
+    return this;
+  }
+
+  /**
+   * Registers counters whose deltas should be reported. Counter names are reported as
+   * {@code prefix.name}.
+   */
+  public PerfRunner addCounters(String prefix, CounterSource source) {
+    counterSources.put(prefix, source);
+    return this;
+  }
+
+  public PerfResult run(Body body) throws Exception {
+    for (int i = 0; i < warmupIterations; i++) {
+      body.run();
+    }
+
+    Map<String, Long> before = snapshotCounters();
+    LatencyHistogram latencies = new LatencyHistogram();
+    for (int i = 0; i < iterations; i++) {
+      final long startNanos = System.nanoTime();
+      body.run();
+      latencies.record(System.nanoTime() - startNanos);
+    }
+    Map<String, Long> after = snapshotCounters();
+
+    Map<String, Long> deltas = new HashMap<>();
+    for (Map.Entry<String, Long> entry : after.entrySet()) {
+      Long initial = before.get(entry.getKey());
+      deltas.put(entry.getKey(), entry.getValue() - (initial == null ? 0 : initial));
+    }
+    PerfResult result = new PerfResult(name, latencies, deltas);
+    LOG.info("Perf result of " + result);
+    return result;
+  }
+
+  private Map<String, Long> snapshotCounters() throws Exception {
+    Map<String, Long> result = new HashMap<>();
+    for (Map.Entry<String, CounterSource> source : counterSources.entrySet()) {
+      for (Map.Entry<String, Long> counter : source.getValue().snapshot().entrySet()) {
+        result.put(source.getKey() + "." + counter.getKey(), counter.getValue());
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,113 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+package org.yb.perf;
+
+import static org.yb.AssertionWrappers.*;
+
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.yb.YBTestRunner;
+
+@RunWith(value=YBTestRunner.class)
+public class TestPerfHarness {
+
+  @Test
+  public void testPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getPercentileNanos(99));
+    for (int i = 100; i >= 1; i--) {
+      histogram.record(i);
+    }
+    assertEquals(100, histogram.getCount());
+    assertEquals(1, histogram.getMinNanos());
+    assertEquals(100, histogram.getMaxNanos());
+    assertEquals(50, histogram.getPercentileNanos(50));
+    assertEquals(99, histogram.getPercentileNanos(99));
+    assertEquals(1, histogram.getPercentileNanos(0));
+    assertEquals(50.5, histogram.getMeanNanos(), 1e-9);
+  }
+
+  @Test
+  public void testCounterDeltas() throws Exception {
+    final AtomicLong seeks = new AtomicLong(1000);
+    final AtomicLong runs = new AtomicLong();
+    PerfResult result = new PerfRunner("q")
+        .warmupIterations(3)
+        .iterations(10)
+        .addCounters("rocksdb", () -> Collections.singletonMap("seek", seeks.get()))
+        .run(() -> {
+          runs.incrementAndGet();
+          seeks.addAndGet(2);
+        });
+    assertEquals(13, runs.get());
+    assertEquals(10, result.getIterations());
+    assertEquals(Long.valueOf(20), result.getCounterDeltas().get("rocksdb.seek"));
+    assertEquals(2.0, result.getCounterPerIteration("rocksdb.seek"), 1e-9);
+    assertNull(result.getCounterPerIteration("rocksdb.next"));
+  }
+
+  @Test
+  public void testBaselineComparison() throws Exception {
+    PerfBaseline baseline = PerfBaseline.parse(new StringReader(
+        "{ \"queries\": { \"q\": {" +
+        "    \"counters_per_iteration\": { \"rocksdb.seek\": 10.0, \"io.remote_read\": 1.0 }," +
+        "    \"latency\": { \"p50_ms\": 0.000001 } } } }"));
+    assertTrue(baseline.hasQuery("q"));
+    assertFalse(baseline.hasQuery("other"));
+
+    Map<String, Long> counters = new HashMap<>();
+    counters.put("rocksdb.seek", 10L);
+    counters.put("io.remote_read", 1L);
+    LatencyHistogram latencies = new LatencyHistogram();
+    latencies.record(1000000);
+
+    // Within tolerance, latency not checked.
+    assertTrue(baseline.findRegressions(new PerfResult("q", latencies, counters), false)
+        .isEmpty());
+    // Latency regression.
+    assertEquals(1,
+        baseline.findRegressions(new PerfResult("q", latencies, counters), true).size());
+
+    // 11 seeks is within 10%, 12 is not.
+    counters.put("rocksdb.seek", 11L);
+    assertTrue(baseline.findRegressions(new PerfResult("q", latencies, counters), false)
+        .isEmpty());
+    counters.put("rocksdb.seek", 12L);
+    List<String> regressions =
+        baseline.findRegressions(new PerfResult("q", latencies, counters), false);
+    assertEquals(1, regressions.size());
+    assertTrue(regressions.get(0), regressions.get(0).contains("rocksdb.seek"));
+
+    // A counter in the baseline that was not collected is a failure, a query without a baseline
+    // is not.
+    counters.remove("io.remote_read");
+    counters.put("rocksdb.seek", 10L);
+    assertEquals(1,
+        baseline.findRegressions(new PerfResult("q", latencies, counters), false).size());
+    assertTrue(baseline.findRegressions(new PerfResult("other", latencies, counters), true)
+        .isEmpty());
+
+    // Results are written in the baseline format.
+    PerfBaseline roundTrip = PerfBaseline.parse(new StringReader(PerfBaseline.toBaselineJson(
+        Collections.singletonList(new PerfResult("q", latencies, counters))).toString()));
+    assertTrue(roundTrip.findRegressions(new PerfResult("q", latencies, counters), true)
+        .isEmpty());
+  }
+}
@@ -28,8 +28,10 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-import java.util.Random;
 import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
@@ -327,9 +329,19 @@ public abstract class AppBase implements MetricsTracker.StatusMessageAppender {
     cassandra_session = null;
   }
 
-  Random random = new Random();
-  byte[] buffer;
-  Checksum checksum = new Adler32();
+  // The state used to generate and verify values, one per thread: the IO threads of an app share
+  // its instance, a shared random would have them contend on its seed and a shared checksum would
+  // be corrupted by concurrent updates.
+  private static final class PayloadState {
+    final SplittableRandom random = new SplittableRandom();
+    final Checksum checksum = new Adler32();
+    // Reused by getRandomValue(Key).
+    byte[] buffer = new byte[0];
+  }
+  private static final ThreadLocal<PayloadState> payloadState =
+      ThreadLocal.withInitial(PayloadState::new);
+
+  private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes();
 
   // For binary values we store checksum in bytes.
   static final int CHECKSUM_SIZE = 4;
@@ -350,9 +362,16 @@ public abstract class AppBase implements MetricsTracker.StatusMessageAppender {
     return valueSize > VALUE_SIZE_TO_USE_PREFIX;
   }
 
+  /**
+   * Generates a value of appConfig.valueSize bytes for the key into a buffer owned by the calling
+   * thread. The buffer is overwritten by the next call on the same thread.
+   */
   protected byte[] getRandomValue(Key key) {
-    getRandomValue(key, buffer);
-    return buffer;
+    PayloadState state = payloadState.get();
+    if (state.buffer.length != appConfig.valueSize) {
+      state.buffer = new byte[appConfig.valueSize];
+    }
+    return getRandomValue(key, state.buffer);
   }
 
   protected byte[] getRandomValue(Key key, byte[] outBuffer) {
@@ -361,11 +380,11 @@ public abstract class AppBase implements MetricsTracker.StatusMessageAppender {
   }
 
   protected void getRandomValue(Key key, int valueSize, byte[] outBuffer) {
-    final byte[] keyValueBytes = key.getValueStr().getBytes();
-    getRandomValue(keyValueBytes, valueSize, outBuffer);
+    getRandomValue(key.getValueBytes(), valueSize, outBuffer);
   }
 
   protected void getRandomValue(byte[] keyValueBytes, int valueSize, byte[] outBuffer) {
+    final PayloadState state = payloadState.get();
     outBuffer[0] = appConfig.restrictValuesToAscii ? ASCII_MARKER : BINARY_MARKER;
     final int checksumSize = appConfig.restrictValuesToAscii ? CHECKSUM_ASCII_SIZE : CHECKSUM_SIZE;
     final boolean isUseChecksum = isUseChecksum(valueSize, checksumSize);
@@ -386,7 +405,7 @@ public abstract class AppBase implements MetricsTracker.StatusMessageAppender {
       final int ASCII_START = 32;
       final int ASCII_RANGE_SIZE = 95;
       while (i < contentSize) {
-        long r = (long) (random.nextInt() & 0xffffffff);
+        long r = state.random.nextInt() & 0xffffffffL;
         // Hack to minimize number of calls to random.nextInt() in order to reduce CPU load.
         // This makes distribution non-uniform, but should be OK for load tests.
         for (int n = Math.min(Integer.BYTES, contentSize - i); n > 0;
@@ -396,23 +415,21 @@ public abstract class AppBase implements MetricsTracker.StatusMessageAppender {
       }
     } else {
       while (i < contentSize) {
-        for (int r = random.nextInt(), n = Math.min(Integer.BYTES, contentSize - i); n > 0;
+        for (long r = state.random.nextLong(), n = Math.min(Long.BYTES, contentSize - i); n > 0;
              r >>= Byte.SIZE, n--)
             outBuffer[i++] = (byte) r;
       }
     }
 
     if (isUseChecksum) {
-      checksum.reset();
-      checksum.update(outBuffer, 0, contentSize);
-      long cs = checksum.getValue();
+      state.checksum.reset();
+      state.checksum.update(outBuffer, 0, contentSize);
+      long cs = state.checksum.getValue();
       if (appConfig.restrictValuesToAscii) {
-        String csHexStr = Long.toHexString(cs);
-        // Prepend zeros
-        while (i < valueSize - csHexStr.length()) {
-          outBuffer[i++] = (byte) '0';
+        // Zero padded hex string, written from the end.
+        for (int j = valueSize - 1; j >= i; j--, cs >>>= 4) {
+          outBuffer[j] = HEX_DIGITS[(int) (cs & 0xf)];
         }
-        System.arraycopy(csHexStr.getBytes(), 0, outBuffer, i, csHexStr.length());
       } else {
         while (i < valueSize) {
           outBuffer[i++] = (byte) cs;
@@ -427,28 +444,35 @@ public abstract class AppBase implements MetricsTracker.StatusMessageAppender {
     final int checksumSize = isAscii ? CHECKSUM_ASCII_SIZE : CHECKSUM_SIZE;
     final boolean hasChecksum = isUseChecksum(value.length, checksumSize);
     if (isUsePrefix(value.length)) {
-      final String keyValueStr = key.getValueStr();
-      final int prefixSize = Math.min(keyValueStr.length(), value.length -
+      final byte[] keyValueBytes = key.getValueBytes();
+      final int prefixSize = Math.min(keyValueBytes.length, value.length -
                              (hasChecksum ? checksumSize : 0) - 1 /* marker */);
-      final String prefix = new String(value, 1, prefixSize);
       // Check prefix.
-      if (!prefix.equals(keyValueStr.substring(0, prefixSize))) {
-        LOG.fatal("Value mismatch for key: " + key.toString() +
-                  ", expected to start with: " + keyValueStr +
-                  ", got: " + prefix);
-        return false;
+      for (int i = 0; i < prefixSize; i++) {
+        if (value[i + 1] != keyValueBytes[i]) {
+          LOG.fatal("Value mismatch for key: " + key.toString() +
+                    ", expected to start with: " + key.getValueStr() +
+                    ", got: " + new String(value, 1, prefixSize));
+          return false;
+        }
       }
     }
     if (hasChecksum) {
       // Verify checksum.
+      final Checksum checksum = payloadState.get().checksum;
       checksum.reset();
       checksum.update(value, 0, value.length - checksumSize);
-      long expectedCs;
+      long expectedCs = 0;
       if (isAscii) {
-        String csHexStr = new String(value, value.length - checksumSize, checksumSize);
-        expectedCs = Long.parseUnsignedLong(csHexStr, 16);
+        for (int i = value.length - checksumSize; i < value.length; ++i) {
+          int digit = Character.digit((char) value[i], 16);
+          if (digit < 0) {
+            expectedCs = -1;
+            break;
+          }
+          expectedCs = (expectedCs << 4) | digit;
+        }
       } else {
-        expectedCs = 0;
         for (int i = value.length - 1; i >= value.length - checksumSize; --i) {
           expectedCs <<= Byte.SIZE;
           expectedCs |= (value[i] & 0xFF);
@@ -535,6 +559,26 @@ public abstract class AppBase implements MetricsTracker.StatusMessageAppender {
    */
   public long doWrite(int threadIdx) { return 0; }
 
+  /**
+   * Asynchronous version of doRead(), used by the open-loop driver. Apps that can issue their
+   * reads without blocking (for example with CqlSession.executeAsync) should override it, the
+   * default performs the read synchronously.
+   * @return a stage completed with the number of reads done.
+   */
+  public CompletionStage<Long> doReadAsync() {
+    return CompletableFuture.completedFuture(doRead());
+  }
+
+  /**
+   * Asynchronous version of doWrite(), used by the open-loop driver. Apps that can issue their
+   * writes without blocking should override it, the default performs the write synchronously.
+   * @param threadIdx index of thread that invoked this write.
+   * @return a stage completed with the number of writes done.
+   */
+  public CompletionStage<Long> doWriteAsync(int threadIdx) {
+    return CompletableFuture.completedFuture(doWrite(threadIdx));
+  }
+
   /**
    * This call should implement the main logic in non-OLTP apps. Not called for OLTP apps.
    */
@@ -616,6 +660,15 @@ public abstract class AppBase implements MetricsTracker.StatusMessageAppender {
     }
   }
 
+  /**
+   * Adds a custom message to the periodic metrics output, if metrics are enabled.
+   */
+  protected void registerStatusMessageAppender(MetricsTracker.StatusMessageAppender appender) {
+    if (metricsTracker != null) {
+      metricsTracker.registerStatusMessageAppender(appender);
+    }
+  }
+
   /**
    * Helper method to get a random proxy-service contact point to do io against.
    * @return a random proxy-service contact point.
@@ -713,6 +766,57 @@ public abstract class AppBase implements MetricsTracker.StatusMessageAppender {
     }
   }
 
+  /**
+   * Asynchronous version of performWrite(), called by the open-loop driver. The latency of the
+   * write is measured from its intended start time rather than from the time it was issued. The
+   * writes in flight when the target number of keys is reached still complete, so a few more keys
+   * than requested can be written.
+   * @param threadIdx index of thread that invoked this write.
+   * @param intendedStartNanos the System.nanoTime() at which the write was scheduled to start.
+   * @return a stage completed with the number of writes done.
+   */
+  public CompletionStage<Long> performWriteAsync(int threadIdx, long intendedStartNanos) {
+    if (appConfig.numKeysToWrite >= 0 && numKeysWritten.get() >= appConfig.numKeysToWrite
+        || isOutOfTime()) {
+      hasFinished.set(true);
+      return CompletableFuture.completedFuture(0L);
+    }
+    return doWriteAsync(threadIdx).thenApply(count -> {
+      if (count > 0) {
+        numKeysWritten.addAndGet(count);
+        if (metricsTracker != null) {
+          metricsTracker.getMetric(MetricName.Write)
+              .accumulate(count, System.nanoTime() - intendedStartNanos);
+        }
+      }
+      return count;
+    });
+  }
+
+  /**
+   * Asynchronous version of performRead(), called by the open-loop driver. The latency of the read
+   * is measured from its intended start time rather than from the time it was issued.
+   * @param intendedStartNanos the System.nanoTime() at which the read was scheduled to start.
+   * @return a stage completed with the number of reads done.
+   */
+  public CompletionStage<Long> performReadAsync(long intendedStartNanos) {
+    if (appConfig.numKeysToRead >= 0 && numKeysRead.get() >= appConfig.numKeysToRead
+        || isOutOfTime()) {
+      hasFinished.set(true);
+      return CompletableFuture.completedFuture(0L);
+    }
+    return doReadAsync().thenApply(count -> {
+      if (count > 0) {
+        numKeysRead.addAndGet(count);
+        if (metricsTracker != null) {
+          metricsTracker.getMetric(MetricName.Read)
+              .accumulate(count, System.nanoTime() - intendedStartNanos);
+        }
+      }
+      return count;
+    });
+  }
+
   @Override
   public String appenderName() {
     return this.getClass().getSimpleName();
@@ -113,6 +113,13 @@ public class AppConfig {
   // Do not forward read requests to the leader.
   public boolean localReads = false;
 
+  // Total rate, in ops/sec, at which the open-loop driver starts operations. The closed-loop
+  // IOPS threads are used when this value is -1.
+  public double targetOpsPerSec = -1;
+
+  // The maximum number of operations the open-loop driver keeps in flight.
+  public int maxOutstandingRequests = 1024;
+
   // Print all exceptions on the client instead of sampling.
   public boolean printAllExceptions = false;
 
@@ -162,6 +169,15 @@ public class AppConfig {
   // Enable batch write.
   public boolean batchWrite = false;
 
+  // Group the rows of write batches by destination tablet.
+  public boolean batchByTablet = false;
+
+  // Master addresses of the cluster, used to look up the tablets of the tables.
+  public String masterAddresses = null;
+
+  // Data size of the tablet input splits of the Spark apps, in MB.
+  public long sparkSplitSizeMb = 64;
+
   // Username to connect to the DB.
   public String dbUsername = null;
 
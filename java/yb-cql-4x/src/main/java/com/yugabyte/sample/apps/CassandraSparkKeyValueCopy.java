@@ -21,6 +21,7 @@ import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.cql.SimpleStatement;
 import com.datastax.spark.connector.japi.rdd.CassandraJavaRDD;
 import com.yugabyte.sample.common.CmdLineOpts;
+import com.yugabyte.sample.common.TabletSplitReader;
 import org.apache.commons.cli.CommandLine;
 import org.apache.log4j.Logger;
 import org.apache.spark.SparkConf;
@@ -63,6 +64,7 @@ public class CassandraSparkKeyValueCopy extends AppBase {
 
   private CqlSession session;
   private JavaSparkContext sc = null;
+  private CassandraConnector connector;
 
   public CqlSession getCqlSession() {
     return session;
@@ -80,7 +82,7 @@ public class CassandraSparkKeyValueCopy extends AppBase {
     sc = new JavaSparkContext(conf);
 
     // Create the Cassandra connector to Spark.
-    CassandraConnector connector = CassandraConnector.apply(conf);
+    connector = CassandraConnector.apply(conf);
 
     // Create a Cassandra session
     session = connector.openSession();
@@ -106,6 +108,17 @@ public class CassandraSparkKeyValueCopy extends AppBase {
     }
   }
 
+  // Reads the input table with one or more splits per tablet, instead of the token ranges of the
+  // connector.
+  private TabletSplitReader getTabletSplitReader() {
+    try {
+      return TabletSplitReader.forTable(appConfig.masterAddresses, getKeyspace(), inputTableName,
+                                        appConfig.sparkSplitSizeMb * 1024 * 1024);
+    } catch (Exception e) {
+      throw new RuntimeException("Failed to get the tablets of " + inputTableName, e);
+    }
+  }
+
   @Override
   public void run() {
     StringBuilder sb = new StringBuilder();
@@ -123,11 +136,19 @@ public class CassandraSparkKeyValueCopy extends AppBase {
 
     //------------------------------------------- Input ------------------------------------------
     JavaRDD<Tuple3<String, ByteBuffer, String>> rows;
-    // Read rows from table and convert them to an RDD.
-    rows = javaFunctions(sc).cassandraTable(getKeyspace(), inputTableName).select("k", "v1", "v2")
-        .map(row -> new Tuple3<>(row.getString("k"),
-                                 row.getBytes("v1"),
-                                 row.getString("v2")));
+    if (appConfig.masterAddresses != null) {
+      // Read rows from the tablets of the table, each split from the host of its tablet leader.
+      rows = getTabletSplitReader().read(sc, connector, "k, v1, v2",
+          row -> new Tuple3<>(row.getString("k"),
+                              row.getByteBuffer("v1"),
+                              row.getString("v2")));
+    } else {
+      // Read rows from table and convert them to an RDD.
+      rows = javaFunctions(sc).cassandraTable(getKeyspace(), inputTableName).select("k", "v1", "v2")
+          .map(row -> new Tuple3<>(row.getString("k"),
+                                   row.getBytes("v1"),
+                                   row.getString("v2")));
+    }
 
     //------------------------------------------- Output -----------------------------------------
     String outTable = getKeyspace() + "." + outputTableName;
@@ -162,6 +183,8 @@ public class CassandraSparkKeyValueCopy extends AppBase {
     return Arrays.asList(
       "--num_threads_write " + appConfig.numWriterThreads,
       "--" + INPUT_TABLE_ARG_NAME + " " + DEFAULT_INPUT_TABLE_NAME,
-      "--" + OUTPUT_TABLE_ARG_NAME + " " + DEFAULT_OUTPUT_TABLE_NAME);
+      "--" + OUTPUT_TABLE_ARG_NAME + " " + DEFAULT_OUTPUT_TABLE_NAME,
+      "--master_addresses <master addresses>",
+      "--spark_split_size_mb " + appConfig.sparkSplitSizeMb);
   }
 }
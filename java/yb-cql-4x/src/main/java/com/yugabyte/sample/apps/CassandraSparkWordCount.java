@@ -20,6 +20,7 @@ import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.type.DataTypes;
 import com.datastax.oss.driver.api.querybuilder.SchemaBuilder;
 import com.yugabyte.sample.common.CmdLineOpts;
+import com.yugabyte.sample.common.TabletSplitReader;
 import org.apache.commons.cli.CommandLine;
 import org.apache.log4j.Logger;
 import org.apache.spark.SparkConf;
@@ -59,6 +60,7 @@ public class CassandraSparkWordCount extends AppBase {
 
   private CqlSession session;
   private JavaSparkContext sc = null;
+  private CassandraConnector connector;
 
   private void executeAndLog(CqlSession session, String stmt) {
     LOG.info(stmt);
@@ -81,7 +83,7 @@ public class CassandraSparkWordCount extends AppBase {
     sc = new JavaSparkContext(conf);
 
     // Create the Cassandra connector to Spark.
-    CassandraConnector connector = CassandraConnector.apply(conf);
+    connector = CassandraConnector.apply(conf);
 
     // Create a Cassandra session
     session = connector.openSession();
@@ -147,11 +149,25 @@ public class CassandraSparkWordCount extends AppBase {
     }
   }
 
+  // Reads the input table with one or more splits per tablet, instead of the token ranges of the
+  // connector.
+  private TabletSplitReader getTabletSplitReader() {
+    try {
+      return TabletSplitReader.forTable(appConfig.masterAddresses, getKeyspace(), inputTableName,
+                                        appConfig.sparkSplitSizeMb * 1024 * 1024);
+    } catch (Exception e) {
+      throw new RuntimeException("Failed to get the tablets of " + inputTableName, e);
+    }
+  }
+
   @Override
   public void run() {
     //------------------------------------------- Input ------------------------------------------\\
     JavaRDD<String> rows;
-    if (useCassandraInput) {
+    if (useCassandraInput && appConfig.masterAddresses != null) {
+      // Read rows from the tablets of the table, each split from the host of its tablet leader.
+      rows = getTabletSplitReader().read(sc, connector, "line", row -> row.getString("line"));
+    } else if (useCassandraInput) {
       // Read rows from table and convert them to an RDD.
       rows = javaFunctions(sc).cassandraTable(getKeyspace(), inputTableName)
               .select("line").map(row -> row.getString("line"));
@@ -212,6 +228,8 @@ public class CassandraSparkWordCount extends AppBase {
       "--num_threads_write " + appConfig.numWriterThreads,
       "--wordcount_output_table " + defaultOutputTableName,
       "--wordcount_input_file <path to input file>",
-      "--wordcount_input_table <table name>");
+      "--wordcount_input_table <table name>",
+      "--master_addresses <master addresses>",
+      "--spark_split_size_mb " + appConfig.sparkSplitSizeMb);
   }
 }
@@ -13,21 +13,30 @@
 
 package com.yugabyte.sample.apps;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.log4j.Logger;
 
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchStatementBuilder;
 import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
 import com.datastax.oss.driver.api.core.cql.PreparedStatement;
 import com.datastax.oss.driver.api.core.cql.ResultSet;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.yugabyte.sample.common.CmdLineOpts;
+import com.yugabyte.sample.common.TabletBatcher;
 import com.yugabyte.sample.common.TimeseriesLoadGenerator;
 
 public class CassandraStockTicker extends AppBase {
@@ -65,6 +74,21 @@ public class CassandraStockTicker extends AppBase {
   private static volatile PreparedStatement preparedInsertMin;
   // Lock for initializing prepared statement objects.
   private static final Object prepareInitLock = new Object();
+  // Groups the rows of the raw table by tablet with --batch_write and --master_addresses.
+  private static volatile TabletBatcher<RawRow> rawRowBatcher;
+  // Lock for initializing the batcher.
+  private static final Object batcherInitLock = new Object();
+
+  // A data point to write in a batch.
+  private static class RawRow {
+    final TickerInfo dataSource;
+    final long ts;
+
+    RawRow(TickerInfo dataSource, long ts) {
+      this.dataSource = dataSource;
+      this.ts = ts;
+    }
+  }
 
   @Override
   public void initialize(CmdLineOpts configuration) {
@@ -176,6 +200,20 @@ public class CassandraStockTicker extends AppBase {
     return 1;
   }
 
+  @Override
+  public CompletionStage<Long> doReadAsync() {
+    TickerInfo dataSource = tickers.get(random.nextInt(tickers.size()));
+    if (!dataSource.getHasEmittedData()) {
+      return CompletableFuture.completedFuture(0L);
+    }
+    BoundStatement select = getPreparedSelectLatest().bind(dataSource.getTickerId());
+    return getCassandraClient().executeAsync(select).thenApply(rs -> {
+      // The query has a LIMIT 1, its rows are all in the first page.
+      num_rows_read.addAndGet(rs.remaining());
+      return 1L;
+    });
+  }
+
   private PreparedStatement getPreparedInsertRaw()  {
     if (preparedInsertRaw == null) {
       synchronized (prepareInitLock) {
@@ -226,8 +264,121 @@ public class CassandraStockTicker extends AppBase {
     super.destroyClients();
   }
 
+  private TabletBatcher<RawRow> getRawRowBatcher() throws Exception {
+    if (appConfig.masterAddresses == null) {
+      return null;
+    }
+    if (rawRowBatcher == null) {
+      synchronized (batcherInitLock) {
+        if (rawRowBatcher == null) {
+          TabletBatcher<RawRow> batcher = TabletBatcher.forTable(
+              appConfig.masterAddresses, getKeyspace(), tickerTableRaw, appConfig.batchSize);
+          registerStatusMessageAppender(batcher);
+          rawRowBatcher = batcher;
+        }
+      }
+    }
+    return rawRowBatcher;
+  }
+
+  /**
+   * Writes batches of batchSize data points of random tickers to the raw table. With
+   * --batch_by_tablet the data points are grouped by tablet first: they are kept pending until
+   * their tablet has a full batch, and each batch sent holds the rows of a single tablet.
+   */
+  private long doBatchWrite() throws Exception {
+    TabletBatcher<RawRow> batcher = getRawRowBatcher();
+    List<RawRow> rows = new ArrayList<>(appConfig.batchSize);
+    List<List<RawRow>> batches = new ArrayList<>();
+    for (int i = 0; i < appConfig.batchSize; i++) {
+      TickerInfo dataSource = tickers.get(random.nextInt(tickers.size()));
+      // A ticker with a data point waiting in a batch would get the same timestamp again.
+      if (!dataSource.startPendingWrite()) {
+        continue;
+      }
+      long ts = dataSource.getDataEmitTs();
+      if (ts == -1) {
+        dataSource.endPendingWrite();
+        continue;
+      }
+      RawRow row = new RawRow(dataSource, ts);
+      if (appConfig.batchByTablet) {
+        List<RawRow> batch = batcher.add(dataSource.getPartitionHash(), row);
+        if (batch != null) {
+          batches.add(batch);
+        }
+      } else {
+        rows.add(row);
+      }
+    }
+    if (!rows.isEmpty()) {
+      batches.add(rows);
+      if (batcher != null) {
+        // Record how many tablets a batch of random tickers spans, for comparison.
+        batcher.recordUngroupedBatch(rows.stream().mapToInt(
+            row -> row.dataSource.getPartitionHash()).toArray());
+      }
+    }
+    if (batches.isEmpty()) {
+      if (!appConfig.batchByTablet) {
+        // Nothing to write yet.
+        Thread.sleep(100 /* millisecs */);
+      }
+      return 0;
+    }
+    long numKeysWritten = 0;
+    for (List<RawRow> batch : batches) {
+      numKeysWritten += writeBatch(batch);
+    }
+    return numKeysWritten;
+  }
+
+  private long writeBatch(List<RawRow> batch) {
+    BatchStatementBuilder builder = BatchStatement.builder(DefaultBatchType.UNLOGGED);
+    for (RawRow row : batch) {
+      builder.addStatement(getPreparedInsertRaw().bind(
+          row.dataSource.getTickerId(), new Date(row.ts), String.format("value-%s", row.ts)));
+    }
+    try {
+      getCassandraClient().execute(builder.build());
+      for (RawRow row : batch) {
+        row.dataSource.setLastEmittedTs(row.ts);
+      }
+    } finally {
+      for (RawRow row : batch) {
+        row.dataSource.endPendingWrite();
+      }
+    }
+    return batch.size();
+  }
+
+  @Override
+  public void terminate() {
+    // Write the rows still waiting for their tablet batch to fill up.
+    TabletBatcher<RawRow> batcher = rawRowBatcher;
+    if (batcher != null) {
+      try {
+        for (List<RawRow> batch : batcher.drain()) {
+          writeBatch(batch);
+        }
+      } catch (RuntimeException e) {
+        LOG.warn("Failed to write the pending batches", e);
+      }
+    }
+    super.terminate();
+  }
+
   @Override
   public long doWrite(int threadIdx) {
+    if (appConfig.batchWrite) {
+      try {
+        return doBatchWrite();
+      } catch (RuntimeException e) {
+        throw e;
+      } catch (Exception e) {
+        throw new RuntimeException("Batch write failed", e);
+      }
+    }
     // Pick a random data source.
     TickerInfo dataSource = tickers.get(random.nextInt(tickers.size()));
     // Enter as many data points as are needed.
@@ -260,6 +411,34 @@ public class CassandraStockTicker extends AppBase {
     return numKeysWritten;
   }
 
+  @Override
+  public CompletionStage<Long> doWriteAsync(int threadIdx) {
+    TickerInfo dataSource = tickers.get(random.nextInt(tickers.size()));
+    long ts = dataSource.getDataEmitTs();
+    // Unlike doWrite(), do not sleep when there is nothing to write: the driver thread would stop
+    // issuing operations.
+    if (ts == -1) {
+      return CompletableFuture.completedFuture(0L);
+    }
+    String value = String.format("value-%s", ts);
+    BoundStatement insertRaw =
+        getPreparedInsertRaw().bind(dataSource.getTickerId(), new Date(ts), value);
+    CompletionStage<AsyncResultSet> insert = getCassandraClient().executeAsync(insertRaw);
+    if (random.nextInt(60000) >= data_emit_rate_millis) {
+      return insert.thenApply(rs -> {
+        dataSource.setLastEmittedTs(ts);
+        return 1L;
+      });
+    }
+    // With some probability, also insert into the minutely table.
+    BoundStatement insertMin =
+        getPreparedInsertMin().bind(dataSource.getTickerId(), new Date(ts), value);
+    return insert.thenCompose(rs -> {
+      dataSource.setLastEmittedTs(ts);
+      return getCassandraClient().executeAsync(insertMin);
+    }).thenApply(rs -> 2L);
+  }
+
   @Override
   public void appendMessage(StringBuilder sb) {
     super.appendMessage(sb);
@@ -277,17 +456,37 @@ public class CassandraStockTicker extends AppBase {
     String ticker_id;
     // The data emit rate.
     long dataEmitRateMs;
+    // The partition hash of the ticker id, used to group writes by tablet.
+    final int partitionHash;
+    // Set while a data point of this ticker waits in a batch to be written.
+    private final AtomicBoolean pendingWrite = new AtomicBoolean();
 
     public TickerInfo(int ticker_idx, long dataEmitRateMs) {
       super(ticker_idx, dataEmitRateMs, appConfig.tableTTLSeconds * 1000L);
       this.dataEmitRateMs = dataEmitRateMs;
       this.ticker_id = super.getId();
+      this.partitionHash = TabletBatcher.hashCodeOf(ticker_id);
     }
 
     public String getTickerId() {
       return ticker_id;
     }
 
+    public int getPartitionHash() {
+      return partitionHash;
+    }
+
+    /**
+     * @return false if a data point of this ticker is already waiting in a batch.
+     */
+    public boolean startPendingWrite() {
+      return pendingWrite.compareAndSet(false, true);
+    }
+
+    public void endPendingWrite() {
+      pendingWrite.set(false);
+    }
+
     public long getEndTs() {
       return getLastEmittedTs() + 1;
     }
@@ -321,6 +520,12 @@ public class CassandraStockTicker extends AppBase {
       "--num_threads_write " + appConfig.numWriterThreads,
       "--num_ticker_symbols " + num_ticker_symbols,
       "--data_emit_rate_millis " + data_emit_rate_millis,
-      "--table_ttl_seconds " + appConfig.tableTTLSeconds);
+      "--table_ttl_seconds " + appConfig.tableTTLSeconds,
+      "--batch_write",
+      "--batch_size " + appConfig.batchSize,
+      "--batch_by_tablet",
+      "--master_addresses <master addresses>",
+      "--target_ops_per_sec " + appConfig.targetOpsPerSec,
+      "--max_outstanding_requests " + appConfig.maxOutstandingRequests);
   }
 }
@@ -0,0 +1,161 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package com.yugabyte.sample.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.log4j.Logger;
+
+import com.yugabyte.sample.apps.AppBase;
+
+/**
+ * An IO thread that drives the app in an open loop: operations are started at a fixed target rate
+ * whether or not the previous ones have completed, instead of one after the other.
+ *
+ * Every operation has an intended start time on the schedule of the thread, and its latency is
+ * measured from that time. When the cluster cannot keep up and the outstanding operations reach
+ * the limit, the thread waits for one of them to complete, but the schedule keeps going: the time
+ * spent waiting is counted in the latency of the delayed operations instead of being hidden by
+ * the thread slowing down (coordinated omission).
+ *
+ * The operations are started with the async methods of the app, so a few of these threads can
+ * keep many operations in flight.
+ */
+public class AsyncIOPSThread extends IOPSThread {
+  private static final Logger LOG = Logger.getLogger(AsyncIOPSThread.class);
+
+  // Interval between two intended start times.
+  private final long intervalNanos;
+
+  // The operations currently in flight.
+  private final Semaphore outstanding;
+  private final int maxOutstanding;
+
+  private final AtomicInteger numExceptions = new AtomicInteger(0);
+  private final AtomicInteger numConsecutiveExceptions = new AtomicInteger(0);
+
+  /**
+   * @param opsPerSec      the rate at which this thread starts operations.
+   * @param maxOutstanding the maximum number of operations of this thread in flight.
+   */
+  public AsyncIOPSThread(int threadIdx, AppBase app, IOType ioType, boolean printAllExceptions,
+                         double opsPerSec, int maxOutstanding) {
+    super(threadIdx, app, ioType, printAllExceptions);
+    if (opsPerSec <= 0 || maxOutstanding <= 0) {
+      throw new IllegalArgumentException("Target rate and outstanding requests must be positive");
+    }
+    this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / opsPerSec));
+    this.maxOutstanding = maxOutstanding;
+    this.outstanding = new Semaphore(maxOutstanding);
+  }
+
+  /**
+   * Creates the reader and writer threads of an open-loop run. The target rate and the limit on
+   * outstanding requests of the configuration are split evenly across the threads, each thread
+   * driving its own app instance. Called by CmdLineOpts.createIOPSThreads() when a target rate
+   * is set.
+   * @param configuration the load tester configuration.
+   * @return the threads, not started.
+   */
+  public static List<IOPSThread> createThreads(CmdLineOpts configuration) {
+    int numThreads = configuration.getNumReaderThreads() + configuration.getNumWriterThreads();
+    if (numThreads == 0) {
+      return new ArrayList<>();
+    }
+    double opsPerSec = AppBase.appConfig.targetOpsPerSec / numThreads;
+    int maxOutstanding = Math.max(1, (AppBase.appConfig.maxOutstandingRequests +
+                                      numThreads - 1) / numThreads);
+    List<IOPSThread> threads = new ArrayList<>(numThreads);
+    for (int i = 0; i < numThreads; i++) {
+      IOType ioType = i < configuration.getNumReaderThreads() ? IOType.Read : IOType.Write;
+      threads.add(new AsyncIOPSThread(i, configuration.createAppInstance(), ioType,
+                                      AppBase.appConfig.printAllExceptions, opsPerSec,
+                                      maxOutstanding));
+    }
+    return threads;
+  }
+
+  @Override
+  public int getNumExceptions() {
+    return numExceptions.get();
+  }
+
+  @Override
+  public void run() {
+    try {
+      LOG.debug("Starting async " + ioType.toString() + " IOPS thread #" + threadIdx);
+      long startNanos = System.nanoTime();
+      for (long opIdx = 0; !app.hasFinished() && !ioThreadFailed; opIdx++) {
+        long intendedStartNanos = startNanos + opIdx * intervalNanos;
+        long waitNanos = intendedStartNanos - System.nanoTime();
+        if (waitNanos > 0) {
+          LockSupport.parkNanos(waitNanos);
+        }
+        try {
+          outstanding.acquire();
+        } catch (InterruptedException e) {
+          LOG.error("Wait for outstanding requests interrupted.", e);
+          ioThreadFailed = true;
+          return;
+        }
+        CompletionStage<Long> op;
+        try {
+          switch (ioType) {
+            case Write: op = app.performWriteAsync(threadIdx, intendedStartNanos); break;
+            default: op = app.performReadAsync(intendedStartNanos); break;
+          }
+        } catch (RuntimeException e) {
+          outstanding.release();
+          onException(e);
+          continue;
+        }
+        op.whenComplete((count, error) -> {
+          outstanding.release();
+          if (error == null) {
+            numConsecutiveExceptions.set(0);
+          } else {
+            onException(error);
+          }
+        });
+      }
+      // Let the operations in flight complete before tearing down the app.
+      outstanding.acquireUninterruptibly(maxOutstanding);
+    } finally {
+      LOG.debug("Async IOPS thread #" + threadIdx + " finished");
+      app.terminate();
+    }
+  }
+
+  private void onException(Throwable t) {
+    if (t instanceof CompletionException && t.getCause() != null) {
+      t = t.getCause();
+    }
+    numExceptions.incrementAndGet();
+    int consecutive = numConsecutiveExceptions.getAndIncrement();
+    if (consecutive % 10 == 0 || printAllExceptions) {
+      app.reportException(t instanceof Exception ? (Exception) t : new RuntimeException(t));
+    }
+    if (consecutive + 1 > 500 && !ioThreadFailed) {
+      LOG.error("Had more than " + (consecutive + 1) + " consecutive exceptions. Exiting.", t);
+      ioThreadFailed = true;
+    }
+  }
+}
@@ -165,6 +165,25 @@ public class CmdLineOpts {
         LOG.info("Batch size : " + AppBase.appConfig.batchSize);
     }
 
+    if (commandLine.hasOption("batch_write")) {
+      AppBase.appConfig.batchWrite = true;
+    }
+    if (commandLine.hasOption("master_addresses")) {
+      AppBase.appConfig.masterAddresses = commandLine.getOptionValue("master_addresses");
+    }
+    if (commandLine.hasOption("batch_by_tablet")) {
+      if (!commandLine.hasOption("batch_write") || !commandLine.hasOption("master_addresses")) {
+        LOG.error("--batch_by_tablet requires --batch_write and --master_addresses to be set");
+        System.exit(1);
+      }
+      AppBase.appConfig.batchByTablet = true;
+      LOG.info("Grouping write batches by tablet");
+    }
+    if (commandLine.hasOption("spark_split_size_mb")) {
+      AppBase.appConfig.sparkSplitSizeMb =
+          Long.parseLong(commandLine.getOptionValue("spark_split_size_mb"));
+    }
+
     if (commandLine.hasOption("with_local_dc")) {
       if (AppBase.appConfig.disableYBLoadBalancingPolicy == true) {
         LOG.error("--disable_yb_load_balancing_policy cannot be used with --with_local_dc");
@@ -193,6 +212,17 @@ public class CmdLineOpts {
       AppBase.appConfig.sslCert = commandLine.getOptionValue("ssl_cert");
     }
 
+    if (commandLine.hasOption("target_ops_per_sec")) {
+      AppBase.appConfig.targetOpsPerSec =
+          Double.parseDouble(commandLine.getOptionValue("target_ops_per_sec"));
+      LOG.info("Target ops/sec: " + AppBase.appConfig.targetOpsPerSec);
+    }
+    if (commandLine.hasOption("max_outstanding_requests")) {
+      AppBase.appConfig.maxOutstandingRequests =
+          Integer.parseInt(commandLine.getOptionValue("max_outstanding_requests"));
+      LOG.info("Max outstanding requests: " + AppBase.appConfig.maxOutstandingRequests);
+    }
+
     if (commandLine.hasOption("num_indexes")) {
       AppBase.appConfig.numIndexes =
           Integer.parseInt(commandLine.getOptionValue("num_indexes"));
@@ -225,6 +255,26 @@ public class CmdLineOpts {
     return workload;
   }
 
+  /**
+   * Creates the reader and writer IO threads of the workload, each driving its own app instance.
+   * The threads run an open loop at the rate given by --target_ops_per_sec when it is set, and a
+   * closed loop otherwise.
+   * @return the threads, not started.
+   */
+  public List<IOPSThread> createIOPSThreads() {
+    if (AppBase.appConfig.targetOpsPerSec > 0) {
+      return AsyncIOPSThread.createThreads(this);
+    }
+    List<IOPSThread> threads = new ArrayList<>(numReaderThreads + numWriterThreads);
+    for (int i = 0; i < numReaderThreads + numWriterThreads; i++) {
+      IOPSThread.IOType ioType =
+          i < numReaderThreads ? IOPSThread.IOType.Read : IOPSThread.IOType.Write;
+      threads.add(new IOPSThread(i, createAppInstance(), ioType,
+                                 AppBase.appConfig.printAllExceptions));
+    }
+    return threads;
+  }
+
   public CommandLine getCommandLine() {
     return commandLine;
   }
@@ -469,6 +519,11 @@ public class CmdLineOpts {
     options.addOption("print_all_exceptions", false,
         "Print all exceptions encountered on the client, instead of sampling.");
     options.addOption("skip_workload", false, "Skip running workload.");
+    options.addOption("target_ops_per_sec", true,
+                      "Run an open-loop workload issuing this many ops/sec in total, with " +
+                      "latencies measured from the scheduled start of each op.");
+    options.addOption("max_outstanding_requests", true,
+                      "[target_ops_per_sec] The maximum number of ops in flight.");
     options.addOption("run_time", true,
         "Run time for workload. Negative value means forever (default).");
     options.addOption("use_redis_cluster", false, "Use redis cluster client.");
@@ -542,6 +597,17 @@ public class CmdLineOpts {
                       "enabled.");
     options.addOption("batch_write", false,
                       "[CassandraSecondaryIndex] Enable batch write of key values.");
+    options.addOption("batch_by_tablet", false,
+                      "[batch_write] Group the rows of each batch by destination tablet.");
+    options.addOption("master_addresses", true,
+                      "Comma separated master addresses, used to look up the tablets of the " +
+                      "tables with --batch_write and to read the input tables of the Spark " +
+                      "apps by tablet.");
+
+    // Options for the Spark apps.
+    options.addOption("spark_split_size_mb", true,
+                      "[CassandraSparkKeyValueCopy/CassandraSparkWordCount] Data size of the " +
+                      "input splits of a tablet, with --master_addresses.");
 
     // Options for Redis Pipelined Key Value
     options.addOption(
@@ -43,9 +43,9 @@ public class IOPSThread extends Thread {
 
   private int numExceptions = 0;
 
-  private volatile boolean ioThreadFailed = false;
+  protected volatile boolean ioThreadFailed = false;
 
-  private final boolean printAllExceptions;
+  protected final boolean printAllExceptions;
 
   public IOPSThread(int threadIdx, AppBase app, IOType ioType, boolean printAllExceptions) {
     this.threadIdx = threadIdx;
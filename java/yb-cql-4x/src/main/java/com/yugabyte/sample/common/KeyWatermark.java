@@ -0,0 +1,99 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package com.yugabyte.sample.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tracks the largest key up to which all keys have completed, when keys are handed out in
+ * increasing order but complete in any order.
+ *
+ * Completions are recorded in a ring of slots indexed by key: completing key k stores k + 1 in
+ * slot (k mod ringSize), so that the zero-initialized ring never matches a key. The thread that
+ * completes a key then tries to move the watermark forward over all the consecutive completed
+ * slots with compare-and-set, so there is neither a lock nor a tracker thread, and any thread can
+ * finish the advance started by another one.
+ *
+ * A slot is reused only once the watermark has passed its previous key, so callers must not hand
+ * out keys further than {@link #getWindowSize()} ahead of the watermark, see
+ * {@link #canIssue(long)}.
+ */
+public class KeyWatermark {
+  // Default number of completion slots, i.e. how far ahead of the watermark keys can be issued.
+  public static final int DEFAULT_WINDOW_SIZE = 1 << 16;
+
+  private final AtomicLongArray slots;
+  private final int mask;
+  // The watermark is never advanced past this key.
+  private final long lastKey;
+  private final AtomicLong watermark;
+
+  public KeyWatermark(long initialWatermark, long lastKey) {
+    this(initialWatermark, lastKey, DEFAULT_WINDOW_SIZE);
+  }
+
+  public KeyWatermark(long initialWatermark, long lastKey, int windowSize) {
+    if (windowSize <= 0 || Integer.bitCount(windowSize) != 1) {
+      throw new IllegalArgumentException("Window size must be a power of 2: " + windowSize);
+    }
+    this.slots = new AtomicLongArray(windowSize);
+    this.mask = windowSize - 1;
+    this.lastKey = lastKey;
+    this.watermark = new AtomicLong(initialWatermark);
+  }
+
+  public long get() {
+    return watermark.get();
+  }
+
+  public int getWindowSize() {
+    return mask + 1;
+  }
+
+  /** @return whether the given key can be handed out without overflowing the ring. */
+  public boolean canIssue(long key) {
+    // Keys past the last one are not tracked.
+    return key > lastKey || key - watermark.get() <= mask + 1;
+  }
+
+  /** Records that a key is done (written or given up on) and advances the watermark if possible. */
+  public void complete(long key) {
+    if (key <= watermark.get() || key > lastKey) {
+      return;
+    }
+    slots.set(slotOf(key), key + 1);
+    advance();
+  }
+
+  private void advance() {
+    long current = watermark.get();
+    while (current < lastKey) {
+      final long next = current + 1;
+      if (slots.get(slotOf(next)) != next + 1) {
+        // Key not completed yet, its writer will continue from here.
+        return;
+      }
+      if (watermark.compareAndSet(current, next)) {
+        current = next;
+      } else {
+        current = watermark.get();
+      }
+    }
+  }
+
+  private int slotOf(long key) {
+    return (int) (key & mask);
+  }
+}
@@ -14,9 +14,10 @@
 package com.yugabyte.sample.common;
 
 import java.security.MessageDigest;
-import java.util.HashSet;
-import java.util.Random;
+import java.security.NoSuchAlgorithmException;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -28,42 +29,65 @@ public class SimpleLoadGenerator {
 
   public static class Key {
     // The underlying key is an integer.
-    Long key;
+    final long key;
     // The randomized loadtester prefix.
-    String keyPrefix = (CmdLineOpts.loadTesterUUID != null)
-                           ? CmdLineOpts.loadTesterUUID.toString()
-                           : "key";
+    final String keyPrefix;
+    // The strings derived from the key, built on first use. A key is used by a single thread.
+    private String keyStr;
+    private String keyWithHashPrefix;
+    private String valueStr;
+    private byte[] valueBytes;
 
     public Key(long key, String keyPrefix) {
-      this.key = new Long(key);
-      if (keyPrefix != null) {
-        this.keyPrefix = keyPrefix;
-      }
+      this.key = key;
+      this.keyPrefix = keyPrefix != null ? keyPrefix : getDefaultKeyPrefix();
     }
 
     public long asNumber() {
       return key;
     }
 
-    public String asString() { return keyPrefix + ":" + key.toString(); }
+    public String asString() {
+      if (keyStr == null) {
+        keyStr = keyPrefix + ":" + key;
+      }
+      return keyStr;
+    }
 
     public String getKeyWithHashPrefix() throws Exception {
-      String k = asString();
-      MessageDigest md = MessageDigest.getInstance("MD5");
-      md.update(k.getBytes());
-      return Hex.encodeHexString(md.digest()) + ":" + k;
+      if (keyWithHashPrefix == null) {
+        String k = asString();
+        MessageDigest md = md5.get();
+        md.reset();
+        md.update(k.getBytes());
+        keyWithHashPrefix = Hex.encodeHexString(md.digest()) + ":" + k;
+      }
+      return keyWithHashPrefix;
     }
 
     public String getValueStr() {
-      return ("val:" + key.toString());
+      if (valueStr == null) {
+        valueStr = "val:" + key;
+      }
+      return valueStr;
+    }
+
+    /**
+     * @return the bytes of getValueStr(). The array is cached and must not be modified.
+     */
+    public byte[] getValueBytes() {
+      if (valueBytes == null) {
+        valueBytes = getValueStr().getBytes();
+      }
+      return valueBytes;
     }
 
     public String getValueStr(int idx, int size) {
-      StringBuilder sb = new StringBuilder();
+      StringBuilder sb = new StringBuilder(Math.max(size, 32));
       sb.append("val");
       sb.append(idx);
       sb.append(":");
-      sb.append(key.toString());
+      sb.append(key);
       for (int i = sb.length(); i < size; ++i) {
         sb.append("_");
       }
@@ -72,7 +96,7 @@ public class SimpleLoadGenerator {
 
     public void verify(String value) {
       if (value == null || !value.equals(getValueStr())) {
-        LOG.fatal("Value mismatch for key: " + key.toString() +
+        LOG.fatal("Value mismatch for key: " + key +
                   ", expected: " + getValueStr() +
                   ", got: " + value);
       }
@@ -84,61 +108,58 @@ public class SimpleLoadGenerator {
     }
   }
 
+  // MessageDigest instances are not thread safe, and looking one up is costly.
+  private static final ThreadLocal<MessageDigest> md5 = ThreadLocal.withInitial(() -> {
+    try {
+      return MessageDigest.getInstance("MD5");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  });
+
+  // The default key prefix, rebuilt only when the loadtester UUID changes.
+  private static final class DefaultKeyPrefix {
+    final UUID uuid;
+    final String prefix;
+
+    DefaultKeyPrefix(UUID uuid) {
+      this.uuid = uuid;
+      this.prefix = uuid != null ? uuid.toString() : "key";
+    }
+  }
+  private static volatile DefaultKeyPrefix defaultKeyPrefix = new DefaultKeyPrefix(null);
+
+  private static String getDefaultKeyPrefix() {
+    DefaultKeyPrefix cached = defaultKeyPrefix;
+    UUID uuid = CmdLineOpts.loadTesterUUID;
+    if (cached.uuid != uuid) {
+      cached = new DefaultKeyPrefix(uuid);
+      defaultKeyPrefix = cached;
+    }
+    return cached.prefix;
+  }
+
   // The key to start from.
   final long startKey;
   // The key to write till.
   final long endKey;
   // The max key that was successfully written consecutively.
-  AtomicLong maxWrittenKey;
+  final KeyWatermark maxWrittenKey;
   // The max key that has been generated and handed out so far.
   AtomicLong maxGeneratedKey;
   // Set of keys that failed to write.
   final Set<Long> failedKeys;
-  // Keys that have been written above maxWrittenKey.
-  final Set<Long> writtenKeys;
-  // A background thread to track keys written and increment maxWrittenKey.
-  Thread writtenKeysTracker;
   // The prefix for the key.
   String keyPrefix;
-  // Random number generator.
-  Random random = new Random();
 
   public SimpleLoadGenerator(long startKey, final long endKey,
                              long maxWrittenKey) {
     this.startKey = startKey;
     this.endKey = endKey;
-    this.maxWrittenKey = new AtomicLong(maxWrittenKey);
+    // Once all requested keys are inserted there is no need to track maxWrittenKey anymore.
+    this.maxWrittenKey = new KeyWatermark(maxWrittenKey, endKey - 1);
     this.maxGeneratedKey = new AtomicLong(maxWrittenKey);
-    failedKeys = new HashSet<Long>();
-    writtenKeys = new HashSet<Long>();
-    writtenKeysTracker = new Thread("Written Keys Tracker") {
-        @Override
-        public void run() {
-          do {
-            long key = SimpleLoadGenerator.this.maxWrittenKey.get() + 1;
-            synchronized (this) {
-              if (failedKeys.contains(key) || writtenKeys.remove(key)) {
-                SimpleLoadGenerator.this.maxWrittenKey.set(key);
-                if (key == endKey - 1) {
-                  // We've inserted all requested keys, no need to track
-                  // maxWrittenKey/writtenKeys anymore.
-                  break;
-                }
-              } else {
-                try {
-                  wait();
-                } catch (InterruptedException e) {
-                  // Ignore
-                }
-              };
-            }
-          } while (true);
-        }
-      };
-    // Make tracker a daemon thread so that it will not block the load tester from exiting
-    // when done.
-    writtenKeysTracker.setDaemon(true);
-    writtenKeysTracker.start();
+    failedKeys = ConcurrentHashMap.newKeySet();
   }
 
   public void setKeyPrefix(String prefix) {
@@ -146,20 +167,13 @@ public class SimpleLoadGenerator {
   }
 
   public void recordWriteSuccess(Key key) {
-    if (key.asNumber() > maxWrittenKey.get()) {
-      synchronized (writtenKeysTracker) {
-        writtenKeys.add(key.asNumber());
-        writtenKeysTracker.notify();
-      }
-    }
+    maxWrittenKey.complete(key.asNumber());
   }
 
   public void recordWriteFailure(Key key) {
-    synchronized (writtenKeysTracker) {
-      if (key != null) {
-        failedKeys.add(key.asNumber());
-        writtenKeysTracker.notify();
-      }
+    if (key != null) {
+      failedKeys.add(key.asNumber());
+      maxWrittenKey.complete(key.asNumber());
     }
   }
 
@@ -172,13 +186,16 @@ public class SimpleLoadGenerator {
       if (maxKey != -1 && maxKey == endKey - 1) {
         retKey = generateKey(ThreadLocalRandom.current().nextLong(maxKey));
       } else {
-        retKey = generateKey(maxGeneratedKey.incrementAndGet());
-      }
-
-      if (retKey == null) {
-        try {
-          Thread.sleep(1 /* millisecs */);
-        } catch (InterruptedException e) { /* Ignore */ }
+        long key = maxGeneratedKey.get() + 1;
+        // Do not run further ahead of maxWrittenKey than it can track, a slow write holds back
+        // new keys until it completes.
+        if (maxWrittenKey.canIssue(key) && maxGeneratedKey.compareAndSet(key - 1, key)) {
+          retKey = generateKey(key);
+        } else if (!maxWrittenKey.canIssue(key)) {
+          try {
+            Thread.sleep(1 /* millisecs */);
+          } catch (InterruptedException e) { /* Ignore */ }
+        }
       }
     } while (retKey == null);
 
@@ -194,7 +211,7 @@ public class SimpleLoadGenerator {
     }
     do {
       long key = ThreadLocalRandom.current().nextLong(maxKey);
-      if (!failedKeys.contains(key))
+      if (failedKeys.isEmpty() || !failedKeys.contains(key))
         return generateKey(key);
     } while (true);
   }
@@ -0,0 +1,160 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package com.yugabyte.sample.common;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+import org.yb.client.PartitionSchema;
+import org.yb.client.TabletRouter;
+import org.yb.client.YBClient;
+import org.yb.client.YBTable;
+
+import com.yugabyte.sample.common.metrics.MetricsTracker;
+
+/**
+ * Groups the rows written by an app by destination tablet, so that each batch it sends holds the
+ * rows of a single tablet and is applied by a single tablet leader, instead of being fanned out by
+ * the server to all the tablets its random keys belong to.
+ *
+ * Rows are routed with the hash code of their hash columns and a snapshot of the tablet boundaries
+ * of the table. The batcher also reports, for all the batches sent, the average number of tablets
+ * a batch spans: 1 when the rows are grouped here, close to min(batch size, number of tablets)
+ * for batches of random keys.
+ */
+public class TabletBatcher<T> implements MetricsTracker.StatusMessageAppender {
+  private static final Logger LOG = Logger.getLogger(TabletBatcher.class);
+
+  private static final long OPEN_TABLE_TIMEOUT_MS = 60000;
+
+  private final TabletRouter router;
+  private final int batchSize;
+  // Rows waiting for a batch, per tablet index. Guarded by this.
+  private final List<List<T>> pendingRows;
+
+  private final AtomicLong numBatches = new AtomicLong();
+  private final AtomicLong numBatchRows = new AtomicLong();
+  private final AtomicLong numBatchTablets = new AtomicLong();
+
+  public TabletBatcher(TabletRouter router, int batchSize) {
+    this.router = router;
+    this.batchSize = batchSize;
+    this.pendingRows = new ArrayList<>(router.getNumTablets());
+    for (int i = 0; i < router.getNumTablets(); i++) {
+      pendingRows.add(new ArrayList<>(batchSize));
+    }
+  }
+
+  /**
+   * Creates a batcher for a YCQL table from its current tablet locations.
+   * @param masterAddresses the comma separated master addresses of the cluster.
+   */
+  public static <T> TabletBatcher<T> forTable(String masterAddresses, String keyspace,
+                                              String tableName, int batchSize) throws Exception {
+    try (YBClient client = new YBClient.YBClientBuilder(masterAddresses).build()) {
+      YBTable table = client.openTable(keyspace, tableName);
+      TabletRouter router =
+          TabletRouter.forTable(table, System.currentTimeMillis() + OPEN_TABLE_TIMEOUT_MS);
+      LOG.info("Batching writes to " + keyspace + "." + tableName + " over " +
+               router.getNumTablets() + " tablets.");
+      return new TabletBatcher<>(router, batchSize);
+    }
+  }
+
+  /**
+   * Returns the hash code of a row whose only hash column is a string.
+   */
+  public static int hashCodeOf(String hashColumnValue) {
+    return new PartitionSchema.HashColumnsEncoder().appendString(hashColumnValue).getHashCode();
+  }
+
+  /**
+   * Adds a row to the pending rows of its tablet.
+   * @param hashCode the hash code of the hash columns of the row.
+   * @return the rows of the tablet once there are batchSize of them, to be sent as one batch, or
+   *         null if the row is kept pending.
+   */
+  public List<T> add(int hashCode, T row) {
+    int tabletIndex = router.getTabletIndexForHashCode(hashCode);
+    List<T> batch = null;
+    synchronized (this) {
+      List<T> rows = pendingRows.get(tabletIndex);
+      rows.add(row);
+      if (rows.size() >= batchSize) {
+        batch = new ArrayList<>(rows);
+        rows.clear();
+      }
+    }
+    if (batch != null) {
+      recordBatch(batch.size(), 1);
+    }
+    return batch;
+  }
+
+  /**
+   * Returns all the pending rows, one batch per tablet, for example when the workload ends.
+   */
+  public List<List<T>> drain() {
+    List<List<T>> batches = new ArrayList<>();
+    synchronized (this) {
+      for (List<T> rows : pendingRows) {
+        if (!rows.isEmpty()) {
+          batches.add(new ArrayList<>(rows));
+          rows.clear();
+        }
+      }
+    }
+    for (List<T> batch : batches) {
+      recordBatch(batch.size(), 1);
+    }
+    return batches;
+  }
+
+  /**
+   * Records a batch that was not grouped by tablet, to compare the number of tablets it spans.
+   * @param hashCodes the hash codes of the rows of the batch.
+   */
+  public void recordUngroupedBatch(int[] hashCodes) {
+    BitSet tablets = new BitSet(router.getNumTablets());
+    for (int hashCode : hashCodes) {
+      tablets.set(router.getTabletIndexForHashCode(hashCode));
+    }
+    recordBatch(hashCodes.length, tablets.cardinality());
+  }
+
+  private void recordBatch(int numRows, int numTablets) {
+    numBatches.incrementAndGet();
+    numBatchRows.addAndGet(numRows);
+    numBatchTablets.addAndGet(numTablets);
+  }
+
+  @Override
+  public String appenderName() {
+    return TabletBatcher.class.getSimpleName();
+  }
+
+  @Override
+  public void appendMessage(StringBuilder sb) {
+    long batches = numBatches.get();
+    if (batches == 0) {
+      return;
+    }
+    sb.append(String.format("Batches: %d, %.2f rows/batch, %.2f tablets/batch | ",
+                            batches, numBatchRows.get() * 1.0 / batches,
+                            numBatchTablets.get() * 1.0 / batches));
+  }
+}
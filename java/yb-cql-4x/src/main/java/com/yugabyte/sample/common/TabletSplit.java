@@ -0,0 +1,68 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+package com.yugabyte.sample.common;
+
+import java.io.Serializable;
+
+/**
+ * A Spark input split covering the rows of a tablet, or of a part of its hash range, that is read
+ * with a single partition_hash range query.
+ */
+public class TabletSplit implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  private final String tabletId;
+  // First hash code of the split.
+  private final int hashStart;
+  // Hash code after the last one of the split, up to 0x10000.
+  private final int hashEnd;
+  // Host of the tablet leader, or null if the tablet has no leader.
+  private final String leaderHost;
+  // Estimated data size of the split, or -1 if unknown.
+  private final long estimatedSizeBytes;
+
+  public TabletSplit(String tabletId, int hashStart, int hashEnd, String leaderHost,
+                     long estimatedSizeBytes) {
+    this.tabletId = tabletId;
+    this.hashStart = hashStart;
+    this.hashEnd = hashEnd;
+    this.leaderHost = leaderHost;
+    this.estimatedSizeBytes = estimatedSizeBytes;
+  }
+
+  public String getTabletId() {
+    return tabletId;
+  }
+
+  public int getHashStart() {
+    return hashStart;
+  }
+
+  public int getHashEnd() {
+    return hashEnd;
+  }
+
+  public String getLeaderHost() {
+    return leaderHost;
+  }
+
+  public long getEstimatedSizeBytes() {
+    return estimatedSizeBytes;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("TabletSplit[%s, 0x%04x-0x%04x, leader %s, %d bytes]",
+                         tabletId, hashStart, hashEnd, leaderHost, estimatedSizeBytes);
+  }
+}
@@ -0,0 +1,214 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+
+package com.yugabyte.sample.common;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.spark.connector.cql.CassandraConnector;
+import com.google.common.net.HostAndPort;
+import org.apache.log4j.Logger;
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.api.java.function.Function;
+import org.yb.ColumnSchema;
+import org.yb.client.ListTabletsResponse;
+import org.yb.client.LocatedTablet;
+import org.yb.client.Partition;
+import org.yb.client.PartitionSchema;
+import org.yb.client.YBClient;
+import org.yb.client.YBTable;
+import org.yb.tablet.Tablet.TabletStatusPB;
+import scala.Tuple2;
+import scala.collection.JavaConverters;
+import scala.collection.Seq;
+import scala.reflect.ClassTag;
+import scala.reflect.ClassTag$;
+
+/**
+ * Reads a YCQL table into a Spark RDD with input splits derived from the tablets of the table,
+ * instead of the token ranges of the connector, which are not aligned with the tablets.
+ *
+ * Each tablet gets one split, or more when its SST files are larger than the split size, each
+ * covering a part of the hash range of the tablet. The preferred location of a split is the host
+ * of the tablet leader, so that the executors running there serve it with local reads.
+ */
+public class TabletSplitReader {
+  private static final Logger LOG = Logger.getLogger(TabletSplitReader.class);
+
+  private static final long OPEN_TABLE_TIMEOUT_MS = 60000;
+
+  // Number of hash codes of the hash partitioning.
+  private static final int NUM_HASH_CODES = 0x10000;
+
+  private final String keyspace;
+  private final String tableName;
+  private final List<String> hashColumns;
+  private final List<TabletSplit> splits;
+
+  public TabletSplitReader(String keyspace, String tableName, List<String> hashColumns,
+                           List<TabletSplit> splits) {
+    this.keyspace = keyspace;
+    this.tableName = tableName;
+    this.hashColumns = hashColumns;
+    this.splits = splits;
+  }
+
+  /**
+   * Creates a reader for a YCQL table from its current tablet locations and sizes.
+   * @param masterAddresses the comma separated master addresses of the cluster.
+   * @param splitSizeBytes the data size above which a tablet is read with several splits.
+   */
+  public static TabletSplitReader forTable(String masterAddresses, String keyspace,
+                                           String tableName, long splitSizeBytes)
+      throws Exception {
+    try (YBClient client = new YBClient.YBClientBuilder(masterAddresses).build()) {
+      YBTable table = client.openTable(keyspace, tableName);
+      List<LocatedTablet> tablets =
+          table.getTabletsLocations(System.currentTimeMillis() + OPEN_TABLE_TIMEOUT_MS);
+      List<String> hashColumns = new ArrayList<>();
+      for (ColumnSchema column : table.getSchema().getColumns()) {
+        if (column.isHashKey()) {
+          hashColumns.add(column.getName());
+        }
+      }
+      List<TabletSplit> splits =
+          getSplits(tablets, getTabletSizes(client, tablets), splitSizeBytes);
+      LOG.info("Reading " + keyspace + "." + tableName + " from " + tablets.size() +
+               " tablets with " + splits.size() + " splits.");
+      return new TabletSplitReader(keyspace, tableName, hashColumns, splits);
+    }
+  }
+
+  /**
+   * Returns the SST files size of the tablets, as reported by their leaders. Tablets whose leader
+   * could not be reached are left out.
+   */
+  private static Map<String, Long> getTabletSizes(YBClient client, List<LocatedTablet> tablets) {
+    Set<HostAndPort> leaders = new HashSet<>();
+    for (LocatedTablet tablet : tablets) {
+      LocatedTablet.Replica leader = tablet.getLeaderReplica();
+      if (leader != null) {
+        leaders.add(HostAndPort.fromParts(leader.getRpcHost(), leader.getRpcPort()));
+      }
+    }
+    Map<String, Long> sizes = new HashMap<>();
+    for (HostAndPort leader : leaders) {
+      try {
+        ListTabletsResponse response = client.listTablets(leader);
+        if (response.hasError()) {
+          LOG.warn("Failed to list the tablets of " + leader + ": " + response.errorMessage());
+          continue;
+        }
+        for (TabletStatusPB status : response.getTabletStatuses()) {
+          if (status.hasSstFilesDiskSize()) {
+            sizes.put(status.getTabletId(), status.getSstFilesDiskSize());
+          }
+        }
+      } catch (Exception e) {
+        LOG.warn("Failed to list the tablets of " + leader, e);
+      }
+    }
+    return sizes;
+  }
+
+  /**
+   * Splits the hash range of each tablet in as many equal parts as needed for each part to hold
+   * about splitSizeBytes of data. Tablets of unknown size get a single split.
+   * @param tabletSizes the data size of the tablets, by tablet id.
+   */
+  public static List<TabletSplit> getSplits(List<LocatedTablet> tablets,
+                                            Map<String, Long> tabletSizes,
+                                            long splitSizeBytes) {
+    List<TabletSplit> splits = new ArrayList<>();
+    for (LocatedTablet tablet : tablets) {
+      String tabletId = new String(tablet.getTabletId(), StandardCharsets.UTF_8);
+      Partition partition = tablet.getPartition();
+      int hashStart = PartitionSchema.decodeMultiColumnHashValue(partition.getPartitionKeyStart());
+      int hashEnd = partition.isEndPartition() ? NUM_HASH_CODES :
+          PartitionSchema.decodeMultiColumnHashValue(partition.getPartitionKeyEnd());
+      LocatedTablet.Replica leader = tablet.getLeaderReplica();
+      String leaderHost = leader == null ? null : leader.getRpcHost();
+
+      Long size = tabletSizes.get(tabletId);
+      int numSplits = 1;
+      if (size != null && splitSizeBytes > 0) {
+        numSplits = (int) Math.min((size + splitSizeBytes - 1) / splitSizeBytes,
+                                   hashEnd - hashStart);
+        numSplits = Math.max(numSplits, 1);
+      }
+      for (int i = 0; i < numSplits; i++) {
+        int start = hashStart + (int) ((long) (hashEnd - hashStart) * i / numSplits);
+        int end = hashStart + (int) ((long) (hashEnd - hashStart) * (i + 1) / numSplits);
+        splits.add(new TabletSplit(tabletId, start, end, leaderHost,
+                                   size == null ? -1 : size / numSplits));
+      }
+    }
+    // Sorted by hash range, for the output of the RDD to be in hash order.
+    splits.sort((s1, s2) -> Integer.compare(s1.getHashStart(), s2.getHashStart()));
+    return splits;
+  }
+
+  public List<TabletSplit> getSplits() {
+    return splits;
+  }
+
+  /**
+   * Returns an RDD with a partition per split, whose rows are the given columns of the table
+   * mapped with rowMapper. The rows of a split are read with a single partition_hash range query
+   * and buffered before being handed to Spark, so the split size also bounds the memory used by a
+   * task.
+   * @param columns the comma separated columns to select.
+   */
+  public <T> JavaRDD<T> read(JavaSparkContext sc, CassandraConnector connector, String columns,
+                             Function<Row, T> rowMapper) {
+    String partitionHash = "partition_hash(" + String.join(", ", hashColumns) + ")";
+    String query = String.format("SELECT %s FROM %s.%s WHERE %s >= ? AND %s < ?",
+                                 columns, keyspace, tableName, partitionHash, partitionHash);
+
+    List<Tuple2<TabletSplit, Seq<String>>> splitsWithLocations = new ArrayList<>();
+    for (TabletSplit split : splits) {
+      List<String> locations = split.getLeaderHost() == null ?
+          Collections.emptyList() : Collections.singletonList(split.getLeaderHost());
+      splitsWithLocations.add(new Tuple2<>(
+          split, JavaConverters.asScalaBufferConverter(locations).asScala()));
+    }
+    ClassTag<TabletSplit> splitTag = ClassTag$.MODULE$.apply(TabletSplit.class);
+    JavaRDD<TabletSplit> splitRDD = new JavaRDD<>(
+        sc.sc().makeRDD(JavaConverters.asScalaBufferConverter(splitsWithLocations).asScala(),
+                        splitTag),
+        splitTag);
+
+    return splitRDD.flatMap(split -> {
+      List<T> rows = new ArrayList<>();
+      try (CqlSession session = connector.openSession()) {
+        PreparedStatement statement = session.prepare(query);
+        for (Row row : session.execute(statement.bind(split.getHashStart(),
+                                                      split.getHashEnd()))) {
+          rows.add(rowMapper.call(row));
+        }
+      }
+      return rows.iterator();
+    });
+  }
+}
@@ -0,0 +1,190 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+package org.yb.loadtest;
+
+import com.yugabyte.sample.apps.AppBase;
+import com.yugabyte.sample.common.AsyncIOPSThread;
+import com.yugabyte.sample.common.IOPSThread.IOType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yb.YBTestRunner;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.yb.AssertionWrappers.assertEquals;
+import static org.yb.AssertionWrappers.assertFalse;
+import static org.yb.AssertionWrappers.assertTrue;
+
+/**
+ * Drives AsyncIOPSThread with an app whose writes complete after a fixed service time, and checks
+ * the rate, the bound on the writes in flight and the latency reported for each write.
+ */
+@RunWith(value=YBTestRunner.class)
+public class TestAsyncIOPSThread {
+  private static final Logger LOG = LoggerFactory.getLogger(TestAsyncIOPSThread.class);
+
+  private static final long RUN_MS = 2000;
+
+  private final long savedNumKeysToWrite = AppBase.appConfig.numKeysToWrite;
+
+  private ScheduledExecutorService executor;
+
+  // The timestamps of a completed write.
+  private static class Op {
+    final long intendedStartNanos;
+    final long issuedNanos;
+    final long completedNanos;
+
+    Op(long intendedStartNanos, long issuedNanos, long completedNanos) {
+      this.intendedStartNanos = intendedStartNanos;
+      this.issuedNanos = issuedNanos;
+      this.completedNanos = completedNanos;
+    }
+
+    // The latency the app reports, measured from the intended start time.
+    long latencyNanos() {
+      return completedNanos - intendedStartNanos;
+    }
+  }
+
+  // An app whose async writes complete after serviceMs, without blocking the caller.
+  private static class SlowAsyncApp extends AppBase {
+    private final ScheduledExecutorService executor;
+    private final long serviceMs;
+    final AtomicInteger inFlight = new AtomicInteger(0);
+    final AtomicInteger maxInFlight = new AtomicInteger(0);
+    final List<Op> ops = new ArrayList<>();
+
+    SlowAsyncApp(ScheduledExecutorService executor, long serviceMs) {
+      this.executor = executor;
+      this.serviceMs = serviceMs;
+    }
+
+    @Override
+    public CompletionStage<Long> performWriteAsync(int threadIdx, long intendedStartNanos) {
+      long issuedNanos = System.nanoTime();
+      return super.performWriteAsync(threadIdx, intendedStartNanos).thenApply(count -> {
+        synchronized (ops) {
+          ops.add(new Op(intendedStartNanos, issuedNanos, System.nanoTime()));
+        }
+        return count;
+      });
+    }
+
+    @Override
+    public CompletionStage<Long> doWriteAsync(int threadIdx) {
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      CompletableFuture<Long> result = new CompletableFuture<>();
+      executor.schedule(() -> {
+        inFlight.decrementAndGet();
+        result.complete(1L);
+      }, serviceMs, TimeUnit.MILLISECONDS);
+      return result;
+    }
+
+    List<Op> getOps() {
+      List<Op> sorted;
+      synchronized (ops) {
+        sorted = new ArrayList<>(ops);
+      }
+      sorted.sort(Comparator.comparingLong(op -> op.intendedStartNanos));
+      return sorted;
+    }
+  }
+
+  @Before
+  public void setUp() {
+    executor = Executors.newScheduledThreadPool(4);
+    // Write until the thread is stopped.
+    AppBase.appConfig.numKeysToWrite = -1;
+    AppBase.resetOps();
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+    AppBase.appConfig.numKeysToWrite = savedNumKeysToWrite;
+    AppBase.resetOps();
+  }
+
+  private List<Op> run(SlowAsyncApp app, double opsPerSec, int maxOutstanding) throws Exception {
+    AsyncIOPSThread thread =
+        new AsyncIOPSThread(0, app, IOType.Write, false, opsPerSec, maxOutstanding);
+    thread.start();
+    Thread.sleep(RUN_MS);
+    thread.stopThread();
+    thread.join(10000);
+    assertFalse(thread.isAlive());
+    assertFalse(thread.hasFailed());
+    assertEquals(0, thread.getNumExceptions());
+    // The thread waits for the writes in flight before it exits.
+    assertEquals(0, app.inFlight.get());
+    return app.getOps();
+  }
+
+  @Test
+  public void testAchievesTargetRate() throws Exception {
+    // 200 ops/sec of 20 ms each need about 4 writes in flight, well under the limit.
+    SlowAsyncApp app = new SlowAsyncApp(executor, 20);
+    List<Op> ops = run(app, 200, 32);
+    double rate = ops.size() * 1000.0 / RUN_MS;
+    LOG.info(String.format("Achieved %.1f ops/sec, at most %d in flight",
+                           rate, app.maxInFlight.get()));
+    assertTrue("rate " + rate, rate > 180 && rate < 220);
+    assertTrue(app.maxInFlight.get() <= 32);
+    // Every write ran on schedule, so its latency is close to the service time.
+    Op median = ops.stream()
+        .sorted(Comparator.comparingLong(Op::latencyNanos))
+        .skip(ops.size() / 2).findFirst().get();
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(median.latencyNanos()) < 20 + 50);
+  }
+
+  @Test
+  public void testOverloadBoundsOutstandingAndCountsQueueing() throws Exception {
+    // 4 writes of 50 ms in flight allow about 80 ops/sec, far below the 1000 ops/sec target.
+    SlowAsyncApp app = new SlowAsyncApp(executor, 50);
+    List<Op> ops = run(app, 1000, 4);
+    double rate = ops.size() * 1000.0 / RUN_MS;
+    LOG.info(String.format("Achieved %.1f ops/sec, at most %d in flight",
+                           rate, app.maxInFlight.get()));
+    assertEquals(4, app.maxInFlight.get());
+    assertTrue("rate " + rate, rate > 60 && rate <= 4 * 1000 / 50 * 1.1);
+
+    // The intended start times stay on the 1 ms schedule even though the writes are issued
+    // late, so the latency of a write includes the time it waited for a slot.
+    long intervalNanos = TimeUnit.MILLISECONDS.toNanos(1);
+    Op first = ops.get(0);
+    long maxQueueingNanos = 0;
+    for (int i = 0; i < ops.size(); i++) {
+      Op op = ops.get(i);
+      assertEquals(first.intendedStartNanos + i * intervalNanos, op.intendedStartNanos);
+      assertTrue(op.latencyNanos() >= op.completedNanos - op.issuedNanos);
+      maxQueueingNanos = Math.max(maxQueueingNanos, op.issuedNanos - op.intendedStartNanos);
+    }
+    // After about 2 seconds the last writes are issued over a second behind their schedule.
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(maxQueueingNanos) > 1000);
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(ops.get(ops.size() - 1).latencyNanos()) > 1000);
+  }
+}
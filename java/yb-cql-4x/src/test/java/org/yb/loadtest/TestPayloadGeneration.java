@@ -0,0 +1,128 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+package org.yb.loadtest;
+
+import com.yugabyte.sample.apps.AppBase;
+import com.yugabyte.sample.common.SimpleLoadGenerator;
+import com.yugabyte.sample.common.SimpleLoadGenerator.Key;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yb.YBTestRunner;
+import org.yb.util.EnvAndSysPropertyUtil;
+
+import java.lang.management.ManagementFactory;
+
+import static org.yb.AssertionWrappers.assertEquals;
+import static org.yb.AssertionWrappers.assertTrue;
+
+/**
+ * Measures the cost of generating and verifying the values written by the sample apps, in ns and
+ * allocated bytes per row. The measurements only run when YB_RUN_MICROBENCHMARKS is set, as they
+ * are too slow for the regular test runs.
+ */
+@RunWith(value=YBTestRunner.class)
+public class TestPayloadGeneration {
+  private static final Logger LOG = LoggerFactory.getLogger(TestPayloadGeneration.class);
+
+  private static final int WARMUP_ROWS = 200000;
+  private static final int MEASURED_ROWS = 1000000;
+
+  private final int savedValueSize = AppBase.appConfig.valueSize;
+  private final boolean savedRestrictValuesToAscii = AppBase.appConfig.restrictValuesToAscii;
+
+  // Exposes the payload helpers of AppBase.
+  private static class PayloadApp extends AppBase {
+    byte[] generate(Key key) {
+      return getRandomValue(key);
+    }
+
+    boolean verify(Key key, byte[] value) {
+      return verifyRandomValue(key, value);
+    }
+  }
+
+  private interface RowOp {
+    boolean run(long row) throws Exception;
+  }
+
+  private static long getAllocatedBytes() {
+    return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+        .getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  // Returns the allocated bytes per row.
+  private static double measure(String name, RowOp op) throws Exception {
+    for (long row = 0; row < WARMUP_ROWS; row++) {
+      assertTrue(op.run(row));
+    }
+    long startBytes = getAllocatedBytes();
+    long startNanos = System.nanoTime();
+    for (long row = 0; row < MEASURED_ROWS; row++) {
+      assertTrue(op.run(row));
+    }
+    double nsPerRow = (System.nanoTime() - startNanos) * 1.0 / MEASURED_ROWS;
+    double bytesPerRow = (getAllocatedBytes() - startBytes) * 1.0 / MEASURED_ROWS;
+    LOG.info(String.format("%s: %.1f ns/row, %.1f bytes/row", name, nsPerRow, bytesPerRow));
+    return bytesPerRow;
+  }
+
+  @After
+  public void restoreConfig() {
+    AppBase.appConfig.valueSize = savedValueSize;
+    AppBase.appConfig.restrictValuesToAscii = savedRestrictValuesToAscii;
+  }
+
+  @Test
+  public void testPayloadGeneration() throws Exception {
+    if (!EnvAndSysPropertyUtil.isEnvVarOrSystemPropertyTrue("YB_RUN_MICROBENCHMARKS")) {
+      LOG.info("Skipping the payload microbenchmark, YB_RUN_MICROBENCHMARKS is not set");
+      return;
+    }
+    PayloadApp app = new PayloadApp();
+    SimpleLoadGenerator generator = new SimpleLoadGenerator(0, MEASURED_ROWS, -1);
+    for (boolean ascii : new boolean[] { false, true }) {
+      AppBase.appConfig.restrictValuesToAscii = ascii;
+      AppBase.appConfig.valueSize = 256;
+      String mode = ascii ? "ascii" : "binary";
+
+      // Generating and verifying the value of a key reuses the buffer and the checksum of the
+      // thread, and the cached bytes of the key.
+      Key key = generator.generateKey(42);
+      double bytesPerRow = measure(mode + " value", row -> app.verify(key, app.generate(key)));
+      assertTrue(bytesPerRow < 16);
+
+      // A new key per row, as the apps do.
+      measure(mode + " key and value", row -> {
+        Key rowKey = generator.generateKey(row);
+        return app.verify(rowKey, app.generate(rowKey)) &&
+               !rowKey.getKeyWithHashPrefix().isEmpty();
+      });
+    }
+  }
+
+  @Test
+  public void testKeyStringsAreCached() throws Exception {
+    Key key = new SimpleLoadGenerator(0, 10, -1).generateKey(7);
+    assertEquals("val:7", key.getValueStr());
+    assertTrue(key.getValueStr() == key.getValueStr());
+    assertTrue(key.getValueBytes() == key.getValueBytes());
+    String hashed = key.getKeyWithHashPrefix();
+    assertTrue(hashed.endsWith(":" + key.asString()));
+    // 32 hex digits of the MD5 digest.
+    assertEquals(32, hashed.indexOf(':'));
+    assertTrue(hashed == key.getKeyWithHashPrefix());
+  }
+}
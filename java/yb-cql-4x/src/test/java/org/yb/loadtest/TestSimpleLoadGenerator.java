@@ -0,0 +1,134 @@
+// Copyright (c) YugaByte, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.  You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software distributed under the License
+// is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+// or implied.  See the License for the specific language governing permissions and limitations
+// under the License.
+//
+package org.yb.loadtest;
+
+import com.yugabyte.sample.common.KeyWatermark;
+import com.yugabyte.sample.common.SimpleLoadGenerator;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yb.YBTestRunner;
+import org.yb.util.EnvAndSysPropertyUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.yb.AssertionWrappers.assertEquals;
+import static org.yb.AssertionWrappers.assertFalse;
+import static org.yb.AssertionWrappers.assertNotNull;
+import static org.yb.AssertionWrappers.assertTrue;
+
+@RunWith(value=YBTestRunner.class)
+public class TestSimpleLoadGenerator {
+  private static final Logger LOG = LoggerFactory.getLogger(TestSimpleLoadGenerator.class);
+
+  // The full size microbenchmarks are too slow for the regular test runs.
+  private static final boolean RUN_MICROBENCHMARKS =
+      EnvAndSysPropertyUtil.isEnvVarOrSystemPropertyTrue("YB_RUN_MICROBENCHMARKS");
+
+  @Test
+  public void testWatermarkOutOfOrder() {
+    KeyWatermark watermark = new KeyWatermark(-1, 99, 8);
+    watermark.complete(2);
+    watermark.complete(1);
+    assertEquals(-1, watermark.get());
+    watermark.complete(0);
+    assertEquals(2, watermark.get());
+    // Already passed keys are ignored.
+    watermark.complete(1);
+    assertEquals(2, watermark.get());
+
+    // Keys 3..10 fit in the window, 11 would reuse the slot of 3.
+    assertTrue(watermark.canIssue(10));
+    assertFalse(watermark.canIssue(11));
+    // Keys past the last key are not tracked.
+    assertTrue(watermark.canIssue(1000));
+
+    for (long key = 99; key >= 3; key--) {
+      if (key - watermark.get() <= watermark.getWindowSize()) {
+        watermark.complete(key);
+      }
+    }
+    assertEquals(10, watermark.get());
+  }
+
+  @Test
+  public void testFailedKeysAreSkippedByReads() {
+    SimpleLoadGenerator generator = new SimpleLoadGenerator(0, 1000, -1);
+    for (int i = 0; i < 100; i++) {
+      SimpleLoadGenerator.Key key = generator.getKeyToWrite();
+      if (key.asNumber() % 2 == 0) {
+        generator.recordWriteFailure(key);
+      } else {
+        generator.recordWriteSuccess(key);
+      }
+    }
+    assertEquals(99, generator.getMaxWrittenKey());
+    for (int i = 0; i < 1000; i++) {
+      SimpleLoadGenerator.Key key = generator.getKeyToRead();
+      assertNotNull(key);
+      assertEquals(1, key.asNumber() % 2);
+    }
+  }
+
+  /**
+   * Microbenchmark of key generation and completion tracking with many writer threads. Every
+   * thread loops over getKeyToWrite/recordWriteSuccess, failing 1% of
+   * the keys, and the watermark must end up covering every generated key. Unless
+   * YB_RUN_MICROBENCHMARKS is set, only a few keys are written, as a correctness check.
+   */
+  @Test
+  public void testConcurrentWriters() throws Exception {
+    final long numKeys = RUN_MICROBENCHMARKS ? 2000000 : 20000;
+    int[] threadCounts = RUN_MICROBENCHMARKS ? new int[] { 1, 16, 128 } : new int[] { 1, 8 };
+    for (int numThreads : threadCounts) {
+      final SimpleLoadGenerator generator = new SimpleLoadGenerator(0, numKeys, -1);
+      final AtomicLong writes = new AtomicLong();
+      List<Thread> threads = new ArrayList<>();
+      for (int t = 0; t < numThreads; t++) {
+        threads.add(new Thread(() -> {
+          ThreadLocalRandom random = ThreadLocalRandom.current();
+          while (generator.stillLoading()) {
+            SimpleLoadGenerator.Key key = generator.getKeyToWrite();
+            // Once everything is written, the generator hands out random keys to update. A fresh
+            // key cannot be returned while the watermark is complete since it is not written yet.
+            if (key.asNumber() >= numKeys || generator.getMaxWrittenKey() == numKeys - 1) {
+              break;
+            }
+            if (random.nextInt(100) == 0) {
+              generator.recordWriteFailure(key);
+            } else {
+              generator.recordWriteSuccess(key);
+            }
+            writes.incrementAndGet();
+          }
+        }));
+      }
+      final long startNanos = System.nanoTime();
+      for (Thread thread : threads) {
+        thread.start();
+      }
+      for (Thread thread : threads) {
+        thread.join();
+      }
+      final long elapsedNanos = System.nanoTime() - startNanos;
+      LOG.info(String.format("%d threads: %d keys in %d ms, %.0f keys/sec", numThreads,
+          writes.get(), elapsedNanos / 1000000, writes.get() * 1e9 / elapsedNanos));
+      assertEquals(numKeys, writes.get());
+      assertEquals(numKeys - 1, generator.getMaxWrittenKey());
+    }
+  }
+}
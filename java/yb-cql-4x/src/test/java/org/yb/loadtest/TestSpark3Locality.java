@@ -25,7 +25,9 @@ import org.yb.minicluster.MiniYBClusterBuilder;
 import org.yb.minicluster.MiniYBDaemon;
 import com.yugabyte.oss.driver.api.core.DefaultPartitionMetadata;
 import com.yugabyte.oss.driver.api.core.TableSplitMetadata;
+import com.yugabyte.sample.apps.AppBase;
 import com.yugabyte.sample.apps.CassandraSparkWordCount;
+import com.yugabyte.sample.common.TabletSplitReader;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -135,4 +137,55 @@ public class TestSpark3Locality extends BaseMiniClusterTest {
     assertTrue(totalMetrics.localReadCount > 2 * totalMetrics.remoteReadCount);
     assertTrue(totalMetrics.localWriteCount > 2 * totalMetrics.remoteWriteCount);
   }
+
+  @Test
+  public void testTabletSplits() throws Exception {
+    String nodes = miniCluster.getCQLContactPoints().stream()
+        .map(addr -> addr.getHostString() + ":" + addr.getPort())
+        .collect(Collectors.joining(","));
+    String[] args = {"--workload", "CassandraSparkKeyValueCopy", "--nodes", nodes,
+                     "--master_addresses", miniCluster.getMasterAddresses()};
+    CmdLineOpts config = CmdLineOpts.createFromArgs(args);
+
+    try {
+      CassandraSparkKeyValueCopy app = new CassandraSparkKeyValueCopy();
+      app.workloadInit(config, true);
+
+      CqlSession session = app.getCqlSession();
+      app.createKeyspace(session, "ybdemo_keyspace");
+      session.execute(
+        "CREATE TABLE ybdemo_keyspace.CassandraKeyValue(k text primary key, v1 blob, v2 jsonb)");
+      for (int i = 0; i < ROWS_COUNT; i++) {
+        session.execute("INSERT INTO ybdemo_keyspace.CassandraKeyValue(k, v1, v2) VALUES" +
+                                "('" + i + "', 0xabcdef012345, '{\"a\" : "+ i +" }')");
+      }
+      miniCluster.getClient().waitForLoadBalance(LOADBALANCE_TIMEOUT_MS, NUM_TABLET_SERVERS);
+      miniCluster.getClient().waitForLoadBalancerIdle(LOADBALANCE_TIMEOUT_MS);
+
+      // The table is small, so each tablet is read with a single split.
+      TabletSplitReader reader = TabletSplitReader.forTable(
+          miniCluster.getMasterAddresses(), "ybdemo_keyspace", "cassandrakeyvalue", 64 << 20);
+      int tabletsCount = miniCluster.getClient().getTabletUUIDs(
+          "ybdemo_keyspace", "cassandrakeyvalue").size();
+      assertEquals(tabletsCount, reader.getSplits().size());
+
+      Map<MiniYBDaemon, IOMetrics> initialMetrics = getTSMetrics();
+      app.run();
+      IOMetrics totalMetrics = getCombinedMetrics(initialMetrics);
+
+      // All the rows are copied, with one read per tablet.
+      Iterator<Row> rows = session.execute("SELECT * from ybdemo_keyspace.CassandraKeyValueCopy")
+        .iterator();
+      int rowsCount = 0;
+      while (rows.hasNext()) {
+        rows.next();
+        rowsCount += 1;
+      }
+      assertEquals(ROWS_COUNT, rowsCount);
+      assertEquals(tabletsCount, totalMetrics.readCount());
+      assertEquals(ROWS_COUNT, totalMetrics.writeCount());
+    } finally {
+      AppBase.appConfig.masterAddresses = null;
+    }
+  }
 }
@@ -41,6 +41,8 @@ import org.yb.minicluster.Metrics;
 import org.yb.minicluster.MiniYBClusterBuilder;
 import org.yb.minicluster.MiniYBDaemon;
 import org.yb.minicluster.RocksDBMetrics;
+import org.yb.perf.PerfResult;
+import org.yb.perf.PerfRunner;
 
 import java.io.Closeable;
 import java.io.IOException;
@@ -686,6 +688,34 @@ public class BaseCQLTest extends BaseMiniClusterTest {
     return getRocksDBMetricByTableUUID(getTableUUID(DEFAULT_TEST_KEYSPACE, tableName));
   }
 
+  /**
+   * Benchmarks a query with {@link PerfRunner}, collecting the read/write RPC counts of all
+   * tservers and the RocksDB counters of the given tables of the default keyspace (reported as
+   * {@code rocksdb.<table>}). Pass the results to {@link #assertPerfResults} to compare them with
+   * the checked-in baseline.
+   */
+  protected PerfResult benchmarkQueryWithRowCount(String name,
+                                                  Statement stmt,
+                                                  int expectedRowCount,
+                                                  int warmupIterations,
+                                                  int iterations,
+                                                  String... tableNames) throws Exception {
+    PerfRunner runner = new PerfRunner(name)
+        .warmupIterations(warmupIterations)
+        .iterations(iterations)
+        .addCounters("io", ioCounterSource());
+    for (String tableName : tableNames) {
+      runner.addCounters("rocksdb." + tableName,
+          rocksDBCounterSource(getTableUUID(DEFAULT_TEST_KEYSPACE, tableName)));
+    }
+    return runner.run(() -> {
+      int rowCount = session.execute(stmt).all().size();
+      if (expectedRowCount >= 0) {
+        assertEquals(expectedRowCount, rowCount);
+      }
+    });
+  }
+
   public int getTableCounterMetric(String keyspaceName,
                                    String tableName,
                                    String metricName) throws Exception {
@@ -44,6 +44,8 @@ import org.yb.minicluster.Metrics.YSQLStat;
 import org.yb.pgsql.cleaners.ClusterCleaner;
 import org.yb.pgsql.cleaners.ConnectionCleaner;
 import org.yb.pgsql.cleaners.UserObjectCleaner;
+import org.yb.perf.PerfResult;
+import org.yb.perf.PerfRunner;
 import org.yb.util.EnvAndSysPropertyUtil;
 import org.yb.util.SanitizerUtil;
 import org.yb.master.Master;
@@ -621,14 +623,14 @@ public class BasePgSQLTest extends BaseMiniClusterTest {
     for (QueryExecutionMetricChecker checker : checkers) {
       checker.beforeQueryExecution();
     }
-    final long startTimeMillis = System.currentTimeMillis();
+    final long startTimeNanos = System.nanoTime();
     if (validStmt) {
       statement.execute(query);
     } else {
       runInvalidQuery(statement, query, "ERROR");
     }
     // Check the elapsed time.
-    final long result = System.currentTimeMillis() - startTimeMillis;
+    final long result = (System.nanoTime() - startTimeNanos) / 1000000;
     for (QueryExecutionMetricChecker checker : checkers) {
       checker.afterQueryExecution(query);
     }
@@ -1331,13 +1333,13 @@ public class BasePgSQLTest extends BaseMiniClusterTest {
     runQueryWithRowCount(stmt, query, expectedRowCount);
 
     // Seek average run-time for a few different run.
-    final long startTimeMillis = System.currentTimeMillis();
+    final long startTimeNanos = System.nanoTime();
     for (int qrun = 0; qrun < numberOfRuns; qrun++) {
       runQueryWithRowCount(stmt, query, expectedRowCount);
     }
 
     // Check the elapsed time.
-    long result = System.currentTimeMillis() - startTimeMillis;
+    long result = (System.nanoTime() - startTimeNanos) / 1000000;
     LOG.info(String.format("Ran query %d times. Total elapsed time = %d msecs",
         numberOfRuns, result));
     return result;
@@ -1354,13 +1356,13 @@ public class BasePgSQLTest extends BaseMiniClusterTest {
     runQueryWithRowCount(pstmt, expectedRowCount);
 
     // Seek average run-time for a few different run.
-    final long startTimeMillis = System.currentTimeMillis();
+    final long startTimeNanos = System.nanoTime();
     for (int qrun = 0; qrun < numberOfRuns; qrun++) {
       runQueryWithRowCount(pstmt, expectedRowCount);
     }
 
     // Check the elapsed time.
-    long result = System.currentTimeMillis() - startTimeMillis;
+    long result = (System.nanoTime() - startTimeNanos) / 1000000;
     LOG.info(String.format("Ran statement %d times. Total elapsed time = %d msecs",
         numberOfRuns, result));
     return result;
@@ -1377,7 +1379,7 @@ public class BasePgSQLTest extends BaseMiniClusterTest {
     }
 
     // Seek average run-time for a few different run.
-    final long startTimeMillis = System.currentTimeMillis();
+    final long startTimeNanos = System.nanoTime();
     try (Statement statement = connection.createStatement()) {
       for (int qrun = 0; qrun < numberOfRuns; qrun++) {
         statement.executeUpdate(sql);
@@ -1385,7 +1387,7 @@ public class BasePgSQLTest extends BaseMiniClusterTest {
     }
 
     // Check the elapsed time.
-    long result = System.currentTimeMillis() - startTimeMillis;
+    long result = (System.nanoTime() - startTimeNanos) / 1000000;
     LOG.info(String.format("Ran statement %d times. Total elapsed time = %d msecs",
         numberOfRuns, result));
     return result;
@@ -1400,13 +1402,13 @@ public class BasePgSQLTest extends BaseMiniClusterTest {
     pstmt.executeUpdate();
 
     // Seek average run-time for a few different run.
-    final long startTimeMillis = System.currentTimeMillis();
+    final long startTimeNanos = System.nanoTime();
     for (int qrun = 0; qrun < numberOfRuns; qrun++) {
       pstmt.executeUpdate();
     }
 
     // Check the elapsed time.
-    long result = System.currentTimeMillis() - startTimeMillis;
+    long result = (System.nanoTime() - startTimeNanos) / 1000000;
     LOG.info(String.format("Ran statement %d times. Total elapsed time = %d msecs",
         numberOfRuns, result));
     return result;
@@ -1467,7 +1469,7 @@ public class BasePgSQLTest extends BaseMiniClusterTest {
   }
 
   /** UUID of the first table with specified name. **/
-  private String getTableUUID(String tableName)  throws Exception {
+  protected String getTableUUID(String tableName)  throws Exception {
     for (Master.ListTablesResponsePB.TableInfo table :
         miniCluster.getClient().getTablesList().getTableInfoList()) {
       if (table.getName().equals(tableName)) {
@@ -1486,6 +1488,28 @@ public class BasePgSQLTest extends BaseMiniClusterTest {
     return getTableCounterMetricByTableUUID(getTableUUID(tableName), metricName);
   }
 
+  /**
+   * Benchmarks a query with {@link PerfRunner}, collecting the read/write RPC counts of all
+   * tservers and the RocksDB counters of the given tables (reported as {@code rocksdb.<table>}).
+   * Pass the results to {@link #assertPerfResults} to compare them with the checked-in baseline.
+   */
+  protected PerfResult benchmarkQueryWithRowCount(String name,
+                                                  Statement stmt,
+                                                  String query,
+                                                  int expectedRowCount,
+                                                  int warmupIterations,
+                                                  int iterations,
+                                                  String... tableNames) throws Exception {
+    PerfRunner runner = new PerfRunner(name)
+        .warmupIterations(warmupIterations)
+        .iterations(iterations)
+        .addCounters("io", ioCounterSource());
+    for (String tableName : tableNames) {
+      runner.addCounters("rocksdb." + tableName, rocksDBCounterSource(getTableUUID(tableName)));
+    }
+    return runner.run(() -> runQueryWithRowCount(stmt, query, expectedRowCount));
+  }
+
   protected String getExplainAnalyzeOutput(Statement stmt, String query) throws Exception {
     try (ResultSet rs = stmt.executeQuery("EXPLAIN ANALYZE " + query)) {
       StringBuilder sb = new StringBuilder();
@@ -4,12 +4,12 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.yb.minicluster.MetricsScraper;
+import org.yb.minicluster.MetricsSnapshot;
 import org.yb.util.YBTestRunnerNonTsanOnly;
 
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.ArrayList;
-import java.util.function.Consumer;
 
 import static org.yb.AssertionWrappers.assertEquals;
 
@@ -25,9 +25,7 @@ public class TestOperationBatching extends BasePgSQLTest {
 
   private static final String TABLE_NAME = "test";
 
-  private int getWriteSelfMetric() throws Exception {
-    return getTableCounterMetric(TABLE_NAME, "rocksdb_write_self");
-  }
+  private static final String WRITE_SELF_METRIC = "rocksdb_write_self";
 
   private void createTable(Statement statement) throws SQLException {
     // Use ASC primary key to make single table.
@@ -51,24 +49,24 @@ public class TestOperationBatching extends BasePgSQLTest {
     // as table has a single tablet.
     try (Statement stmt = connection.createStatement()) {
       createTable(stmt);
-      ArrayList<Integer> writeSelf = new ArrayList<>();
-      Consumer<Integer> writeSelfChecker = (Integer value) -> {
-        // Compare current metric difference with first one
-        assertEquals(writeSelf.get(1) - writeSelf.get(0),
-            value - writeSelf.get(writeSelf.size() - 1));
-        writeSelf.add(value);
-      };
-      writeSelf.add(getWriteSelfMetric());
+      MetricsScraper scraper = tabletMetricsScraper(getTableUUID(TABLE_NAME), WRITE_SELF_METRIC);
+      MetricsSnapshot snapshot = scraper.scrape();
       insertValues(stmt,"(1, 1), (2, 2)");
-      writeSelf.add(getWriteSelfMetric());
+      MetricsSnapshot next = scraper.scrape();
+      final long expectedWriteSelf = next.delta(snapshot).sum(WRITE_SELF_METRIC);
+      snapshot = next;
+
       insertValues(stmt, "(3, 3), (4, 4), (5, 5), (6, 6), (7, 7)");
       // write_self should not depends on number of inserted elements
-      writeSelfChecker.accept(getWriteSelfMetric());
+      next = scraper.scrape();
+      assertEquals(expectedWriteSelf, next.delta(snapshot).sum(WRITE_SELF_METRIC));
+      snapshot = next;
+
       stmt.execute(String.format(
           "DO $$ BEGIN INSERT INTO %s VALUES(8, 8); INSERT INTO %s VALUES(9, 9); END$$",
           TABLE_NAME,
           TABLE_NAME));
-      writeSelfChecker.accept(getWriteSelfMetric());
+      assertEquals(expectedWriteSelf, scraper.scrape().delta(snapshot).sum(WRITE_SELF_METRIC));
     }
   }
 
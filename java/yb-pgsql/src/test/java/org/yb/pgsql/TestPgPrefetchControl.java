@@ -17,6 +17,8 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.yb.client.TestUtils;
+import org.yb.perf.PerfResult;
 import org.yb.util.YBTestRunnerNonTsanOnly;
 
 import java.sql.ResultSet;
@@ -27,6 +29,7 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.yb.AssertionWrappers.assertEquals;
+import static org.yb.AssertionWrappers.assertTrue;
 
 // In this test module we adjust the number of rows to be prefetched by PgGate and make sure that
 // the result for the query are correct.
@@ -50,6 +53,29 @@ public class TestPgPrefetchControl extends BasePgSQLTest {
     }
   }
 
+  // Benchmarks a query of testLimitPerformance. Outside RELEASE builds, whose runtimes are
+  // checked against the perf baseline, checks its mean runtime against the given maximum.
+  private PerfResult benchmarkLimitQuery(Statement statement,
+                                         String name,
+                                         String query,
+                                         int expectedRowCount,
+                                         int maxRuntimeMillis,
+                                         String... tableNames) throws Exception {
+    String[] tableIds = new String[tableNames.length];
+    for (int i = 0; i < tableNames.length; i++) {
+      // Unquoted names are stored in lower case.
+      tableIds[i] = tableNames[i].toLowerCase();
+    }
+    PerfResult result = benchmarkQueryWithRowCount(name, statement, query, expectedRowCount,
+        1 /* warmupIterations */, 5 /* iterations */, tableIds);
+    if (!TestUtils.isReleaseBuild()) {
+      double meanMillis = result.getLatencies().getMeanNanos() / 1e6;
+      assertTrue(String.format("Query '%s' took %.1f ms on average! Expected %d ms at most",
+          query, meanMillis, maxRuntimeMillis), meanMillis <= maxRuntimeMillis);
+    }
+    return result;
+  }
+
   @Test
   public void testSimplePrefetch() throws SQLException {
     String tableName = "TestPrefetch";
@@ -130,8 +156,10 @@ public class TestPgPrefetchControl extends BasePgSQLTest {
     }
 
     // Choose the maximum runtimes of the same SELECT statement with and without LIMIT.
-    // For performance check, only runs on RELEASE build matters, so expected runtime for other
-    // builds can be very over-estimated.
+    // For performance check, only runs on RELEASE build matters. The RELEASE maximum runtimes
+    // are the latency baseline of each query in TestPgPrefetchControl/perf_baseline.json, along
+    // with its RocksDB and RPC counters, and the maximum runtimes of other builds can be very
+    // over-estimated.
     // Cases where "LIMIT clause" can be optimized
     // LIMIT value is pushed down to YugaByte PgGate and DocDB for these cases.
     // - LIMIT SELECT without WHERE clause and other options.
@@ -140,7 +168,6 @@ public class TestPgPrefetchControl extends BasePgSQLTest {
     // - LIMIT SELECT with ORDER BY is not optimized.
     // - LIMIT SELECT with AGGREGATE is not optimized.
 
-    final int queryRunCount = 5;
     int limitScanMaxRuntimeMillis = getPerfMaxRuntime(20, 100, 500, 500, 500);
     // Index scan is slower as it requires two reads.
     // - Postgres first read ID from INDEX.
@@ -149,88 +176,90 @@ public class TestPgPrefetchControl extends BasePgSQLTest {
     // Full scan is slowest.
     int fullScanMaxRuntimeMillis = getPerfMaxRuntime(200, 3000, 10000, 10000, 10000);
 
+    List<PerfResult> results = new ArrayList<>();
     try (Statement statement = connection.createStatement()) {
       // LIMIT SELECT without WHERE clause and other options will be optimized by passing
       // LIMIT value to YugaByte PgGate and DocDB.
       String query = String.format("SELECT * FROM %s LIMIT 1", tableName);
-      assertQueryRuntimeWithRowCount(statement, query, 1 /* expectedRowCount */, queryRunCount,
-          limitScanMaxRuntimeMillis * queryRunCount);
+      results.add(benchmarkLimitQuery(statement, "limit", query, 1 /* expectedRowCount */,
+          limitScanMaxRuntimeMillis, tableName));
 
       query = String.format("SELECT * FROM %s LIMIT 1 OFFSET 100", tableName);
-      assertQueryRuntimeWithRowCount(statement, query, 1 /* expectedRowCount */, queryRunCount,
-          limitScanMaxRuntimeMillis * queryRunCount);
+      results.add(benchmarkLimitQuery(statement, "limit_offset", query, 1 /* expectedRowCount */,
+          limitScanMaxRuntimeMillis, tableName));
 
       // LIMIT SELECT with WHERE clause is not optimized.
       query = String.format("SELECT * FROM %s WHERE vi = %d LIMIT 1", tableName, viConst);
-      assertQueryRuntimeWithRowCount(statement, query, 1 /* expectedRowCount */, queryRunCount,
-          limitScanMaxRuntimeMillis * queryRunCount);
+      results.add(benchmarkLimitQuery(statement, "where_limit", query, 1 /* expectedRowCount */,
+          limitScanMaxRuntimeMillis, tableName));
 
       query = String.format("SELECT * FROM %s WHERE vi = %d LIMIT 1 OFFSET 100", tableName,
           viConst);
-      assertQueryRuntimeWithRowCount(statement, query, 1 /* expectedRowCount */, queryRunCount,
-          limitScanMaxRuntimeMillis * queryRunCount);
+      results.add(benchmarkLimitQuery(statement, "where_limit_offset", query,
+          1 /* expectedRowCount */, limitScanMaxRuntimeMillis, tableName));
 
       // LIMIT SELECT with ORDER BY is not optimized.
       query = String.format("SELECT * FROM %s ORDER BY vi LIMIT 1", tableName);
-      assertQueryRuntimeWithRowCount(statement, query, 1 /* expectedRowCount */, queryRunCount,
-          fullScanMaxRuntimeMillis * queryRunCount);
+      results.add(benchmarkLimitQuery(statement, "order_by_limit", query,
+          1 /* expectedRowCount */, fullScanMaxRuntimeMillis, tableName));
 
       query = String.format("SELECT * FROM %s ORDER BY vi LIMIT 1 OFFSET 100", tableName);
-      assertQueryRuntimeWithRowCount(statement, query, 1 /* expectedRowCount */, queryRunCount,
-          fullScanMaxRuntimeMillis * queryRunCount);
+      results.add(benchmarkLimitQuery(statement, "order_by_limit_offset", query,
+          1 /* expectedRowCount */, fullScanMaxRuntimeMillis, tableName));
 
       // LIMIT SELECT with AGGREGATE is not optimized.
       query = String.format("SELECT SUM(h) FROM %s GROUP BY vs LIMIT 1", tableName);
-      assertQueryRuntimeWithRowCount(statement, query, 1 /* expectedRowCount */, queryRunCount,
-          fullScanMaxRuntimeMillis * queryRunCount);
+      results.add(benchmarkLimitQuery(statement, "aggregate_limit", query,
+          1 /* expectedRowCount */, fullScanMaxRuntimeMillis, tableName));
 
       query = String.format("SELECT SUM(h) FROM %s GROUP BY vs LIMIT 1 OFFSET 100", tableName);
-      assertQueryRuntimeWithRowCount(statement, query, 0 /* expectedRowCount */, queryRunCount,
-          fullScanMaxRuntimeMillis * queryRunCount);
+      results.add(benchmarkLimitQuery(statement, "aggregate_limit_offset", query,
+          0 /* expectedRowCount */, fullScanMaxRuntimeMillis, tableName));
 
       // LIMIT SELECT with index scan is optimized because YugaByte processed the index.
       query = String.format("SELECT * FROM %s WHERE vs = 'value_%d' LIMIT 1",
                             tableName, viConst);
-      assertQueryRuntimeWithRowCount(statement, query, 1 /* expectedRowCount */, queryRunCount,
-          limitScanMaxRuntimeMillis * queryRunCount);
+      results.add(benchmarkLimitQuery(statement, "index_limit", query, 1 /* expectedRowCount */,
+          limitScanMaxRuntimeMillis, tableName));
 
       // Index scan for 101 rows is slower as more data are sent back & forth.
       query = String.format("SELECT * FROM %s WHERE vs = 'value_%d' LIMIT 1 OFFSET 100",
                             tableName, viConst);
-      assertQueryRuntimeWithRowCount(statement, query, 1 /* expectedRowCount */, queryRunCount,
-          limitIndexScanMaxRuntimeMillis * queryRunCount);
+      results.add(benchmarkLimitQuery(statement, "index_limit_offset", query,
+          1 /* expectedRowCount */, limitIndexScanMaxRuntimeMillis, tableName));
 
       // SELECT with PRIMARY KEY scan is ALWAYS optimized regardless whether there's a LIMIT clause.
       query = String.format("SELECT * FROM %s WHERE h = 7 AND r = 'range_7' LIMIT 1",
                             tableName, viConst);
-      assertQueryRuntimeWithRowCount(statement, query, 1 /* expectedRowCount */, queryRunCount,
-          limitScanMaxRuntimeMillis * queryRunCount);
+      results.add(benchmarkLimitQuery(statement, "pk_limit", query, 1 /* expectedRowCount */,
+          limitScanMaxRuntimeMillis, tableName));
 
       query = String.format("SELECT * FROM %s WHERE h = 7 AND r = 'range_7' LIMIT 1 OFFSET 100",
                             tableName, viConst);
-      assertQueryRuntimeWithRowCount(statement, query, 0 /* expectedRowCount */, queryRunCount,
-          limitScanMaxRuntimeMillis * queryRunCount);
+      results.add(benchmarkLimitQuery(statement, "pk_limit_offset", query,
+          0 /* expectedRowCount */, limitScanMaxRuntimeMillis, tableName));
 
       // Union of LIMIT SELECTs.
       query = String.format("(SELECT * FROM %s LIMIT 1) UNION ALL (SELECT * FROM %s LIMIT 1)",
                             tableName, tableName2);
-      assertQueryRuntimeWithRowCount(statement, query, 2 /* expectedRowCount */, queryRunCount,
-          limitScanMaxRuntimeMillis * queryRunCount);
+      results.add(benchmarkLimitQuery(statement, "union_limit", query, 2 /* expectedRowCount */,
+          limitScanMaxRuntimeMillis, tableName, tableName2));
 
       query = String.format("(SELECT * FROM %s LIMIT 1 OFFSET 100) UNION ALL" +
                             "  (SELECT * FROM %s LIMIT 1 OFFSET 100)",
                             tableName, tableName2);
-      assertQueryRuntimeWithRowCount(statement, query, 2 /* expectedRowCount */, queryRunCount,
-          limitScanMaxRuntimeMillis * queryRunCount);
+      results.add(benchmarkLimitQuery(statement, "union_limit_offset", query,
+          2 /* expectedRowCount */, limitScanMaxRuntimeMillis, tableName, tableName2));
 
       // Union of Tables in a LIMIT SELECT.
       query = String.format("SELECT * FROM %s, %s LIMIT 1", tableName, tableName2);
-      assertQueryRuntimeWithRowCount(statement, query, 1 /* expectedRowCount */, queryRunCount,
-          limitScanMaxRuntimeMillis * queryRunCount);
+      results.add(benchmarkLimitQuery(statement, "join_limit", query, 1 /* expectedRowCount */,
+          limitScanMaxRuntimeMillis, tableName, tableName2));
 
       query = String.format("SELECT * FROM %s, %s LIMIT 1 OFFSET 100", tableName, tableName2);
-      assertQueryRuntimeWithRowCount(statement, query, 1 /* expectedRowCount */, queryRunCount,
-          limitScanMaxRuntimeMillis * queryRunCount);
+      results.add(benchmarkLimitQuery(statement, "join_limit_offset", query,
+          1 /* expectedRowCount */, limitScanMaxRuntimeMillis, tableName, tableName2));
     }
+    assertPerfResults(results);
   }
 }
@@ -1357,6 +1357,7 @@ class YBBackup:
         :param tablet_leaders: a list of (tablet_id, tserver_ip) pairs
         :param snapshot_id: self-explanatory
         :param snapshot_filepath: the top-level directory under which to upload the data directories
+        :return: the total size in bytes of the uploaded directories, or None if unknown
         """
         pool = ThreadPool(self.args.parallelism)
 
@@ -1399,6 +1400,34 @@ class YBBackup:
         # Run a sequence of steps for each tablet, handling different tablets in parallel.
         parallel_uploads.run(pool)
 
+        return self.find_snapshot_size(pool, leader_ip_to_tablet_id_to_snapshot_dirs)
+
+    def find_snapshot_size(self, pool, tserver_ip_to_tablet_id_to_snapshot_dirs):
+        """
+        Computes the total size of the uploaded snapshot directories, with one 'du' command per
+        tablet server. This is only used for reporting, so failures are logged and ignored.
+        :param tserver_ip_to_tablet_id_to_snapshot_dirs: the three-level map as returned by
+            rearrange_snapshot_dirs.
+        :return: the size in bytes, or None if it could not be computed.
+        """
+        parallel_du = MultiArgParallelCmd(self.find_dirs_size)
+        for tserver_ip, tablet_id_to_snapshot_dirs in \
+                tserver_ip_to_tablet_id_to_snapshot_dirs.items():
+            snapshot_dirs = set()
+            for dirs in tablet_id_to_snapshot_dirs.values():
+                snapshot_dirs.update(dirs)
+            if snapshot_dirs:
+                parallel_du.add_args(tuple(sorted(snapshot_dirs)), tserver_ip)
+        try:
+            return sum(parallel_du.run(pool).values())
+        except Exception as ex:
+            logging.warning("Failed to compute the backup size: {}".format(ex))
+            return None
+
+    def find_dirs_size(self, dirs, tserver_ip):
+        du_output = self.run_ssh_cmd(['du', '-sb'] + list(dirs), tserver_ip)
+        return sum(int(line.split()[0]) for line in du_output.strip().split('\n') if line.strip())
+
     def rearrange_snapshot_dirs(
             self, find_snapshot_dir_results, snapshot_id, tablets_by_tserver_ip):
         """
@@ -1858,13 +1887,17 @@ class YBBackup:
 
         snapshot_id = self.create_and_upload_metadata_files(snapshot_filepath)
         tablet_leaders = self.find_tablet_leaders()
-        self.upload_snapshot_directories(tablet_leaders, snapshot_id, snapshot_filepath)
+        backup_size = self.upload_snapshot_directories(
+            tablet_leaders, snapshot_id, snapshot_filepath)
         logging.info(
             '[app] Backed up tables %s to %s successfully!' %
             (self.table_names_str(), snapshot_filepath))
         if self.args.backup_keys_source:
             self.upload_encryption_key_file()
-        print(json.dumps({"snapshot_url": snapshot_filepath}))
+        result = {"snapshot_url": snapshot_filepath}
+        if backup_size is not None:
+            result["backup_size_in_bytes"] = backup_size
+        print(json.dumps(result))
 
     def download_file(self, src_path, target_path):
         """
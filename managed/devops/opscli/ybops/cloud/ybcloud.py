@@ -11,6 +11,8 @@
 import argparse
 import json
 import logging
+import multiprocessing
+import sys
 
 from ybops.cloud.aws.cloud import AwsCloud
 from ybops.cloud.gcp.cloud import GcpCloud
@@ -19,10 +21,74 @@ from ybops.cloud.azure.cloud import AzureCloud
 from ybops.cloud.common.base import AbstractCommandParser
 from ybops.utils import init_env, init_logging
 
+# Parser of the batched commands, shared with the processes forked to run them.
+_batch_parser = None
+
+
+class _CommandOutput(object):
+    """Collects what a batched command prints, to be returned as its result.
+    """
+    def __init__(self):
+        self.parts = []
+
+    def write(self, data):
+        self.parts.append(data)
+
+    def flush(self):
+        pass
+
+    def getvalue(self):
+        return "".join(self.parts)
+
+
+def _run_batch_command(name_and_args):
+    """Runs a batched command in a process forked from the batch, and returns its name, exit code
+    and output, or its stderr if it failed, as a separate ybcloud process would.
+    """
+    name, args = name_and_args
+    output = _CommandOutput()
+    error = _CommandOutput()
+    # The logs of the command go to its stderr too, as with a separate process.
+    root_logger = logging.getLogger()
+    handler = logging.StreamHandler(error)
+    if root_logger.handlers:
+        handler.setFormatter(root_logger.handlers[0].formatter)
+    stdout, stderr = sys.stdout, sys.stderr
+    sys.stdout, sys.stderr = output, error
+    root_logger.addHandler(handler)
+    try:
+        try:
+            options = _batch_parser.parse_args(args)
+        except SystemExit as e:
+            code = e.code if isinstance(e.code, int) else 1
+            return name, code, "Failed to parse the arguments of {}: {}".format(
+                name, error.getvalue().strip())
+
+        try:
+            options.func(options)
+            code = 0
+        except SystemExit as e:
+            if e.code is None or isinstance(e.code, int):
+                code = e.code or 0
+            else:
+                # Like the interpreter, print the exit message to stderr.
+                sys.stderr.write("{}\n".format(e.code))
+                code = 1
+        except Exception:
+            logging.exception("Command for %s failed", name)
+            code = 1
+        message = output.getvalue() if code == 0 else error.getvalue()
+        return name, code, message.strip()
+    finally:
+        root_logger.removeHandler(handler)
+        sys.stdout, sys.stderr = stdout, stderr
+
 
 class YbCloud(AbstractCommandParser):
     """Top-level entry point into YugaByte ops CLI tool.
     """
+    BATCH_COMMAND = "batch"
+
     def __init__(self):
         super(YbCloud, self).__init__("ybcloud")
         # Default INFO logging for pre argument parsing logging.
@@ -46,6 +112,9 @@ class YbCloud(AbstractCommandParser):
 
     def run(self):
         self.register(argparse.ArgumentParser())
+        if len(sys.argv) > 1 and sys.argv[1] == self.BATCH_COMMAND:
+            self.run_batch(sys.argv[2:])
+            return
         self.options = self.parser.parse_args()
 
         log_level = getattr(logging, self.options.log_level.upper())
@@ -54,3 +123,45 @@ class YbCloud(AbstractCommandParser):
         pointed to, after full CLI parsing.
         """
         self.options.func(self.options)
+
+    def run_batch(self, argv):
+        """Runs the commands of a batch file, each in a process forked from this one, so that the
+        interpreter startup and the module imports are paid once for the whole batch.
+
+        The batch file holds a JSON list of {"name": ..., "args": [...]}, args being the arguments
+        of a single ybcloud invocation. The results are written to the output file as a JSON
+        object mapping each name to {"code": ..., "message": ...}.
+        """
+        batch_parser = argparse.ArgumentParser(prog="ybcloud " + self.BATCH_COMMAND)
+        batch_parser.add_argument("-l", "--log_level",
+                                  default="INFO",
+                                  choices=("INFO", "DEBUG", "WARNING", "ERROR"))
+        batch_parser.add_argument("--parallelism", type=int, default=8,
+                                  help="Maximum number of commands run at the same time.")
+        batch_parser.add_argument("--output_file", required=True)
+        batch_parser.add_argument("batch_file")
+        batch_options = batch_parser.parse_args(argv)
+        init_env(getattr(logging, batch_options.log_level.upper()))
+
+        with open(batch_options.batch_file) as f:
+            commands = json.load(f)
+        global _batch_parser
+        _batch_parser = self.parser
+        results = []
+        if commands:
+            logging.info("[app] Running {} commands with parallelism {}".format(
+                len(commands), batch_options.parallelism))
+            num_processes = max(1, min(batch_options.parallelism, len(commands)))
+            # A fresh process per command, as the methods keep per-command state.
+            pool = multiprocessing.Pool(processes=num_processes, maxtasksperchild=1)
+            try:
+                results = pool.map(_run_batch_command,
+                                   [(c["name"], c["args"]) for c in commands],
+                                   chunksize=1)
+            finally:
+                pool.close()
+                pool.join()
+
+        with open(batch_options.output_file, "w") as f:
+            json.dump({name: {"code": code, "message": message}
+                       for name, code, message in results}, f)
@@ -54,6 +54,7 @@ public class Module extends AbstractModule {
     bind(YBClientService.class).to(LocalYBClientService.class);
     bind(YsqlQueryExecutor.class).asEagerSingleton();
     bind(YcqlQueryExecutor.class).asEagerSingleton();
+    bind(AuditWriter.class).asEagerSingleton();
     bind(PlaySessionStore.class).to(PlayCacheSessionStore.class);
 
     // We only needed to bind below ones for Platform mode.
@@ -3,6 +3,8 @@
 package com.yugabyte.yw.commissioner;
 
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
@@ -104,6 +106,21 @@ public abstract class AbstractTaskBase implements ITask {
     this.userTaskUUID = userTaskUUID;
   }
 
+  /**
+   * Waits for the future returned by {@link AsyncTask#runAsync()}, for the callers running an
+   * AsyncTask through run(). The error the task failed with is rethrown as is.
+   */
+  protected static void join(CompletionStage<?> stage) {
+    try {
+      stage.toCompletableFuture().join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
   /**
    * @param response : ShellResponse object
    */
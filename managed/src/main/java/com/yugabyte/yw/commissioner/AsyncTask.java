@@ -0,0 +1,21 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.commissioner;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A task that spends most of its time waiting, typically through the {@link WaitUntilService}.
+ * A SubTaskGroup starts it with runAsync() on its executor and gets the thread back as soon as
+ * the task is waiting, instead of having the thread sleep until the task is done. run() is still
+ * available to the callers running the task directly and blocks until the task is done.
+ */
+public interface AsyncTask extends ITask {
+
+  /**
+   * Starts the task.
+   *
+   * @return a future completed when the task is done, exceptionally if it failed.
+   */
+  CompletableFuture<Void> runAsync();
+}
@@ -2,7 +2,9 @@
 
 package com.yugabyte.yw.commissioner;
 
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.UUID;
@@ -53,6 +55,19 @@ public class Commissioner {
   // persisted before removing the task from this map.
   static Map<UUID, TaskRunner> runningTasks = new ConcurrentHashMap<UUID, TaskRunner>();
 
+  // Number of completed tasks whose progress is kept in memory, their status is polled for a
+  // little while after they complete.
+  private static final int MAX_FINISHED_TASKS = 1000;
+
+  // The progress of the tasks that recently completed in this process, least recently read first.
+  static Map<UUID, TaskProgress> finishedTasks = Collections.synchronizedMap(
+      new LinkedHashMap<UUID, TaskProgress>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, TaskProgress> eldest) {
+          return size() > MAX_FINISHED_TASKS;
+        }
+      });
+
   public Commissioner() {
     // Initialize the tasks threadpool.
     ThreadFactory namedThreadFactory =
@@ -102,7 +117,12 @@ public class Commissioner {
   }
 
   public ObjectNode getStatus(UUID taskUUID) {
-    ObjectNode responseJson = Json.newObject();
+    // Tasks run by this process are served from memory, without reading their subtasks.
+    ObjectNode responseJson = getStatusFromProgress(taskUUID);
+    if (responseJson != null) {
+      return responseJson;
+    }
+    responseJson = Json.newObject();
 
     // Check if the task is in the DB
     TaskInfo taskInfo = TaskInfo.get(taskUUID);
@@ -128,6 +148,34 @@ public class Commissioner {
     throw new RuntimeException("Not able to find task " + taskUUID);
   }
 
+  private ObjectNode getStatusFromProgress(UUID taskUUID) {
+    TaskRunner taskRunner = runningTasks.get(taskUUID);
+    TaskProgress progress =
+        taskRunner != null ? taskRunner.getProgress() : finishedTasks.get(taskUUID);
+    if (progress == null) {
+      return null;
+    }
+    CustomerTask task = progress.getCustomerTask();
+    if (task == null) {
+      // The customer task is created by the caller once the task is submitted.
+      task = CustomerTask.find.query().where().eq("task_uuid", taskUUID).findOne();
+      if (task == null) {
+        return null;
+      }
+      task = progress.cacheCustomerTask(task);
+    }
+    ObjectNode responseJson = Json.newObject();
+    responseJson.put("title", task.getFriendlyDescription());
+    responseJson.put("createTime", task.getCreateTime().toString());
+    responseJson.put("target", task.getTargetName());
+    responseJson.put("targetUUID", task.getTargetUUID().toString());
+    responseJson.put("type", task.getType().name());
+    responseJson.put("status", progress.getTaskState().toString());
+    responseJson.put("percent", progress.getPercentCompleted());
+    responseJson.set("details", progress.getUserTaskDetails());
+    return responseJson;
+  }
+
   public JsonNode getTaskDetails(UUID taskUUID) {
     TaskInfo taskInfo = TaskInfo.get(taskUUID);
     if (taskInfo != null) {
@@ -162,10 +210,12 @@ public class Commissioner {
           } else if (taskRunner.hasTaskSucceeded()) {
             LOG.info("Task " + taskRunner.toString() + " has succeeded.");
             // Remove task from the set of live tasks.
+            finishedTasks.put(entry.getKey(), taskRunner.getProgress());
             iter.remove();
           } else if (taskRunner.hasTaskFailed()) {
             LOG.info("Task " + taskRunner.toString() + " has failed.");
             // Remove task from the set of live tasks.
+            finishedTasks.put(entry.getKey(), taskRunner.getProgress());
             iter.remove();
           }
         }
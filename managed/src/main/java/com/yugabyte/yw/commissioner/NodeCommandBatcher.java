@@ -0,0 +1,138 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.commissioner;
+
+import com.yugabyte.yw.commissioner.tasks.params.NodeTaskParams;
+import com.yugabyte.yw.common.DevopsBase.DevopsCommand;
+import com.yugabyte.yw.common.NodeManager;
+import com.yugabyte.yw.common.NodeManager.NodeCommandType;
+import com.yugabyte.yw.common.ShellResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Gathers the node commands of the subtasks of a subtask group, to run each command type with a
+ * single ybcloud invocation for all the nodes instead of one per node.
+ *
+ * The subtasks submit their command and wait for its result. A batch runs as soon as every subtask
+ * of the group that is still running waits on a batch, or once no command was added to it for the
+ * linger time, so that subtasks which do not submit commands, or which are queued behind the
+ * waiting ones in the executor, do not block the others.
+ */
+public class NodeCommandBatcher {
+  public static final Logger LOG = LoggerFactory.getLogger(NodeCommandBatcher.class);
+
+  private final NodeManager nodeManager;
+  private final long lingerMs;
+
+  // Number of subtasks of the group not done yet. Guarded by this.
+  private int numRunningTasks;
+  // Number of subtasks waiting for the result of a batch. Guarded by this.
+  private int numWaitingTasks;
+
+  // The batches being filled, by command type. Guarded by this.
+  private final Map<NodeCommandType, Batch> pendingBatches = new EnumMap<>(NodeCommandType.class);
+
+  private static class Batch {
+    final NodeCommandType type;
+    // The commands of the nodes, by node name.
+    final Map<String, DevopsCommand> commands = new LinkedHashMap<>();
+    long lastAddedMs;
+    boolean started;
+    Map<String, ShellResponse> responses;
+    RuntimeException error;
+
+    Batch(NodeCommandType type) {
+      this.type = type;
+    }
+  }
+
+  public NodeCommandBatcher(NodeManager nodeManager, int numTasks, long lingerMs) {
+    this.nodeManager = nodeManager;
+    this.numRunningTasks = numTasks;
+    this.lingerMs = lingerMs;
+  }
+
+  /**
+   * Runs the command on the node of the params as part of a batch, and returns its response.
+   */
+  public ShellResponse run(NodeCommandType type, NodeTaskParams params) {
+    // Invalid params fail the subtask before it joins a batch.
+    DevopsCommand command = nodeManager.getNodeCommand(type, params);
+    Batch batch;
+    boolean starter = false;
+    synchronized (this) {
+      batch = pendingBatches.computeIfAbsent(type, Batch::new);
+      batch.commands.put(params.nodeName, command);
+      batch.lastAddedMs = System.currentTimeMillis();
+      numWaitingTasks++;
+      notifyAll();
+      try {
+        while (batch.responses == null && batch.error == null) {
+          if (!batch.started && shouldStart(batch)) {
+            batch.started = true;
+            pendingBatches.remove(type);
+            starter = true;
+            break;
+          }
+          if (batch.started) {
+            wait();
+          } else {
+            wait(Math.max(1, batch.lastAddedMs + lingerMs - System.currentTimeMillis()));
+          }
+        }
+      } catch (InterruptedException e) {
+        // The command stays in its batch, and is run with it.
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Interrupted while waiting for " + type + " on " +
+                                   params.nodeName, e);
+      }
+    }
+    if (starter) {
+      execute(batch);
+    }
+    synchronized (this) {
+      if (batch.error != null) {
+        throw batch.error;
+      }
+      return batch.responses.get(params.nodeName);
+    }
+  }
+
+  /**
+   * Called when a subtask of the group is done, whether it submitted commands or not.
+   */
+  public synchronized void onTaskDone() {
+    numRunningTasks--;
+    notifyAll();
+  }
+
+  private boolean shouldStart(Batch batch) {
+    return numWaitingTasks >= numRunningTasks ||
+        System.currentTimeMillis() - batch.lastAddedMs >= lingerMs;
+  }
+
+  private void execute(Batch batch) {
+    Map<String, ShellResponse> responses = null;
+    RuntimeException error = null;
+    try {
+      if (batch.commands.size() > 1) {
+        LOG.info("Running {} on {} nodes with a single devops process.", batch.type,
+                 batch.commands.size());
+      }
+      responses = nodeManager.nodeCommands(batch.commands);
+    } catch (RuntimeException e) {
+      error = e;
+    }
+    synchronized (this) {
+      batch.responses = responses;
+      batch.error = error;
+      numWaitingTasks -= batch.commands.size();
+      notifyAll();
+    }
+  }
+}
@@ -22,21 +22,62 @@ import com.yugabyte.yw.models.Alert;
 import com.yugabyte.yw.models.AlertDefinition;
 import com.yugabyte.yw.models.Customer;
 import com.yugabyte.yw.models.Universe;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import scala.concurrent.ExecutionContext;
 import scala.concurrent.duration.Duration;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static com.yugabyte.yw.common.utils.PrometheusUtil.registerCollector;
+
+/**
+ * Evaluates the active alert definitions of all the customers every minute.
+ *
+ * A run compiles the definitions, substituting the config parameters of their queries, and
+ * reuses the compiled queries of the previous runs unless the query changed or
+ * {@link #COMPILED_DEFINITION_TTL_MS} passed. The alerts are built from the current definitions.
+ * Definitions with the same compiled query share a
+ * single prometheus query, and all the queries are sent at once, each with its own deadline. A
+ * definition whose query failed keeps its active alert: only a successful evaluation resolves it.
+ */
 @Singleton
 public class QueryAlerts {
   public static final Logger LOG = LoggerFactory.getLogger(QueryAlerts.class);
 
+  static final String QUERY_TIMEOUT_KEY = "yb.alert.query_timeout";
+
+  // Compiled definitions are refreshed after this long, to pick up runtime config changes.
+  static final long COMPILED_DEFINITION_TTL_MS = TimeUnit.MINUTES.toMillis(10);
+
+  private final Histogram evaluationDuration;
+
+  private final Gauge evaluationLag;
+
+  private final Gauge evaluatedDefinitions;
+
+  private final Gauge evaluatedQueries;
+
+  private final Counter queryErrors;
+
+  private final Counter skippedRuns;
+
   private AtomicBoolean running = new AtomicBoolean(false);
 
   private final ActorSystem actorSystem;
@@ -51,6 +92,34 @@ public class QueryAlerts {
 
   private final RuntimeConfigFactory configFactory;
 
+  private final Map<UUID, CompiledDefinition> compiledDefinitions = new ConcurrentHashMap<>();
+
+  // Start time of the previous run, 0 before the first one.
+  private long lastRunStartMs = 0;
+
+  /**
+   * An alert definition with the config parameters of its query substituted.
+   */
+  static class CompiledDefinition {
+    final AlertDefinition definition;
+    final String sourceQuery;
+    final String query;
+    final long compileTimeMs;
+
+    CompiledDefinition(AlertDefinition definition, String query, long compileTimeMs) {
+      this.definition = definition;
+      this.sourceQuery = definition.query;
+      this.query = query;
+      this.compileTimeMs = compileTimeMs;
+    }
+
+    boolean isValidFor(AlertDefinition latest, long nowMs) {
+      return sourceQuery.equals(latest.query) &&
+        definition.universeUUID.equals(latest.universeUUID) &&
+        nowMs - compileTimeMs < COMPILED_DEFINITION_TTL_MS;
+    }
+  }
+
   @Inject
   public QueryAlerts(
     ExecutionContext executionContext,
@@ -59,6 +128,40 @@ public class QueryAlerts {
     MetricQueryHelper queryHelper,
     RuntimeConfigFactory configFactory
   ) {
+    this(executionContext, actorSystem, alertManager, queryHelper, configFactory,
+      CollectorRegistry.defaultRegistry);
+  }
+
+  @VisibleForTesting
+  QueryAlerts(
+    ExecutionContext executionContext,
+    ActorSystem actorSystem,
+    AlertManager alertManager,
+    MetricQueryHelper queryHelper,
+    RuntimeConfigFactory configFactory,
+    CollectorRegistry promRegistry
+  ) {
+    this.evaluationDuration = registerCollector(Histogram
+      .build("yw_alert_evaluation_duration_seconds", "Duration of the alert evaluation runs.")
+      .create(), promRegistry);
+    this.evaluationLag = registerCollector(Gauge
+      .build("yw_alert_evaluation_lag_seconds",
+        "Delay between the scheduled and the actual start of the last alert evaluation run.")
+      .create(), promRegistry);
+    this.evaluatedDefinitions = registerCollector(Gauge
+      .build("yw_alert_evaluated_definitions",
+        "Number of alert definitions evaluated by the last run.")
+      .create(), promRegistry);
+    this.evaluatedQueries = registerCollector(Gauge
+      .build("yw_alert_evaluated_queries", "Number of distinct queries sent by the last run.")
+      .create(), promRegistry);
+    this.queryErrors = registerCollector(Counter
+      .build("yw_alert_query_error_count", "Number of failed or timed out alert queries.")
+      .create(), promRegistry);
+    this.skippedRuns = registerCollector(Counter
+      .build("yw_alert_evaluation_skipped_count",
+        "Number of alert evaluation runs skipped because the previous one was still running.")
+      .create(), promRegistry);
     this.actorSystem = actorSystem;
     this.executionContext = executionContext;
     this.queryHelper = queryHelper;
@@ -80,20 +183,136 @@ public class QueryAlerts {
     );
   }
 
-  public Set<Alert> processAlertDefinitions(UUID customerUUID) {
-    Customer customer = Customer.get(customerUUID);
+  /**
+   * Returns the compiled active definitions of the customers, compiling only the new and changed
+   * ones, and forgets the definitions that are no longer active.
+   */
+  @VisibleForTesting
+  List<CompiledDefinition> compileDefinitions(List<Customer> customers) {
+    long nowMs = System.currentTimeMillis();
+    List<CompiledDefinition> result = new ArrayList<>();
+    Set<UUID> activeDefinitions = new HashSet<>();
+    for (Customer customer : customers) {
+      ConfigSubstitutor substitutor = null;
+      for (AlertDefinition definition : AlertDefinition.listActive(customer.uuid)) {
+        CompiledDefinition compiled = compiledDefinitions.get(definition.uuid);
+        if (compiled == null || !compiled.isValidFor(definition, nowMs)) {
+          if (substitutor == null) {
+            substitutor = new ConfigSubstitutor(configFactory.forCustomer(customer));
+          }
+          compiled = new CompiledDefinition(definition, substitutor.replace(definition.query),
+            nowMs);
+          compiledDefinitions.put(definition.uuid, compiled);
+        } else {
+          // Only the compiled query is reused, the alerts are built from the current definition
+          // so that a new name is picked up.
+          compiled = new CompiledDefinition(definition, compiled.query, compiled.compileTimeMs);
+        }
+        result.add(compiled);
+        activeDefinitions.add(definition.uuid);
+      }
+    }
+    compiledDefinitions.keySet().retainAll(activeDefinitions);
+    return result;
+  }
+
+  /**
+   * Sends each distinct query once, all at the same time, and waits for the results.
+   *
+   * @return whether each query is firing. Queries that failed or timed out are not in the map.
+   */
+  @VisibleForTesting
+  Map<String, Boolean> evaluateQueries(Set<String> queries) {
+    java.time.Duration timeout =
+      configFactory.globalRuntimeConf().getDuration(QUERY_TIMEOUT_KEY);
+    Map<String, CompletableFuture<Boolean>> futures = new LinkedHashMap<>();
+    for (String query : queries) {
+      CompletableFuture<Boolean> future;
+      try {
+        future = queryHelper.queryDirectAsync(query, timeout).toCompletableFuture()
+          .thenApply(values -> !values.isEmpty());
+      } catch (RuntimeException e) {
+        future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+      }
+      futures.put(query, future);
+    }
+
+    try {
+      // Every query has its own deadline, this only guards against a lost response.
+      CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0]))
+        .get(2 * timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      LOG.error("Alert queries did not complete in {} ms", 2 * timeout.toMillis());
+    } catch (Exception e) {
+      // Failures are reported per query below.
+    }
+
+    Map<String, Boolean> result = new HashMap<>();
+    for (Map.Entry<String, CompletableFuture<Boolean>> entry : futures.entrySet()) {
+      CompletableFuture<Boolean> future = entry.getValue();
+      if (future.isDone() && !future.isCompletedExceptionally()) {
+        result.put(entry.getKey(), future.join());
+      } else {
+        queryErrors.inc();
+        future.cancel(false);
+        LOG.warn("Alert query {} failed: {}", entry.getKey(), getError(future));
+      }
+    }
+    return result;
+  }
+
+  private static String getError(CompletableFuture<?> future) {
+    if (!future.isDone()) {
+      return "timed out";
+    }
+    try {
+      future.join();
+      return "cancelled";
+    } catch (Exception e) {
+      return e.getMessage();
+    }
+  }
+
+  /**
+   * Evaluates the definitions and creates the alerts of the firing ones.
+   *
+   * @return the active alerts that should stay active.
+   */
+  @VisibleForTesting
+  Set<Alert> processAlertDefinitions(List<Customer> customers) {
+    List<CompiledDefinition> definitions = compileDefinitions(customers);
+    Set<String> queries = new HashSet<>();
+    definitions.forEach(compiled -> queries.add(compiled.query));
+    evaluatedDefinitions.set(definitions.size());
+    evaluatedQueries.set(queries.size());
+    Map<String, Boolean> firing = evaluateQueries(queries);
+
+    Map<UUID, Alert> activeAlerts = new HashMap<>();
+    for (Customer customer : customers) {
+      for (Alert alert : Alert.listActiveCustomerAlerts(customer.uuid)) {
+        if (alert.definitionUUID != null) {
+          activeAlerts.put(alert.definitionUUID, alert);
+        }
+      }
+    }
 
     Set<Alert> alertsStillActive = new HashSet<>();
-    AlertDefinition.listActive(customerUUID).forEach(definition -> {
-      String query =
-        new ConfigSubstitutor(configFactory.forCustomer(customer)).replace(definition.query);
-      if (!queryHelper.queryDirect(query).isEmpty()) {
-        Universe universe = Universe.get(definition.universeUUID);
-        Alert existingAlert = Alert.getActiveCustomerAlert(customerUUID, definition.uuid);
+    for (CompiledDefinition compiled : definitions) {
+      AlertDefinition definition = compiled.definition;
+      Boolean isFiring = firing.get(compiled.query);
+      Alert existingAlert = activeAlerts.get(definition.uuid);
+      if (isFiring == null) {
+        // Could not be evaluated, keep the alert as it is.
+        if (existingAlert != null) {
+          alertsStillActive.add(existingAlert);
+        }
+      } else if (isFiring) {
         // Create an alert to activate if it doesn't exist already
         if (existingAlert == null) {
+          Universe universe = Universe.get(definition.universeUUID);
           Alert.create(
-            customerUUID,
+            definition.customerUUID,
             definition.universeUUID,
             Alert.TargetType.UniverseType,
             "CUSTOMER_ALERT",
@@ -106,7 +325,7 @@ public class QueryAlerts {
           alertsStillActive.add(existingAlert);
         }
       }
-    });
+    }
 
     return alertsStillActive;
   }
@@ -114,17 +333,23 @@ public class QueryAlerts {
   @VisibleForTesting
   void scheduleRunner() {
     if (running.compareAndSet(false, true)) {
+      long startMs = System.currentTimeMillis();
+      if (lastRunStartMs > 0) {
+        long expectedStartMs = lastRunStartMs + TimeUnit.MINUTES.toMillis(YB_QUERY_ALERTS_INTERVAL);
+        evaluationLag.set(Math.max(0, startMs - expectedStartMs) / 1000.0);
+      }
+      lastRunStartMs = startMs;
       try {
-        Set<Alert> alertsStillActive = new HashSet<>();
+        List<Customer> customers = Customer.getAll();
 
         // Pick up all alerts still active + create new alerts
-        Customer.getAll().forEach(c -> alertsStillActive.addAll(processAlertDefinitions(c.uuid)));
+        Set<Alert> alertsStillActive = processAlertDefinitions(customers);
 
         // Pick up all created alerts that are waiting to be activated
         Set<Alert> alertsToTransition = new HashSet<>(Alert.listToActivate());
 
         // Pick up all alerts that should be resolved internally but are currently active
-        Customer.getAll().forEach(c ->
+        customers.forEach(c ->
           Alert.listActiveCustomerAlerts(c.uuid).forEach(alert -> {
             if (!alertsStillActive.contains(alert))
               alertsToTransition.add(alert);
@@ -135,8 +360,11 @@ public class QueryAlerts {
       } catch (Exception e) {
         LOG.error("Error querying for alerts", e);
       }
+      evaluationDuration.observe((System.currentTimeMillis() - startMs) / 1000.0);
 
       running.set(false);
+    } else {
+      skippedRuns.inc();
     }
   }
 }
@@ -4,15 +4,20 @@ package com.yugabyte.yw.commissioner;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.yugabyte.yw.commissioner.UserTaskDetails.SubTaskGroupType;
+import com.yugabyte.yw.commissioner.tasks.subtasks.NodeTaskBase;
+import com.yugabyte.yw.common.NodeManager;
 import com.yugabyte.yw.models.TaskInfo;
 import com.yugabyte.yw.models.helpers.TaskType;
 import org.slf4j.Logger;
@@ -53,6 +58,22 @@ public class SubTaskGroup implements Runnable {
   // Flag to denote if an exception needs to be thrown on failure.
   boolean ignoreErrors = false;
 
+  // The in memory progress of the user task this task list belongs to, if it runs in this process.
+  private TaskProgress progress;
+
+  // Runs the node commands of the node subtasks in batches, if enabled.
+  private NodeCommandBatcher nodeCommandBatcher;
+
+  // Start of the run of the node subtasks, 0 if the group has none.
+  private long nodeTasksStartMs;
+
+  // The node manager of the node subtasks, which records their run time.
+  private NodeManager nodeManager;
+
+  // Callbacks run by the queue before this group starts and after all its tasks succeeded.
+  private Runnable beforeRunCallback;
+  private Runnable afterSuccessCallback;
+
   /**
    * Creates the task list.
    *
@@ -85,6 +106,37 @@ public class SubTaskGroup implements Runnable {
       taskInfo.setSubTaskGroupType(subTaskGroupType);
       taskInfo.save();
     }
+    if (progress != null) {
+      progress.onSubTaskGroupTypeChanged(this, subTaskGroupType);
+    }
+  }
+
+  /**
+   * Sets a callback run by the subtask group queue right before this group is started.
+   */
+  public SubTaskGroup setBeforeRunCallback(Runnable callback) {
+    this.beforeRunCallback = callback;
+    return this;
+  }
+
+  /**
+   * Sets a callback run by the subtask group queue once all the tasks of this group succeeded.
+   */
+  public SubTaskGroup setAfterSuccessCallback(Runnable callback) {
+    this.afterSuccessCallback = callback;
+    return this;
+  }
+
+  void beforeRun() {
+    if (beforeRunCallback != null) {
+      beforeRunCallback.run();
+    }
+  }
+
+  void afterSuccess() {
+    if (afterSuccessCallback != null) {
+      afterSuccessCallback.run();
+    }
   }
 
   public UserTaskDetails.SubTaskGroupType getSubTaskGroupType() {
@@ -97,6 +149,9 @@ public class SubTaskGroup implements Runnable {
       taskInfo.setTaskState(userTaskState);
       taskInfo.save();
     }
+    if (progress != null) {
+      progress.onSubTaskGroupStateChanged(this, userTaskState);
+    }
   }
 
   public synchronized TaskInfo.State getUserSubTaskState() {
@@ -144,6 +199,10 @@ public class SubTaskGroup implements Runnable {
     return numTasksCompleted.get();
   }
 
+  synchronized void setProgress(TaskProgress progress) {
+    this.progress = progress;
+  }
+
   public void setTaskContext(int position, UUID userTaskUUID) {
     for (TaskInfo taskInfo : taskMap.values()) {
       taskInfo.setPosition(position);
@@ -164,12 +223,52 @@ public class SubTaskGroup implements Runnable {
       return;
     }
     LOG.info("Running task list {}.", getName());
+    setUpNodeCommandBatcher();
     for (AbstractTaskBase task : taskMap.keySet()) {
-      Future<?> future = executor.submit(task);
+      Future<?> future;
+      if (task instanceof AsyncTask) {
+        // The executor thread only starts the task and is released while the task is waiting.
+        future = CompletableFuture.supplyAsync(((AsyncTask) task)::runAsync, executor)
+            .thenCompose(f -> f);
+      } else if (nodeCommandBatcher != null && task instanceof NodeTaskBase) {
+        NodeCommandBatcher batcher = nodeCommandBatcher;
+        future = executor.submit(() -> {
+          try {
+            task.run();
+          } finally {
+            batcher.onTaskDone();
+          }
+        });
+      } else {
+        future = executor.submit(task);
+      }
       futuresMap.put(future, taskMap.get(task));
     }
   }
 
+  // Batches the node commands of the node subtasks when there are several and batching is enabled.
+  private void setUpNodeCommandBatcher() {
+    List<NodeTaskBase> nodeTasks = new ArrayList<>();
+    for (AbstractTaskBase task : taskMap.keySet()) {
+      if (task instanceof NodeTaskBase && !(task instanceof AsyncTask)) {
+        nodeTasks.add((NodeTaskBase) task);
+      }
+    }
+    if (nodeTasks.isEmpty()) {
+      return;
+    }
+    nodeTasksStartMs = System.currentTimeMillis();
+    nodeManager = nodeTasks.get(0).getNodeManager();
+    if (nodeTasks.size() < 2 || nodeManager == null || !nodeManager.isBatchingEnabled()) {
+      return;
+    }
+    nodeCommandBatcher = new NodeCommandBatcher(nodeManager, nodeTasks.size(),
+                                                nodeManager.getBatchLingerMs());
+    for (NodeTaskBase task : nodeTasks) {
+      task.setNodeCommandBatcher(nodeCommandBatcher);
+    }
+  }
+
   public boolean waitFor() {
     boolean hasErrored = false;
     for (Future<?> future : futuresMap.keySet()) {
@@ -200,6 +299,12 @@ public class SubTaskGroup implements Runnable {
         }
       }
     }
+    if (nodeTasksStartMs > 0 && nodeManager != null) {
+      nodeManager.recordNodeTasks(String.valueOf(subTaskGroupType),
+                                  nodeCommandBatcher != null ? "batch" : "single",
+                                  System.currentTimeMillis() - nodeTasksStartMs);
+    }
+    nodeTasksStartMs = 0;
     return !hasErrored;
   }
 }
@@ -26,7 +26,15 @@ public class SubTaskGroupQueue {
    * Add a task list to this sequence.
    */
   public boolean add(SubTaskGroup subTaskGroup) {
-    subTaskGroup.setTaskContext(subTaskGroups.size(), userTaskUUID);
+    int position = subTaskGroups.size();
+    subTaskGroup.setTaskContext(position, userTaskUUID);
+    // Let the status of the user task be tracked in memory when it runs in this process.
+    TaskRunner taskRunner =
+        userTaskUUID == null ? null : Commissioner.runningTasks.get(userTaskUUID);
+    if (taskRunner != null) {
+      taskRunner.getProgress().addSubTaskGroup(subTaskGroup, position);
+      subTaskGroup.setProgress(taskRunner.getProgress());
+    }
     return subTaskGroups.add(subTaskGroup);
   }
 
@@ -39,6 +47,7 @@ public class SubTaskGroupQueue {
       boolean subTaskGroupSuccess = false;
       subTaskGroup.setUserSubTaskState(TaskInfo.State.Running);
       try {
+        subTaskGroup.beforeRun();
         subTaskGroup.run();
         subTaskGroupSuccess = subTaskGroup.waitFor();
       } catch (Throwable t) {
@@ -59,7 +68,10 @@ public class SubTaskGroupQueue {
 
       runSuccess = runSuccess && subTaskGroupSuccess;
 
-      if (subTaskGroupSuccess) subTaskGroup.setUserSubTaskState(TaskInfo.State.Success);
+      if (subTaskGroupSuccess) {
+        subTaskGroup.setUserSubTaskState(TaskInfo.State.Success);
+        subTaskGroup.afterSuccess();
+      }
     }
 
     if (!runSuccess) throw new RuntimeException("One or more subTaskGroups failed while running.");
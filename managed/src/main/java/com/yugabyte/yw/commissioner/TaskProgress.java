@@ -0,0 +1,164 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.commissioner;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.yugabyte.yw.commissioner.UserTaskDetails.SubTaskDetails;
+import com.yugabyte.yw.commissioner.UserTaskDetails.SubTaskGroupType;
+import com.yugabyte.yw.models.CustomerTask;
+import com.yugabyte.yw.models.TaskInfo;
+import play.libs.Json;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The progress of a user task run by this process, kept in memory so that the status of the task
+ * can be served without reading its subtasks from the DB.
+ *
+ * It is updated by the SubTaskGroups of the task when they are added, change state or change
+ * type, and by the TaskRunner when the task itself changes state. All the subtasks of a group
+ * share the state of the group, so the progress is tracked per group. The percentage and the
+ * user task details are computed as TaskInfo.getPercentCompleted and
+ * TaskInfo.getUserTaskDetails do from the subtask rows, but only when something changed.
+ */
+class TaskProgress {
+
+  private static class GroupProgress {
+    final int position;
+    // Order in which the group was added, groups of successive queues share positions.
+    final int sequence;
+    final int numTasks;
+    SubTaskGroupType type;
+    TaskInfo.State state = TaskInfo.State.Created;
+
+    GroupProgress(int position, int sequence, int numTasks, SubTaskGroupType type) {
+      this.position = position;
+      this.sequence = sequence;
+      this.numTasks = numTasks;
+      this.type = type;
+    }
+  }
+
+  private static final Comparator<GroupProgress> GROUP_ORDER =
+      Comparator.<GroupProgress>comparingInt(g -> g.position).thenComparingInt(g -> g.sequence);
+
+  // All the fields are guarded by this.
+  private final Map<SubTaskGroup, GroupProgress> groups = new IdentityHashMap<>();
+  private final List<GroupProgress> orderedGroups = new ArrayList<>();
+  private TaskInfo.State taskState = TaskInfo.State.Created;
+  private CustomerTask customerTask;
+  private int numSubTasks = 0;
+  private int numSubTasksSucceeded = 0;
+  private JsonNode userTaskDetails = null;
+
+  synchronized void addSubTaskGroup(SubTaskGroup subTaskGroup, int position) {
+    GroupProgress group = new GroupProgress(position, orderedGroups.size(),
+        subTaskGroup.getNumTasks(), subTaskGroup.getSubTaskGroupType());
+    groups.put(subTaskGroup, group);
+    orderedGroups.add(group);
+    orderedGroups.sort(GROUP_ORDER);
+    numSubTasks += group.numTasks;
+    userTaskDetails = null;
+  }
+
+  synchronized void onSubTaskGroupStateChanged(SubTaskGroup subTaskGroup, TaskInfo.State state) {
+    GroupProgress group = groups.get(subTaskGroup);
+    if (group == null || group.state == state) {
+      return;
+    }
+    if (group.state == TaskInfo.State.Success) {
+      numSubTasksSucceeded -= group.numTasks;
+    } else if (state == TaskInfo.State.Success) {
+      numSubTasksSucceeded += group.numTasks;
+    }
+    group.state = state;
+    userTaskDetails = null;
+  }
+
+  synchronized void onSubTaskGroupTypeChanged(SubTaskGroup subTaskGroup, SubTaskGroupType type) {
+    GroupProgress group = groups.get(subTaskGroup);
+    if (group != null && group.type != type) {
+      group.type = type;
+      userTaskDetails = null;
+    }
+  }
+
+  synchronized void setTaskState(TaskInfo.State taskState) {
+    if (this.taskState != taskState) {
+      this.taskState = taskState;
+      userTaskDetails = null;
+    }
+  }
+
+  synchronized TaskInfo.State getTaskState() {
+    return taskState;
+  }
+
+  synchronized CustomerTask getCustomerTask() {
+    return customerTask;
+  }
+
+  // Set by the TaskRunner once the customer task is marked as completed.
+  synchronized void setCustomerTask(CustomerTask customerTask) {
+    this.customerTask = customerTask;
+  }
+
+  // Keeps the customer task read by a status request, unless a newer one was set in between.
+  synchronized CustomerTask cacheCustomerTask(CustomerTask customerTask) {
+    if (this.customerTask == null) {
+      this.customerTask = customerTask;
+    }
+    return this.customerTask;
+  }
+
+  synchronized double getPercentCompleted() {
+    return numSubTasks == 0 ? 0.0 : numSubTasksSucceeded * 100.0 / numSubTasks;
+  }
+
+  synchronized JsonNode getUserTaskDetails() {
+    if (userTaskDetails == null) {
+      userTaskDetails = Json.toJson(computeUserTaskDetails());
+    }
+    return userTaskDetails;
+  }
+
+  // Same rules as TaskInfo.getUserTaskDetails, applied to groups instead of subtasks.
+  private UserTaskDetails computeUserTaskDetails() {
+    UserTaskDetails taskDetails = new UserTaskDetails();
+    Map<SubTaskGroupType, SubTaskDetails> userTasksMap = new HashMap<>();
+    boolean customerTaskFailure = taskState.equals(TaskInfo.State.Failure);
+    for (GroupProgress group : orderedGroups) {
+      if (group.numTasks == 0 || group.type == SubTaskGroupType.Invalid) {
+        continue;
+      }
+      SubTaskDetails subTask = userTasksMap.get(group.type);
+      if (subTask == null) {
+        subTask = UserTaskDetails.createSubTask(group.type);
+        taskDetails.add(subTask);
+      } else if (subTask.getState().equals(TaskInfo.State.Failure.name()) ||
+          subTask.getState().equals(TaskInfo.State.Running.name())) {
+        continue;
+      }
+      switch (group.state) {
+        case Failure:
+          subTask.setState(TaskInfo.State.Failure);
+          break;
+        case Running:
+          subTask.setState(TaskInfo.State.Running);
+          break;
+        case Created:
+          subTask.setState(customerTaskFailure ? TaskInfo.State.Unknown : TaskInfo.State.Created);
+          break;
+        default:
+          break;
+      }
+      userTasksMap.put(group.type, subTask);
+    }
+    return taskDetails;
+  }
+}
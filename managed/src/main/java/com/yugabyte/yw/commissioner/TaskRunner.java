@@ -36,6 +36,9 @@ public class TaskRunner implements Runnable {
   // The task object that will run the current task.
   private ITask task;
 
+  // The progress of the task, used to report its status without reading its subtasks.
+  private final TaskProgress progress = new TaskProgress();
+
   static {
     // Initialize the map which holds the task types to their task class.
     Map<TaskType, Class<? extends ITask>> typeMap = new HashMap<TaskType, Class<? extends ITask>>();
@@ -105,6 +108,10 @@ public class TaskRunner implements Runnable {
     return taskInfo.getTaskUUID();
   }
 
+  TaskProgress getProgress() {
+    return progress;
+  }
+
   /**
    * Serializes and saves the task object created so far in the persistent queue.
    */
@@ -157,6 +164,7 @@ public class TaskRunner implements Runnable {
       CustomerTask customerTask = CustomerTask.findByTaskUUID(taskInfo.getTaskUUID());
       if (customerTask != null) {
         customerTask.markAsCompleted();
+        progress.setCustomerTask(customerTask);
       }
 
       // In case it was a scheduled task, update state of the task.
@@ -179,6 +187,7 @@ public class TaskRunner implements Runnable {
     LOG.info("Updating task [" + taskInfo.toString() + "] to new state " + newState);
     taskInfo.setTaskState(newState);
     taskInfo.save();
+    progress.setTaskState(newState);
   }
 
   @Override
@@ -0,0 +1,219 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.commissioner;
+
+import javax.inject.Singleton;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * Polls conditions until they hold without holding a thread in between the polls.
+ *
+ * Each wait is a chain of checks: a check runs on a shared pool and, if the condition does not
+ * hold yet, the next one is scheduled on a shared timer. A task waiting for a server, a pod or the
+ * data to move is then only a pending timer entry, so thousands of them can be waiting at the same
+ * time.
+ *
+ * The checks are blocking calls, such as an RPC to a server that may be unreachable. The pool
+ * grows with the number of checks in progress, so a blocked check does not delay the checks of
+ * the other waits, and a wait with a timeout is failed at its deadline even while its check is
+ * still blocked.
+ *
+ * The polling interval adapts to the progress being made: it starts at
+ * {@link Options#minIntervalMs}, is multiplied by {@link Options#backoffFactor} every time the
+ * polled value is unchanged, up to {@link Options#maxIntervalMs}, and goes back to the minimum as
+ * soon as the value changes.
+ */
+@Singleton
+public class WaitUntilService {
+  public static final Logger LOG = LoggerFactory.getLogger(WaitUntilService.class);
+
+  private final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1,
+      new ThreadFactoryBuilder().setNameFormat("wait-until-timer").setDaemon(true).build());
+
+  // The checks issue RPCs or run shell commands, they are kept off the timer thread. The threads
+  // only live while checks are running.
+  private final ExecutorService checkExecutor = Executors.newCachedThreadPool(
+      new ThreadFactoryBuilder().setNameFormat("wait-until-check-%d").setDaemon(true).build());
+
+  public WaitUntilService() {
+    // The deadlines of the waits that end early are cancelled, don't keep them in the queue.
+    timer.setRemoveOnCancelPolicy(true);
+  }
+
+  public static class Options {
+    // Delay before the first check.
+    public long initialDelayMs = 0;
+    // Interval between checks while the polled value changes.
+    public long minIntervalMs = 500;
+    // Upper bound of the interval while the polled value does not change.
+    public long maxIntervalMs = 5000;
+    public double backoffFactor = 2.0;
+    // Overall time to wait, 0 to wait forever.
+    public long timeoutMs = 0;
+    // Number of failed checks to tolerate, -1 to retry failed checks until the timeout.
+    public int maxErrors = -1;
+  }
+
+  /**
+   * Called after every successful check that did not end the wait, with the polled value.
+   */
+  @FunctionalInterface
+  public interface ProgressListener<T> {
+    void onProgress(T value, int attempt, long elapsedMs);
+  }
+
+  /**
+   * Waits until the value returned by poll satisfies done.
+   *
+   * @param name     : Name of the wait, used in logs and errors.
+   * @param poll     : Reads the current value. An exception counts as a failed check.
+   * @param done     : The condition to wait for.
+   * @param options  : The polling intervals and limits.
+   * @param listener : Notified of the progress, can be null.
+   * @return a future completed with the value satisfying the condition, or completed
+   * exceptionally with a TimeoutException or the last error once the limits are reached.
+   * Cancelling it stops the polling.
+   */
+  public <T> CompletableFuture<T> waitUntil(String name, Callable<T> poll, Predicate<T> done,
+                                            Options options, ProgressListener<T> listener) {
+    Wait<T> wait = new Wait<>(name, poll, done, options, listener);
+    if (options.timeoutMs > 0) {
+      ScheduledFuture<?> deadline =
+          timer.schedule(wait::timeOut, options.timeoutMs, TimeUnit.MILLISECONDS);
+      wait.result.whenComplete((value, error) -> deadline.cancel(false));
+    }
+    wait.schedule(options.initialDelayMs);
+    return wait.result;
+  }
+
+  private class Wait<T> implements Runnable {
+    final String name;
+    final Callable<T> poll;
+    final Predicate<T> done;
+    final Options options;
+    final ProgressListener<T> listener;
+    final CompletableFuture<T> result = new CompletableFuture<>();
+    final long startMs = System.currentTimeMillis();
+
+    // Only updated by the check that is running, checks of a wait never overlap. The deadline
+    // reads attempts and lastError for its error.
+    long intervalMs;
+    volatile int attempts = 0;
+    int errors = 0;
+    T lastValue = null;
+    volatile Exception lastError = null;
+    // The check that is scheduled or running, cancelled at the deadline.
+    volatile Future<?> check = null;
+
+    Wait(String name, Callable<T> poll, Predicate<T> done, Options options,
+         ProgressListener<T> listener) {
+      this.name = name;
+      this.poll = poll;
+      this.done = done;
+      this.options = options;
+      this.listener = listener;
+      this.intervalMs = options.minIntervalMs;
+    }
+
+    void schedule(long delayMs) {
+      if (delayMs <= 0) {
+        check = checkExecutor.submit(this);
+      } else {
+        timer.schedule(() -> check = checkExecutor.submit(this), delayMs, TimeUnit.MILLISECONDS);
+      }
+    }
+
+    // Fails the wait at its deadline, interrupting the check if it is blocked.
+    void timeOut() {
+      TimeoutException timeout = new TimeoutException(name + " timed out after " +
+          options.timeoutMs + " ms and " + attempts + " checks.");
+      if (lastError != null) {
+        timeout.initCause(lastError);
+      }
+      if (result.completeExceptionally(timeout)) {
+        Future<?> running = check;
+        if (running != null) {
+          running.cancel(true);
+        }
+      }
+    }
+
+    @Override
+    public void run() {
+      if (result.isDone()) {
+        // Cancelled.
+        return;
+      }
+      attempts++;
+      try {
+        T value = poll.call();
+        if (result.isDone()) {
+          // Timed out or cancelled while the check was running.
+          return;
+        }
+        if (done.test(value)) {
+          result.complete(value);
+          return;
+        }
+        if (attempts > 1 && !Objects.equals(value, lastValue)) {
+          // Things are moving, look again soon.
+          intervalMs = options.minIntervalMs;
+        } else if (attempts > 1) {
+          intervalMs = Math.min(options.maxIntervalMs,
+              (long) (intervalMs * options.backoffFactor));
+        }
+        lastValue = value;
+        if (listener != null) {
+          listener.onProgress(value, attempts, System.currentTimeMillis() - startMs);
+        }
+      } catch (Exception e) {
+        if (result.isDone()) {
+          return;
+        }
+        errors++;
+        lastError = e;
+        LOG.debug("{}: check #{} failed: {}", name, attempts, e.getMessage());
+        if (options.maxErrors >= 0 && errors > options.maxErrors) {
+          LOG.error("{}: giving up after {} errors.", name, errors);
+          result.completeExceptionally(e);
+          return;
+        }
+      } catch (Throwable t) {
+        result.completeExceptionally(t);
+        return;
+      }
+
+      long elapsedMs = System.currentTimeMillis() - startMs;
+      if (options.timeoutMs > 0 && elapsedMs >= options.timeoutMs) {
+        TimeoutException timeout = new TimeoutException(name + " timed out after " + elapsedMs +
+            " ms and " + attempts + " checks.");
+        if (lastError != null) {
+          timeout.initCause(lastError);
+        }
+        result.completeExceptionally(timeout);
+        return;
+      }
+      long delayMs = intervalMs;
+      if (options.timeoutMs > 0) {
+        // One last check right at the deadline.
+        delayMs = Math.min(delayMs, options.timeoutMs - elapsedMs);
+      }
+      schedule(Math.max(1, delayMs));
+    }
+  }
+}
@@ -30,6 +30,7 @@ import com.yugabyte.yw.commissioner.tasks.UniverseDefinitionTaskBase.ServerType;
 import com.yugabyte.yw.commissioner.tasks.params.NodeTaskParams;
 import com.yugabyte.yw.commissioner.tasks.subtasks.nodes.UpdateNodeProcess;
 
+import com.yugabyte.yw.common.kms.EncryptionAtRestManager;
 import com.yugabyte.yw.common.services.YBClientService;
 import com.yugabyte.yw.forms.UniverseTaskParams.EncryptionAtRestConfig.OpType;
 import com.yugabyte.yw.models.Universe.UniverseUpdater;
@@ -108,6 +109,15 @@ public abstract class UniverseTaskBase extends AbstractTaskBase {
     return universe;
   }
 
+  /**
+   * Starts retrieving the active universe key from the KMS, so that it is cached by the time the
+   * masters need it again after a restart.
+   */
+  protected void prefetchUniverseKey() {
+    Play.current().injector().instanceOf(EncryptionAtRestManager.class)
+      .prefetchUniverseKey(taskParams().universeUUID);
+  }
+
   public SubTaskGroup createManageEncryptionAtRestTask() {
     SubTaskGroup subTaskGroup = null;
     AbstractTaskBase task = null;
@@ -429,15 +439,32 @@ public abstract class UniverseTaskBase extends AbstractTaskBase {
    */
   public SubTaskGroup createWaitForServerReady(NodeDetails node, ServerType serverType,
                                                int sleepTimeMs) {
+    return createWaitForServersReadyTasks(Collections.singletonList(node), serverType,
+                                          sleepTimeMs);
+  }
+
+  /**
+   * Create tasks to check in parallel if a specific process is ready to serve requests on the
+   * given nodes.
+   *
+   * @param nodes nodes for which the check needs to be executed.
+   * @param serverType server process type on the nodes to the check.
+   * @param sleepTimeMs default sleep time if server does not support check for readiness.
+   * @return SubTaskGroup
+   */
+  public SubTaskGroup createWaitForServersReadyTasks(Collection<NodeDetails> nodes,
+                                                     ServerType serverType, int sleepTimeMs) {
     SubTaskGroup subTaskGroup = new SubTaskGroup("WaitForServerReady", executor);
-    WaitForServerReady.Params params = new WaitForServerReady.Params();
-    params.universeUUID = taskParams().universeUUID;
-    params.nodeName = node.nodeName;
-    params.serverType = serverType;
-    params.waitTimeMs = sleepTimeMs;
-    WaitForServerReady task = new WaitForServerReady();
-    task.initialize(params);
-    subTaskGroup.addTask(task);
+    for (NodeDetails node : nodes) {
+      WaitForServerReady.Params params = new WaitForServerReady.Params();
+      params.universeUUID = taskParams().universeUUID;
+      params.nodeName = node.nodeName;
+      params.serverType = serverType;
+      params.waitTimeMs = sleepTimeMs;
+      WaitForServerReady task = new WaitForServerReady();
+      task.initialize(params);
+      subTaskGroup.addTask(task);
+    }
     subTaskGroupQueue.add(subTaskGroup);
     return subTaskGroup;
   }
@@ -1014,6 +1041,21 @@ public abstract class UniverseTaskBase extends AbstractTaskBase {
     return subTaskGroup;
   }
 
+  /**
+   * Creates a task to wait until no tablet is under-replicated.
+   * @return the created task group.
+   */
+  public SubTaskGroup createWaitForUnderReplicatedTabletsTask() {
+    SubTaskGroup subTaskGroup = new SubTaskGroup("WaitForUnderReplicatedTablets", executor);
+    WaitForUnderReplicatedTablets.Params params = new WaitForUnderReplicatedTablets.Params();
+    params.universeUUID = taskParams().universeUUID;
+    WaitForUnderReplicatedTablets task = new WaitForUnderReplicatedTablets();
+    task.initialize(params);
+    subTaskGroup.addTask(task);
+    subTaskGroupQueue.add(subTaskGroup);
+    return subTaskGroup;
+  }
+
   /**
    * Creates a task to remove a node from blacklist on server.
    * @param nodes The nodes that have to be removed from the blacklist.
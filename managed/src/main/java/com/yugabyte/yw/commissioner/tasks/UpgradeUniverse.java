@@ -10,6 +10,7 @@
 
 package com.yugabyte.yw.commissioner.tasks;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.yugabyte.yw.commissioner.Common;
 import com.yugabyte.yw.commissioner.SubTaskGroup;
 import com.yugabyte.yw.commissioner.SubTaskGroupQueue;
@@ -20,6 +21,7 @@ import com.yugabyte.yw.commissioner.tasks.UniverseDefinitionTaskBase;
 import com.yugabyte.yw.commissioner.tasks.subtasks.AnsibleConfigureServers;
 import com.yugabyte.yw.common.CertificateHelper;
 import com.yugabyte.yw.forms.UpgradeParams;
+import com.yugabyte.yw.forms.UniverseDefinitionTaskParams.Cluster;
 import com.yugabyte.yw.forms.UniverseDefinitionTaskParams.UserIntent;
 import com.yugabyte.yw.models.CertificateInfo;
 import com.yugabyte.yw.models.Universe;
@@ -35,7 +37,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
@@ -51,6 +55,20 @@ public class UpgradeUniverse extends UniverseTaskBase {
   // Variable to mark if the loadbalancer state was changed.
   boolean loadbalancerOff = false;
 
+  // Timings of the batches of a batched rolling upgrade.
+  private final List<BatchTiming> batchTimings = new ArrayList<>();
+
+  // Timing of a batch of servers restarted together, recorded when its subtask groups run.
+  private static class BatchTiming {
+    final String description;
+    volatile long startTimeMs = -1;
+    volatile long elapsedMs = -1;
+
+    BatchTiming(String description) {
+      this.description = description;
+    }
+  }
+
   // Upgrade Task Type
   public enum UpgradeTaskType {
     Everything,
@@ -173,6 +191,11 @@ public class UpgradeUniverse extends UniverseTaskBase {
       // Check if the combination of taskType and upgradeOption are compatible.
       verifyParams(universe, primIntent);
 
+      if (taskParams().upgradeOption != UpgradeParams.UpgradeOption.NON_RESTART_UPGRADE) {
+        // The restarted masters get the universe key again from the platform.
+        prefetchUniverseKey();
+      }
+
       // Get the nodes that need to be upgraded.
       // Left element is master and right element is tserver.
       ImmutablePair<List<NodeDetails>, List<NodeDetails>> nodes =
@@ -188,6 +211,9 @@ public class UpgradeUniverse extends UniverseTaskBase {
 
       // Run all the tasks.
       subTaskGroupQueue.run();
+      for (BatchTiming timing : batchTimings) {
+        LOG.info("{} took {} ms.", timing.description, timing.elapsedMs);
+      }
     } catch (Throwable t) {
       LOG.error("Error executing task {} with error={}.", getName(), t);
 
@@ -271,8 +297,12 @@ public class UpgradeUniverse extends UniverseTaskBase {
               .setSubTaskGroupType(getTaskSubGroupType());
           loadbalancerOff = true;
         }
-        for (NodeDetails node : nodes) {
-          createSingleNodeUpgradeTasks(node, processType);
+        if (processType == ServerType.TSERVER && taskParams().rollingUpgradeBatchSize > 1) {
+          createBatchedRollingUpgradeTasks(nodes, processType);
+        } else {
+          for (NodeDetails node : nodes) {
+            createRollingUpgradeTasks(Collections.singletonList(node), processType);
+          }
         }
         if (loadbalancerOff) {
           createLoadBalancerStateChangeTask(true /*enable*/)
@@ -289,8 +319,75 @@ public class UpgradeUniverse extends UniverseTaskBase {
     }
   }
 
-  // This is used for rolling upgrade, which is done per node in the universe.
-  private void createSingleNodeUpgradeTasks(NodeDetails node, ServerType processType) {
+  // Restarts the tservers by batches of nodes of the same zone. Each batch is only started once
+  // the previous one is fully back: servers up and ready, and no under-replicated tablet. The
+  // load balancer is off during the upgrade, so there is no load balance to wait for.
+  private void createBatchedRollingUpgradeTasks(List<NodeDetails> nodes, ServerType processType) {
+    Universe universe = Universe.get(taskParams().universeUUID);
+    List<List<NodeDetails>> batches =
+        getRollingUpgradeBatches(universe, nodes, taskParams().rollingUpgradeBatchSize);
+    for (int i = 0; i < batches.size(); i++) {
+      List<NodeDetails> batch = batches.get(i);
+      BatchTiming timing = new BatchTiming(String.format(
+          "%s batch %d/%d (%s)", processType, i + 1, batches.size(),
+          batch.stream().map(n -> n.nodeName).collect(Collectors.joining(","))));
+      batchTimings.add(timing);
+      createRollingUpgradeTasks(batch, processType).setBeforeRunCallback(() -> {
+        timing.startTimeMs = System.currentTimeMillis();
+        LOG.info("Starting {}.", timing.description);
+      });
+      createWaitForUnderReplicatedTabletsTask()
+          .setAfterSuccessCallback(() -> {
+            timing.elapsedMs = System.currentTimeMillis() - timing.startTimeMs;
+            LOG.info("Finished {} in {} ms.", timing.description, timing.elapsedMs);
+          })
+          .setSubTaskGroupType(getTaskSubGroupType());
+    }
+  }
+
+  /**
+   * Splits the given nodes in batches of at most batchSize nodes of the same cluster and zone,
+   * keeping the order of the nodes. Nodes of a cluster spread over fewer zones than its
+   * replication factor are put in batches of one, as restarting two nodes of the same zone could
+   * then take down a majority of the replicas of a tablet.
+   */
+  @VisibleForTesting
+  static List<List<NodeDetails>> getRollingUpgradeBatches(Universe universe,
+                                                          List<NodeDetails> nodes,
+                                                          int batchSize) {
+    Map<String, List<NodeDetails>> nodesByZone = new LinkedHashMap<>();
+    for (NodeDetails node : nodes) {
+      nodesByZone.computeIfAbsent(node.placementUuid + "/" + node.azUuid,
+                                  k -> new ArrayList<>()).add(node);
+    }
+    List<List<NodeDetails>> batches = new ArrayList<>();
+    for (List<NodeDetails> zoneNodes : nodesByZone.values()) {
+      int zoneBatchSize = canRestartZoneTogether(universe, zoneNodes.get(0).placementUuid) ?
+          Math.max(1, batchSize) : 1;
+      for (int i = 0; i < zoneNodes.size(); i += zoneBatchSize) {
+        batches.add(new ArrayList<>(
+            zoneNodes.subList(i, Math.min(zoneNodes.size(), i + zoneBatchSize))));
+      }
+    }
+    return batches;
+  }
+
+  private static boolean canRestartZoneTogether(Universe universe, UUID placementUuid) {
+    Cluster cluster = universe.getUniverseDetails().getClusterByUuid(placementUuid);
+    if (cluster == null) {
+      return false;
+    }
+    long numZones = universe.getTServers().stream()
+        .filter(n -> placementUuid.equals(n.placementUuid))
+        .map(n -> n.azUuid)
+        .distinct()
+        .count();
+    return numZones >= cluster.userIntent.replicationFactor;
+  }
+
+  // This is used for rolling upgrade, which is done per node or per batch of nodes in the
+  // universe. Returns the first subtask group of the upgrade of the nodes.
+  private SubTaskGroup createRollingUpgradeTasks(List<NodeDetails> nodes, ServerType processType) {
     NodeDetails.NodeState nodeState = null;
     switch (taskParams().taskType) {
       case Software:
@@ -306,26 +403,30 @@ public class UpgradeUniverse extends UniverseTaskBase {
         break;
     }
     SubTaskGroupType subGroupType = getTaskSubGroupType();
-    createSetNodeStateTask(node, nodeState).setSubTaskGroupType(subGroupType);
+    SubTaskGroup firstSubTaskGroup = createSetNodeStateTasks(nodes, nodeState);
+    firstSubTaskGroup.setSubTaskGroupType(subGroupType);
     if (taskParams().taskType == UpgradeTaskType.Software) {
-      createServerControlTask(node, processType, "stop").setSubTaskGroupType(subGroupType);
-      createSoftwareInstallTasks(Arrays.asList(node), processType);
+      createServerControlTasks(nodes, processType, "stop").setSubTaskGroupType(subGroupType);
+      createSoftwareInstallTasks(nodes, processType);
     } else if (taskParams().taskType == UpgradeTaskType.GFlags) {
-      createServerConfFileUpdateTasks(Arrays.asList(node), processType);
+      createServerConfFileUpdateTasks(nodes, processType);
       // Stop is done after conf file update to reduce unavailability.
-      createServerControlTask(node, processType, "stop").setSubTaskGroupType(subGroupType);
+      createServerControlTasks(nodes, processType, "stop").setSubTaskGroupType(subGroupType);
     }
     // For both rolling restart and a cert update, just a stop is good enough.
     else {
-      createServerControlTask(node, processType, "stop").setSubTaskGroupType(subGroupType);
+      createServerControlTasks(nodes, processType, "stop").setSubTaskGroupType(subGroupType);
     }
 
-    createServerControlTask(node, processType, "start").setSubTaskGroupType(subGroupType);
-    createWaitForServersTasks(new HashSet<NodeDetails>(Arrays.asList(node)), processType);
-    createWaitForServerReady(node, processType, getSleepTimeForProcess(processType))
+    createServerControlTasks(nodes, processType, "start").setSubTaskGroupType(subGroupType);
+    createWaitForServersTasks(new HashSet<NodeDetails>(nodes), processType);
+    createWaitForServersReadyTasks(nodes, processType, getSleepTimeForProcess(processType))
         .setSubTaskGroupType(subGroupType);
-    createWaitForKeyInMemoryTask(node);
-    createSetNodeStateTask(node, NodeDetails.NodeState.Live).setSubTaskGroupType(subGroupType);
+    for (NodeDetails node : nodes) {
+      createWaitForKeyInMemoryTask(node);
+    }
+    createSetNodeStateTasks(nodes, NodeDetails.NodeState.Live).setSubTaskGroupType(subGroupType);
+    return firstSubTaskGroup;
   }
 
   private void createNonRestartUpgradeTasks(List<NodeDetails> nodes, ServerType processType) {
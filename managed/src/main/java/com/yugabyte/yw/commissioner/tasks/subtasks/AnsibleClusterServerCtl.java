@@ -44,8 +44,7 @@ public class AnsibleClusterServerCtl extends NodeTaskBase {
   public void run() {
     try {
       // Execute the ansible command.
-      ShellResponse response = getNodeManager().nodeCommand(
-          NodeManager.NodeCommandType.Control, taskParams());
+      ShellResponse response = runNodeCommand(NodeManager.NodeCommandType.Control);
       processShellResponse(response);
     } catch (Exception e) {
       if (!taskParams().isForceDelete) {
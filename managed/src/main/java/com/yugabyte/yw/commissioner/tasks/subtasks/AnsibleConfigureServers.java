@@ -63,8 +63,7 @@ public class AnsibleConfigureServers extends NodeTaskBase {
   @Override
   public void run() {
     // Execute the ansible command.
-    ShellResponse response = getNodeManager().nodeCommand(
-        NodeManager.NodeCommandType.Configure, taskParams());
+    ShellResponse response = runNodeCommand(NodeManager.NodeCommandType.Configure);
     processShellResponse(response);
 
     if (taskParams().type == UpgradeUniverse.UpgradeTaskType.Everything &&
@@ -67,8 +67,7 @@ public class AnsibleSetupServer extends NodeTaskBase {
       LOG.info("Skipping ansible provision.");
     } else {
       // Execute the ansible command.
-      ShellResponse response = getNodeManager().nodeCommand(
-          NodeManager.NodeCommandType.Provision, taskParams());
+      ShellResponse response = runNodeCommand(NodeManager.NodeCommandType.Provision);
       processShellResponse(response);
     }
   }
@@ -11,10 +11,12 @@
 package com.yugabyte.yw.commissioner.tasks.subtasks;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.typesafe.config.Config;
 import com.yugabyte.yw.commissioner.AbstractTaskBase;
 import com.yugabyte.yw.common.ShellProcessHandler;
 import com.yugabyte.yw.common.ShellResponse;
 import com.yugabyte.yw.common.TableManager;
+import com.yugabyte.yw.common.config.RuntimeConfigFactory;
 import com.yugabyte.yw.forms.BackupTableParams;
 import com.yugabyte.yw.forms.ITaskParams;
 import com.yugabyte.yw.models.Backup;
@@ -22,11 +24,16 @@ import com.yugabyte.yw.models.Universe;
 import play.api.Play;
 import play.libs.Json;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 
 public class BackupTable extends AbstractTaskBase {
 
+  static final String MAX_CONCURRENT_TABLE_BACKUPS = "yb.backup.max_concurrent_table_backups";
+  static final String TABLE_BACKUP_RETRIES = "yb.backup.table_backup_retries";
+
   Backup backup;
 
   public BackupTable(Backup backup) {
@@ -40,10 +47,22 @@ public class BackupTable extends AbstractTaskBase {
 
   private TableManager tableManager;
 
+  private RuntimeConfigFactory runtimeConfigFactory;
+
   @Override
   public void initialize(ITaskParams params) {
     super.initialize(params);
     tableManager = Play.current().injector().instanceOf(TableManager.class);
+    runtimeConfigFactory = Play.current().injector().instanceOf(RuntimeConfigFactory.class);
+  }
+
+  // Persists the progress of the table backups of a universe backup, so that a failed backup shows
+  // which tables completed. Called by the scheduler while the table backups cannot be updated.
+  private void saveProgress() {
+    synchronized (backup) {
+      backup.setBackupInfo(taskParams());
+      backup.save();
+    }
   }
 
   @Override
@@ -57,16 +76,25 @@ public class BackupTable extends AbstractTaskBase {
       Map<String, String> config = universe.getConfig();
       if (config.isEmpty() || config.getOrDefault(Universe.TAKE_BACKUPS, "true").equals("true")) {
         if (taskParams().backupList != null) {
-          for (BackupTableParams backupParams : taskParams().backupList) {
-            ShellResponse response = tableManager.createBackup(backupParams);
-            JsonNode jsonNode = Json.parse(response.message);
-            if (response.code != 0 || jsonNode.has("error")) {
-              LOG.error("Response code={}, hasError={}.", response.code, jsonNode.has("error"));
-
-              throw new RuntimeException(response.message);
-            } else {
-              LOG.info("[" + getName() + "] STDOUT: " + response.message);
+          Config runtimeConfig = runtimeConfigFactory.forUniverse(universe);
+          int concurrency = taskParams().maxConcurrentTableBackups > 0
+              ? taskParams().maxConcurrentTableBackups
+              : runtimeConfig.getInt(MAX_CONCURRENT_TABLE_BACKUPS);
+          TableBackupScheduler scheduler = new TableBackupScheduler(
+              taskParams().backupList,
+              concurrency,
+              taskParams().parallelism,
+              runtimeConfig.getInt(TABLE_BACKUP_RETRIES),
+              tableManager::createBackup,
+              this::saveProgress);
+          List<BackupTableParams> failed = scheduler.run();
+          if (!failed.isEmpty()) {
+            List<String> failedNames = new ArrayList<>();
+            for (BackupTableParams backupParams : failed) {
+              failedNames.add(TableBackupScheduler.describe(backupParams));
             }
+            throw new RuntimeException("Failed to backup " + failed.size() + " of " +
+                taskParams().backupList.size() + " tables/keyspaces: " + failedNames);
           }
 
           backup.transitionState(Backup.BackupState.Completed);
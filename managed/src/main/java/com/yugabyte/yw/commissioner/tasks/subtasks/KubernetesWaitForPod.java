@@ -15,7 +15,9 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ImmutableMap;
 import com.google.inject.Inject;
 import com.yugabyte.yw.commissioner.AbstractTaskBase;
+import com.yugabyte.yw.commissioner.AsyncTask;
 import com.yugabyte.yw.commissioner.UserTaskDetails;
+import com.yugabyte.yw.commissioner.WaitUntilService;
 import com.yugabyte.yw.common.KubernetesManager;
 import com.yugabyte.yw.common.ShellResponse;
 import com.yugabyte.yw.forms.AbstractTaskParams;
@@ -37,9 +39,11 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
-public class KubernetesWaitForPod extends AbstractTaskBase {
+public class KubernetesWaitForPod extends AbstractTaskBase implements AsyncTask {
   public enum CommandType {
     WAIT_FOR_POD;
 
@@ -58,16 +62,22 @@ public class KubernetesWaitForPod extends AbstractTaskBase {
   @Inject
   Application application;
 
+  @Inject
+  WaitUntilService waitUntilService;
+
   // Number of iterations to wait for the pod to come up.
   private static final int MAX_ITERS = 10;
 
-  // Time to sleep on each iteration of the pod to come up.
+  // Time to sleep on each iteration of the pod to come up. The first checks are done sooner, as
+  // the pod is often up within seconds.
   private static final int SLEEP_TIME = 10;
+  private static final int MIN_SLEEP_TIME = 1;
 
   @Override
   public void initialize(ITaskParams params) {
     this.kubernetesManager = Play.current().injector().instanceOf(KubernetesManager.class);
     this.application = Play.current().injector().instanceOf(Application.class);
+    this.waitUntilService = Play.current().injector().instanceOf(WaitUntilService.class);
     super.initialize(params);
   }
 
@@ -93,28 +103,35 @@ public class KubernetesWaitForPod extends AbstractTaskBase {
 
   @Override
   public void run() {
+    join(runAsync());
+  }
+
+  @Override
+  public CompletableFuture<Void> runAsync() {
     // TODO: add checks for the shell process handler return values.
     switch (taskParams().commandType) {
       case WAIT_FOR_POD:
-        int iters = 0;
-        String status;
-        do {
-          status = waitForPod();
-          iters++;
-          if (status.equals("Running")) {
-            break;
-          }
-          try {
-            TimeUnit.SECONDS.sleep(SLEEP_TIME);
-          } catch (InterruptedException ex) {
-            // Do nothing
-          }
-        } while (!status.equals("Running") && iters < MAX_ITERS);
-        if (iters > MAX_ITERS) {
-          throw new RuntimeException("Pod " + taskParams().podName + " creation taking too long.");
-        }
-        break;
+        WaitUntilService.Options options = new WaitUntilService.Options();
+        options.minIntervalMs = TimeUnit.SECONDS.toMillis(MIN_SLEEP_TIME);
+        options.maxIntervalMs = TimeUnit.SECONDS.toMillis(SLEEP_TIME);
+        options.timeoutMs = TimeUnit.SECONDS.toMillis(SLEEP_TIME * MAX_ITERS);
+        // A failed status check ends the wait, as it did when it was not retried.
+        options.maxErrors = 0;
+        return waitUntilService.waitUntil(getName() + "(" + taskParams().podName + ")",
+            this::waitForPod, status -> status.equals("Running"), options, null)
+          .handle((status, error) -> {
+            if (error instanceof TimeoutException) {
+              throw new RuntimeException(
+                  "Pod " + taskParams().podName + " creation taking too long.", error);
+            } else if (error instanceof RuntimeException) {
+              throw (RuntimeException) error;
+            } else if (error != null) {
+              throw new RuntimeException(error);
+            }
+            return null;
+          });
     }
+    return CompletableFuture.completedFuture(null);
   }
 
   // Waits for pods as well as the containers inside the pod.
@@ -10,8 +10,10 @@
 
 package com.yugabyte.yw.commissioner.tasks.subtasks;
 
+import com.yugabyte.yw.commissioner.NodeCommandBatcher;
 import com.yugabyte.yw.commissioner.tasks.UniverseDefinitionTaskBase;
 import com.yugabyte.yw.common.NodeManager;
+import com.yugabyte.yw.common.ShellResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,6 +32,12 @@ public abstract class NodeTaskBase extends UniverseDefinitionTaskBase {
   private NodeManager nodeManager;
   public NodeManager getNodeManager() { return nodeManager; }
 
+  // Set by the subtask group when it runs the node commands of its subtasks in batches.
+  private NodeCommandBatcher nodeCommandBatcher;
+  public void setNodeCommandBatcher(NodeCommandBatcher nodeCommandBatcher) {
+    this.nodeCommandBatcher = nodeCommandBatcher;
+  }
+
   @Override
   protected NodeTaskParams taskParams() {
     return (NodeTaskParams)taskParams;
@@ -52,6 +60,15 @@ public abstract class NodeTaskBase extends UniverseDefinitionTaskBase {
     return Json.toJson(taskParams);
   }
 
+  // Runs the command on the node of the task, batched with the other nodes of its subtask group
+  // when the group batches them.
+  protected ShellResponse runNodeCommand(NodeManager.NodeCommandType type) {
+    if (nodeCommandBatcher != null) {
+      return nodeCommandBatcher.run(type, taskParams());
+    }
+    return nodeManager.nodeCommand(type, taskParams());
+  }
+
   // Helper API to update the db for the current node with the given state.
   public void setNodeState(NodeDetails.NodeState state) {
     // Persist the desired node information into the DB.
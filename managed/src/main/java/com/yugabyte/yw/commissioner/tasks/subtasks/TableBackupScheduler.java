@@ -0,0 +1,180 @@
+/*
+ * Copyright 2021 YugaByte, Inc. and Contributors
+ *
+ * Licensed under the Polyform Free Trial License 1.0.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ *     https://github.com/YugaByte/yugabyte-db/blob/master/licenses/POLYFORM-FREE-TRIAL-LICENSE-1.0.0.txt
+ */
+
+package com.yugabyte.yw.commissioner.tasks.subtasks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.yugabyte.yw.common.ShellResponse;
+import com.yugabyte.yw.forms.BackupTableParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.libs.Json;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs the table/keyspace backups of a full universe backup concurrently.
+ *
+ * At most {@code concurrency} yb_backup.py processes run at the same time. The parallelism of the
+ * universe backup is a per-node budget for all of them: every yb_backup.py run gets an equal share
+ * of it, so the number of concurrent snapshot uploads from a node does not grow with the number of
+ * tables being backed up at once.
+ *
+ * Backups that fail are retried, only them, once all the other backups of the round are done.
+ * Backups already marked as completed (e.g. by a previous run of the same task) are skipped.
+ */
+class TableBackupScheduler {
+  public static final Logger LOG = LoggerFactory.getLogger(TableBackupScheduler.class);
+
+  private final List<BackupTableParams> backups;
+  private final int concurrency;
+  private final int maxRetries;
+  private final Function<BackupTableParams, ShellResponse> backupFn;
+  private final Runnable progressListener;
+
+  private final AtomicInteger numCompleted = new AtomicInteger();
+  // Guards the progress fields of the backups, which the backup threads update while the
+  // progress listener serializes all of them.
+  private final Object progressLock = new Object();
+
+  /**
+   * @param backups          the backups to run, updated in place with their progress
+   * @param concurrency      maximum number of backups running at the same time
+   * @param parallelism      per-node budget of concurrent commands shared by the running backups
+   * @param maxRetries       number of times a failed backup is retried
+   * @param backupFn         runs one backup
+   * @param progressListener called after every backup attempt, from the backup threads, with no
+   *                         progress update of the backups in flight
+   */
+  TableBackupScheduler(List<BackupTableParams> backups, int concurrency, int parallelism,
+                       int maxRetries, Function<BackupTableParams, ShellResponse> backupFn,
+                       Runnable progressListener) {
+    this.backups = backups;
+    this.concurrency = Math.max(1, Math.min(concurrency, backups.size()));
+    this.maxRetries = Math.max(0, maxRetries);
+    this.backupFn = backupFn;
+    this.progressListener = progressListener;
+
+    int perBackupParallelism = getPerBackupParallelism(parallelism, this.concurrency);
+    for (BackupTableParams backup : backups) {
+      backup.parallelism = perBackupParallelism;
+    }
+  }
+
+  static int getPerBackupParallelism(int parallelism, int concurrency) {
+    return Math.max(1, parallelism / Math.max(1, concurrency));
+  }
+
+  /**
+   * Runs all the backups that are not completed yet.
+   *
+   * @return the backups that still failed after all the retries, empty on success
+   */
+  List<BackupTableParams> run() throws InterruptedException {
+    List<BackupTableParams> pending = new ArrayList<>();
+    for (BackupTableParams backup : backups) {
+      if (backup.backupCompleted) {
+        LOG.info("Skipping already completed backup of {}", describe(backup));
+        numCompleted.incrementAndGet();
+      } else {
+        pending.add(backup);
+      }
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(concurrency,
+        new ThreadFactoryBuilder().setNameFormat("TableBackup-%d").build());
+    try {
+      for (int round = 0; round <= maxRetries && !pending.isEmpty(); round++) {
+        if (round > 0) {
+          LOG.info("Retrying {} failed table backups, retry {} of {}",
+                   pending.size(), round, maxRetries);
+        }
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (BackupTableParams backup : pending) {
+          futures.add(executor.submit(() -> runBackup(backup)));
+        }
+        List<BackupTableParams> failed = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i++) {
+          try {
+            if (!futures.get(i).get()) {
+              failed.add(pending.get(i));
+            }
+          } catch (ExecutionException e) {
+            LOG.error("Backup of {} failed", describe(pending.get(i)), e.getCause());
+            failed.add(pending.get(i));
+          }
+        }
+        pending = failed;
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    return pending;
+  }
+
+  private boolean runBackup(BackupTableParams backup) {
+    final long startTimeMs = System.currentTimeMillis();
+    synchronized (progressLock) {
+      backup.backupAttempts++;
+    }
+    boolean success = false;
+    JsonNode jsonNode = null;
+    try {
+      ShellResponse response = backupFn.apply(backup);
+      jsonNode = Json.parse(response.message);
+      if (response.code != 0 || jsonNode.has("error")) {
+        LOG.error("Backup of {} failed: response code={}, message={}", describe(backup),
+                  response.code, response.message);
+      } else {
+        success = true;
+      }
+    } catch (RuntimeException e) {
+      LOG.error("Backup of {} failed", describe(backup), e);
+    }
+    long backupTimeMs = System.currentTimeMillis() - startTimeMs;
+
+    synchronized (progressLock) {
+      backup.backupTimeMs = backupTimeMs;
+      if (success) {
+        backup.backupCompleted = true;
+        if (jsonNode.has("backup_size_in_bytes")) {
+          backup.backupSizeInBytes = jsonNode.get("backup_size_in_bytes").asLong();
+        }
+      }
+      progressListener.run();
+    }
+
+    if (success) {
+      int completed = numCompleted.incrementAndGet();
+      double seconds = Math.max(backupTimeMs, 1) / 1000.0;
+      LOG.info("Backed up {} ({}/{}) in {} ms: {} bytes, {} bytes/sec", describe(backup),
+               completed, backups.size(), backupTimeMs, backup.backupSizeInBytes,
+               (long) (backup.backupSizeInBytes / seconds));
+    }
+    return success;
+  }
+
+  static String describe(BackupTableParams backup) {
+    if (backup.tableNameList != null && !backup.tableNameList.isEmpty()) {
+      return backup.keyspace + ":" + String.join(",", backup.tableNameList);
+    } else if (backup.tableName != null) {
+      return backup.keyspace + ":" + backup.tableName;
+    }
+    return "keyspace " + backup.keyspace;
+  }
+}
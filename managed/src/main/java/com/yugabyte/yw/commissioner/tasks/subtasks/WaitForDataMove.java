@@ -16,6 +16,8 @@ import org.yb.client.GetLoadMovePercentResponse;
 import org.yb.client.YBClient;
 
 import com.yugabyte.yw.commissioner.AbstractTaskBase;
+import com.yugabyte.yw.commissioner.AsyncTask;
+import com.yugabyte.yw.commissioner.WaitUntilService;
 import com.yugabyte.yw.common.services.YBClientService;
 import com.yugabyte.yw.forms.ITaskParams;
 import com.yugabyte.yw.forms.UniverseTaskParams;
@@ -23,14 +25,21 @@ import com.yugabyte.yw.models.Universe;
 
 import play.api.Play;
 
-public class WaitForDataMove extends AbstractTaskBase {
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WaitForDataMove extends AbstractTaskBase implements AsyncTask {
   public static final Logger LOG = LoggerFactory.getLogger(WaitForDataMove.class);
 
   // The YB client to use.
   private YBClientService ybService;
 
-  // Time to wait (in millisec) during each iteration of load move completion check.
+  private WaitUntilService waitUntilService;
+
+  // Time to wait (in millisec) between load move completion checks while the percentage moves,
+  // the interval grows up to MAX_WAIT_EACH_ATTEMPT_MS while it does not.
   private static final int WAIT_EACH_ATTEMPT_MS = 100;
+  private static final int MAX_WAIT_EACH_ATTEMPT_MS = 5000;
 
   // Number of response errors to tolerate.
   private static final int MAX_ERRORS_TO_IGNORE = 128;
@@ -49,64 +58,67 @@ public class WaitForDataMove extends AbstractTaskBase {
   public void initialize(ITaskParams params) {
     super.initialize(params);
     ybService = Play.current().injector().instanceOf(YBClientService.class);
+    waitUntilService = Play.current().injector().instanceOf(WaitUntilService.class);
   }
 
   @Override
   public void run() {
-    String errorMsg = null;
-    YBClient client = null;
-    int numErrors = 0;
-    double percent = 0;
-    int numIters = 0;
+    join(runAsync());
+  }
+
+  @Override
+  public CompletableFuture<Void> runAsync() {
     // Get the master addresses and certificate info.
     Universe universe = Universe.get(taskParams().universeUUID);
     String masterAddresses = universe.getMasterAddresses();
     String certificate = universe.getCertificate();
     LOG.info("Running {} on masterAddress = {}.", getName(), masterAddresses);
 
+    YBClient client = ybService.getClient(masterAddresses, certificate);
     try {
-
-      client = ybService.getClient(masterAddresses, certificate);
       LOG.info("Leader Master UUID={}.", client.getLeaderMasterUUID());
-
-      // TODO: Have a mechanism to send this percent to the parent task completion.
-      while (percent < (double)100) {
-        GetLoadMovePercentResponse response = client.getLoadMoveCompletion();
-
-        if (response.hasError()) {
-          LOG.warn("{} response has error {}.", getName(), response.errorMessage());
-          numErrors++;
-          // If there are more than the threshold of response errors, bail out.
-          if (numErrors >= MAX_ERRORS_TO_IGNORE) {
-            errorMsg = getName() + ": hit too many errors during data move completion wait.";
-            break;
-          }
-          Thread.sleep(WAIT_EACH_ATTEMPT_MS);
-          continue;
-        }
-
-        percent = response.getPercentCompleted();
-        // No need to wait if completed (as in, percent == 100).
-        if (percent < (double)100) {
-          Thread.sleep(WAIT_EACH_ATTEMPT_MS);
-        }
-
-        numIters++;
-        if (numIters % LOG_EVERY_NUM_ITERS == 0) {
-          LOG.info("Info: iters={}, percent={}, numErrors={}.", numIters, percent, numErrors);
-        }
-        // For now, we wait until load moves out fully. TODO: Add an overall timeout as needed.
-      }
     } catch (Exception e) {
       LOG.error("{} hit error {}.", getName(), e.getMessage(), e);
-      throw new RuntimeException(getName() + " hit error: " , e);
-    } finally {
       ybService.closeClient(client, masterAddresses);
+      throw new RuntimeException(getName() + " hit error: " , e);
     }
 
-    if (errorMsg != null) {
-      LOG.error(errorMsg);
-      throw new RuntimeException(errorMsg);
-    }
+    WaitUntilService.Options options = new WaitUntilService.Options();
+    options.minIntervalMs = WAIT_EACH_ATTEMPT_MS;
+    options.maxIntervalMs = MAX_WAIT_EACH_ATTEMPT_MS;
+    // Response errors are tolerated below, anything else ends the wait.
+    options.maxErrors = 0;
+    AtomicInteger numErrors = new AtomicInteger();
+    // For now, we wait until load moves out fully. TODO: Add an overall timeout as needed.
+    // TODO: Have a mechanism to send this percent to the parent task completion.
+    return waitUntilService.waitUntil(getName(),
+        () -> {
+          GetLoadMovePercentResponse response = client.getLoadMoveCompletion();
+          if (response.hasError()) {
+            LOG.warn("{} response has error {}.", getName(), response.errorMessage());
+            // If there are more than the threshold of response errors, bail out.
+            if (numErrors.incrementAndGet() >= MAX_ERRORS_TO_IGNORE) {
+              throw new RuntimeException(
+                  getName() + ": hit too many errors during data move completion wait.");
+            }
+            return null;
+          }
+          return response.getPercentCompleted();
+        },
+        percent -> percent != null && percent >= (double)100,
+        options,
+        (percent, numIters, elapsedMs) -> {
+          if (numIters % LOG_EVERY_NUM_ITERS == 0) {
+            LOG.info("Info: iters={}, percent={}, numErrors={}.", numIters, percent, numErrors);
+          }
+        })
+      .handle((percent, error) -> {
+        ybService.closeClient(client, masterAddresses);
+        if (error != null) {
+          LOG.error("{} hit error {}.", getName(), error.getMessage(), error);
+          throw new RuntimeException(getName() + " hit error: " , error);
+        }
+        return null;
+      });
   }
 }
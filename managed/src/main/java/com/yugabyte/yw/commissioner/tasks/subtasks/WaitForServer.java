@@ -15,11 +15,24 @@ import org.slf4j.LoggerFactory;
 import org.yb.client.YBClient;
 
 import com.google.common.net.HostAndPort;
+import com.yugabyte.yw.commissioner.AsyncTask;
+import com.yugabyte.yw.commissioner.WaitUntilService;
 import com.yugabyte.yw.commissioner.tasks.params.ServerSubTaskParams;
+import com.yugabyte.yw.forms.ITaskParams;
 
-public class WaitForServer extends ServerSubTaskBase {
+import play.api.Play;
+
+import java.util.concurrent.CompletableFuture;
+
+public class WaitForServer extends ServerSubTaskBase implements AsyncTask {
   public static final Logger LOG = LoggerFactory.getLogger(WaitForServer.class);
 
+  // Interval between pings while the server is down, the first ones are retried sooner.
+  private static final long MIN_PING_INTERVAL_MS = 500;
+  private static final long MAX_PING_INTERVAL_MS = 2000;
+
+  private WaitUntilService waitUntilService;
+
   public static class Params extends ServerSubTaskParams {
     // Timeout for the RPC call.
     public long serverWaitTimeoutMs;
@@ -30,32 +43,48 @@ public class WaitForServer extends ServerSubTaskBase {
     return (Params)taskParams;
   }
 
+  @Override
+  public void initialize(ITaskParams params) {
+    super.initialize(params);
+    waitUntilService = Play.current().injector().instanceOf(WaitUntilService.class);
+  }
+
   @Override
   public void run() {
+    join(runAsync());
+  }
 
+  @Override
+  public CompletableFuture<Void> runAsync() {
     checkParams();
 
-    boolean ret;
-    YBClient client = null;
     long startMs = System.currentTimeMillis();
-    try {
-      HostAndPort hp = getHostPort();
-      client = getClient();
-
-      ret = client.waitForServer(hp, taskParams().serverWaitTimeoutMs);
-    } catch (Exception e) {
-      LOG.error("{} hit error : {}", getName(), e.getMessage());
-      throw new RuntimeException(e);
-    } finally {
-      closeClient(client);
-    }
-    if (!ret) {
-      throw new RuntimeException(getName() + " did not respond to pings in the set time.");
-    }
-    LOG.info(
-      "Server {} responded to RPC calls in {} ms",
-      (taskParams().nodeName != null) ? taskParams().nodeName : "unknown",
-      (System.currentTimeMillis() - startMs)
-    );
+    HostAndPort hp = getHostPort();
+    YBClient client = getClient();
+
+    WaitUntilService.Options options = new WaitUntilService.Options();
+    options.minIntervalMs = MIN_PING_INTERVAL_MS;
+    options.maxIntervalMs = MAX_PING_INTERVAL_MS;
+    options.timeoutMs = taskParams().serverWaitTimeoutMs;
+    // Pings fail with an exception until the server is up, and the wait ends with the first
+    // ping that returns.
+    return waitUntilService.waitUntil(getName(),
+        () -> client.ping(hp.getHost(), hp.getPort()), responded -> true, options, null)
+      .handle((responded, error) -> {
+        closeClient(client);
+        if (error != null) {
+          LOG.error("{} hit error : {}", getName(), error.getMessage());
+        }
+        if (error != null || !responded) {
+          throw new RuntimeException(getName() + " did not respond to pings in the set time.",
+              error);
+        }
+        LOG.info(
+          "Server {} responded to RPC calls in {} ms",
+          (taskParams().nodeName != null) ? taskParams().nodeName : "unknown",
+          (System.currentTimeMillis() - startMs)
+        );
+        return null;
+      });
   }
 }
@@ -15,6 +15,8 @@ import org.slf4j.LoggerFactory;
 import org.yb.client.YBClient;
 
 import com.yugabyte.yw.commissioner.AbstractTaskBase;
+import com.yugabyte.yw.commissioner.AsyncTask;
+import com.yugabyte.yw.commissioner.WaitUntilService;
 import com.yugabyte.yw.common.services.YBClientService;
 import com.yugabyte.yw.forms.ITaskParams;
 import com.yugabyte.yw.forms.UniverseTaskParams;
@@ -22,20 +24,26 @@ import com.yugabyte.yw.models.Universe;
 
 import play.api.Play;
 
+import java.util.concurrent.CompletableFuture;
+
 // Helper class to wait for a minimum number of tservers to heartbeat to the
 // master leader. Currently the minimum is the same as the replication factor,
 // so that next set of tasks like creating a table will not lack tserver resources.
-public class WaitForTServerHeartBeats extends AbstractTaskBase {
+public class WaitForTServerHeartBeats extends AbstractTaskBase implements AsyncTask {
   public static final Logger LOG = LoggerFactory.getLogger(WaitForTServerHeartBeats.class);
 
   // The YB client to use.
   private YBClientService ybService = null;
 
+  private WaitUntilService waitUntilService = null;
+
   // Timeout when minimum number of tservers have not heartbeatean to master leader.
   private static final long TIMEOUT_SERVER_WAIT_MS = 120000;
 
-  // Time to wait (in millisec) during each iteration of check.
+  // Time to wait (in millisec) between checks while more tservers are registering, the interval
+  // grows up to MAX_WAIT_EACH_ATTEMPT_MS while the count does not change.
   private static final int WAIT_EACH_ATTEMPT_MS = 250;
+  private static final int MAX_WAIT_EACH_ATTEMPT_MS = 2000;
 
   // Parameters for tserver heartbeat wait task.
   public static class Params extends UniverseTaskParams { }
@@ -49,6 +57,7 @@ public class WaitForTServerHeartBeats extends AbstractTaskBase {
   public void initialize(ITaskParams params) {
     super.initialize(params);
     ybService = Play.current().injector().instanceOf(YBClientService.class);
+    waitUntilService = Play.current().injector().instanceOf(WaitUntilService.class);
   }
 
   @Override
@@ -58,6 +67,11 @@ public class WaitForTServerHeartBeats extends AbstractTaskBase {
 
   @Override
   public void run() {
+    join(runAsync());
+  }
+
+  @Override
+  public CompletableFuture<Void> runAsync() {
     Universe universe = Universe.get(taskParams().universeUUID);
     String hostPorts = universe.getMasterAddresses();
     String certificate = universe.getCertificate();
@@ -65,34 +79,24 @@ public class WaitForTServerHeartBeats extends AbstractTaskBase {
     YBClient client = ybService.getClient(hostPorts, certificate);
 
     LOG.info("Running {}: hostPorts={}, numTservers={}.", getName(), hostPorts, numTservers);
-    int numTries = 1;
-    long start = System.currentTimeMillis();
-    boolean timedOut = false;
-    do {
-      try {
-        int currentNumTservers = client.listTabletServers().getTabletServersCount();
-
-        LOG.info("{} tservers heartbeating to master leader.", currentNumTservers);
-
-        if (currentNumTservers >= numTservers) {
-          break;
+    WaitUntilService.Options options = new WaitUntilService.Options();
+    options.minIntervalMs = WAIT_EACH_ATTEMPT_MS;
+    options.maxIntervalMs = MAX_WAIT_EACH_ATTEMPT_MS;
+    options.timeoutMs = TIMEOUT_SERVER_WAIT_MS;
+    return waitUntilService.waitUntil(getName(),
+        () -> client.listTabletServers().getTabletServersCount(),
+        currentNumTservers -> currentNumTservers >= numTservers,
+        options,
+        (currentNumTservers, numTries, elapsedMs) ->
+          LOG.info("{} tservers heartbeating to master leader, waiting for {}. Tried {} times.",
+                   currentNumTservers, numTservers, numTries))
+      .handle((currentNumTservers, error) -> {
+        ybService.closeClient(client, hostPorts);
+        if (error != null) {
+          throw new RuntimeException(getName() + " timed out.", error);
         }
-
-        LOG.info("Waiting to make sure {} tservers are heartbeating to master leader; retrying " +
-                 "after {}ms. Tried {} times.", numTservers, WAIT_EACH_ATTEMPT_MS, numTries);
-
-        Thread.sleep(WAIT_EACH_ATTEMPT_MS);
-        numTries++;
-      } catch (Exception e) {
-        LOG.warn("{}: ignoring error '{}'.", getName(), e.getMessage());
-      }
-      timedOut = System.currentTimeMillis() >= start + TIMEOUT_SERVER_WAIT_MS;
-    } while (!timedOut);
-
-    ybService.closeClient(client, hostPorts);
-
-    if (timedOut) {
-      throw new RuntimeException(getName() + " timed out.");
-    }
+        LOG.info("{} tservers heartbeating to master leader.", currentNumTservers);
+        return null;
+      });
   }
 }
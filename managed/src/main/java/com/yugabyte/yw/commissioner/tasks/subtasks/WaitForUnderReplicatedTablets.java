@@ -0,0 +1,141 @@
+/*
+ * Copyright 2021 YugaByte, Inc. and Contributors
+ *
+ * Licensed under the Polyform Free Trial License 1.0.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ *     https://github.com/YugaByte/yugabyte-db/blob/master/licenses/POLYFORM-FREE-TRIAL-LICENSE-1.0.0.txt
+ */
+
+package com.yugabyte.yw.commissioner.tasks.subtasks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.yugabyte.yw.commissioner.AbstractTaskBase;
+import com.yugabyte.yw.common.ApiHelper;
+import com.yugabyte.yw.forms.ITaskParams;
+import com.yugabyte.yw.forms.UniverseTaskParams;
+import com.yugabyte.yw.models.Universe;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import play.api.Play;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.concurrent.ExecutionException;
+
+import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
+
+/**
+ * Waits until the master leader reports no under-replicated tablets, i.e. until every tablet is
+ * back to its full replication factor after servers were restarted.
+ *
+ * Failed requests are retried until the timeout, as the master may be briefly unreachable while
+ * servers restart. The check is only skipped when the master does not have the endpoint.
+ */
+public class WaitForUnderReplicatedTablets extends AbstractTaskBase {
+  public static final Logger LOG = LoggerFactory.getLogger(WaitForUnderReplicatedTablets.class);
+
+  // Time to wait (in millisec) between two checks.
+  private static final int WAIT_EACH_ATTEMPT_MS = 2000;
+
+  // Log after these many iterations.
+  private static final int LOG_EVERY_NUM_ITERS = 30;
+
+  // Default maximum total wait time (10min).
+  private static final long DEFAULT_MAX_TOTAL_WAIT_MS = 600000;
+
+  // Deadline of one request to the master leader.
+  private static final long REQUEST_TIMEOUT_MS = 30000;
+
+  private static final String UNDER_REPLICATED_TABLETS = "underreplicated_tablets";
+
+  private ApiHelper apiHelper;
+
+  public static class Params extends UniverseTaskParams {
+    // Maximum time to wait for the tablets to be fully replicated.
+    public long timeoutMs = DEFAULT_MAX_TOTAL_WAIT_MS;
+  }
+
+  @Override
+  protected Params taskParams() {
+    return (Params)taskParams;
+  }
+
+  @Override
+  public void initialize(ITaskParams params) {
+    super.initialize(params);
+    apiHelper = Play.current().injector().instanceOf(ApiHelper.class);
+  }
+
+  @Override
+  public String getName() {
+    return super.getName() + "(" + taskParams().universeUUID + ")";
+  }
+
+  @Override
+  public void run() {
+    long startMs = System.currentTimeMillis();
+    int numIters = 0;
+    String lastError = null;
+    while (true) {
+      numIters++;
+      Universe universe = Universe.get(taskParams().universeUUID);
+      String masterLeader = universe.getMasterLeaderHostText();
+      int masterHttpPort = universe.getUniverseDetails().communicationPorts.masterHttpPort;
+      if (masterLeader.isEmpty()) {
+        lastError = "no master leader";
+      } else {
+        String url = String.format("http://%s:%d/api/v1/tablet-under-replication",
+                                   masterLeader, masterHttpPort);
+        long remainingMs = taskParams().timeoutMs - (System.currentTimeMillis() - startMs);
+        Duration requestTimeout =
+            Duration.ofMillis(Math.max(1, Math.min(remainingMs, REQUEST_TIMEOUT_MS)));
+        try {
+          JsonNode response = apiHelper.getRequestAsync(url, new HashMap<>(), new HashMap<>(),
+                                                        requestTimeout)
+              .toCompletableFuture().get();
+          JsonNode tablets = response.get(UNDER_REPLICATED_TABLETS);
+          if (tablets == null || !tablets.isArray()) {
+            lastError = "unexpected response " + response;
+            LOG.warn("{}: {} from {}, retrying.", getName(), lastError, url);
+          } else if (tablets.size() == 0) {
+            LOG.info("{}: no under-replicated tablets after iters={}.", getName(), numIters);
+            return;
+          } else {
+            lastError = tablets.size() + " under-replicated tablets";
+            if (numIters % LOG_EVERY_NUM_ITERS == 0) {
+              LOG.info("{}: {} after iters={}.", getName(), lastError, numIters);
+            }
+          }
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof ApiHelper.HttpStatusException &&
+              ((ApiHelper.HttpStatusException) cause).getStatus() == HTTP_NOT_FOUND) {
+            // Masters that predate the endpoint have no way to report it, the other gates of the
+            // caller still apply.
+            LOG.warn("{}: {} is not supported by the master, skipping check.", getName(), url);
+            return;
+          }
+          // The master may be restarting or unreachable for a while, retry until the timeout.
+          lastError = cause.getMessage();
+          LOG.warn("{}: cannot get under-replicated tablets from {}, retrying: {}",
+                   getName(), url, lastError);
+        } catch (InterruptedException e) {
+          throw new RuntimeException(getName() + " interrupted.", e);
+        }
+      }
+      if (System.currentTimeMillis() - startMs > taskParams().timeoutMs) {
+        throw new RuntimeException(getName() + " timed out waiting for under-replicated " +
+                                   "tablets after " + numIters + " iters: " + lastError);
+      }
+      try {
+        Thread.sleep(WAIT_EACH_ATTEMPT_MS);
+      } catch (InterruptedException e) {
+        throw new RuntimeException(getName() + " interrupted.", e);
+      }
+    }
+  }
+}
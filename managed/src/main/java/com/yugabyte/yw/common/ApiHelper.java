@@ -2,32 +2,177 @@
 
 package com.yugabyte.yw.common;
 
+import akka.util.ByteString;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.CountingInputStream;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Histogram;
+import io.prometheus.client.Summary;
 import play.libs.Json;
+import play.libs.ws.InMemoryBodyWritable;
 import play.libs.ws.WSClient;
 import play.libs.ws.WSRequest;
 import play.libs.ws.WSResponse;
 
+import java.io.IOException;
 import java.net.URL;
 import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static com.yugabyte.yw.common.utils.PrometheusUtil.registerCollector;
 
 /**
  * Helper class API specific stuff
+ *
+ * GET requests are sent asynchronously: the *Async methods return a stage completed with the
+ * parsed response, and the blocking methods wait on them. Every GET has a deadline, covering the
+ * time spent waiting for a slot to the host, and at most {@link #MAX_REQUESTS_PER_HOST} of them
+ * are in flight to a given host, the others being queued without holding a thread. The
+ * connections themselves are pooled and kept alive by the WSClient.
  */
 
 @Singleton
 public class ApiHelper {
 
+  // Deadline of the requests that do not set one.
+  static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+  // A metrics page or a prometheus query fans out to every node of a universe, this keeps the
+  // number of connections opened to one host bounded.
+  static final int MAX_REQUESTS_PER_HOST = 16;
+
+  private final Histogram requestLatency;
+
+  private final Summary responseSize;
+
+  private final Counter requestErrors;
+
+  private final WSClient wsClient;
+
   @Inject
-  WSClient wsClient;
+  public ApiHelper(WSClient wsClient) {
+    this(wsClient, CollectorRegistry.defaultRegistry);
+  }
+
+  @VisibleForTesting
+  ApiHelper(WSClient wsClient, CollectorRegistry promRegistry) {
+    this.wsClient = wsClient;
+    this.requestLatency = registerCollector(Histogram
+      .build("yw_api_request_latency_seconds",
+        "Latency of the HTTP requests sent by the platform, including the wait for a slot.")
+      .labelNames("method", "host")
+      .create(), promRegistry);
+    this.responseSize = registerCollector(Summary
+      .build("yw_api_response_size_bytes", "Size of the JSON responses received by the platform.")
+      .labelNames("host")
+      .create(), promRegistry);
+    this.requestErrors = registerCollector(Counter
+      .build("yw_api_request_error_count", "Number of failed or timed out HTTP requests.")
+      .labelNames("method", "host")
+      .create(), promRegistry);
+  }
+
+  private final Map<String, HostLimiter> hostLimiters = new ConcurrentHashMap<>();
+
+  /**
+   * The server answered a GET with an error status and a body that is not JSON, such as the
+   * "not found" page of a server that does not have the endpoint.
+   */
+  public static class HttpStatusException extends RuntimeException {
+    private final int status;
+
+    public HttpStatusException(String url, int status) {
+      super("Request to " + url + " failed with HTTP status " + status);
+      this.status = status;
+    }
+
+    public int getStatus() {
+      return status;
+    }
+  }
+
+  // Fails the requests still waiting for a slot at their deadline.
+  private static final ScheduledThreadPoolExecutor WAIT_TIMER = createWaitTimer();
+
+  private static ScheduledThreadPoolExecutor createWaitTimer() {
+    ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1,
+      new ThreadFactoryBuilder().setNameFormat("api-helper-wait-timer").setDaemon(true).build());
+    // Most requests get their slot before the deadline, don't keep their timers in the queue.
+    timer.setRemoveOnCancelPolicy(true);
+    return timer;
+  }
+
+  // Hands out the slots to a host in the order they were asked for.
+  private static class HostLimiter {
+    private final int maxInFlight;
+    private final Queue<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private int inFlight = 0;
+
+    HostLimiter(int maxInFlight) {
+      this.maxInFlight = maxInFlight;
+    }
+
+    // The returned stage fails with a TimeoutException if no slot is free within the timeout,
+    // the request then leaves the queue.
+    CompletableFuture<Void> acquire(String url, Duration timeout) {
+      CompletableFuture<Void> waiter;
+      synchronized (this) {
+        if (inFlight < maxInFlight) {
+          inFlight++;
+          return CompletableFuture.completedFuture(null);
+        }
+        waiter = new CompletableFuture<>();
+        waiters.add(waiter);
+      }
+      ScheduledFuture<?> deadline = WAIT_TIMER.schedule(() -> {
+        boolean removed;
+        synchronized (this) {
+          removed = waiters.remove(waiter);
+        }
+        // Not in the queue anymore means the slot was just handed to this request.
+        if (removed) {
+          waiter.completeExceptionally(new TimeoutException(
+            "Request to " + url + " timed out waiting for a connection after " +
+            timeout.toMillis() + " ms"));
+        }
+      }, timeout.toNanos(), TimeUnit.NANOSECONDS);
+      waiter.whenComplete((v, e) -> deadline.cancel(false));
+      return waiter;
+    }
+
+    void release() {
+      CompletableFuture<Void> next;
+      synchronized (this) {
+        next = waiters.poll();
+        if (next == null) {
+          inFlight--;
+          return;
+        }
+      }
+      // The slot goes to the next request, which is sent from this thread.
+      next.complete(null);
+    }
+  }
 
   public JsonNode postRequest(String url, JsonNode data)  {
     return postRequest(url, data, new HashMap<>());
@@ -39,6 +184,16 @@ public class ApiHelper {
     return handleJSONPromise(jsonPromise);
   }
 
+  // Posts raw bytes, for payloads that are not JSON such as file chunks.
+  public JsonNode postRequest(String url, byte[] data, String contentType,
+                              Map<String, String> headers) {
+    WSRequest request = requestWithHeaders(url, headers);
+    CompletionStage<JsonNode> jsonPromise = request
+      .post(new InMemoryBodyWritable(ByteString.fromArray(data), contentType))
+      .thenApply(WSResponse::asJson);
+    return handleJSONPromise(jsonPromise);
+  }
+
   public JsonNode putRequest(String url, JsonNode data, Map<String, String> headers) {
     WSRequest request = requestWithHeaders(url, headers);
     CompletionStage<JsonNode> jsonPromise = request.put(data).thenApply(WSResponse::asJson);
@@ -57,11 +212,21 @@ public class ApiHelper {
   // Helper function to get the full body of the webpage via an http request to the given url.
   public String getBody(String url)  {
     WSRequest request = wsClient.url(url);
-    CompletionStage<String> jsonPromise = request.get().thenApply(WSResponse::getBody);
+    String host = getHost(url);
+    CompletionStage<String> jsonPromise = execute("GET", url, request, request::get,
+                                                  DEFAULT_REQUEST_TIMEOUT)
+      .thenApply(response -> {
+        String body = response.getBody();
+        responseSize.labels(host).observe(body.length());
+        return body;
+      });
     String pageText = null;
     try {
-      pageText = jsonPromise.toCompletableFuture().get();
-    } catch (InterruptedException | ExecutionException e) {
+      // The request fails by itself at its deadline, this only guards against a stage that is
+      // never completed.
+      pageText = jsonPromise.toCompletableFuture()
+        .get(DEFAULT_REQUEST_TIMEOUT.toMillis() * 2, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException | ExecutionException | TimeoutException e) {
       pageText = e.getMessage();
     }
     return pageText;
@@ -93,16 +258,101 @@ public class ApiHelper {
   }
 
   public JsonNode getRequest(String url, Map<String, String> headers, Map<String, String> params) {
+    return handleJSONPromise(getRequestAsync(url, headers, params));
+  }
+
+  public CompletionStage<JsonNode> getRequestAsync(String url) {
+    return getRequestAsync(url, new HashMap<>(), new HashMap<>());
+  }
+
+  public CompletionStage<JsonNode> getRequestAsync(String url, Map<String, String> headers,
+                                                   Map<String, String> params) {
+    return getRequestAsync(url, headers, params, DEFAULT_REQUEST_TIMEOUT);
+  }
+
+  /**
+   * Sends a GET request without blocking.
+   *
+   * @param timeout : Deadline of the request, including the wait for a slot to the host.
+   * @return a stage completed with the parsed JSON body, or completed exceptionally if the request
+   * failed, timed out or the body is not valid JSON. An error status without a JSON body fails
+   * with an {@link HttpStatusException}.
+   */
+  public CompletionStage<JsonNode> getRequestAsync(String url, Map<String, String> headers,
+                                                   Map<String, String> params,
+                                                   Duration timeout) {
     WSRequest request = requestWithHeaders(url, headers);
     if (!params.isEmpty()) {
       for (Map.Entry<String, String> entry : params.entrySet()) {
         request.setQueryParameter(entry.getKey(), entry.getValue());
       }
     }
-    CompletionStage<JsonNode> jsonPromise = request
-      .get()
-      .thenApply(WSResponse::asJson);
-    return handleJSONPromise(jsonPromise);
+    String host = getHost(url);
+    return execute("GET", url, request, request::get, timeout)
+      .thenApply(response -> parseJson(url, host, response));
+  }
+
+  // Sends the request once a slot to its host is free, and records its latency.
+  private CompletionStage<WSResponse> execute(String method, String url, WSRequest request,
+                                              Supplier<CompletionStage<WSResponse>> send,
+                                              Duration timeout) {
+    String host = getHost(url);
+    HostLimiter limiter =
+      hostLimiters.computeIfAbsent(host, h -> new HostLimiter(MAX_REQUESTS_PER_HOST));
+    long startNanos = System.nanoTime();
+    CompletionStage<WSResponse> result = limiter.acquire(url, timeout).thenCompose(v -> {
+      Duration remaining = timeout.minusNanos(System.nanoTime() - startNanos);
+      if (remaining.isNegative() || remaining.isZero()) {
+        limiter.release();
+        CompletableFuture<WSResponse> timedOut = new CompletableFuture<>();
+        timedOut.completeExceptionally(new TimeoutException(
+          "Request to " + url + " timed out waiting for a connection after " +
+          timeout.toMillis() + " ms"));
+        return timedOut;
+      }
+      request.setRequestTimeout(remaining);
+      CompletionStage<WSResponse> response;
+      try {
+        response = send.get();
+      } catch (RuntimeException e) {
+        limiter.release();
+        throw e;
+      }
+      return response.whenComplete((r, e) -> limiter.release());
+    });
+    return result.whenComplete((r, e) -> {
+      requestLatency.labels(method, host)
+        .observe((double) (System.nanoTime() - startNanos) / TimeUnit.SECONDS.toNanos(1));
+      if (e != null) {
+        requestErrors.labels(method, host).inc();
+      }
+    });
+  }
+
+  // Parses the body straight from its bytes, without decoding it to a String first.
+  private JsonNode parseJson(String url, String host, WSResponse response) {
+    try (CountingInputStream body = new CountingInputStream(response.getBodyAsStream())) {
+      JsonNode json = Json.mapper().readTree(body);
+      responseSize.labels(host).observe(body.getCount());
+      if (json == null) {
+        throw new RuntimeException("Empty response from " + url);
+      }
+      return json;
+    } catch (IOException e) {
+      if (response.getStatus() >= 400) {
+        throw new HttpStatusException(url, response.getStatus());
+      }
+      throw new RuntimeException("Invalid JSON response from " + url + ": " + e.getMessage());
+    }
+  }
+
+  private static String getHost(String url) {
+    try {
+      URL urlObj = new URL(url);
+      return urlObj.getPort() < 0 ? urlObj.getHost() : urlObj.getHost() + ":" + urlObj.getPort();
+    } catch (Exception e) {
+      return "unknown";
+    }
   }
 
   private JsonNode handleJSONPromise(CompletionStage<JsonNode> jsonPromise) {
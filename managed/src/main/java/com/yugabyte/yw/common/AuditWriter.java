@@ -0,0 +1,273 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.common;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.typesafe.config.Config;
+import com.yugabyte.yw.models.Audit;
+import io.ebean.Ebean;
+import io.ebean.Transaction;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.inject.ApplicationLifecycle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.yugabyte.yw.common.utils.PrometheusUtil.registerCollector;
+
+/**
+ * Stores the audit entries of the API calls.
+ *
+ * Entries are queued and inserted by a background thread, in batches of all the entries queued
+ * while the previous batch was written, so that the API calls do not wait on the DB. Callers can
+ * still wait for their entry to be stored, and reads of the audit entries first wait for the
+ * entries queued before them. When the queue is full, entries are inserted by the calling thread,
+ * which slows down the callers to the pace of the DB.
+ */
+@Singleton
+public class AuditWriter {
+  public static final Logger LOG = LoggerFactory.getLogger(AuditWriter.class);
+
+  static final String ASYNC_WRITES_KEY = "yb.audit.async_writes";
+  static final String QUEUE_SIZE_KEY = "yb.audit.queue_size";
+  static final String BATCH_SIZE_KEY = "yb.audit.batch_size";
+
+  // How long the writer drains the queue when the application stops.
+  private static final long SHUTDOWN_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(30);
+
+  private static class PendingEntry {
+    final Audit entry;
+    final long queueTimeNanos = System.nanoTime();
+    final CompletableFuture<Void> written = new CompletableFuture<>();
+
+    PendingEntry(Audit entry) {
+      this.entry = entry;
+    }
+  }
+
+  private final boolean asyncWrites;
+  private final int batchSize;
+  private final BlockingQueue<PendingEntry> queue;
+
+  // The last entry queued, entries are written in queue order. Guarded by this.
+  private PendingEntry lastQueued;
+
+  private volatile boolean running = true;
+  private final Thread writerThread;
+
+  private final Gauge queueSize;
+
+  private final Counter queueFull;
+
+  private final Counter writtenEntries;
+
+  private final Counter writeErrors;
+
+  private final Histogram batchDuration;
+
+  private final Histogram writeDelay;
+
+  @Inject
+  public AuditWriter(Config config, ApplicationLifecycle lifecycle) {
+    this(config, lifecycle, CollectorRegistry.defaultRegistry);
+  }
+
+  @VisibleForTesting
+  AuditWriter(Config config, ApplicationLifecycle lifecycle, CollectorRegistry promRegistry) {
+    this.queueSize = registerCollector(Gauge
+      .build("yw_audit_queue_size", "Number of audit entries waiting to be written.")
+      .create(), promRegistry);
+    this.queueFull = registerCollector(Counter
+      .build("yw_audit_queue_full_count",
+        "Number of audit entries written by the request thread because the queue was full.")
+      .create(), promRegistry);
+    this.writtenEntries = registerCollector(Counter
+      .build("yw_audit_written_count", "Number of audit entries written.")
+      .labelNames("mode")
+      .create(), promRegistry);
+    this.writeErrors = registerCollector(Counter
+      .build("yw_audit_write_error_count", "Number of audit entries which could not be written.")
+      .create(), promRegistry);
+    this.batchDuration = registerCollector(Histogram
+      .build("yw_audit_batch_duration_seconds", "Duration of the audit entry batch inserts.")
+      .create(), promRegistry);
+    this.writeDelay = registerCollector(Histogram
+      .build("yw_audit_write_delay_seconds",
+        "Delay between the queueing of the audit entries and their write.")
+      .create(), promRegistry);
+    this.asyncWrites = config.getBoolean(ASYNC_WRITES_KEY);
+    this.batchSize = Math.max(config.getInt(BATCH_SIZE_KEY), 1);
+    this.queue = new ArrayBlockingQueue<>(Math.max(config.getInt(QUEUE_SIZE_KEY), 1));
+    this.writerThread = new Thread(this::runWriter, "AuditWriter");
+    this.writerThread.setDaemon(true);
+    if (asyncWrites) {
+      writerThread.start();
+    }
+    lifecycle.addStopHook(() -> {
+      stop();
+      return CompletableFuture.completedFuture(null);
+    });
+  }
+
+  /**
+   * Stores the audit entry.
+   *
+   * @param entry the new audit entry.
+   * @param waitForWrite whether to return only once the entry is stored, for the calls whose
+   *                     entries must not be lost if the platform stops.
+   */
+  public void write(Audit entry, boolean waitForWrite) {
+    PendingEntry pending = new PendingEntry(entry);
+    if (!asyncWrites || !enqueue(pending)) {
+      writeEntry(pending, "sync");
+      return;
+    }
+    if (waitForWrite) {
+      try {
+        pending.written.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Interrupted while writing audit entry.", e);
+      } catch (ExecutionException e) {
+        throw (RuntimeException) e.getCause();
+      }
+    }
+  }
+
+  /**
+   * Waits for the entries queued so far to be written.
+   */
+  public void flush() {
+    PendingEntry last;
+    synchronized (this) {
+      last = lastQueued;
+    }
+    if (last == null) {
+      return;
+    }
+    try {
+      last.written.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      // The write error is logged by the writer.
+    }
+  }
+
+  private synchronized boolean enqueue(PendingEntry pending) {
+    if (!running || !queue.offer(pending)) {
+      if (running) {
+        queueFull.inc();
+      }
+      return false;
+    }
+    queueSize.inc();
+    lastQueued = pending;
+    return true;
+  }
+
+  private void stop() {
+    running = false;
+    try {
+      writerThread.join(SHUTDOWN_TIMEOUT_MS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (!queue.isEmpty()) {
+      LOG.error("{} audit entries were not written before shutdown.", queue.size());
+    }
+  }
+
+  private void runWriter() {
+    List<PendingEntry> batch = new ArrayList<>(batchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        PendingEntry first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+        queueSize.dec(batch.size());
+        writeBatch(batch);
+      } catch (InterruptedException e) {
+        LOG.warn("Audit writer interrupted.");
+      } catch (Exception e) {
+        LOG.error("Error writing audit entries.", e);
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void writeBatch(List<PendingEntry> batch) {
+    if (batch.size() == 1) {
+      writeEntry(batch.get(0), "async");
+      return;
+    }
+    Histogram.Timer timer = batchDuration.startTimer();
+    boolean committed = false;
+    Transaction transaction = Ebean.beginTransaction();
+    try {
+      // The entries are sent to the DB in JDBC batches.
+      transaction.setBatchMode(true);
+      transaction.setBatchSize(batch.size());
+      for (PendingEntry pending : batch) {
+        pending.entry.save();
+      }
+      Ebean.commitTransaction();
+      committed = true;
+    } catch (Exception e) {
+      LOG.warn("Error writing a batch of {} audit entries, writing them one by one.",
+        batch.size(), e);
+    } finally {
+      Ebean.endTransaction();
+      timer.observeDuration();
+    }
+    if (committed) {
+      for (PendingEntry pending : batch) {
+        onWritten(pending, "async");
+      }
+    } else {
+      // The entries of a failed batch are still new, so that they are inserted again, and a bad
+      // entry does not lose the others.
+      for (PendingEntry pending : batch) {
+        writeEntry(pending, "async");
+      }
+    }
+  }
+
+  private void writeEntry(PendingEntry pending, String mode) {
+    try {
+      pending.entry.save();
+    } catch (RuntimeException e) {
+      writeErrors.inc();
+      LOG.error("Error writing audit entry for {} {}.", pending.entry.getApiMethod(),
+        pending.entry.getApiCall(), e);
+      pending.written.completeExceptionally(e);
+      if (mode.equals("sync")) {
+        throw e;
+      }
+      return;
+    }
+    onWritten(pending, mode);
+  }
+
+  private void onWritten(PendingEntry pending, String mode) {
+    writtenEntries.labels(mode).inc();
+    writeDelay.observe((System.nanoTime() - pending.queueTimeNanos) / 1e9);
+    pending.written.complete(null);
+  }
+}
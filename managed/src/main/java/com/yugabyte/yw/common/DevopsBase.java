@@ -11,6 +11,8 @@
 package com.yugabyte.yw.common;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.inject.Inject;
 import com.yugabyte.yw.commissioner.Common;
 import com.yugabyte.yw.models.Provider;
@@ -19,9 +21,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.libs.Json;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -29,6 +36,8 @@ import java.util.UUID;
 public abstract class DevopsBase {
   public static final String YBCLOUD_SCRIPT = "bin/ybcloud.sh";
   public static final String PY_WRAPPER = "bin/py_wrapper";
+  // First argument of ybcloud to run a batch of its commands.
+  public static final String BATCH_COMMAND = "batch";
   public static final Logger LOG = LoggerFactory.getLogger(DevopsBase.class);
 
   // Command that we would need to execute eg: instance, network, access.
@@ -74,6 +83,47 @@ public abstract class DevopsBase {
                                                           String command,
                                                           List<String> commandArgs,
                                                           List<String> cloudArgs) {
+    return execCommand(getCommand(regionUUID, providerUUID, cloudType, command, commandArgs,
+                                  cloudArgs));
+  }
+
+  protected ShellResponse execCommand(DevopsCommand devopsCommand) {
+    ShellResponse response = shellProcessHandler.run(devopsCommand.commandList,
+                                                     devopsCommand.extraVars,
+                                                     devopsCommand.description);
+    recordProcess(devopsCommand.command, "single", response);
+    return response;
+  }
+
+  private void recordProcess(String command, String mode, ShellResponse response) {
+    shellProcessHandler.recordDevopsProcess(getCommandType().toLowerCase(), command, mode,
+                                            response.durationMs);
+  }
+
+  /**
+   * A ybcloud invocation, to be run on its own or in a batch.
+   */
+  public static class DevopsCommand {
+    public final String command;
+    public final List<String> commandList;
+    public final Map<String, String> extraVars;
+    public final String description;
+
+    DevopsCommand(String command, List<String> commandList, Map<String, String> extraVars,
+                  String description) {
+      this.command = command;
+      this.commandList = commandList;
+      this.extraVars = extraVars;
+      this.description = description;
+    }
+  }
+
+  protected DevopsCommand getCommand(UUID regionUUID,
+                                     UUID providerUUID,
+                                     Common.CloudType cloudType,
+                                     String command,
+                                     List<String> commandArgs,
+                                     List<String> cloudArgs) {
     List<String> commandList = new ArrayList<>();
     commandList.add(YBCLOUD_SCRIPT);
     Map<String, String> extraVars = new HashMap<>();
@@ -108,6 +158,98 @@ public abstract class DevopsBase {
     commandList.add(getCommandType().toLowerCase());
     commandList.add(command);
     commandList.addAll(commandArgs);
-    return shellProcessHandler.run(commandList, extraVars, description);
+    return new DevopsCommand(command, commandList, extraVars, description);
+  }
+
+  /**
+   * Runs the commands with one ybcloud process per distinct environment instead of one per
+   * command. The process runs up to parallelism commands at the same time, each in a process
+   * forked from it, and reports the result of each command.
+   * @param commands the commands to run, by name.
+   * @return the response of each command, by name.
+   */
+  protected Map<String, ShellResponse> execBatch(Map<String, DevopsCommand> commands,
+                                                 int parallelism) {
+    // The commands of a process share its environment.
+    Map<Map<String, String>, Map<String, DevopsCommand>> commandsByEnv = new LinkedHashMap<>();
+    for (Map.Entry<String, DevopsCommand> entry : commands.entrySet()) {
+      commandsByEnv.computeIfAbsent(entry.getValue().extraVars, k -> new LinkedHashMap<>())
+                   .put(entry.getKey(), entry.getValue());
+    }
+    Map<String, ShellResponse> responses = new HashMap<>();
+    for (Map.Entry<Map<String, String>, Map<String, DevopsCommand>> entry :
+         commandsByEnv.entrySet()) {
+      responses.putAll(execBatchProcess(entry.getKey(), entry.getValue(), parallelism));
+    }
+    return responses;
+  }
+
+  private Map<String, ShellResponse> execBatchProcess(Map<String, String> extraVars,
+                                                      Map<String, DevopsCommand> commands,
+                                                      int parallelism) {
+    Map<String, ShellResponse> responses = new HashMap<>();
+    File batchFile = null;
+    File outputFile = null;
+    ShellResponse response;
+    JsonNode results = null;
+    try {
+      batchFile = File.createTempFile("devops_batch", ".json");
+      outputFile = File.createTempFile("devops_batch_out", ".json");
+      ArrayNode batch = Json.newArray();
+      for (Map.Entry<String, DevopsCommand> entry : commands.entrySet()) {
+        List<String> commandList = entry.getValue().commandList;
+        ObjectNode command = batch.addObject();
+        command.put("name", entry.getKey());
+        command.set("args", Json.toJson(commandList.subList(1, commandList.size())));
+      }
+      Files.write(batchFile.toPath(), Json.stringify(batch).getBytes(StandardCharsets.UTF_8));
+
+      List<String> commandList = new ArrayList<>();
+      commandList.add(YBCLOUD_SCRIPT);
+      commandList.add(BATCH_COMMAND);
+      commandList.add("--parallelism");
+      commandList.add(Integer.toString(parallelism));
+      commandList.add("--output_file");
+      commandList.add(outputFile.getAbsolutePath());
+      commandList.add(batchFile.getAbsolutePath());
+      String command = commands.values().iterator().next().command;
+      String description = YBCLOUD_SCRIPT + " " + BATCH_COMMAND + " " +
+          getCommandType().toLowerCase() + " " + command + " " +
+          String.join(",", commands.keySet());
+      response = shellProcessHandler.run(commandList, extraVars, description);
+      recordProcess(command, "batch", response);
+      if (response.code == 0) {
+        results = Json.parse(new String(Files.readAllBytes(outputFile.toPath()),
+                                        StandardCharsets.UTF_8));
+      }
+    } catch (IOException | RuntimeException e) {
+      LOG.error("Failed to run the batch of commands " + commands.keySet(), e);
+      response = ShellResponse.create(-1, e.getMessage());
+    } finally {
+      if (batchFile != null) {
+        batchFile.delete();
+      }
+      if (outputFile != null) {
+        outputFile.delete();
+      }
+    }
+
+    for (Map.Entry<String, DevopsCommand> entry : commands.entrySet()) {
+      JsonNode result = results == null ? null : results.get(entry.getKey());
+      ShellResponse commandResponse;
+      if (result != null) {
+        commandResponse = ShellResponse.create(result.path("code").asInt(-1),
+                                               result.path("message").asText(null));
+      } else if (response.code != 0) {
+        commandResponse = ShellResponse.create(response.code, response.message);
+      } else {
+        commandResponse = ShellResponse.create(-1, "No result for " + entry.getKey() +
+                                                    " in the batch output.");
+      }
+      commandResponse.description = entry.getValue().description;
+      commandResponse.durationMs = response.durationMs;
+      responses.put(entry.getKey(), commandResponse);
+    }
+    return responses;
   }
 }
@@ -38,6 +38,7 @@ import play.libs.Json;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -74,6 +75,12 @@ public class NodeManager extends DevopsBase {
   }
   public static final Logger LOG = LoggerFactory.getLogger(NodeManager.class);
 
+  private static final String BATCH_NODE_COMMANDS_KEY = "yb.devops.batch_node_commands";
+  private static final String BATCH_PARALLELISM_KEY = "yb.devops.batch_parallelism";
+  private static final String BATCH_LINGER_KEY = "yb.devops.batch_linger";
+  private static final int DEFAULT_BATCH_PARALLELISM = 16;
+  private static final long DEFAULT_BATCH_LINGER_MS = 2000;
+
   @Inject
   play.Configuration appConfig;
 
@@ -489,6 +496,49 @@ public class NodeManager extends DevopsBase {
 
   public ShellResponse nodeCommand(NodeCommandType type,
                                    NodeTaskParams nodeTaskParam) throws RuntimeException {
+    return execCommand(getNodeCommand(type, nodeTaskParam));
+  }
+
+  /**
+   * Returns whether the node commands of the subtasks of a subtask group should be run in
+   * batches, by a single ybcloud process for all the nodes.
+   */
+  public boolean isBatchingEnabled() {
+    return appConfig.getBoolean(BATCH_NODE_COMMANDS_KEY, false);
+  }
+
+  public long getBatchLingerMs() {
+    Long lingerMs = appConfig.getMilliseconds(BATCH_LINGER_KEY);
+    return lingerMs == null ? DEFAULT_BATCH_LINGER_MS : lingerMs;
+  }
+
+  /**
+   * Records the wall time of a subtask group running node subtasks, mode being "single" or
+   * "batch" depending on how their node commands were run.
+   */
+  public void recordNodeTasks(String groupType, String mode, long durationMs) {
+    shellProcessHandler.recordNodeTasks(groupType, mode, durationMs);
+  }
+
+  /**
+   * Runs commands built by getNodeCommand with a single ybcloud process, or one per provider
+   * environment, instead of one process per node.
+   * @param commands the commands to run, by node name.
+   * @return the response of each command, by node name.
+   */
+  public Map<String, ShellResponse> nodeCommands(Map<String, DevopsCommand> commands) {
+    if (commands.size() == 1) {
+      Map.Entry<String, DevopsCommand> entry = commands.entrySet().iterator().next();
+      return Collections.singletonMap(entry.getKey(), execCommand(entry.getValue()));
+    }
+    int parallelism = appConfig.getInt(BATCH_PARALLELISM_KEY, DEFAULT_BATCH_PARALLELISM);
+    return execBatch(commands, Math.max(parallelism, 1));
+  }
+
+  /**
+   * Returns the ybcloud invocation running the command on the node.
+   */
+  public DevopsCommand getNodeCommand(NodeCommandType type, NodeTaskParams nodeTaskParam) {
     List<String> commandArgs = new ArrayList<>();
     UserIntent userIntent = getUserIntentFromParams(nodeTaskParam);
     switch (type) {
@@ -676,7 +726,7 @@ public class NodeManager extends DevopsBase {
     }
     commandArgs.add(nodeTaskParam.nodeName);
 
-    return execCommand(nodeTaskParam.getRegion().uuid, null, null, type.toString().toLowerCase(),
+    return getCommand(nodeTaskParam.getRegion().uuid, null, null, type.toString().toLowerCase(),
       commandArgs, getCloudArgs(nodeTaskParam));
   }
 }
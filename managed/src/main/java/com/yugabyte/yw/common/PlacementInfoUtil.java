@@ -107,28 +107,6 @@ public class PlacementInfoUtil {
     return false;
   }
 
-  /**
-   * Returns the PlacementAZ object with the specified UUID if exists in the provided PlacementInfo,
-   * else null.
-   *
-   * @param placementInfo PlacementInfo object to look through for the desired PlacementAZ.
-   * @param azUUID        UUID of the PlacementAZ to look for.
-   * @return The specified PlacementAZ if it exists, else null.
-   */
-  private static PlacementAZ findPlacementAzByUuid(PlacementInfo placementInfo, UUID azUUID) {
-    for (PlacementCloud cloud : placementInfo.cloudList) {
-      for (PlacementRegion region : cloud.regionList) {
-        for (PlacementAZ az : region.azList) {
-          if (az.uuid.equals(azUUID)) {
-            return az;
-          }
-        }
-      }
-    }
-
-    return null;
-  }
-
   // Helper function to reset az node counts before a full move.
   private static void clearPlacementAZCounts(PlacementInfo placementInfo) {
     for (PlacementCloud cloud : placementInfo.cloudList) {
@@ -157,18 +135,17 @@ public class PlacementInfoUtil {
    * @param oldParams   Not null iff it is an edit op, so need to honor existing nodes/tservers.
    * @param newParams   Current user task and placement info with user proposed AZ distribution.
    * @param cluster     Cluster to check.
+   * @param view        Index of the cluster nodes of oldParams on edit, of newParams otherwise.
    * @return If the number of nodes only are changed across AZ's in placement or if userIntent
    *         node count only changes, returns that configure mode. Else defaults to new config.
    */
   private static ConfigureNodesMode getPureExpandOrShrinkMode(UniverseDefinitionTaskParams oldParams,
                                                               UniverseDefinitionTaskParams newParams,
-                                                              Cluster cluster) {
+                                                              Cluster cluster,
+                                                              PlacementView view) {
     boolean isEditUniverse = oldParams != null;
     PlacementInfo newPlacementInfo = cluster.placementInfo;
     UserIntent newIntent = cluster.userIntent;
-    Collection<NodeDetails> nodeDetailsSet = isEditUniverse ?
-            oldParams.getNodesInCluster(cluster.uuid) :
-            newParams.getNodesInCluster(cluster.uuid);
 
     // If it's an EditUniverse operation, check if old and new intents are equal.
     if (isEditUniverse) {
@@ -189,16 +166,16 @@ public class PlacementInfoUtil {
 
     // Check if at least one AZ's num nodes count has changed
     boolean atLeastOneCountChanged = false;
-    Map<UUID, Integer> azUuidToNumNodes = getAzUuidToNumNodes(nodeDetailsSet);
+    Map<UUID, Integer> azUuidToNumNodes = view.getAzUuidToNumNodes(false /* onlyActive */);
     for (UUID azUuid : azUuidToNumNodes.keySet()) {
-      PlacementAZ az = findPlacementAzByUuid(newPlacementInfo, azUuid);
+      PlacementAZ az = view.getAZ(azUuid);
       if (az == null) {
         LOG.info("AZ {} not found in placement, so not pure expand/shrink.", azUuid);
 
         return ConfigureNodesMode.NEW_CONFIG;
       }
 
-      int numTservers = findCountActiveTServerOnlyInAZ(nodeDetailsSet, azUuid);
+      int numTservers = view.getNumActiveTServerOnlyInAZ(azUuid);
       int azDifference = az.numNodesInAZ - azUuidToNumNodes.get(azUuid);
       LOG.info("AZ {} check, azNum={}, azDiff={}, numTservers={}.", az.name, az.numNodesInAZ,
               azDifference, numTservers);
@@ -215,7 +192,7 @@ public class PlacementInfoUtil {
     int placementCount = getNodeCountInPlacement(newPlacementInfo);
     if (isEditUniverse) {
       LOG.info("Edit taskNumNodes={}, placementNumNodes={}, numNodes={}.", newIntent.numNodes,
-              placementCount, nodeDetailsSet.size());
+              placementCount, view.getNumNodes());
     } else {
       LOG.info("Create taskNumNodes={}, placementNumNodes={}.", newIntent.numNodes, placementCount);
     }
@@ -236,25 +213,16 @@ public class PlacementInfoUtil {
   }
 
   // Assumes that there is only single provider across all nodes in a given set.
-  private static UUID getProviderUUID(Collection<NodeDetails> nodes, UUID placementUuid) {
-    if (nodes == null || nodes.isEmpty()) {
-      return null;
-    }
-    NodeDetails node = nodes.stream()
-      .filter(n -> n.isInPlacement(placementUuid))
-      .findFirst()
-      .orElse(null);
-
-    return (node == null) ? null : AvailabilityZone.get(node.azUuid).region.provider.uuid;
+  private static UUID getProviderUUID(Set<UUID> nodeAZs) {
+    return nodeAZs.isEmpty() ? null :
+        AvailabilityZone.get(nodeAZs.iterator().next()).region.provider.uuid;
   }
 
-  private static Set<UUID> getAllRegionUUIDs(Collection<NodeDetails> nodes, UUID placementUuid) {
-    Set<UUID> nodeRegionSet = new HashSet<>();
-    nodes.stream()
-      .filter(n -> n.isInPlacement(placementUuid))
-      .forEach(n -> nodeRegionSet.add(AvailabilityZone.get(n.azUuid).region.uuid));
-
-    return nodeRegionSet;
+  private static Set<UUID> getAllRegionUUIDs(Set<UUID> nodeAZs) {
+    // Look up each AZ once, not once per node.
+    return nodeAZs.stream()
+      .map(azUuid -> AvailabilityZone.get(azUuid).region.uuid)
+      .collect(Collectors.toSet());
   }
 
   /**
@@ -262,18 +230,19 @@ public class PlacementInfoUtil {
    * and the new userIntent's region list.
    *
    * @param cluster The current user proposed cluster.
-   * @param nodes The set of nodes used to compare the current region layout.
+   * @param view Index of the nodes used to compare the current region layout.
    * @return true if the provider or region list changed. false if neither changed.
    */
-  private static boolean isProviderOrRegionChange(Cluster cluster, Collection<NodeDetails> nodes) {
+  private static boolean isProviderOrRegionChange(Cluster cluster, PlacementView view) {
     // Initial state. No nodes have been requested, so nothing has changed.
-    if (nodes.isEmpty()) {
+    Set<UUID> nodeAZs = view.getNodeAZs();
+    if (nodeAZs.isEmpty()) {
 
       return false;
     }
 
     // Compare Providers.
-    UUID intentProvider = getProviderUUID(nodes, cluster.uuid);
+    UUID intentProvider = getProviderUUID(nodeAZs);
     UUID nodeProvider = cluster.placementInfo.cloudList.get(0).uuid;
     if (!intentProvider.equals(nodeProvider)) {
       LOG.info("Provider in intent {} is different from provider in existing nodes {} in cluster {}.",
@@ -283,7 +252,7 @@ public class PlacementInfoUtil {
     }
 
     // Compare Regions.
-    Set<UUID> nodeRegionSet = getAllRegionUUIDs(nodes, cluster.uuid);
+    Set<UUID> nodeRegionSet = getAllRegionUUIDs(nodeAZs);
     Set<UUID> intentRegionSet = new HashSet<>(cluster.userIntent.regionList);
     LOG.info("Intended Regions {} vs existing Regions {} in cluster {}.",
             intentRegionSet, nodeRegionSet, cluster.uuid);
@@ -393,7 +362,7 @@ public class PlacementInfoUtil {
             cluster.userIntent.replicationFactor
           ) : cluster.placementInfo;
         LOG.info("Placement created={}.", cluster.placementInfo);
-        configureNodeStates(taskParams, null, ConfigureNodesMode.NEW_CONFIG, cluster);
+        configureNodeStates(taskParams, null, ConfigureNodesMode.NEW_CONFIG, cluster, null);
 
         return;
       }
@@ -414,7 +383,7 @@ public class PlacementInfoUtil {
         cluster.userIntent.replicationFactor
       );
       LOG.info("Placement created={}.", cluster.placementInfo);
-      configureNodeStates(taskParams, null, ConfigureNodesMode.NEW_CONFIG, cluster);
+      configureNodeStates(taskParams, null, ConfigureNodesMode.NEW_CONFIG, cluster, null);
 
       return;
     }
@@ -427,7 +396,8 @@ public class PlacementInfoUtil {
     // If user AZ Selection is made for Edit get a new configuration from placement info.
     if (taskParams.userAZSelected && universe != null) {
       mode = ConfigureNodesMode.NEW_CONFIG_FROM_PLACEMENT_INFO;
-      configureNodeStates(taskParams, universe, mode, cluster);
+      configureNodeStates(taskParams, universe, mode, cluster,
+                          new PlacementView(cluster, universe.getNodes()));
 
       return;
     }
@@ -460,20 +430,29 @@ public class PlacementInfoUtil {
     LOG.info("Update mode info: primEdit={}, roEdit={}, opType={}, cluster={}.",
              primaryClusterEdit, readOnlyClusterEdit, clusterOpType, cluster.clusterType);
 
+    // Index the placement and the nodes of the cluster by AZ for all the steps below. On edit,
+    // the mode is computed against the existing nodes, so those are indexed first.
+    boolean isEdit = primaryClusterEdit || readOnlyClusterEdit;
+    PlacementView view =
+        new PlacementView(cluster, isEdit ? universe.getNodes() : taskParams.nodeDetailsSet);
+    boolean viewHasTaskNodes = !isEdit;
+
     // For primary cluster edit only there is possibility of leader changes.
     if (primaryClusterEdit) {
       if (didAffinitizedLeadersChange(oldCluster.placementInfo, cluster.placementInfo)) {
         mode = ConfigureNodesMode.UPDATE_CONFIG_FROM_PLACEMENT_INFO;
       } else {
-        mode = getPureExpandOrShrinkMode(universe.getUniverseDetails(), taskParams, cluster);
+        mode = getPureExpandOrShrinkMode(universe.getUniverseDetails(), taskParams, cluster, view);
         taskParams.nodeDetailsSet.clear();
         taskParams.nodeDetailsSet.addAll(universe.getNodes());
+        viewHasTaskNodes = true;
       }
     } else {
       mode = getPureExpandOrShrinkMode(
         readOnlyClusterEdit ? universe.getUniverseDetails() : null,
         taskParams,
-        cluster
+        cluster,
+        view
       );
     }
 
@@ -491,10 +470,7 @@ public class PlacementInfoUtil {
       int rf = cluster.userIntent.replicationFactor;
       LOG.info("UserIntent replication factor={} while total zone replication factor={}.",
                 rf, totalRF);
-      int num_zones_intended = cluster.placementInfo.cloudList.stream()
-        .flatMap(cloud -> cloud.regionList.stream())
-        .mapToInt(region -> region.azList.size())
-        .sum();
+      int num_zones_intended = getNumZones(cluster.placementInfo);
       if (rf < num_zones_intended) {
         cluster.placementInfo = getPlacementInfo(
           cluster.clusterType,
@@ -512,15 +488,9 @@ public class PlacementInfoUtil {
     // changed, we will pick a new placement (i.e full move, create primary/RO cluster).
     if (!mode_changed && (mode == ConfigureNodesMode.NEW_CONFIG)) {
       boolean changeNodeStates = false;
-      if (isProviderOrRegionChange(
-              cluster,
-              (primaryClusterEdit || readOnlyClusterEdit) ?
-                  universe.getNodes() : taskParams.nodeDetailsSet)) {
+      if (isProviderOrRegionChange(cluster, view)) {
         LOG.info("Provider or region changed, getting new placement info.");
-        int num_zones_intended = cluster.placementInfo.cloudList.stream()
-          .flatMap(cloud -> cloud.regionList.stream())
-          .mapToInt(region -> region.azList.size())
-          .sum();
+        int num_zones_intended = getNumZones(cluster.placementInfo);
         cluster.placementInfo = getPlacementInfo(
           cluster.clusterType,
           cluster.userIntent,
@@ -548,8 +518,12 @@ public class PlacementInfoUtil {
       taskParams.nodeDetailsSet.removeIf(n -> n.isInPlacement(placementUuid));
     }
 
-    // Compute the node states that should be configured for this operation.
-    configureNodeStates(taskParams, universe, mode, cluster);
+    // Compute the node states that should be configured for this operation. The new config
+    // modes do not use the view, the others update the nodes of the task.
+    if (!viewHasTaskNodes && mode != ConfigureNodesMode.NEW_CONFIG) {
+      view.setNodes(taskParams.nodeDetailsSet);
+    }
+    configureNodeStates(taskParams, universe, mode, cluster, view);
   }
 
   public static void setPerAZRF(PlacementInfo placementInfo, int rf) {
@@ -564,16 +538,7 @@ public class PlacementInfoUtil {
 
     // Set per-AZ RF according to node distribution across AZs
     for (int i = 0; i < rf; i++) {
-      PlacementAZ az = sortedAZs.get(i % sortedAZs.size());
-      for (PlacementCloud cloud : placementInfo.cloudList) {
-        for (PlacementRegion region : cloud.regionList) {
-          for (PlacementAZ placementAZ : region.azList) {
-            if (placementAZ.uuid.equals(az.uuid)) {
-              placementAZ.replicationFactor += 1;
-            }
-          }
-        }
-      }
+      sortedAZs.get(i % sortedAZs.size()).replicationFactor += 1;
     }
   }
 
@@ -647,8 +612,14 @@ public class PlacementInfoUtil {
 
   public static void updatePlacementInfo(Collection<NodeDetails> nodes,
                                          PlacementInfo placementInfo) {
-    if (nodes != null && placementInfo != null) {
-      Map<UUID, Integer> azUuidToNumNodes = getAzUuidToNumNodes(nodes, true);
+    if (nodes != null) {
+      updatePlacementInfo(getAzUuidToNumNodes(nodes, true), placementInfo);
+    }
+  }
+
+  private static void updatePlacementInfo(Map<UUID, Integer> azUuidToNumNodes,
+                                          PlacementInfo placementInfo) {
+    if (placementInfo != null) {
       for (int cIdx = 0; cIdx < placementInfo.cloudList.size(); cIdx++) {
         PlacementCloud cloud = placementInfo.cloudList.get(cIdx);
         for (int rIdx = 0; rIdx < cloud.regionList.size(); rIdx++) {
@@ -894,68 +865,173 @@ public class PlacementInfoUtil {
     }
   }
 
+  /**
+   * Index of the placement and of the nodes of a cluster by AZ. It is built once per call to
+   * updateUniverseDefinition and passed down to the configure steps, so that the lookups by AZ do
+   * not walk the cloud/region/AZ lists or all the nodes again. The steps that add or remove nodes
+   * keep it up to date, and the AZ index is rebuilt when the cluster placement is replaced.
+   */
+  static final class PlacementView {
+    private final Cluster cluster;
+    // Placement the AZ maps were built from.
+    private PlacementInfo indexedPlacement;
+    // Placement AZs by uuid, in placement order, and their indexes in the placement.
+    private final Map<UUID, PlacementAZ> azs = new LinkedHashMap<>();
+    private final Map<UUID, PlacementIndexes> azIndexes = new HashMap<>();
+    // Nodes of the cluster by AZ uuid, each list in the iteration order of the nodes.
+    private final Map<UUID, List<NodeDetails>> azNodes = new HashMap<>();
+    private int numNodes;
+
+    PlacementView(Cluster cluster, Collection<NodeDetails> nodes) {
+      this.cluster = cluster;
+      setNodes(nodes);
+    }
+
+    // Replaces the indexed nodes by the nodes of the cluster in the given collection.
+    void setNodes(Collection<NodeDetails> nodes) {
+      azNodes.clear();
+      numNodes = 0;
+      if (nodes != null) {
+        nodes.forEach(this::addNode);
+      }
+    }
+
+    void addNode(NodeDetails node) {
+      if (node.isInPlacement(cluster.uuid)) {
+        azNodes.computeIfAbsent(node.azUuid, azUuid -> new ArrayList<>()).add(node);
+        numNodes++;
+      }
+    }
+
+    void removeNode(NodeDetails node) {
+      List<NodeDetails> nodesInAZ = azNodes.get(node.azUuid);
+      if (nodesInAZ != null && nodesInAZ.remove(node)) {
+        numNodes--;
+        if (nodesInAZ.isEmpty()) {
+          azNodes.remove(node.azUuid);
+        }
+      }
+    }
+
+    int getNumNodes() {
+      return numNodes;
+    }
+
+    // Returns the AZs which have nodes of the cluster.
+    Set<UUID> getNodeAZs() {
+      return Collections.unmodifiableSet(azNodes.keySet());
+    }
+
+    // Returns the nodes of the cluster in the given AZ.
+    List<NodeDetails> getNodesInAZ(UUID azUuid) {
+      return Collections.unmodifiableList(azNodes.getOrDefault(azUuid, Collections.emptyList()));
+    }
+
+    // Same as PlacementInfoUtil.getAzUuidToNumNodes over the nodes of the cluster.
+    Map<UUID, Integer> getAzUuidToNumNodes(boolean onlyActive) {
+      Map<UUID, Integer> azUuidToNumNodes = new HashMap<>();
+      for (Map.Entry<UUID, List<NodeDetails>> entry : azNodes.entrySet()) {
+        int count = (int) entry.getValue().stream()
+          .filter(n -> (!onlyActive || n.isActive()) && !(n.isMaster && !n.isTserver))
+          .count();
+        if (count > 0) {
+          azUuidToNumNodes.put(entry.getKey(), count);
+        }
+      }
+      LOG.info("Az Map {}", azUuidToNumNodes);
+
+      return azUuidToNumNodes;
+    }
+
+    long getNumTservers() {
+      return azNodes.values().stream()
+        .mapToLong(PlacementInfoUtil::getNumTserverNodes)
+        .sum();
+    }
+
+    // Count number of active tserver-only nodes in the given AZ.
+    int getNumActiveTServerOnlyInAZ(UUID azUuid) {
+      return (int) getNodesInAZ(azUuid).stream()
+        .filter(n -> n.isActive() && !n.isMaster && n.isTserver)
+        .count();
+    }
+
+    NodeDetails findActiveTServerOnlyInAz(UUID azUuid) {
+      return PlacementInfoUtil.findActiveTServerOnlyInAz(getNodesInAZ(azUuid), azUuid);
+    }
+
+    // Returns the placement AZ with the given uuid, or null if it is not in the placement.
+    PlacementAZ getAZ(UUID azUuid) {
+      indexPlacement();
+      return azs.get(azUuid);
+    }
+
+    // Returns new placement indexes of the given AZ, or null if it is not in the placement.
+    PlacementIndexes getIndexes(UUID azUuid) {
+      indexPlacement();
+      PlacementIndexes index = azIndexes.get(azUuid);
+      return index == null ? null :
+          new PlacementIndexes(index.azIdx, index.regionIdx, index.cloudIdx);
+    }
+
+    private void indexPlacement() {
+      PlacementInfo placementInfo = cluster.placementInfo;
+      if (placementInfo == indexedPlacement) {
+        return;
+      }
+      azs.clear();
+      azIndexes.clear();
+      if (placementInfo != null) {
+        for (int cIdx = 0; cIdx < placementInfo.cloudList.size(); cIdx++) {
+          PlacementCloud cloud = placementInfo.cloudList.get(cIdx);
+          for (int rIdx = 0; rIdx < cloud.regionList.size(); rIdx++) {
+            PlacementRegion region = cloud.regionList.get(rIdx);
+            for (int azIdx = 0; azIdx < region.azList.size(); azIdx++) {
+              PlacementAZ az = region.azList.get(azIdx);
+              // Keep the first occurrence, as the lookups walking the placement did.
+              if (azs.putIfAbsent(az.uuid, az) == null) {
+                azIndexes.put(az.uuid, new PlacementIndexes(azIdx, rIdx, cIdx));
+              }
+            }
+          }
+        }
+      }
+      indexedPlacement = placementInfo;
+    }
+  }
+
   // Create the ordered (by increasing node count per AZ) list of placement indices in the
   // given placement info.
   private static LinkedHashSet<PlacementIndexes> findPlacementsOfAZUuid(Map<UUID, Integer> azUuids,
-                                                                        Cluster cluster) {
+                                                                        Cluster cluster,
+                                                                        PlacementView view) {
     LinkedHashSet<PlacementIndexes> placements = new LinkedHashSet<PlacementIndexes>();
     CloudType cloudType = cluster.userIntent.providerType;
     String instanceType = cluster.userIntent.instanceType;
     for (UUID targetAZUuid : azUuids.keySet()) {
-      int cIdx = 0;
-      for (PlacementCloud cloud : cluster.placementInfo.cloudList) {
-        int rIdx = 0;
-        for (PlacementRegion region : cloud.regionList) {
-          int aIdx = 0;
-          for (PlacementAZ az : region.azList) {
-            if (az.uuid.equals(targetAZUuid)) {
-              UUID zoneUUID = region.azList.get(aIdx).uuid;
-              if (cloudType.equals(CloudType.onprem)){
-                List<NodeInstance> nodesInAZ = NodeInstance.listByZone(zoneUUID, instanceType);
-                long numNodesConfigured = getNumNodesInAZInPlacement(
-                  placements,
-                  new PlacementIndexes(aIdx, rIdx, cIdx, true)
-                );
-                if (numNodesConfigured < nodesInAZ.size()) {
-                  placements.add(new PlacementIndexes(aIdx, rIdx, cIdx));
-                  continue;
-                }
-              } else {
-                placements.add(new PlacementIndexes(aIdx, rIdx, cIdx));
-                continue;
-              }
-            }
-
-            aIdx++;
-          }
-
-          rIdx++;
-        }
-
-        cIdx++;
+      PlacementIndexes index = view.getIndexes(targetAZUuid);
+      if (index == null) {
+        continue;
+      }
+      // For on-prem, only the AZs which have nodes of the instance type can be used.
+      if (!cloudType.equals(CloudType.onprem) ||
+          !NodeInstance.listByZone(targetAZUuid, instanceType).isEmpty()) {
+        placements.add(index);
       }
     }
     LOG.trace("Placement indexes {}.", placements);
     return placements;
   }
 
-  // Helper function to compare a given index combo against list of placement indexes of current placement
-  // to get number of nodes in current index
-  private static long getNumNodesInAZInPlacement(
-    LinkedHashSet<PlacementIndexes> indexes,
-    PlacementIndexes index
-  ) {
-    return indexes.stream()
-      .filter(currentIndex -> (currentIndex.cloudIdx == index.cloudIdx
-            && currentIndex.azIdx == index.azIdx && currentIndex.regionIdx == index.regionIdx))
-      .count();
-  }
-
   private static LinkedHashSet<PlacementIndexes> getBasePlacement(int numNodes, Cluster cluster) {
     LinkedHashSet<PlacementIndexes> placements = new LinkedHashSet<>();
     CloudType cloudType = cluster.userIntent.providerType;
     String instanceType = cluster.userIntent.instanceType;
     int count = 0;
+    // For on-prem, the number of nodes of the instance type in each AZ, and the number of them
+    // placed so far, so that each AZ is looked up once and not in every round.
+    Map<UUID, Integer> azUuidToNumAvailable = new HashMap<>();
+    Map<UUID, Integer> azUuidToNumPlaced = new HashMap<>();
 
     // We would only try to find a placement until the max lookup iterations, if unable to
     // find optimal placement we would just return, most times on on-prem flow this lookup
@@ -969,11 +1045,12 @@ public class PlacementInfoUtil {
           for (int azIdx = 0; azIdx < region.azList.size(); azIdx++) {
             UUID zoneUUID = region.azList.get(azIdx).uuid;
             if (cloudType.equals(CloudType.onprem)) {
-              List<NodeInstance> nodesInAZ = NodeInstance.listByZone(zoneUUID, instanceType);
-              long numNodesConfigured = getNumNodesInAZInPlacement(placements,
-                  new PlacementIndexes(azIdx, rIdx, cIdx, true));
-              if (numNodesConfigured < nodesInAZ.size() && count < numNodes) {
+              int numAvailable = azUuidToNumAvailable.computeIfAbsent(zoneUUID,
+                  azUuid -> NodeInstance.listByZone(azUuid, instanceType).size());
+              int numPlaced = azUuidToNumPlaced.getOrDefault(zoneUUID, 0);
+              if (numPlaced < numAvailable && count < numNodes) {
                 placements.add(new PlacementIndexes(azIdx, rIdx, cIdx, true /* isAdd */));
+                azUuidToNumPlaced.put(zoneUUID, numPlaced + 1);
                 LOG.info("Adding {}/{}/{} @ {}.", azIdx, rIdx, cIdx, count);
                 foundPlacement = true;
                 count++;
@@ -1055,19 +1132,6 @@ public class PlacementInfoUtil {
     return azUuidToNumNodes;
   }
 
-  // Count number of active tserver-only nodes in the given AZ.
-  private static int findCountActiveTServerOnlyInAZ(Collection<NodeDetails> nodeDetailsSet,
-                                                    UUID targetAZUuid) {
-    int numActiveServers = 0;
-    for (NodeDetails node : nodeDetailsSet) {
-      if (node.isActive() && !node.isMaster && node.isTserver && node.azUuid.equals(targetAZUuid)) {
-        numActiveServers ++;
-      }
-    }
-
-    return numActiveServers;
-  }
-
   // Find a node running tserver only in the given AZ.
   public static NodeDetails findActiveTServerOnlyInAz(
     Collection<NodeDetails> nodes,
@@ -1086,15 +1150,14 @@ public class PlacementInfoUtil {
    * Assign nodes as per AZ distribution delta between placementInfo and existing nodes and
    * save order of those indices.
    * @param placementInfo has the distribution of Nodes in each AZ.
-   * @param nodes Set of currently allocated nodes.
+   * @param azUuidToNumNodes number of currently allocated active nodes in each AZ.
    * @return set of indexes in which to provision the nodes.
    */
   private static LinkedHashSet<PlacementIndexes> getDeltaPlacementIndices(
       PlacementInfo placementInfo,
-      Collection<NodeDetails> nodes
+      Map<UUID, Integer> azUuidToNumNodes
   ) {
     LinkedHashSet<PlacementIndexes> placements = new LinkedHashSet<PlacementIndexes>();
-    Map<UUID, Integer> azUuidToNumNodes = getAzUuidToNumNodes(nodes, true);
 
     for (int cIdx = 0; cIdx < placementInfo.cloudList.size(); cIdx++) {
       PlacementCloud cloud = placementInfo.cloudList.get(cIdx);
@@ -1120,20 +1183,20 @@ public class PlacementInfoUtil {
 
   /**
    * Remove a tserver-only node that belongs to the given AZ from the collection of nodes.
-   * @param nodes        the list of nodes from which to choose the victim.
+   * @param nodes        the list of nodes from which to remove the victim.
+   * @param view         index of the nodes, to choose the victim and to be kept up to date.
    * @param targetAZUuid AZ in which the node should be present.
    */
   private static void removeNodeInAZ(Collection<NodeDetails> nodes,
+                                     PlacementView view,
                                      UUID targetAZUuid) {
-    Iterator<NodeDetails> nodeIter = nodes.iterator();
-    while (nodeIter.hasNext()) {
-      NodeDetails currentNode = nodeIter.next();
-      if (currentNode.azUuid.equals(targetAZUuid) && !currentNode.isMaster) {
-        nodeIter.remove();
-
-        return;
-      }
-    }
+    view.getNodesInAZ(targetAZUuid).stream()
+      .filter(n -> !n.isMaster)
+      .findFirst()
+      .ifPresent(node -> {
+        nodes.remove(node);
+        view.removeNode(node);
+      });
   }
 
   /**
@@ -1155,6 +1218,18 @@ public class PlacementInfoUtil {
         taskParams.getPrimaryCluster() : taskParams.getReadOnlyClusters().get(0);
 
     Universe universe = Universe.get(taskParams.universeUUID);
+    configureNodeEditUsingPlacementInfo(taskParams, universe, currentCluster,
+                                        new PlacementView(currentCluster, universe.getNodes()));
+  }
+
+  /**
+   * Same as configureNodeEditUsingPlacementInfo(taskParams), for the given cluster.
+   * @param view index of the existing nodes of the cluster in the universe.
+   */
+  private static void configureNodeEditUsingPlacementInfo(UniverseDefinitionTaskParams taskParams,
+                                                          Universe universe,
+                                                          Cluster currentCluster,
+                                                          PlacementView view) {
     Collection<NodeDetails> existingNodes = universe.getNodesInCluster(currentCluster.uuid);
 
     // If placementInfo is null then user has chosen to Reset AZ config
@@ -1163,10 +1238,7 @@ public class PlacementInfoUtil {
       // Remove primary cluster nodes which will be added back in ToBeRemoved state
       taskParams.nodeDetailsSet.removeIf(nd -> (nd.placementUuid.equals(currentCluster.uuid)));
 
-      int num_zones_intended = currentCluster.placementInfo.cloudList.stream()
-        .flatMap(cloud -> cloud.regionList.stream())
-        .mapToInt(region -> region.azList.size())
-        .sum();
+      int num_zones_intended = getNumZones(currentCluster.placementInfo);
 
       currentCluster.placementInfo = getPlacementInfo(
         currentCluster.clusterType,
@@ -1178,14 +1250,12 @@ public class PlacementInfoUtil {
       // In other operations we need to distinguish between expand and full-move.
       Map<UUID, Integer> requiredAZToNodeMap =
           getAzUuidToNumNodes(currentCluster.placementInfo);
-      Map<UUID, Integer> existingAZToNodeMap = getAzUuidToNumNodes(
-          universe.getUniverseDetails().getNodesInCluster(currentCluster.uuid)
-      );
+      Map<UUID, Integer> existingAZToNodeMap = view.getAzUuidToNumNodes(false /* onlyActive */);
 
       boolean isSimpleExpandShrink = true;
       for (UUID requiredAZUUID: requiredAZToNodeMap.keySet()) {
-        long masterNodesInAz = existingNodes.stream()
-          .filter(c -> c.azUuid.compareTo(requiredAZUUID) == 0 && c.isMaster)
+        long masterNodesInAz = view.getNodesInAZ(requiredAZUUID).stream()
+          .filter(c -> c.isMaster)
           .count();
 
         // Check if new placement requires a removal of master node
@@ -1201,8 +1271,10 @@ public class PlacementInfoUtil {
         isSimpleExpandShrink = false;
       }
       if (isSimpleExpandShrink) {
-        // If simple expand we can go in the configure using placement info path
-        configureNodesUsingPlacementInfo(currentCluster, taskParams.nodeDetailsSet, true);
+        // If simple expand we can go in the configure using placement info path, on the nodes
+        // of the task.
+        view.setNodes(taskParams.nodeDetailsSet);
+        configureNodesUsingPlacementInfo(currentCluster, taskParams.nodeDetailsSet, true, view);
 
         // Break execution sequence because there are no nodes to be decomissioned
         return;
@@ -1247,11 +1319,10 @@ public class PlacementInfoUtil {
 
   private static void configureNodesUsingPlacementInfo(Cluster cluster,
                                                        Collection<NodeDetails> nodes,
-                                                       boolean isEditUniverse) {
+                                                       boolean isEditUniverse,
+                                                       PlacementView view) {
     LinkedHashSet<PlacementIndexes> indexes =
-        getDeltaPlacementIndices(
-            cluster.placementInfo,
-            nodes.stream().filter(n -> n.placementUuid.equals(cluster.uuid)).collect(Collectors.toSet()));
+        getDeltaPlacementIndices(cluster.placementInfo, view.getAzUuidToNumNodes(true));
     Set<NodeDetails> deltaNodesSet = new HashSet<NodeDetails>();
     int startIndex = getNextIndexToConfigure(nodes);
     int iter = 0;
@@ -1265,20 +1336,21 @@ public class PlacementInfoUtil {
         PlacementRegion placementRegion = placementCloud.regionList.get(index.regionIdx);
         PlacementAZ placementAZ = placementRegion.azList.get(index.azIdx);
         if (isEditUniverse) {
-          NodeDetails nodeDetails = findActiveTServerOnlyInAz(nodes, placementAZ.uuid);
+          NodeDetails nodeDetails = view.findActiveTServerOnlyInAz(placementAZ.uuid);
           if (nodeDetails == null || !nodeDetails.state.equals(NodeState.ToBeAdded)) {
-            decommissionNodeInAZ(nodes, placementAZ.uuid);
+            decommissionNodeInAZ(view, placementAZ.uuid);
           } else {
-            removeNodeInAZ(nodes, placementAZ.uuid);
+            removeNodeInAZ(nodes, view, placementAZ.uuid);
           }
         } else {
-          removeNodeInAZ(nodes, placementAZ.uuid);
+          removeNodeInAZ(nodes, view, placementAZ.uuid);
         }
       }
       iter++;
     }
 
     nodes.addAll(deltaNodesSet);
+    deltaNodesSet.forEach(view::addNode);
   }
 
   private static long getNumTserverNodes(Collection<NodeDetails> nodeDetailsSet) {
@@ -1289,16 +1361,13 @@ public class PlacementInfoUtil {
 
   private static void configureNodesUsingUserIntent(Cluster cluster,
                                                     Collection<NodeDetails> nodeDetailsSet,
-                                                    boolean isEditUniverse) {
+                                                    boolean isEditUniverse,
+                                                    PlacementView view) {
     UserIntent userIntent = cluster.userIntent;
-    Set<NodeDetails> nodesInCluster = nodeDetailsSet.stream()
-      .filter(n -> n.placementUuid.equals(cluster.uuid))
-      .collect(Collectors.toSet());
-
-    long numTservers = getNumTserverNodes(nodesInCluster);
+    long numTservers = view.getNumTservers();
     long numDeltaNodes = userIntent.numNodes - numTservers;
     Map<String, NodeDetails> deltaNodesMap = new HashMap<>();
-    Map<UUID, Integer> azUuidToNumNodes = getAzUuidToNumNodes(nodesInCluster);
+    Map<UUID, Integer> azUuidToNumNodes = view.getAzUuidToNumNodes(false /* onlyActive */);
     LOG.info("Nodes desired={} vs existing={}.", userIntent.numNodes,
             numTservers);
     if (numDeltaNodes < 0) {
@@ -1318,6 +1387,7 @@ public class PlacementInfoUtil {
           }
         } else {
           nodeIter.remove();
+          view.removeNode(currentNode);
           deleteCounter++;
         }
         if (deleteCounter == -numDeltaNodes) {
@@ -1327,7 +1397,7 @@ public class PlacementInfoUtil {
     } else if (numDeltaNodes > 0) {
       // Desired action is to add nodes.
       LinkedHashSet<PlacementIndexes> indexes =
-        findPlacementsOfAZUuid(sortByValues(azUuidToNumNodes), cluster);
+        findPlacementsOfAZUuid(sortByValues(azUuidToNumNodes), cluster, view);
       // If we cannot find enough nodes to do the expand we would return an error.
       if (indexes.size() != azUuidToNumNodes.size()) {
         throw new IllegalStateException("Couldn't find enough nodes to perform expand/shrink");
@@ -1335,7 +1405,7 @@ public class PlacementInfoUtil {
 
       int startIndex = getNextIndexToConfigure(nodeDetailsSet);
       addNodeDetailSetToTaskParams(indexes, startIndex, numDeltaNodes, cluster, nodeDetailsSet,
-                                   deltaNodesMap);
+                                   deltaNodesMap).forEach(view::addNode);
     }
   }
 
@@ -1426,13 +1496,15 @@ public class PlacementInfoUtil {
    * @param taskParams the taskParams for the Universe to be configured.
    * @param universe   the current universe if it exists (only when called during edit universe).
    * @param mode       mode in which to configure with user specified AZ's or round-robin (default).
+   * @param view       index of the nodes of the cluster to configure, unused in NEW_CONFIG mode.
    *
    * @return set of node details with their placement info filled in.
    */
   private static void configureNodeStates(UniverseDefinitionTaskParams taskParams,
                                           Universe universe,
                                           PlacementInfoUtil.ConfigureNodesMode mode,
-                                          Cluster cluster) {
+                                          Cluster cluster,
+                                          PlacementView view) {
     switch (mode) {
       case NEW_CONFIG:
         // This case covers create universe and full move edit.
@@ -1441,16 +1513,17 @@ public class PlacementInfoUtil {
         break;
       case UPDATE_CONFIG_FROM_PLACEMENT_INFO:
         // The case where there are custom expand/shrink in the placement info.
-        configureNodesUsingPlacementInfo(cluster, taskParams.nodeDetailsSet, universe != null);
+        configureNodesUsingPlacementInfo(cluster, taskParams.nodeDetailsSet, universe != null,
+                                         view);
         break;
       case UPDATE_CONFIG_FROM_USER_INTENT:
         // Case where userIntent numNodes has to be favored - as it is different from the
         // sum of all per AZ node counts).
-        configureNodesUsingUserIntent(cluster, taskParams.nodeDetailsSet, universe != null);
-        updatePlacementInfo(taskParams.getNodesInCluster(cluster.uuid), cluster.placementInfo);
+        configureNodesUsingUserIntent(cluster, taskParams.nodeDetailsSet, universe != null, view);
+        updatePlacementInfo(view.getAzUuidToNumNodes(true), cluster.placementInfo);
         break;
       case NEW_CONFIG_FROM_PLACEMENT_INFO:
-        configureNodeEditUsingPlacementInfo(taskParams);
+        configureNodeEditUsingPlacementInfo(taskParams, universe, cluster, view);
     }
 
     removeUnusedPlacementAZs(cluster.placementInfo);
@@ -1466,15 +1539,15 @@ public class PlacementInfoUtil {
   /**
    * Find a node which has tservers only to decommission, from the given AZ.
    * Node should be an active T-Server and should not be Master.
-   * @param nodes   the list of nodes from which to choose the victim.
+   * @param view    index of the nodes from which to choose the victim.
    * @param targetAZUuid AZ in which the node should be present.
    */
-  private static void decommissionNodeInAZ(Collection<NodeDetails> nodes,
+  private static void decommissionNodeInAZ(PlacementView view,
                                            UUID targetAZUuid) {
-    NodeDetails nodeDetails = findActiveTServerOnlyInAz(nodes, targetAZUuid);
+    NodeDetails nodeDetails = view.findActiveTServerOnlyInAz(targetAZUuid);
     if (nodeDetails == null) {
-      LOG.error("Could not find an active node running tservers only in AZ {}. All nodes: {}.",
-                targetAZUuid, nodes);
+      LOG.error("Could not find an active node running tservers only in AZ {}. AZ nodes: {}.",
+                targetAZUuid, view.getNodesInAZ(targetAZUuid));
       throw new IllegalStateException("Should find an active running tserver.");
     } else {
       nodeDetails.state = NodeDetails.NodeState.ToBeRemoved;
@@ -1526,8 +1599,9 @@ public class PlacementInfoUtil {
 
   /**
    * Construct a delta node set and add all those nodes to the Universe's set of nodes.
+   * @return the nodes added.
    */
-  private static void addNodeDetailSetToTaskParams(LinkedHashSet<PlacementIndexes> indexes,
+  private static Set<NodeDetails> addNodeDetailSetToTaskParams(LinkedHashSet<PlacementIndexes> indexes,
                                                    int startIndex,
                                                    long numDeltaNodes,
                                                    Cluster cluster,
@@ -1550,6 +1624,7 @@ public class PlacementInfoUtil {
     }
 
     nodeDetailsSet.addAll(deltaNodesSet);
+    return deltaNodesSet;
   }
 
   /**
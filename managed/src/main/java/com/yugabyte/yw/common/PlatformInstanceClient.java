@@ -65,11 +65,7 @@ public class PlatformInstanceClient {
         throw new RuntimeException("Unsupported operation: " + call.method());
     }
 
-    if (response == null || response.get("error") != null) {
-      LOG.error("Error received from remote instance {}", this.remoteAddress);
-
-      throw new RuntimeException("Error received from remote instance " + this.remoteAddress);
-    }
+    this.checkResponse(response);
 
     return response;
   }
@@ -96,6 +92,51 @@ public class PlatformInstanceClient {
     this.makeRequest(this.controller.syncInstances(timestamp), payload);
   }
 
+  private void checkResponse(JsonNode response) {
+    if (response == null || response.get("error") != null) {
+      LOG.error("Error received from remote instance {}: {}", this.remoteAddress, response);
+
+      throw new RuntimeException("Error received from remote instance " + this.remoteAddress);
+    }
+  }
+
+  /**
+   * calls {@link com.yugabyte.yw.controllers.InternalHAController#getUploadOffset}
+   * on remote platform instance
+   *
+   * @return the number of bytes of the backup the remote instance already received
+   */
+  public long getUploadOffset(String fileName, String leader) {
+    JsonNode response =
+      this.makeRequest(this.controller.getUploadOffset(fileName, leader), null);
+
+    return response.get("offset").asLong();
+  }
+
+  /**
+   * calls {@link com.yugabyte.yw.controllers.InternalHAController#uploadChunk}
+   * on remote platform instance
+   *
+   * @param offset the position of the chunk in the backup file
+   * @param crc    the CRC32 of the chunk
+   */
+  public void uploadChunk(String fileName, String leader, long offset, byte[] chunk, long crc) {
+    Call call = this.controller.uploadChunk(fileName, leader, leader, offset, crc);
+    this.checkResponse(this.apiHelper.postRequest(call.url(), chunk,
+      "application/octet-stream", this.requestHeader));
+  }
+
+  /**
+   * calls {@link com.yugabyte.yw.controllers.InternalHAController#completeUpload}
+   * on remote platform instance
+   *
+   * @param checksum the SHA-256 of the whole backup file
+   */
+  public void completeUpload(String fileName, String leader, long size, String checksum) {
+    this.makeRequest(this.controller.completeUpload(fileName, leader, leader, size, checksum),
+      Json.newObject());
+  }
+
   /**
    * calls {@link com.yugabyte.yw.controllers.InternalHAController#demoteLocalLeader(long timestamp)}
    * on remote platform instance
@@ -15,6 +15,7 @@ import akka.actor.Cancellable;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.yugabyte.yw.common.config.impl.RuntimeConfig;
@@ -29,14 +30,25 @@ import scala.concurrent.ExecutionContext;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
 
 @Singleton
 public class PlatformReplicationManager extends DevopsBase {
@@ -44,6 +56,8 @@ public class PlatformReplicationManager extends DevopsBase {
   static final String BACKUP_DIR = "platformBackups";
   public static final String REPLICATION_DIR = "platformReplication";
   static final String DB_PASSWORD_ENV_VAR_KEY = "PGPASSWORD";
+  static final String PARTIAL_UPLOAD_SUFFIX = ".part";
+  static final int MAX_CHUNK_RETRIES = 3;
 
   // Config keys:
   static final String PROMETHEUS_HOST_CONFIG_KEY = "yb.metrics.host";
@@ -53,6 +67,7 @@ public class PlatformReplicationManager extends DevopsBase {
   static final String DB_PORT_CONFIG_KEY = "db.default.port";
   static final String REPLICATION_FREQUENCY_KEY = "yb.ha.replication_frequency";
   static final String REPLICATION_SCHEDULE_ENABLED_KEY = "yb.ha.replication_schedule_enabled";
+  public static final String REPLICATION_CHUNK_SIZE_KEY = "yb.ha.replication_chunk_size";
   public static final String STORAGE_PATH_KEY = "yb.storage.path";
   public static final String RETAIN_DATA_FROM_INVALID_SRC_KEY =
     "yb.ha.retain_data_from_invalid_src";
@@ -67,6 +82,10 @@ public class PlatformReplicationManager extends DevopsBase {
 
   private final PlatformInstanceClientFactory remoteClientFactory;
 
+  // Backups are shipped to all the remote instances at the same time, each from its own thread.
+  private final ExecutorService syncExecutor = Executors.newCachedThreadPool(
+    new ThreadFactoryBuilder().setNameFormat("platform-replication-%d").setDaemon(true).build());
+
   private static final Logger LOG = LoggerFactory.getLogger(PlatformReplicationManager.class);
 
   @Override
@@ -309,17 +328,125 @@ public class PlatformReplicationManager extends DevopsBase {
     }
   }
 
-  // TODO: (Shashank) - Implement https://github.com/yugabyte/yugabyte-db/issues/6503.
-  //  You'll want to run "updateLastBackup()" on each remote instance the backup has
-  //  successfully been sent to (You'll probably want to do this on the leader instance so that
-  //  the backup times get picked up by the followers through syncPlatformInstances).
-  //  If you update the last backup timestamp directly on the followers, it will be overwritten
-  //  on there by the leader platform.
-  private boolean sendBackup(PlatformInstance remoteInstance) {
-    return true;
+  /**
+   * A platform backup to ship to the remote instances, along with its SHA-256 digest which the
+   * remote instances check the received file against.
+   */
+  static class BackupFile {
+    final File file;
+    final long size;
+    final String checksum;
+
+    BackupFile(File file) throws IOException {
+      this.file = file;
+      this.size = file.length();
+      this.checksum = computeChecksum(file.toPath());
+    }
   }
 
-  private void syncToRemoteInstance(PlatformInstance remoteInstance) {
+  /**
+   * Streams the backup to the remote instance in chunks of yb.ha.replication_chunk_size bytes.
+   * The upload starts at the offset the remote instance already has for this backup, so that an
+   * upload interrupted by a network error or a restart of either side is resumed rather than
+   * started over. Each chunk carries its CRC32 and the whole file is checked against its SHA-256
+   * before the remote instance moves it in place. On success, the last backup time of the remote
+   * instance is updated here, on the leader, and reaches the followers with the next instance sync.
+   */
+  boolean sendBackup(PlatformInstance remoteInstance, BackupFile backup) {
+    HighAvailabilityConfig config = remoteInstance.getConfig();
+    String remoteAddr = remoteInstance.getAddress();
+    String leader = config.getLocal().getAddress();
+    String fileName = backup.file.getName();
+    PlatformInstanceClient client =
+      this.remoteClientFactory.getClient(config.getClusterKey(), remoteAddr);
+    int chunkSize = getReplicationChunkSize();
+
+    try (FileChannel channel = FileChannel.open(backup.file.toPath(), StandardOpenOption.READ)) {
+      ByteBuffer buffer = ByteBuffer.allocate(chunkSize);
+      // A negative offset means that it has to be (re)read from the remote instance.
+      long offset = -1;
+      int failures = 0;
+      while (true) {
+        try {
+          if (offset < 0) {
+            offset = client.getUploadOffset(fileName, leader);
+            if (offset > backup.size) {
+              // Leftover of some other upload, start over.
+              offset = 0;
+            } else if (offset > 0) {
+              LOG.info("Resuming upload of {} to {} at offset {}", fileName, remoteAddr, offset);
+            }
+          }
+          if (offset == backup.size) {
+            break;
+          }
+          byte[] chunk = readChunk(channel, buffer, offset);
+          CRC32 crc = new CRC32();
+          crc.update(chunk);
+          client.uploadChunk(fileName, leader, offset, chunk, crc.getValue());
+          offset += chunk.length;
+          failures = 0;
+        } catch (Exception e) {
+          if (++failures > MAX_CHUNK_RETRIES) {
+            throw e;
+          }
+          LOG.warn("Error uploading {} to {} at offset {}, retrying", fileName, remoteAddr,
+            offset, e);
+          offset = -1;
+        }
+      }
+      client.completeUpload(fileName, leader, backup.size, backup.checksum);
+      remoteInstance.updateLastBackup();
+      LOG.debug("Sent platform backup {} ({} bytes) to {}", fileName, backup.size, remoteAddr);
+
+      return true;
+    } catch (Exception e) {
+      LOG.error("Error sending platform backup {} to {}", fileName, remoteAddr, e);
+    }
+
+    return false;
+  }
+
+  private static byte[] readChunk(FileChannel channel, ByteBuffer buffer, long offset)
+    throws IOException {
+    buffer.clear();
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, offset + buffer.position()) < 0) {
+        break;
+      }
+    }
+    return Arrays.copyOf(buffer.array(), buffer.position());
+  }
+
+  static String computeChecksum(Path path) throws IOException {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+    byte[] buffer = new byte[64 * 1024];
+    try (InputStream in = Files.newInputStream(path)) {
+      int read;
+      while ((read = in.read(buffer)) > 0) {
+        digest.update(buffer, 0, read);
+      }
+    }
+    StringBuilder sb = new StringBuilder();
+    for (byte b : digest.digest()) {
+      sb.append(String.format("%02x", b));
+    }
+    return sb.toString();
+  }
+
+  // The backup just written by createBackup().
+  private File getLatestBackup() throws IOException {
+    return listFiles(getBackupDir(), "backup_*.tgz").stream()
+      .max(Comparator.comparingLong(File::lastModified))
+      .orElse(null);
+  }
+
+  private void syncToRemoteInstance(PlatformInstance remoteInstance, BackupFile backup) {
     HighAvailabilityConfig config = remoteInstance.getConfig();
     String remoteAddr = remoteInstance.getAddress();
     LOG.debug("Syncing data to " + remoteAddr + "...");
@@ -332,7 +459,7 @@ public class PlatformReplicationManager extends DevopsBase {
     }
 
     // Send the platform backup to the remote instance.
-    if (!this.sendBackup(remoteInstance)) {
+    if (!this.sendBackup(remoteInstance, backup)) {
       LOG.error("Error sending platform backup to " + remoteAddr);
 
       return;
@@ -359,11 +486,30 @@ public class PlatformReplicationManager extends DevopsBase {
         return;
       }
 
+      BackupFile backup;
+      try {
+        File backupFile = this.getLatestBackup();
+        if (backupFile == null) {
+          LOG.error("Platform backup not found in " + this.getBackupDir());
+
+          return;
+        }
+        backup = new BackupFile(backupFile);
+      } catch (IOException e) {
+        LOG.error("Error reading platform backup", e);
+
+        return;
+      }
+
       // Update local last backup time if creating the backup succeeded.
       config.getLocal().updateLastBackup();
 
-      // Sync data to remote address.
-      remoteInstances.forEach(this::syncToRemoteInstance);
+      // Sync data to all the remote addresses concurrently, the slowest one sets the pace.
+      CompletableFuture.allOf(remoteInstances.stream()
+        .map(i -> CompletableFuture.runAsync(
+          () -> this.syncToRemoteInstance(i, backup), this.syncExecutor))
+        .toArray(CompletableFuture[]::new))
+        .join();
     });
   }
 
@@ -372,10 +518,14 @@ public class PlatformReplicationManager extends DevopsBase {
     Path replicationDir = getReplicationDirFor(leader);
     Path saveAsFile = Paths.get(replicationDir.toString(), fileName);
     if (replicationDir.toFile().exists() || replicationDir.toFile().mkdirs()) {
-      if (uploadedFile.renameTo(saveAsFile.toFile())) {
+      try {
+        // A plain rename when the upload is on the same file system, a streaming copy otherwise.
+        Files.move(uploadedFile.toPath(), saveAsFile, StandardCopyOption.REPLACE_EXISTING);
         LOG.debug("Store platform backup received from leader {} via {} as {}.",
           leader, sender, saveAsFile);
         return true;
+      } catch (IOException e) {
+        LOG.error("Error moving {} to {}", uploadedFile, saveAsFile, e);
       }
     }
     LOG.error("Could not store platform backup received from leader {} via {} as {}", leader,
@@ -383,6 +533,108 @@ public class PlatformReplicationManager extends DevopsBase {
     return false;
   }
 
+  /**
+   * @return the size of the chunks backups are sent in, which is also the largest chunk accepted
+   * from the leader.
+   */
+  public int getReplicationChunkSize() {
+    return runtimeConfigFactory.globalRuntimeConf().getBytes(REPLICATION_CHUNK_SIZE_KEY).intValue();
+  }
+
+  private Path getPartialUploadPath(String leader, String fileName) {
+    return getReplicationDirFor(leader).resolve(fileName + PARTIAL_UPLOAD_SUFFIX);
+  }
+
+  /**
+   * @return the number of bytes of the given backup already received from the leader and not
+   * yet completed, that is the offset the leader should resume the upload from.
+   */
+  public long getReplicationUploadOffset(String leader, String fileName) {
+    File partialFile = getPartialUploadPath(leader, fileName).toFile();
+    return partialFile.exists() ? partialFile.length() : 0;
+  }
+
+  /**
+   * Writes a chunk of a backup received from the leader at the given offset of the partially
+   * uploaded file, straight to disk. A chunk at offset 0 restarts the upload. Chunks are expected
+   * in order: the offset must be the current size of the partial file.
+   *
+   * @return false if the chunk is corrupted, does not start at the current size of the partial
+   * file or could not be written.
+   */
+  public boolean saveReplicationChunk(String leader, String fileName, long offset, byte[] data,
+                                      long crc) {
+    CRC32 actualCrc = new CRC32();
+    actualCrc.update(data);
+    if (actualCrc.getValue() != crc) {
+      LOG.error("Checksum mismatch for chunk of {} at offset {} received from leader {}",
+        fileName, offset, leader);
+      return false;
+    }
+    Path replicationDir = getReplicationDirFor(leader);
+    Path partialFile = getPartialUploadPath(leader, fileName);
+    if (!replicationDir.toFile().exists() && !replicationDir.toFile().mkdirs()) {
+      LOG.error("Could not create {}", replicationDir);
+      return false;
+    }
+    try (FileChannel channel = FileChannel.open(partialFile,
+      StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+      if (offset == 0) {
+        channel.truncate(0);
+      } else if (offset != channel.size()) {
+        LOG.error("Chunk of {} received from leader {} at offset {}, expected offset {}",
+          fileName, leader, offset, channel.size());
+        return false;
+      }
+      ByteBuffer buffer = ByteBuffer.wrap(data);
+      long position = offset;
+      while (buffer.hasRemaining()) {
+        position += channel.write(buffer, position);
+      }
+      return true;
+    } catch (IOException e) {
+      LOG.error("Error writing chunk of {} received from leader {}", fileName, leader, e);
+    }
+    return false;
+  }
+
+  /**
+   * Checks the size and SHA-256 of a backup received in chunks from the leader and moves it in
+   * place. The partial file is dropped if it does not match, so that the leader starts over.
+   */
+  public boolean completeReplicationUpload(String leader, String fileName, long size,
+                                           String checksum) {
+    Path saveAsFile = getReplicationDirFor(leader).resolve(fileName);
+    Path partialFile = getPartialUploadPath(leader, fileName);
+    try {
+      if (!partialFile.toFile().exists()) {
+        // A retry after a successful completion whose response was lost.
+        return saveAsFile.toFile().exists() && saveAsFile.toFile().length() == size &&
+          computeChecksum(saveAsFile).equals(checksum);
+      }
+      if (partialFile.toFile().length() != size ||
+        !computeChecksum(partialFile).equals(checksum)) {
+        LOG.error("Platform backup {} received from leader {} does not match its checksum",
+          fileName, leader);
+        Files.delete(partialFile);
+        return false;
+      }
+      Files.move(partialFile, saveAsFile, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+      LOG.debug("Store platform backup received from leader {} as {}.", leader, saveAsFile);
+      // Leftovers of uploads that were abandoned for a newer backup.
+      for (File stale : listFiles(getReplicationDirFor(leader), "*" + PARTIAL_UPLOAD_SUFFIX)) {
+        if (!stale.delete()) {
+          LOG.warn("Could not delete {}", stale);
+        }
+      }
+      return true;
+    } catch (IOException e) {
+      LOG.error("Error storing platform backup {} received from leader {}", fileName, leader, e);
+    }
+    return false;
+  }
+
   private abstract class PlatformBackupParams {
     // The addr that the prometheus server is running on.
     private final String prometheusHost;
@@ -533,6 +785,12 @@ public class PlatformReplicationManager extends DevopsBase {
 
   private Path getReplicationDirFor(String leader) {
     String storagePath = runtimeConfigFactory.globalRuntimeConf().getString(STORAGE_PATH_KEY);
-    return Paths.get(storagePath, REPLICATION_DIR, leader);
+    Path replicationDir = Paths.get(storagePath, REPLICATION_DIR).normalize();
+    Path leaderDir = Paths.get(storagePath, REPLICATION_DIR, leader).normalize();
+    // The leader address comes from the request, it must not escape the replication directory.
+    if (!leaderDir.startsWith(replicationDir) || leaderDir.equals(replicationDir)) {
+      throw new IllegalArgumentException("Invalid leader address: " + leader);
+    }
+    return leaderDir;
   }
 }
@@ -11,7 +11,11 @@
 package com.yugabyte.yw.common;
 
 import com.google.inject.Inject;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Summary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,14 +33,63 @@ import java.util.concurrent.TimeUnit;
 
 import com.yugabyte.yw.common.ShellResponse;
 
+import static com.yugabyte.yw.common.utils.PrometheusUtil.registerCollector;
+
 @Singleton
 public class ShellProcessHandler {
     public static final Logger LOG = LoggerFactory.getLogger(ShellProcessHandler.class);
 
 
-    @Inject
     play.Configuration appConfig;
 
+    private final Counter devopsProcesses;
+
+    private final Summary devopsProcessDuration;
+
+    private final Summary nodeTasksDuration;
+
+    @Inject
+    public ShellProcessHandler(play.Configuration appConfig) {
+        this(appConfig, CollectorRegistry.defaultRegistry);
+    }
+
+    @VisibleForTesting
+    ShellProcessHandler(play.Configuration appConfig, CollectorRegistry promRegistry) {
+        this.appConfig = appConfig;
+        this.devopsProcesses = registerCollector(Counter
+            .build("yw_devops_process_count", "Number of ybcloud processes started.")
+            .labelNames("command_type", "command", "mode")
+            .create(), promRegistry);
+        this.devopsProcessDuration = registerCollector(Summary
+            .build("yw_devops_process_duration_seconds",
+                "Wall time of the ybcloud processes, each running one command or a batch of " +
+                "commands.")
+            .labelNames("command_type", "command", "mode")
+            .create(), promRegistry);
+        this.nodeTasksDuration = registerCollector(Summary
+            .build("yw_node_subtask_group_duration_seconds",
+                "Wall time of the subtask groups running node subtasks, by whether their node " +
+                "commands were run by a devops process per node or in batches.")
+            .labelNames("group_type", "mode")
+            .create(), promRegistry);
+    }
+
+    /**
+     * Records a ybcloud process run by a devops command, mode being "single" or "batch".
+     */
+    public void recordDevopsProcess(String commandType, String command, String mode,
+                                    long durationMs) {
+        devopsProcesses.labels(commandType, command, mode).inc();
+        devopsProcessDuration.labels(commandType, command, mode).observe(durationMs / 1000.0);
+    }
+
+    /**
+     * Records the wall time of a subtask group running node subtasks.
+     */
+    public void recordNodeTasks(String groupType, String mode, long durationMs) {
+        nodeTasksDuration.labels(groupType, mode).observe(durationMs / 1000.0);
+    }
+
     public ShellResponse run(
         List<String> command,
         Map<String, String> extraEnvVars,
@@ -193,6 +193,36 @@ public class EncryptionAtRestManager {
         return keyVal;
     }
 
+    /**
+     * Retrieves the active universe key in the background ahead of an operation that will need
+     * it, such as a restart of the masters.
+     */
+    public <T extends EncryptionAtRestService<? extends SupportedAlgorithmInterface>> void prefetchUniverseKey(
+            UUID universeUUID
+    ) {
+        KmsHistory activeKey = EncryptionAtRestUtil.getActiveKey(universeUUID);
+        if (activeKey == null ||
+                activeKey.uuid.keyRef == null || activeKey.uuid.keyRef.length() == 0) {
+            return;
+        }
+        try {
+            T keyService = getServiceInstance(
+                    KmsConfig.get(activeKey.configUuid).keyProvider.name()
+            );
+            keyService.prefetchKey(
+                    universeUUID,
+                    activeKey.configUuid,
+                    Base64.getDecoder().decode(activeKey.uuid.keyRef)
+            );
+        } catch (Exception e) {
+            String errMsg = String.format(
+                    "Error attempting to prefetch the universe key for universe %s",
+                    universeUUID.toString()
+            );
+            LOG.warn(errMsg, e);
+        }
+    }
+
     public void cleanupEncryptionAtRest(UUID customerUUID, UUID universeUUID) {
       KmsConfig.listKMSConfigs(customerUUID).forEach(config -> getServiceInstance(
         config.keyProvider.name()
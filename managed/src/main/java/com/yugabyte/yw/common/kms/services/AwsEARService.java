@@ -14,7 +14,6 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.yugabyte.yw.common.kms.algorithms.AwsAlgorithm;
 import com.yugabyte.yw.common.kms.util.AwsEARServiceUtil;
-import com.yugabyte.yw.common.kms.util.EncryptionAtRestUtil;
 import com.yugabyte.yw.common.kms.util.KeyProvider;
 import com.yugabyte.yw.forms.UniverseTaskParams.EncryptionAtRestConfig;
 
@@ -174,9 +173,6 @@ public class AwsEARService extends EncryptionAtRestService<AwsAlgorithm> {
                     keyVal = AwsEARServiceUtil.decryptUniverseKey(configUUID, keyRef);
                     if (keyVal == null) {
                         LOG.warn("Could not retrieve key from key ref through AWS KMS");
-                    } else {
-                        EncryptionAtRestUtil
-                                .setUniverseKeyCacheEntry(universeUUID, keyRef, keyVal);
                     }
                     break;
             }
@@ -139,14 +139,11 @@ public abstract class EncryptionAtRestService<T extends SupportedAlgorithmInterf
             LOG.warn(errMsg);
             return null;
         }
-        // Attempt to retrieve cached entry
-        byte[] keyVal = EncryptionAtRestUtil.getUniverseKeyCacheEntry(universeUUID, keyRef);
         // Retrieve through KMS provider if no cache entry exists
-        if (keyVal == null) {
+        return EncryptionAtRestUtil.getOrLoadUniverseKeyCacheEntry(universeUUID, keyRef, () -> {
             LOG.debug("Universe key cache entry empty. Retrieving key from service");
-            keyVal = retrieveKeyWithService(universeUUID, configUUID, keyRef, config);
-        }
-        return keyVal;
+            return retrieveKeyWithService(universeUUID, configUUID, keyRef, config);
+        });
     }
 
     public byte[] retrieveKey(UUID universeUUID, UUID configUUID, byte[] keyRef) {
@@ -159,6 +156,20 @@ public abstract class EncryptionAtRestService<T extends SupportedAlgorithmInterf
         );
     }
 
+    /**
+     * Retrieves the key in the background, so that it is cached by the time an upcoming
+     * operation on the universe needs it.
+     */
+    public void prefetchKey(UUID universeUUID, UUID configUUID, byte[] keyRef) {
+        final EncryptionAtRestConfig config =
+                Universe.get(universeUUID).getUniverseDetails().encryptionAtRestConfig;
+        EncryptionAtRestUtil.prefetchUniverseKeyCacheEntry(
+                universeUUID,
+                keyRef,
+                () -> retrieveKeyWithService(universeUUID, configUUID, keyRef, config)
+        );
+    }
+
     public byte[] retrieveKey(
             UUID universeUUID,
             UUID configUUID,
@@ -17,7 +17,6 @@ import com.google.common.collect.ImmutableMap;
 import com.yugabyte.yw.common.ApiHelper;
 import com.yugabyte.yw.common.Util;
 import com.yugabyte.yw.common.kms.algorithms.SmartKeyAlgorithm;
-import com.yugabyte.yw.common.kms.util.EncryptionAtRestUtil;
 import com.yugabyte.yw.common.kms.util.KeyProvider;
 import com.yugabyte.yw.forms.UniverseTaskParams.EncryptionAtRestConfig;
 import java.util.Arrays;
@@ -174,9 +173,6 @@ public class SmartKeyEARService extends EncryptionAtRestService<SmartKeyAlgorith
         final JsonNode errors = response.get("error");
         if (errors != null) throw new RuntimeException(errors.toString());
         keyVal = Base64.getDecoder().decode(response.get("value").asText());
-        // Update cache entry
-        if (keyVal != null) EncryptionAtRestUtil
-                .setUniverseKeyCacheEntry(universeUUID, keyRef, keyVal);
         return keyVal;
     }
 }
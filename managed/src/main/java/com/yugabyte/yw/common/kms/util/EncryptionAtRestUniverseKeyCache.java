@@ -10,61 +10,370 @@
 
 package com.yugabyte.yw.common.kms.util;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
+import com.typesafe.config.Config;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Histogram;
 import java.util.Arrays;
 import java.util.Base64;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.inject.ApplicationLifecycle;
 
+import static com.yugabyte.yw.common.utils.PrometheusUtil.registerCollector;
+
+/**
+ * In-memory cache of the universe keys retrieved from the KMS, with one entry per universe.
+ *
+ * Entries expire after the configured TTL, and the least recently used entry is evicted when the
+ * cache is full. The key bytes of an entry are zeroed once it is evicted, removed or replaced.
+ * Concurrent misses on the same key share a single KMS retrieval, and keys in use are retrieved
+ * again in the background shortly before they expire, so that their lookups do not wait on the
+ * KMS.
+ */
 @Singleton
 public class EncryptionAtRestUniverseKeyCache {
-    private class EncryptionAtRestUniverseKeyCacheEntry {
-        private String keyRef;
-        private String keyVal;
+    public static final Logger LOG =
+            LoggerFactory.getLogger(EncryptionAtRestUniverseKeyCache.class);
+
+    static final String TTL_KEY = "yb.kms.universe_key_cache.ttl";
+    static final String MAX_SIZE_KEY = "yb.kms.universe_key_cache.max_size";
+    static final String REFRESH_BEFORE_KEY = "yb.kms.universe_key_cache.refresh_before";
+
+    private static class EncryptionAtRestUniverseKeyCacheEntry {
+        private final byte[] keyRef;
+        private final byte[] keyVal;
+        private final long loadTimeMs;
+        private final long expireTimeMs;
+        // Retrieves the key again for the background refresh, null for entries set directly.
+        private final Supplier<byte[]> loader;
+        private final AtomicBoolean refreshing = new AtomicBoolean(false);
+        private volatile long lastAccessMs;
+        // Guarded by this.
+        private boolean destroyed = false;
+
+        public EncryptionAtRestUniverseKeyCacheEntry(
+                byte[] keyRef,
+                byte[] keyVal,
+                long expireTimeMs,
+                Supplier<byte[]> loader
+        ) {
+            this.keyRef = keyRef.clone();
+            this.keyVal = keyVal.clone();
+            this.loadTimeMs = System.currentTimeMillis();
+            this.expireTimeMs = expireTimeMs;
+            this.loader = loader;
+            this.lastAccessMs = this.loadTimeMs;
+        }
 
-        public EncryptionAtRestUniverseKeyCacheEntry(byte[] keyRef, byte[] keyVal) {
-            this.keyRef = Base64.getEncoder().encodeToString(keyRef);
-            this.keyVal = Base64.getEncoder().encodeToString(keyVal);
+        public synchronized boolean hasKeyRef(byte[] keyRef) {
+            return !destroyed && Arrays.equals(this.keyRef, keyRef);
         }
 
-        public byte[] getKeyRef() { return Base64.getDecoder().decode(this.keyRef); }
+        // Returns copies, so that callers never see the bytes being zeroed, or null once destroyed.
+        public synchronized byte[] getKeyRef() { return destroyed ? null : keyRef.clone(); }
 
-        public byte[] getKeyVal() { return Base64.getDecoder().decode(this.keyVal); }
+        public synchronized byte[] getKeyVal() { return destroyed ? null : keyVal.clone(); }
 
-        public void updateEntry(byte[] keyRef, byte[] keyVal) {
-            this.keyRef = Base64.getEncoder().encodeToString(keyRef);
-            this.keyVal = Base64.getEncoder().encodeToString(keyVal);
+        public boolean isExpired(long nowMs) { return nowMs >= expireTimeMs; }
+
+        public synchronized void destroy() {
+            destroyed = true;
+            Arrays.fill(keyRef, (byte) 0);
+            Arrays.fill(keyVal, (byte) 0);
         }
     }
 
-    private Map<UUID, EncryptionAtRestUniverseKeyCacheEntry> cache;
+    private final long ttlMs;
+    private final int maxSize;
+    private final long refreshBeforeMs;
+
+    private final Map<UUID, EncryptionAtRestUniverseKeyCacheEntry> cache =
+            new ConcurrentHashMap<>();
+
+    // The KMS retrievals in progress, by universe and key ref.
+    private final Map<String, CompletableFuture<byte[]>> loading = new ConcurrentHashMap<>();
+
+    // Runs the background refreshes and the removal of the expired entries.
+    private final ScheduledExecutorService executor;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final Counter evictions;
+
+    private final Histogram kmsDuration;
+
+    private final Counter kmsErrors;
 
     @Inject
-    public EncryptionAtRestUniverseKeyCache() {
-        this.cache = new HashMap<UUID, EncryptionAtRestUniverseKeyCacheEntry>();
+    public EncryptionAtRestUniverseKeyCache(Config config, ApplicationLifecycle lifecycle) {
+        this(
+                config.getDuration(TTL_KEY).toMillis(),
+                config.getInt(MAX_SIZE_KEY),
+                config.getDuration(REFRESH_BEFORE_KEY).toMillis(),
+                CollectorRegistry.defaultRegistry
+        );
+        lifecycle.addStopHook(() -> {
+            stop();
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    @VisibleForTesting
+    EncryptionAtRestUniverseKeyCache(
+            long ttlMs,
+            int maxSize,
+            long refreshBeforeMs,
+            CollectorRegistry promRegistry
+    ) {
+        this.hits = registerCollector(Counter
+                .build("yw_universe_key_cache_hit_count", "Number of universe key cache hits.")
+                .create(), promRegistry);
+        this.misses = registerCollector(Counter
+                .build("yw_universe_key_cache_miss_count", "Number of universe key cache misses.")
+                .create(), promRegistry);
+        this.evictions = registerCollector(Counter
+                .build("yw_universe_key_cache_eviction_count",
+                        "Number of universe key cache entries evicted.")
+                .labelNames("reason")
+                .create(), promRegistry);
+        this.kmsDuration = registerCollector(Histogram
+                .build("yw_universe_key_kms_duration_seconds",
+                        "Duration of the universe key retrievals from the KMS.")
+                .labelNames("mode")
+                .create(), promRegistry);
+        this.kmsErrors = registerCollector(Counter
+                .build("yw_universe_key_kms_error_count",
+                        "Number of failed universe key retrievals from the KMS.")
+                .labelNames("mode")
+                .create(), promRegistry);
+        this.ttlMs = ttlMs;
+        this.maxSize = Math.max(maxSize, 1);
+        this.refreshBeforeMs = Math.min(refreshBeforeMs, ttlMs / 2);
+        this.executor = Executors.newScheduledThreadPool(
+                2,
+                new ThreadFactoryBuilder()
+                        .setNameFormat("UniverseKeyCache-%d")
+                        .setDaemon(true)
+                        .build()
+        );
+        long sweepIntervalMs = Math.max(
+                Math.min(this.ttlMs / 2, TimeUnit.MINUTES.toMillis(1)),
+                TimeUnit.SECONDS.toMillis(1)
+        );
+        this.executor.scheduleWithFixedDelay(
+                this::sweep,
+                sweepIntervalMs,
+                sweepIntervalMs,
+                TimeUnit.MILLISECONDS
+        );
     }
 
     public void setCacheEntry(UUID universeUUID, byte[] keyRef, byte[] keyVal) {
-        EncryptionAtRestUniverseKeyCacheEntry cacheEntry = this.cache.get(universeUUID);
-        if (cacheEntry != null) cacheEntry.updateEntry(keyRef, keyVal);
-        else cacheEntry = new EncryptionAtRestUniverseKeyCacheEntry(keyRef, keyVal);
-        this.cache.put(universeUUID, cacheEntry);
+        putEntry(universeUUID, keyRef, keyVal, null);
     }
 
     public byte[] getCacheEntry(UUID universeUUID, byte[] keyRef) {
-        byte[] result = null;
-        EncryptionAtRestUniverseKeyCacheEntry cacheEntry = this.cache.get(universeUUID);
-        if (cacheEntry != null && Arrays.equals(cacheEntry.getKeyRef(), keyRef)) {
-            result = cacheEntry.getKeyVal();
-        }
+        byte[] result = lookup(universeUUID, keyRef, false);
+        if (result != null) hits.inc();
+        else misses.inc();
         return result;
     }
 
+    /**
+     * Returns the cached key of the universe for the key ref, or retrieves it with the loader on
+     * a miss. Concurrent misses for the same key share the retrieval of the first one. The loader
+     * is kept with the entry to refresh it before it expires.
+     */
+    public byte[] getOrLoad(UUID universeUUID, byte[] keyRef, Supplier<byte[]> loader) {
+        byte[] result = lookup(universeUUID, keyRef, true);
+        if (result != null) {
+            hits.inc();
+            return result;
+        }
+        misses.inc();
+        return load(universeUUID, keyRef, loader, "miss");
+    }
+
+    /**
+     * Retrieves the key of the universe in the background unless it is cached and not about to
+     * expire, ahead of an operation that will need it, such as a rotation or a restart.
+     */
+    public void prefetch(UUID universeUUID, byte[] keyRef, Supplier<byte[]> loader) {
+        EncryptionAtRestUniverseKeyCacheEntry entry = cache.get(universeUUID);
+        if (entry != null && entry.hasKeyRef(keyRef) &&
+                entry.expireTimeMs - System.currentTimeMillis() > refreshBeforeMs) {
+            return;
+        }
+        final byte[] ref = keyRef.clone();
+        executor.execute(() -> loadInBackground(universeUUID, ref, loader, "prefetch"));
+    }
+
     public void removeCacheEntry(UUID universeUUID) {
-        this.cache.remove(universeUUID);
+        EncryptionAtRestUniverseKeyCacheEntry entry = this.cache.remove(universeUUID);
+        if (entry != null) entry.destroy();
+    }
+
+    public void clearCache() {
+        for (UUID universeUUID : this.cache.keySet()) {
+            removeCacheEntry(universeUUID);
+        }
+    }
+
+    @VisibleForTesting
+    int size() { return this.cache.size(); }
+
+    // Stops the background refreshes and zeroes the cached keys.
+    @VisibleForTesting
+    void stop() {
+        this.executor.shutdownNow();
+        clearCache();
+    }
+
+    @VisibleForTesting
+    void sweep() {
+        long nowMs = System.currentTimeMillis();
+        this.cache.forEach((universeUUID, entry) -> {
+            if (entry.isExpired(nowMs)) {
+                evict(universeUUID, entry, "expired");
+            } else if (entry.lastAccessMs > entry.loadTimeMs) {
+                // Only the keys used since they were retrieved are kept warm.
+                maybeRefresh(universeUUID, entry, nowMs);
+            }
+        });
+    }
+
+    private byte[] lookup(UUID universeUUID, byte[] keyRef, boolean refresh) {
+        EncryptionAtRestUniverseKeyCacheEntry entry = this.cache.get(universeUUID);
+        if (entry == null || !entry.hasKeyRef(keyRef)) return null;
+        long nowMs = System.currentTimeMillis();
+        if (entry.isExpired(nowMs)) {
+            evict(universeUUID, entry, "expired");
+            return null;
+        }
+        entry.lastAccessMs = nowMs;
+        byte[] result = entry.getKeyVal();
+        if (result != null && refresh) maybeRefresh(universeUUID, entry, nowMs);
+        return result;
     }
 
-    public void clearCache() { this.cache.clear(); }
+    private void maybeRefresh(
+            UUID universeUUID,
+            EncryptionAtRestUniverseKeyCacheEntry entry,
+            long nowMs
+    ) {
+        if (entry.loader == null || entry.expireTimeMs - nowMs > refreshBeforeMs ||
+                !entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        byte[] keyRef = entry.getKeyRef();
+        if (keyRef == null) return;
+        executor.execute(() -> loadInBackground(universeUUID, keyRef, entry.loader, "refresh"));
+    }
+
+    private void loadInBackground(
+            UUID universeUUID,
+            byte[] keyRef,
+            Supplier<byte[]> loader,
+            String mode
+    ) {
+        try {
+            load(universeUUID, keyRef, loader, mode);
+        } catch (Exception e) {
+            LOG.warn(String.format(
+                    "Error retrieving universe key of universe %s in the background",
+                    universeUUID.toString()
+            ), e);
+        }
+    }
+
+    private byte[] load(UUID universeUUID, byte[] keyRef, Supplier<byte[]> loader, String mode) {
+        String loadKey = universeUUID.toString() + "/" + Base64.getEncoder().encodeToString(keyRef);
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        CompletableFuture<byte[]> inProgress = this.loading.putIfAbsent(loadKey, future);
+        if (inProgress != null) {
+            try {
+                byte[] result = inProgress.join();
+                return result == null ? null : result.clone();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                throw e;
+            }
+        }
+        try {
+            byte[] result;
+            Histogram.Timer timer = kmsDuration.labels(mode).startTimer();
+            try {
+                result = loader.get();
+            } finally {
+                timer.observeDuration();
+            }
+            if (result != null) putEntry(universeUUID, keyRef, result, loader);
+            future.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            kmsErrors.labels(mode).inc();
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.loading.remove(loadKey, future);
+        }
+    }
+
+    private void putEntry(
+            UUID universeUUID,
+            byte[] keyRef,
+            byte[] keyVal,
+            Supplier<byte[]> loader
+    ) {
+        EncryptionAtRestUniverseKeyCacheEntry entry = new EncryptionAtRestUniverseKeyCacheEntry(
+                keyRef,
+                keyVal,
+                System.currentTimeMillis() + ttlMs,
+                loader
+        );
+        EncryptionAtRestUniverseKeyCacheEntry previous = this.cache.put(universeUUID, entry);
+        if (previous != null) previous.destroy();
+        if (this.cache.size() > maxSize) evictLeastRecentlyUsed();
+    }
+
+    private synchronized void evictLeastRecentlyUsed() {
+        while (this.cache.size() > maxSize) {
+            Map.Entry<UUID, EncryptionAtRestUniverseKeyCacheEntry> lru = null;
+            for (Map.Entry<UUID, EncryptionAtRestUniverseKeyCacheEntry> e : this.cache.entrySet()) {
+                if (lru == null || e.getValue().lastAccessMs < lru.getValue().lastAccessMs) {
+                    lru = e;
+                }
+            }
+            if (lru == null) return;
+            evict(lru.getKey(), lru.getValue(), "size");
+        }
+    }
+
+    private void evict(
+            UUID universeUUID,
+            EncryptionAtRestUniverseKeyCacheEntry entry,
+            String reason
+    ) {
+        if (this.cache.remove(universeUUID, entry)) {
+            entry.destroy();
+            evictions.labels(reason).inc();
+        }
+    }
 }
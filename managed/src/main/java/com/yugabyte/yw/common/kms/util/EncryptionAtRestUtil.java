@@ -23,6 +23,7 @@ import com.yugabyte.yw.models.Universe;
 import java.io.File;
 import java.lang.reflect.Constructor;
 import java.util.*;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -135,6 +136,29 @@ public class EncryptionAtRestUtil {
                 .setCacheEntry(universeUUID, keyRef, keyVal);
     }
 
+    public static byte[] getOrLoadUniverseKeyCacheEntry(
+            UUID universeUUID,
+            byte[] keyRef,
+            Supplier<byte[]> loader
+    ) {
+        return Play.current().injector().instanceOf(EncryptionAtRestUniverseKeyCache.class)
+                .getOrLoad(universeUUID, keyRef, loader);
+    }
+
+    public static void prefetchUniverseKeyCacheEntry(
+            UUID universeUUID,
+            byte[] keyRef,
+            Supplier<byte[]> loader
+    ) {
+        LOG.debug(String.format(
+                "Prefetching universe key cache entry for universe %s and keyRef %s",
+                universeUUID.toString(),
+                Base64.getEncoder().encodeToString(keyRef)
+        ));
+        Play.current().injector().instanceOf(EncryptionAtRestUniverseKeyCache.class)
+                .prefetch(universeUUID, keyRef, loader);
+    }
+
     public static void removeUniverseKeyCacheEntry(UUID universeUUID) {
         LOG.debug(String.format(
                 "Removing universe key cache entry for universe %s",
@@ -4,46 +4,259 @@ package com.yugabyte.yw.common.services;
 
 import javax.inject.Singleton;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.yb.client.YBClient;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands out YBClients from a pool keyed by (master addresses, certificate file).
+ *
+ * Callers keep the getClient/closeClient pairing: getClient takes a reference on the pooled
+ * client and closeClient releases it, so concurrent subtasks on the same universe share one
+ * client with its master leader and tablet location caches. A client is really closed when:
+ *  - it has not been referenced for {@link #IDLE_TIMEOUT_MS},
+ *  - a client is requested for a different master set sharing a master with it (the masters of
+ *    the universe changed), or
+ *  - it is older than {@link #MAX_CLIENT_AGE_MS}, so that long lived clients are periodically
+ *    rebuilt from scratch.
+ * Retired clients are no longer handed out, and are closed when their last reference is released.
+ */
 @Singleton
 public class LocalYBClientService implements YBClientService {
   public static final Logger LOG = LoggerFactory.getLogger(LocalYBClientService.class);
 
+  static final long IDLE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(5);
+  static final long MAX_CLIENT_AGE_MS = TimeUnit.HOURS.toMillis(1);
+  private static final long EVICTION_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
+
+  // The YBClient default of twice the number of cores is meant for data path clients, the platform
+  // only sends admin RPCs.
+  private static final int NETTY_WORKER_COUNT = 2;
+
+  private static class PooledClient {
+    final String key;
+    final Set<String> masters;
+    final String certFile;
+    final YBClient client;
+    final long createTimeMs;
+    int refCount = 0;
+    long idleSinceMs;
+    boolean retired = false;
+
+    PooledClient(String key, Set<String> masters, String certFile, YBClient client, long nowMs) {
+      this.key = key;
+      this.masters = masters;
+      this.certFile = certFile;
+      this.client = client;
+      this.createTimeMs = nowMs;
+      this.idleSinceMs = nowMs;
+    }
+  }
+
+  // Threads of the Netty bosses and workers of all the clients. Netty terminates the executors it
+  // is given when a client is closed if they are ExecutorServices, so clients only get a plain
+  // Executor view of this pool, and the threads go back to it instead.
+  private final ExecutorService nettyThreadPool = Executors.newCachedThreadPool(
+      new ThreadFactoryBuilder().setNameFormat("yb-client-nio-%d").setDaemon(true).build());
+  private final Executor nettyExecutor = nettyThreadPool::execute;
+
+  // Both maps are guarded by this.
+  private final Map<String, PooledClient> clientsByKey = new HashMap<>();
+  private final Map<YBClient, PooledClient> clientsByInstance = new IdentityHashMap<>();
+
+  public LocalYBClientService() {
+    ScheduledExecutorService evictionExecutor = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("yb-client-eviction").setDaemon(true).build());
+    evictionExecutor.scheduleWithFixedDelay(this::evictClients, EVICTION_INTERVAL_MS,
+        EVICTION_INTERVAL_MS, TimeUnit.MILLISECONDS);
+  }
+
   @Override
-  public synchronized YBClient getClient(String masterHostPorts) {
+  public YBClient getClient(String masterHostPorts) {
     return getClient(masterHostPorts, null);
   }
 
   @Override
-  public synchronized YBClient getClient(String masterHostPorts, String certFile) {
-    if (masterHostPorts != null) {
-      return getNewClient(masterHostPorts, certFile);
+  public YBClient getClient(String masterHostPorts, String certFile) {
+    if (masterHostPorts == null) {
+      return null;
     }
-    return null;
+    Set<String> masters = parseMasters(masterHostPorts);
+    String key = getKey(masters, certFile);
+    List<PooledClient> toClose;
+    PooledClient pooled;
+    synchronized (this) {
+      pooled = clientsByKey.get(key);
+      if (pooled != null && isExpired(pooled, System.currentTimeMillis())) {
+        toClose = retire(Collections.singletonList(pooled));
+        pooled = null;
+      } else {
+        toClose = new ArrayList<>();
+      }
+      if (pooled == null) {
+        toClose.addAll(retire(findClientsWithChangedMasters(masters, certFile)));
+        LOG.debug("Creating client masters={}.", masterHostPorts);
+        pooled = new PooledClient(key, masters, certFile, getNewClient(masterHostPorts, certFile),
+            System.currentTimeMillis());
+        clientsByKey.put(key, pooled);
+        clientsByInstance.put(pooled.client, pooled);
+      }
+      pooled.refCount++;
+    }
+    closeClients(toClose);
+    return pooled.client;
   }
 
   @Override
-  public synchronized void closeClient(YBClient client, String masterHostPorts) {
-    if (client != null) {
-      LOG.debug("Closing client masters={}.", masterHostPorts);
-      try {
-        client.close();
-      } catch (Exception e) {
-        LOG.warn("Closing client with masters={} hit error {}", masterHostPorts, e.getMessage());
-      }
-    } else {
+  public void closeClient(YBClient client, String masterHostPorts) {
+    if (client == null) {
       LOG.warn("Client for masters {} was null, cannot close", masterHostPorts);
+      return;
+    }
+    boolean close = false;
+    synchronized (this) {
+      PooledClient pooled = clientsByInstance.get(client);
+      if (pooled == null) {
+        // Not handed out by this pool, or already closed.
+        close = true;
+      } else if (pooled.refCount <= 0) {
+        LOG.warn("Client for masters {} was released more times than it was acquired",
+            masterHostPorts);
+      } else if (--pooled.refCount == 0) {
+        pooled.idleSinceMs = System.currentTimeMillis();
+        if (pooled.retired) {
+          clientsByInstance.remove(client);
+          close = true;
+        }
+      }
+    }
+    if (close) {
+      closeYBClient(client, masterHostPorts);
+    }
+  }
+
+  /** Closes the clients that have been idle for too long or are too old. */
+  @VisibleForTesting
+  void evictClients() {
+    List<PooledClient> toClose;
+    synchronized (this) {
+      long nowMs = System.currentTimeMillis();
+      List<PooledClient> evicted = new ArrayList<>();
+      for (PooledClient pooled : clientsByKey.values()) {
+        if (isExpired(pooled, nowMs) ||
+            (pooled.refCount == 0 && nowMs - pooled.idleSinceMs >= IDLE_TIMEOUT_MS)) {
+          evicted.add(pooled);
+        }
+      }
+      toClose = retire(evicted);
+    }
+    closeClients(toClose);
+  }
+
+  /** Retires all the pooled clients, closing those that are not referenced. */
+  @VisibleForTesting
+  void evictAllClients() {
+    List<PooledClient> toClose;
+    synchronized (this) {
+      toClose = retire(new ArrayList<>(clientsByKey.values()));
     }
+    closeClients(toClose);
+  }
+
+  @VisibleForTesting
+  synchronized int getPoolSize() {
+    return clientsByKey.size();
+  }
+
+  private static boolean isExpired(PooledClient pooled, long nowMs) {
+    return nowMs - pooled.createTimeMs >= MAX_CLIENT_AGE_MS;
+  }
+
+  // Clients with the same certificate whose master set shares a master with the given one but is
+  // different: the universe they were created for now has other masters.
+  private List<PooledClient> findClientsWithChangedMasters(Set<String> masters, String certFile) {
+    List<PooledClient> result = new ArrayList<>();
+    for (PooledClient pooled : clientsByKey.values()) {
+      if (Objects.equals(pooled.certFile, certFile) && !pooled.masters.equals(masters) &&
+          !Collections.disjoint(pooled.masters, masters)) {
+        result.add(pooled);
+      }
+    }
+    return result;
+  }
+
+  // Removes the given clients from the pool, and returns those that can be closed right away.
+  // Must be called with the lock held.
+  private List<PooledClient> retire(List<PooledClient> clients) {
+    List<PooledClient> toClose = new ArrayList<>();
+    for (PooledClient pooled : clients) {
+      LOG.debug("Retiring client masters={}, references={}.", pooled.masters, pooled.refCount);
+      pooled.retired = true;
+      clientsByKey.remove(pooled.key);
+      if (pooled.refCount == 0) {
+        clientsByInstance.remove(pooled.client);
+        toClose.add(pooled);
+      }
+    }
+    return toClose;
+  }
+
+  private void closeClients(List<PooledClient> clients) {
+    for (PooledClient pooled : clients) {
+      closeYBClient(pooled.client, String.join(",", pooled.masters));
+    }
+  }
+
+  private void closeYBClient(YBClient client, String masterHostPorts) {
+    LOG.debug("Closing client masters={}.", masterHostPorts);
+    try {
+      client.close();
+    } catch (Exception e) {
+      LOG.warn("Closing client with masters={} hit error {}", masterHostPorts, e.getMessage());
+    }
+  }
+
+  private static Set<String> parseMasters(String masterHostPorts) {
+    Set<String> masters = new HashSet<>();
+    for (String master : masterHostPorts.split(",")) {
+      if (!master.trim().isEmpty()) {
+        masters.add(master.trim());
+      }
+    }
+    return masters;
+  }
+
+  // The order of the masters in the address string does not matter.
+  private static String getKey(Set<String> masters, String certFile) {
+    List<String> sorted = new ArrayList<>(masters);
+    Collections.sort(sorted);
+    return String.join(",", sorted) + "|" + certFile;
   }
 
   private YBClient getNewClient(String masterHPs, String certFile) {
     return new YBClient.YBClientBuilder(masterHPs)
                        .defaultAdminOperationTimeoutMs(120000)
                        .sslCertFile(certFile)
+                       .nioExecutors(nettyExecutor, nettyExecutor)
+                       .workerCount(NETTY_WORKER_COUNT)
                        .build();
   }
 }
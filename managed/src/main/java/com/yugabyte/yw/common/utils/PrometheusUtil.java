@@ -0,0 +1,36 @@
+/*
+ * Copyright 2021 YugaByte, Inc. and Contributors
+ *
+ * Licensed under the Polyform Free Trial License 1.0.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ *     https://github.com/YugaByte/yugabyte-db/blob/master/licenses/POLYFORM-FREE-TRIAL-LICENSE-1.0.0.txt
+ */
+
+package com.yugabyte.yw.common.utils;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class PrometheusUtil {
+  public static final Logger LOG = LoggerFactory.getLogger(PrometheusUtil.class);
+
+  /**
+   * Registers the collector in the registry and returns it. The registration fails if a collector
+   * of the same name is already registered, e.g. by the previous instance of a singleton after a
+   * reload in dev mode. The collector is then still returned, so that it can be updated, but it
+   * is not exported.
+   */
+  public static <T extends Collector> T registerCollector(T collector,
+                                                          CollectorRegistry promRegistry) {
+    try {
+      promRegistry.register(collector);
+    } catch (IllegalArgumentException e) {
+      LOG.warn("Failed to register prometheus collector: " + e.getMessage());
+    }
+    return collector;
+  }
+}
@@ -20,7 +20,9 @@ public class AuditController extends AuthenticatedController {
   public static final Logger LOG = LoggerFactory.getLogger(AuditController.class);
 
   /**
-   * GET endpoint for listing all audit entries for a user.
+   * GET endpoint for listing all audit entries for a user. With the "limit" query parameter, only
+   * that many entries are returned, the most recent first, and the "before" query parameter
+   * gets the page of the entries older than the given audit id.
    * @return JSON response with audit entries belonging to the user.
    */
   public Result list(UUID customerUUID, UUID userUUID) {
@@ -33,8 +35,25 @@ public class AuditController extends AuthenticatedController {
       return ApiResponse.error(BAD_REQUEST, "Invalid User UUID: " + customerUUID);
     }
 
+    Integer limit = null;
+    Long beforeID = null;
     try {
-      List<Audit> auditList = Audit.getAllUserEntries(user.uuid);
+      if (request().getQueryString("limit") != null) {
+        limit = Integer.parseInt(request().getQueryString("limit"));
+      }
+      if (request().getQueryString("before") != null) {
+        beforeID = Long.parseLong(request().getQueryString("before"));
+      }
+    } catch (NumberFormatException e) {
+      return ApiResponse.error(BAD_REQUEST, "Invalid limit or before.");
+    }
+    if ((limit != null && limit <= 0) || (beforeID != null && limit == null)) {
+      return ApiResponse.error(BAD_REQUEST, "Invalid limit or before.");
+    }
+
+    try {
+      List<Audit> auditList = limit == null ? Audit.getAllUserEntries(user.uuid)
+        : Audit.getUserEntriesPage(user.uuid, beforeID, limit);
       return ApiResponse.success(auditList);
     } catch (Exception e) {
       return ApiResponse.error(INTERNAL_SERVER_ERROR, "Unable to fetch audit history.");
@@ -35,6 +35,7 @@ import com.yugabyte.yw.forms.FeatureUpdateFormData;
 import com.yugabyte.yw.forms.MetricQueryParams;
 import com.yugabyte.yw.metrics.MetricQueryHelper;
 import com.yugabyte.yw.models.helpers.CommonUtils;
+import com.yugabyte.yw.models.helpers.UniverseSummary;
 import com.yugabyte.yw.models.Audit;
 import com.yugabyte.yw.models.Customer;
 import com.yugabyte.yw.models.CustomerConfig;
@@ -175,7 +176,7 @@ public class CustomerController extends AuthenticatedController {
 
     if (customer.delete()) {
       ObjectNode responseJson = Json.newObject();
-      Audit.createAuditEntry(ctx(), request());
+      Audit.createAuditEntry(ctx(), request(), null, true);
       responseJson.put("success", true);
       return ApiResponse.success(responseJson);
     } else {
@@ -233,8 +234,8 @@ public class CustomerController extends AuthenticatedController {
 
     ObjectNode filterJson = Json.newObject();
     if (!params.containsKey("nodePrefix")) {
-      String universePrefixes = customer.getUniverses().stream()
-        .map((universe -> universe.getUniverseDetails().nodePrefix)).collect(Collectors.joining("|"));
+      String universePrefixes = customer.getUniverseSummaries().stream()
+        .map(summary -> summary.nodePrefix).collect(Collectors.joining("|"));
       filterJson.put(universeFilterLabel, String.join("|", universePrefixes));
     } else {
       // Check if it is a kubernetes deployment.
@@ -262,11 +263,9 @@ public class CustomerController extends AuthenticatedController {
           // provider for that universe is multi-az or not.
           final String nodePrefix = params.remove("nodePrefix");
           String completeNamespace = nodePrefix;
-          List<Universe> universes =  customer.getUniverses().stream()
-            .filter(u -> u.getUniverseDetails().nodePrefix.equals(nodePrefix))
-            .collect(Collectors.toList());
+          Universe universe = getUniverseByNodePrefix(customer, nodePrefix);
           Provider provider = Provider.get(UUID.fromString(
-            universes.get(0).getUniverseDetails().getPrimaryCluster().userIntent.provider));
+            universe.getUniverseDetails().getPrimaryCluster().userIntent.provider));
           if (PlacementInfoUtil.isMultiAZ(provider)) {
             completeNamespace = String.format("%s-(.*)", completeNamespace);
           }
@@ -320,13 +319,10 @@ public class CustomerController extends AuthenticatedController {
     // For a disk usage metric query, the mount point has to be modified to match the actual
     // mount point for an onprem universe.
     if (mqParams.metrics.contains("disk_usage")) {
-      List<Universe> universes =  customer.getUniverses().stream()
-        .filter(u -> u.getUniverseDetails().nodePrefix != null &&
-                     u.getUniverseDetails().nodePrefix.equals(nodePrefix))
-        .collect(Collectors.toList());
-      if (universes.get(0).getUniverseDetails().getPrimaryCluster().userIntent.providerType ==
+      Universe universe = getUniverseByNodePrefix(customer, nodePrefix);
+      if (universe.getUniverseDetails().getPrimaryCluster().userIntent.providerType ==
           CloudType.onprem) {
-        final String mountRoots = universes.get(0).getNodes().stream().
+        final String mountRoots = universe.getNodes().stream().
                                   filter(n -> n.cloudInfo != null &&
                                          n.cloudInfo.mount_roots != null &&
                                          !n.cloudInfo.mount_roots.isEmpty()).
@@ -348,4 +344,15 @@ public class CustomerController extends AuthenticatedController {
     }
     return filterOverrides;
   }
+
+  // Only the summaries are read to find the universe, so that the details of the other universes
+  // of the customer are not deserialized.
+  private static Universe getUniverseByNodePrefix(Customer customer, String nodePrefix) {
+    UniverseSummary summary = customer.getUniverseSummaries().stream()
+      .filter(s -> nodePrefix.equals(s.nodePrefix))
+      .findFirst()
+      .orElseThrow(() -> new RuntimeException("Cannot find universe with node prefix " +
+                                              nodePrefix));
+    return Universe.get(summary.universeUUID);
+  }
 }
@@ -81,7 +81,7 @@ public class EncryptionAtRestController extends AuthenticatedController {
 
             ObjectNode resultNode = (ObjectNode) Json.newObject();
             resultNode.put("taskUUID", taskUUID.toString());
-            Audit.createAuditEntry(ctx(), request(), formData);
+            Audit.createAuditEntry(ctx(), request(), formData, true);
             return Results.status(OK, resultNode);
         } catch (Exception e) {
             final String errMsg = "Error caught attempting to create KMS configuration";
@@ -167,7 +167,7 @@ public class EncryptionAtRestController extends AuthenticatedController {
 
             ObjectNode resultNode = (ObjectNode) Json.newObject();
             resultNode.put("taskUUID", taskUUID.toString());
-            Audit.createAuditEntry(ctx(), request());
+            Audit.createAuditEntry(ctx(), request(), null, true);
             return Results.status(OK, resultNode);
         } catch (Exception e) {
             final String errMsg = "Error caught attempting to delete KMS configuration";
@@ -199,7 +199,7 @@ public class EncryptionAtRestController extends AuthenticatedController {
             ObjectNode result = Json.newObject()
                     .put("reference", keyRef)
                     .put("value", Base64.getEncoder().encodeToString(recoveredKey));
-            Audit.createAuditEntry(ctx(), request(), formData);
+            Audit.createAuditEntry(ctx(), request(), formData, true);
             return ApiResponse.success(result);
         } catch (Exception e) {
             final String errMsg = String.format(
@@ -243,7 +243,7 @@ public class EncryptionAtRestController extends AuthenticatedController {
         ));
         try {
             keyManager.cleanupEncryptionAtRest(customerUUID, universeUUID);
-            Audit.createAuditEntry(ctx(), request());
+            Audit.createAuditEntry(ctx(), request(), null, true);
             return ApiResponse.success("Key ref was successfully removed");
         } catch (Exception e) {
             return ApiResponse.error(BAD_REQUEST, e.getMessage());
@@ -10,6 +10,7 @@
 
 package com.yugabyte.yw.controllers;
 
+import akka.util.ByteString;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.google.inject.Inject;
 import com.yugabyte.yw.common.ApiResponse;
@@ -19,17 +20,23 @@ import com.yugabyte.yw.models.PlatformInstance;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.libs.Files;
+import play.libs.Json;
 import play.mvc.*;
 
 import java.io.File;
 import java.util.Map;
 import java.util.Date;
+import java.util.regex.Pattern;
 
 @With(HAAuthenticator.class)
 public class InternalHAController extends Controller {
 
   public static final Logger LOG = LoggerFactory.getLogger(InternalHAController.class);
 
+  // Names of the backups created by yb_platform_backup.sh, nothing that could escape the
+  // replication directory.
+  private static final Pattern BACKUP_FILE_NAME = Pattern.compile("backup_[\\w.-]+\\.tgz");
+
   private final PlatformReplicationManager replicationManager;
 
   @Inject
@@ -138,6 +145,87 @@ public class InternalHAController extends Controller {
     }
   }
 
+  // Common checks of the chunked upload requests, returns the error to send back if any.
+  private Result checkUploadRequest(String fileName, String leader) {
+    if (!BACKUP_FILE_NAME.matcher(fileName).matches()) {
+      return ApiResponse.error(BAD_REQUEST, "Invalid backup file name: " + fileName);
+    }
+
+    HighAvailabilityConfig config = HighAvailabilityConfig.getByClusterKey(this.getClusterKey());
+    if (config.getLocal() != null && leader.equals(config.getLocal().getAddress())) {
+      return ApiResponse.error(BAD_REQUEST,
+        "Backup originated on the node itself. Leader: " + leader);
+    }
+
+    // The leader names the directory the backup is stored in, so only the addresses of the
+    // instances synced by the leader are accepted.
+    if (config.getInstances().stream().noneMatch(i -> leader.equals(i.getAddress()))) {
+      return ApiResponse.error(BAD_REQUEST, "Unknown leader: " + leader);
+    }
+
+    return null;
+  }
+
+  private Result checkUploadRequest(String fileName, String leader, String sender) {
+    if (!leader.equals(sender)) {
+      return ApiResponse.error(BAD_REQUEST, "Sender: " + sender +
+        " does not match leader: " + leader);
+    }
+
+    return checkUploadRequest(fileName, leader);
+  }
+
+  public Result getUploadOffset(String fileName, String leader) {
+    Result error = checkUploadRequest(fileName, leader);
+    if (error != null) {
+      return error;
+    }
+
+    long offset = replicationManager.getReplicationUploadOffset(leader, fileName);
+
+    return ApiResponse.success(Json.newObject().put("offset", offset));
+  }
+
+  @BodyParser.Of(BodyParser.Raw.class)
+  public Result uploadChunk(String fileName, String leader, String sender, long offset,
+                            long crc) {
+    Result error = checkUploadRequest(fileName, leader, sender);
+    if (error != null) {
+      return error;
+    }
+
+    int maxChunkSize = replicationManager.getReplicationChunkSize();
+    Http.RawBuffer body = request().body().asRaw();
+    ByteString chunk = body == null ? null : body.asBytes(maxChunkSize);
+    if (chunk == null) {
+      return ApiResponse.error(REQUEST_ENTITY_TOO_LARGE,
+        "Backup chunk is larger than " + maxChunkSize + " bytes");
+    }
+    byte[] data = chunk.toArray();
+
+    if (!replicationManager.saveReplicationChunk(leader, fileName, offset, data, crc)) {
+      return ApiResponse.error(BAD_REQUEST, "Rejected backup chunk at offset " + offset +
+        ", current offset is " + replicationManager.getReplicationUploadOffset(leader, fileName));
+    }
+
+    return ApiResponse.success(Json.newObject().put("offset", offset + data.length));
+  }
+
+  public Result completeUpload(String fileName, String leader, String sender, long size,
+                               String checksum) {
+    Result error = checkUploadRequest(fileName, leader, sender);
+    if (error != null) {
+      return error;
+    }
+
+    if (!replicationManager.completeReplicationUpload(leader, fileName, size, checksum)) {
+      return ApiResponse.error(BAD_REQUEST, "Backup does not match size " + size +
+        " and checksum " + checksum);
+    }
+
+    return ApiResponse.success(Json.newObject().put("offset", size));
+  }
+
   public Result demoteLocalLeader(long timestamp) {
     try {
       HighAvailabilityConfig config = HighAvailabilityConfig.getByClusterKey(this.getClusterKey());
@@ -867,7 +867,8 @@ public class UniverseController extends AuthenticatedController {
   }
 
   /**
-   * List the universes for a given customer.
+   * List the universes for a given customer. With the summary query parameter set to true, only
+   * the uuid, name, version, node prefix and node count of each universe are returned.
    *
    * @return
    */
@@ -877,6 +878,9 @@ public class UniverseController extends AuthenticatedController {
     if (customer == null) {
       return ApiResponse.error(BAD_REQUEST, "Invalid Customer UUID: " + customerUUID);
     }
+    if (Boolean.parseBoolean(request().getQueryString("summary"))) {
+      return ApiResponse.success(customer.getUniverseSummaries());
+    }
     ArrayNode universes = Json.newArray();
     // TODO: Restrict the list api json payload, possibly to only include UUID, Name etc
     for (Universe universe: customer.getUniverses()) {
@@ -1453,7 +1457,7 @@ public class UniverseController extends AuthenticatedController {
   /**
    * API that checks the health of all the tservers and masters in the universe, as well as certain
    * conditions on the machines themselves, such as disk utilization, presence of FATAL or core
-   * files, etc.
+   * files, etc. The "offset" and "limit" query parameters page through the stored checks.
    *
    * @return result of the checker script
    */
@@ -1469,14 +1473,22 @@ public class UniverseController extends AuthenticatedController {
 
     // Get alive status
     try {
-      List<HealthCheck> checks = HealthCheck.getAll(universeUUID);
-      if (checks == null) {
-        return ApiResponse.error(BAD_REQUEST, "No health check record for universe UUID: "
-          + universeUUID);
+      // Pages go from the most recent check, each page is returned oldest first.
+      int offset = 0;
+      int limit = HealthCheck.RECORD_LIMIT;
+      if (request().getQueryString("offset") != null) {
+        offset = Integer.parseInt(request().getQueryString("offset"));
+      }
+      if (request().getQueryString("limit") != null) {
+        limit = Integer.parseInt(request().getQueryString("limit"));
+      }
+      if (offset < 0 || limit <= 0) {
+        return ApiResponse.error(BAD_REQUEST, "Invalid offset or limit.");
       }
+      List<HealthCheck> checks = HealthCheck.getPage(universeUUID, offset, limit);
       ArrayNode detailsList = Json.newArray();
-      for (HealthCheck check : checks) {
-        detailsList.add(Json.stringify(Json.parse(check.detailsJson)));
+      for (int i = checks.size() - 1; i >= 0; i--) {
+        detailsList.add(checks.get(i).getDetailsJson());
       }
       return ApiResponse.success(detailsList);
     } catch (RuntimeException e) {
@@ -1484,6 +1496,19 @@ public class UniverseController extends AuthenticatedController {
     }
   }
 
+  /**
+   * API that returns the result of each check on each node for the latest health check of the
+   * universe, without the details of the checks.
+   */
+  public Result healthCheckStatus(UUID customerUUID, UUID universeUUID) {
+    try {
+      checkCallValid(customerUUID, universeUUID);
+      return ApiResponse.success(HealthCheck.getLatestNodeStatuses(universeUUID));
+    } catch (RuntimeException e) {
+      return ApiResponse.error(BAD_REQUEST, e.getMessage());
+    }
+  }
+
   /**
    * Endpoint to retrieve the IP of the master leader for a given universe.
    *
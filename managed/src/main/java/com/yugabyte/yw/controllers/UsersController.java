@@ -106,7 +106,7 @@ public class UsersController extends AuthenticatedController {
             .put("email", formData.get().email)
             .put("role", formData.get().role.name())
             .put("customerUUID", customerUUID.toString());
-    Audit.createAuditEntry(ctx(), request(), userInfo);
+    Audit.createAuditEntry(ctx(), request(), userInfo, true);
     return ApiResponse.success(user);
 
   }
@@ -137,7 +137,7 @@ public class UsersController extends AuthenticatedController {
     if (user.delete()) {
       ObjectNode responseJson = Json.newObject();
       responseJson.put("success", true);
-      Audit.createAuditEntry(ctx(), request());
+      Audit.createAuditEntry(ctx(), request(), null, true);
       return ApiResponse.success(responseJson);
     } else {
       return ApiResponse.error(INTERNAL_SERVER_ERROR, "Unable to delete User UUID: " + userUUID);
@@ -177,7 +177,7 @@ public class UsersController extends AuthenticatedController {
     } else {
       return ApiResponse.error(BAD_REQUEST, "Invalid Request");
     }
-    Audit.createAuditEntry(ctx(), request());
+    Audit.createAuditEntry(ctx(), request(), null, true);
     return ApiResponse.success();
   }
 
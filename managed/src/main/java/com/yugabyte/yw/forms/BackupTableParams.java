@@ -57,12 +57,23 @@ public class BackupTableParams extends TableManagerParams {
   // Should the backup be transactional across tables
   public boolean transactionalBackup = false;
 
-  // The number of concurrent commands to run on nodes over SSH
+  // The number of concurrent commands to run on nodes over SSH. For a full universe backup, this
+  // is shared by the table/keyspace backups running at the same time.
   public int parallelism = 8;
 
   // The associated schedule UUID (if applicable)
   public UUID scheduleUUID = null;
 
+  // Maximum number of table/keyspace backups of a full universe backup that run at the same time.
+  // When 0, yb.backup.max_concurrent_table_backups of the universe runtime config is used.
+  public int maxConcurrentTableBackups = 0;
+
+  // Progress of a table/keyspace backup that is part of the backupList of a universe backup.
+  public boolean backupCompleted = false;
+  public int backupAttempts = 0;
+  public long backupTimeMs = 0L;
+  public long backupSizeInBytes = 0L;
+
   @JsonIgnore
   public Set<String> getTableNames() {
     Set<String> tableNames = new HashSet<>();
@@ -46,4 +46,8 @@ public class UpgradeParams extends UniverseDefinitionTaskParams {
 
   public UpgradeOption upgradeOption = UpgradeOption.ROLLING_UPGRADE;
 
+  // Maximum number of tservers of the same availability zone restarted together by a rolling
+  // upgrade. With 1, tservers are restarted one at a time.
+  public int rollingUpgradeBatchSize = 1;
+
 }
@@ -6,6 +6,7 @@ package com.yugabyte.yw.metrics;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.yugabyte.yw.common.ApiHelper;
+import com.yugabyte.yw.common.ApiResponse;
 import com.yugabyte.yw.models.MetricConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,6 +17,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 public class MetricQueryExecutor implements Callable<JsonNode> {
   public static final Logger LOG = LoggerFactory.getLogger(MetricQueryExecutor.class);
@@ -72,38 +75,57 @@ public class MetricQueryExecutor implements Callable<JsonNode> {
     return metricsUrl;
   }
 
-  private JsonNode getMetrics() {
+  private CompletionStage<JsonNode> getMetrics(Map<String, String> params) {
     boolean useNativeMetrics = appConfig.getBoolean("yb.metrics.useNative", false);
     if (useNativeMetrics) {
-      return ybMetricQueryComponent.query(queryParam);
+      return CompletableFuture.completedFuture(ybMetricQueryComponent.query(params));
     } else {
-        if (queryParam.containsKey("end")) {
+        if (params.containsKey("end")) {
         this.queryUrl = this.getMetricsUrl() + "/query_range";
       } else {
         this.queryUrl = this.getMetricsUrl() + "/query";
       }
 
-      LOG.trace("Executing metric query {}: {}", queryUrl, queryParam);
-      return apiHelper.getRequest(queryUrl, new HashMap<>(), queryParam);
+      LOG.trace("Executing metric query {}: {}", queryUrl, params);
+      // A failed request is reported like an error returned by prometheus.
+      return apiHelper.getRequestAsync(queryUrl, new HashMap<>(), params)
+        .exceptionally(e -> ApiResponse.errorJSON(e.getMessage()));
     }
   }
 
   @Override
   public JsonNode call() {
+    return callAsync().toCompletableFuture().join();
+  }
+
+  /**
+   * Sends the queries of the metric at once and combines their responses when they have all
+   * arrived.
+   */
+  public CompletionStage<JsonNode> callAsync() {
     MetricConfig config = MetricConfig.get(queryParam.get("queryKey"));
     ObjectNode responseJson = Json.newObject();
     responseJson.put("queryKey", queryParam.get("queryKey"));
 
     if (config == null) {
       responseJson.put("error", "Invalid Query Key");
-    } else {
-      Map<String, String> queries = config.getQueries(additionalFilters, this.queryRangeSecs);
-      responseJson.set("layout", Json.toJson(config.getLayout()));
+      return CompletableFuture.completedFuture(responseJson);
+    }
+    Map<String, String> queries = config.getQueries(additionalFilters, this.queryRangeSecs);
+    responseJson.set("layout", Json.toJson(config.getLayout()));
+    List<String> metrics = new ArrayList<>();
+    List<CompletableFuture<JsonNode>> responses = new ArrayList<>();
+    for (Map.Entry<String, String> e : queries.entrySet()) {
+      Map<String, String> params = new HashMap<>(queryParam);
+      params.put("query", e.getValue());
+      metrics.add(e.getKey());
+      responses.add(getMetrics(params).toCompletableFuture());
+    }
+
+    return CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).thenApply(v -> {
       List<MetricGraphData> output = new ArrayList<>();
-      for (Map.Entry<String, String> e : queries.entrySet()) {
-        String metric = e.getKey();
-        queryParam.put("query", e.getValue());
-        JsonNode queryResponseJson = getMetrics();
+      for (int i = 0; i < metrics.size(); i++) {
+        JsonNode queryResponseJson = responses.get(i).join();
         if (queryResponseJson == null) {
           responseJson.set("data", Json.toJson(new ArrayList<>()));
 
@@ -115,12 +137,11 @@ public class MetricQueryExecutor implements Callable<JsonNode> {
           responseJson.put("error", queryResponse.error);
           break;
         } else {
-          output.addAll(queryResponse.getGraphData(metric, config.getLayout()));
+          output.addAll(queryResponse.getGraphData(metrics.get(i), config.getLayout()));
         }
       }
       responseJson.set("data", Json.toJson(output));
-    }
-
-    return responseJson;
+      return responseJson;
+    });
   }
 }
@@ -15,24 +15,19 @@ import org.slf4j.LoggerFactory;
 import play.libs.Json;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 @Singleton
 public class MetricQueryHelper {
 
   public static final Logger LOG = LoggerFactory.getLogger(MetricQueryHelper.class);
   public static final Integer STEP_SIZE =  100;
-  public static final Integer QUERY_EXECUTOR_THREAD_POOL = 5;
   @Inject
   play.Configuration appConfig;
 
@@ -63,6 +58,18 @@ public class MetricQueryHelper {
    * @return MetricQueryResponse Object
    */
   public JsonNode query(
+    List<String> metricKeys,
+    Map<String, String> params,
+    Map<String, Map<String, String>> filterOverrides) {
+    return queryAsync(metricKeys, params, filterOverrides).toCompletableFuture().join();
+  }
+
+  /**
+   * Same as query, without blocking: the queries of all the metrics are sent at once, and the
+   * returned stage is completed when all their responses have arrived. Invalid params are still
+   * reported by throwing.
+   */
+  public CompletionStage<JsonNode> queryAsync(
     List<String> metricKeys,
     Map<String, String> params,
     Map<String, Map<String, String>> filterOverrides) {
@@ -100,11 +107,10 @@ public class MetricQueryHelper {
     boolean useNativeMetrics = appConfig.getBoolean("yb.metrics.useNative", false);
     if ((null == metricsUrl || metricsUrl.isEmpty()) && !useNativeMetrics) {
       LOG.error("Error fetching metrics data: no prometheus metrics URL configured");
-      return responseJson;
+      return CompletableFuture.completedFuture(responseJson);
     }
 
-    ExecutorService threadPool = Executors.newFixedThreadPool(QUERY_EXECUTOR_THREAD_POOL);
-    Set<Future<JsonNode>> futures = new HashSet<Future<JsonNode>>();
+    List<CompletableFuture<JsonNode>> futures = new ArrayList<>();
     for (String metricKey : metricKeys) {
       Map<String, String> queryParams = params;
       queryParams.put("queryKey", metricKey);
@@ -114,30 +120,32 @@ public class MetricQueryHelper {
         additionalFilters.putAll(specificFilters);
       }
 
-      Callable<JsonNode> callable = new MetricQueryExecutor(appConfig, apiHelper,
-                                                            queryParams, additionalFilters,
-                                                            ybMetricQueryComponent);
-      Future<JsonNode> future = threadPool.submit(callable);
-      futures.add(future);
-    }
-
-
-    for (Future<JsonNode> future : futures) {
-      JsonNode response = Json.newObject();
+      MetricQueryExecutor executor = new MetricQueryExecutor(appConfig, apiHelper,
+                                                             queryParams, additionalFilters,
+                                                             ybMetricQueryComponent);
+      CompletableFuture<JsonNode> future;
       try {
-        response = future.get();
-      } catch (InterruptedException e) {
-        LOG.error("Error fetching metrics data: {}", e.getMessage());
-        e.printStackTrace();
-      } catch (ExecutionException e) {
-        LOG.error("Error fetching metrics data: {}", e.getMessage());
-        e.printStackTrace();
+        future = executor.callAsync().toCompletableFuture();
+      } catch (RuntimeException e) {
+        future = new CompletableFuture<>();
+        future.completeExceptionally(e);
       }
-
-      responseJson.set(response.get("queryKey").asText(), response);
+      futures.add(future.exceptionally(e -> {
+        LOG.error("Error fetching metrics data: {}", e.getMessage());
+        ObjectNode errorJson = Json.newObject();
+        errorJson.put("queryKey", metricKey);
+        errorJson.put("error", e.getMessage());
+        return errorJson;
+      }));
     }
-    threadPool.shutdown();
-    return responseJson;
+
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(v -> {
+      for (CompletableFuture<JsonNode> future : futures) {
+        JsonNode response = future.join();
+        responseJson.set(response.get("queryKey").asText(), response);
+      }
+      return responseJson;
+    });
   }
 
 
@@ -158,11 +166,7 @@ public class MetricQueryHelper {
    * The return type is a set of labels for each metric and an array of time-stamped values
    */
   public ArrayList<MetricQueryResponse.Entry> queryDirect(String promQueryExpression) {
-    final String metricsUrl = appConfig.getString("yb.metrics.url");
-    if (metricsUrl == null || metricsUrl.isEmpty()) {
-      throw new RuntimeException("yb.metrics.url not set");
-    }
-    final String queryUrl = metricsUrl + "/query";
+    final String queryUrl = getDirectQueryUrl();
 
     HashMap<String, String> getParams = new HashMap<>();
     getParams.put("query", promQueryExpression);
@@ -170,6 +174,35 @@ public class MetricQueryHelper {
                                     queryUrl,
                                     new HashMap<>(), /*headers*/
                                     getParams);
+    return parseDirectResponse(responseJson);
+  }
+
+  /**
+   * Same as queryDirect, without blocking.
+   *
+   * @param timeout deadline of the query
+   * @return a stage completed with the values, or completed exceptionally if the query failed
+   * or timed out.
+   */
+  public CompletionStage<ArrayList<MetricQueryResponse.Entry>> queryDirectAsync(
+    String promQueryExpression, Duration timeout) {
+    final String queryUrl = getDirectQueryUrl();
+
+    HashMap<String, String> getParams = new HashMap<>();
+    getParams.put("query", promQueryExpression);
+    return apiHelper.getRequestAsync(queryUrl, new HashMap<>(), getParams, timeout)
+      .thenApply(this::parseDirectResponse);
+  }
+
+  private String getDirectQueryUrl() {
+    final String metricsUrl = appConfig.getString("yb.metrics.url");
+    if (metricsUrl == null || metricsUrl.isEmpty()) {
+      throw new RuntimeException("yb.metrics.url not set");
+    }
+    return metricsUrl + "/query";
+  }
+
+  private ArrayList<MetricQueryResponse.Entry> parseDirectResponse(JsonNode responseJson) {
     final MetricQueryResponse metricResponse = Json.fromJson(
                                                   responseJson,
                                                   MetricQueryResponse.class);
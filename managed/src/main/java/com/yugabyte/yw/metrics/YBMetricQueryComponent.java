@@ -3,10 +3,12 @@ package com.yugabyte.yw.metrics;
 
 import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.JdkSSLOptions;
+import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.SSLOptions;
+import com.datastax.driver.core.exceptions.DriverException;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -40,10 +42,10 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.NavigableMap;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLEngine;
@@ -61,6 +63,7 @@ import org.yb.client.YBClient;
 import org.yb.util.ServerInfo;
 
 import play.Configuration;
+import play.inject.ApplicationLifecycle;
 import play.libs.Json;
 
 @Singleton
@@ -106,8 +109,10 @@ public class YBMetricQueryComponent {
                                                 "\"result\":%s}}";
 
   private static final String METRICS_TABLE = "system.metrics";
-  private static final String QUERY_FORMAT = "select * from %s where metric = '%s' " +
-                                             "and node = '%s' and ts >= %d and ts < %d";
+  // Selects a metric of several tservers at once, to be split by tserver client side.
+  private static final String QUERY = "select node, metric, ts, value, details from " +
+                                      METRICS_TABLE + " where node in ? and metric = ? " +
+                                      "and ts >= ? and ts < ?";
 
   // Array of metrics whose values should be retrieved from details column instead of value column.
   private static final List<String> METRICS_WITH_DETAILS_VALUE = Arrays.asList(
@@ -127,6 +132,9 @@ public class YBMetricQueryComponent {
   public String CPU_USAGE_SYSTEM_STRING = "cpu_usage_system";
 
 
+  // Sessions to the universes are closed after being unused for this long.
+  private static final long IDLE_CONNECTION_TIMEOUT_MS = 10 * 60 * 1000;
+
   @Inject
   YBClientService ybService;
 
@@ -135,30 +143,158 @@ public class YBMetricQueryComponent {
     Average
   }
 
+  // Long-lived sessions to the universes, by universe UUID. Guarded by this.
+  private final Map<UUID, CassandraConnection> connections = new HashMap<>();
+
+  @Inject
+  public YBMetricQueryComponent(ApplicationLifecycle lifecycle) {
+    lifecycle.addStopHook(() -> {
+      closeCassandraConnections();
+      return CompletableFuture.completedFuture(null);
+    });
+  }
+
   private class CassandraConnection {
-    Cluster cluster = null;
-    Session session = null;
+    // Contact points and certificate the connection was created with.
+    final String key;
+    private final List<InetSocketAddress> addresses;
+    private final String certificate;
+    // Completed once connected. The connection is made by the query that created it, outside of
+    // the lock, and the queries using it at the same time wait for it.
+    private final CompletableFuture<Void> connected = new CompletableFuture<>();
+    private Cluster cluster;
+    Session session;
+    // Selects a metric of a list of tservers.
+    PreparedStatement selectMetric;
+
+    // Guarded by YBMetricQueryComponent.this.
+    long lastUsedMs;
+    // The number of queries using the connection.
+    int numUsers;
+    // Set once the connection is removed from the connections, it is closed with its last user.
+    boolean retired;
+
+    CassandraConnection(String key, List<InetSocketAddress> addresses, String certificate) {
+      this.key = key;
+      this.addresses = addresses;
+      this.certificate = certificate;
+    }
+
+    void connect() {
+      Cluster.Builder builder = Cluster.builder()
+                                .addContactPointsWithPorts(addresses);
+      if (certificate != null) {
+        builder.withSSL(SslHelper.getSSLOptions(certificate));
+      }
+      try {
+        cluster = builder.build();
+        session = cluster.connect();
+        selectMetric = session.prepare(QUERY);
+        connected.complete(null);
+      } catch (RuntimeException e) {
+        connected.completeExceptionally(e);
+        throw e;
+      }
+    }
+
+    void awaitConnected() {
+      try {
+        connected.join();
+      } catch (CompletionException e) {
+        throw e.getCause() instanceof RuntimeException ?
+            (RuntimeException) e.getCause() : e;
+      }
+    }
+
+    // Closing the cluster closes its session.
+    void close() {
+      if (cluster != null) {
+        cluster.closeAsync();
+      }
+    }
   }
 
-  private CassandraConnection createCassandraConnection(UUID universeUUID) {
-    CassandraConnection cc = new CassandraConnection();
-    List<InetSocketAddress> addresses = Util.getNodesAsInet(universeUUID);
+  /**
+   * Returns the session to the universe, connecting to it if there is no session yet, or if its
+   * nodes or certificate changed since. The connection must be released once the queries are done.
+   */
+  private CassandraConnection acquireCassandraConnection(Universe universe) {
+    List<InetSocketAddress> addresses = Util.getNodesAsInet(universe.universeUUID);
     if (addresses.isEmpty()) {
-      return cc;
-    }
-    Cluster.Builder builder = Cluster.builder()
-                              .addContactPointsWithPorts(addresses);
-    String certificate = Universe.get(universeUUID).getCertificate();
-    if (certificate != null) {
-      builder.withSSL(SslHelper.getSSLOptions(certificate));
+      return null;
     }
-    cc.cluster = builder.build();
+    String certificate = universe.getCertificate();
+    String key = addresses + "," + certificate;
+    CassandraConnection cc;
+    boolean connect = false;
+    synchronized (this) {
+      long now = System.currentTimeMillis();
+      Iterator<CassandraConnection> iter = connections.values().iterator();
+      while (iter.hasNext()) {
+        CassandraConnection idle = iter.next();
+        if (idle.numUsers == 0 && now - idle.lastUsedMs > IDLE_CONNECTION_TIMEOUT_MS) {
+          iter.remove();
+          retire(idle);
+        }
+      }
 
-    cc.session = cc.cluster.connect();
+      cc = connections.get(universe.universeUUID);
+      if (cc == null || !cc.key.equals(key)) {
+        if (cc != null) {
+          connections.remove(universe.universeUUID);
+          retire(cc);
+        }
+        cc = new CassandraConnection(key, addresses, certificate);
+        connections.put(universe.universeUUID, cc);
+        connect = true;
+      }
+      cc.numUsers++;
+      cc.lastUsedMs = now;
+    }
+    try {
+      if (connect) {
+        cc.connect();
+      } else {
+        cc.awaitConnected();
+      }
+    } catch (RuntimeException e) {
+      releaseCassandraConnection(universe.universeUUID, cc, true /* failed */);
+      throw e;
+    }
     return cc;
   }
 
-  private Double getValue(Row r) {
+  /**
+   * Releases a connection acquired for a query. A connection that failed is dropped, to reconnect
+   * on the next query.
+   */
+  private synchronized void releaseCassandraConnection(UUID universeUUID, CassandraConnection cc,
+                                                       boolean failed) {
+    cc.numUsers--;
+    if (failed && connections.get(universeUUID) == cc) {
+      connections.remove(universeUUID);
+      retire(cc);
+    } else if (cc.retired && cc.numUsers == 0) {
+      cc.close();
+    }
+  }
+
+  // Closes the connection, or lets its last user close it if it is in use. Called with the lock.
+  private void retire(CassandraConnection cc) {
+    cc.retired = true;
+    if (cc.numUsers == 0) {
+      cc.close();
+    }
+  }
+
+  private synchronized void closeCassandraConnections() {
+    for (CassandraConnection cc : connections.values()) {
+      retire(cc);
+    }
+    connections.clear();
+  }
+
+  private double getValue(Row r) {
     if (METRICS_WITH_DETAILS_VALUE.contains(r.getString("metric"))) {
       return Util.convertStringToJson(r.getString("details")).get("value").asDouble();
     } else {
@@ -208,22 +344,89 @@ public class YBMetricQueryComponent {
     return new TServerMappings(nameToUUID, uuidToIP);
   }
 
-  private ResultSet cassandraTserverSelectQuery(String metric, String tserverUUID,
-                                                Session session, Universe universe,
-                                                long startMs, long endMs) {
-    int count = 0;
-    ResultSet rs = null;
-    String queryString = String.format(QUERY_FORMAT, METRICS_TABLE, metric,
-                                       tserverUUID.toString(), (startMs * 1000),
-                                       (endMs * 1000));
-    return session.execute(queryString);
+  /**
+   * Values of a metric over time, in increasing timestamp order.
+   */
+  static class TimeSeries {
+    long[] timestampsSec;
+    double[] values;
+    int size;
+
+    TimeSeries(int capacity) {
+      timestampsSec = new long[Math.max(capacity, 1)];
+      values = new double[Math.max(capacity, 1)];
+    }
+
+    TimeSeries(long[] timestampsSec, double[] values) {
+      this.timestampsSec = timestampsSec;
+      this.values = values;
+      this.size = timestampsSec.length;
+    }
+
+    void add(long timestampSec, double value) {
+      if (size == timestampsSec.length) {
+        timestampsSec = Arrays.copyOf(timestampsSec, size * 2);
+        values = Arrays.copyOf(values, size * 2);
+      }
+      timestampsSec[size] = timestampSec;
+      values[size] = value;
+      size++;
+    }
+
+    // Adds a value, replacing the last one if it has the same timestamp.
+    void put(long timestampSec, double value) {
+      if (size > 0 && timestampsSec[size - 1] == timestampSec) {
+        values[size - 1] = value;
+      } else {
+        add(timestampSec, value);
+      }
+    }
+
+    void reverse() {
+      for (int i = 0, j = size - 1; i < j; i++, j--) {
+        long ts = timestampsSec[i];
+        timestampsSec[i] = timestampsSec[j];
+        timestampsSec[j] = ts;
+        double val = values[i];
+        values[i] = values[j];
+        values[j] = val;
+      }
+    }
+
+    boolean isEmpty() {
+      return size == 0;
+    }
   }
 
-  // Convert the map to the required output format.
-  private List<String> mapToStringList(Map<Long, Double> metrics) {
-    List<String> vals = new ArrayList<>();
-    for (Entry<Long, Double> entry : metrics.entrySet()) {
-      vals.add(String.format(DATA_ENTRY_FORMAT, entry.getKey(), entry.getValue()));
+  /**
+   * Returns the samples of a metric of the given tservers, by tserver UUID, with a single query
+   * for all the tservers.
+   */
+  private Map<String, TimeSeries> querySamples(CassandraConnection cc, String metric,
+                                               List<String> tserverUUIDs,
+                                               long startSec, long endSec) {
+    Map<String, TimeSeries> samples = new HashMap<>();
+    if (tserverUUIDs.isEmpty()) {
+      return samples;
+    }
+    ResultSet rs = cc.session.execute(cc.selectMetric.bind(
+        tserverUUIDs, metric, new Date(startSec * 1000), new Date(endSec * 1000)));
+    for (Row row : rs) {
+      TimeSeries series = samples.computeIfAbsent(row.getString("node"), node -> new TimeSeries(64));
+      series.add(row.getTimestamp("ts").getTime() / 1000, getValue(row));
+    }
+    // The samples of a tserver are returned in decreasing timestamp order.
+    for (TimeSeries series : samples.values()) {
+      series.reverse();
+    }
+    return samples;
+  }
+
+  // Convert the series to the required output format.
+  private List<String> toStringList(TimeSeries metrics) {
+    List<String> vals = new ArrayList<>(metrics.size);
+    for (int i = 0; i < metrics.size; i++) {
+      vals.add(String.format(DATA_ENTRY_FORMAT, metrics.timestampsSec[i], metrics.values[i]));
     }
     return vals;
   }
@@ -239,121 +442,144 @@ public class YBMetricQueryComponent {
     }
   }
 
-  public NavigableMap<Long, Double> calculateRate(List<ResultSet> results, Function function,
-                                              int numTservers) {
-    NavigableMap<Long, Double> timeRangeMap = new TreeMap<>();
-    for (ResultSet rs : results) {
-      long currTimestampSec = 0;
-      long prevTimestampSec = 0;
-      double currRate;
-      double currVal = 0;
-      double prevVal = 0;
-      boolean start = true;
-      Iterator<Row> rowIter = rs.iterator();
-      while (rowIter.hasNext()) {
-        Row row = rowIter.next();
-        currTimestampSec = row.getTimestamp("ts").getTime() / 1000;
-        currVal = getValue(row);
-        if (start) {
-          if (!rowIter.hasNext()) {
-            return timeRangeMap;
-          }
-          row = rowIter.next();
-          prevVal = currVal;
-          prevTimestampSec = currTimestampSec;
-          currTimestampSec = row.getTimestamp("ts").getTime() / 1000;
-          currVal = getValue(row);
-          start = false;
-        }
-        if (!rowIter.hasNext()) {
-          break;
-        } else {
-          currRate = (prevVal - currVal) /
-                     (prevTimestampSec - currTimestampSec);
-        }
-        Entry<Long, Double> entry = timeRangeMap.floorEntry(currTimestampSec);
-        // In case there is no entry lower than that, or the entry lower than the key
-        // is older than the range for the same timestamped metric.
-        if (entry == null || currTimestampSec - entry.getKey() > TIMESTAMP_RANGE_SECS) {
-          double calcVal = compute(function, 0.0, currRate, numTservers);
-          timeRangeMap.put(currTimestampSec, calcVal);
-        } else {
-          double calcVal = compute(function, entry.getValue(), currRate, numTservers);
-          timeRangeMap.put(entry.getKey(), calcVal);
+  /**
+   * Returns the points of all the series in a single series, in increasing timestamp order. The
+   * points with the same timestamp keep the order of their series in the list.
+   */
+  static TimeSeries mergePoints(List<TimeSeries> results) {
+    int numPoints = 0;
+    long minTimestampSec = Long.MAX_VALUE;
+    for (TimeSeries series : results) {
+      numPoints += series.size;
+      if (series.size > 0) {
+        minTimestampSec = Math.min(minTimestampSec, series.timestampsSec[0]);
+      }
+    }
+    long[] timestamps = new long[numPoints];
+    double[] values = new double[numPoints];
+    int n = 0;
+    for (TimeSeries series : results) {
+      System.arraycopy(series.timestampsSec, 0, timestamps, n, series.size);
+      System.arraycopy(series.values, 0, values, n, series.size);
+      n += series.size;
+    }
+    // Sort the points by timestamp offset then position, packed in longs to sort primitives.
+    long[] keys = new long[numPoints];
+    for (int i = 0; i < numPoints; i++) {
+      keys[i] = ((timestamps[i] - minTimestampSec) << 32) | i;
+    }
+    Arrays.sort(keys);
+    TimeSeries merged = new TimeSeries(numPoints);
+    for (long key : keys) {
+      int i = (int) key;
+      merged.add(timestamps[i], values[i]);
+    }
+    return merged;
+  }
+
+  /**
+   * Computes the rate of each series between consecutive samples, and combines the rates of the
+   * series with the given function. The rates within TIMESTAMP_RANGE_SECS of the first rate of a
+   * group are considered at the same timestamp, the one of that first rate.
+   */
+  public TimeSeries calculateRate(List<TimeSeries> results, Function function, int numTservers) {
+    List<TimeSeries> rates = new ArrayList<>(results.size());
+    for (TimeSeries series : results) {
+      TimeSeries rate = new TimeSeries(series.size - 1);
+      for (int i = 1; i < series.size; i++) {
+        long interval = series.timestampsSec[i] - series.timestampsSec[i - 1];
+        if (interval > 0) {
+          rate.add(series.timestampsSec[i - 1],
+                   (series.values[i] - series.values[i - 1]) / interval);
         }
-        prevVal = currVal;
-        prevTimestampSec = currTimestampSec;
+      }
+      rates.add(rate);
+    }
+
+    TimeSeries points = mergePoints(rates);
+    TimeSeries combined = new TimeSeries(points.size);
+    for (int i = 0; i < points.size; i++) {
+      long timestampSec = points.timestampsSec[i];
+      double value = points.values[i];
+      int last = combined.size - 1;
+      if (last < 0 || timestampSec - combined.timestampsSec[last] >= TIMESTAMP_RANGE_SECS) {
+        combined.add(timestampSec, compute(function, 0.0, value, numTservers));
+      } else {
+        combined.values[last] = compute(function, combined.values[last], value, numTservers);
       }
     }
-    return timeRangeMap;
+    return combined;
   }
 
-  private TreeMap<Long, Double> metricDivide(NavigableMap<Long, Double> metricsNum,
-                                             NavigableMap<Long, Double> metricsDenom) {
-    TreeMap<Long, Double> timeToVal = new TreeMap<>();
-    for (Entry<Long, Double> entry : metricsNum.entrySet()) {
-      Entry<Long, Double> entry2 = metricsDenom.floorEntry(entry.getKey());
-      if (entry2 != null && Math.abs(entry.getKey() - entry2.getKey()) < TIMESTAMP_RANGE_SECS) {
-        Double val = entry.getValue() / entry2.getValue();
+  /**
+   * Divides each value of metricsNum by the value of metricsDenom at the same timestamp, or
+   * at an earlier one within TIMESTAMP_RANGE_SECS, at the timestamp of the latter.
+   */
+  TimeSeries metricDivide(TimeSeries metricsNum, TimeSeries metricsDenom) {
+    TimeSeries timeToVal = new TimeSeries(metricsNum.size);
+    for (int i = 0; i < metricsNum.size; i++) {
+      long timestampSec = metricsNum.timestampsSec[i];
+      int floor = Arrays.binarySearch(metricsDenom.timestampsSec, 0, metricsDenom.size,
+                                      timestampSec);
+      if (floor < 0) {
+        floor = -floor - 2;
+      }
+      if (floor >= 0 &&
+          timestampSec - metricsDenom.timestampsSec[floor] < TIMESTAMP_RANGE_SECS) {
+        double val = metricsNum.values[i] / metricsDenom.values[floor];
         // Due to the metrics being written and read into/from a user table, we get
         // some rpcs when no workload is running. This causes the latency
         // graph to be jittery. The following code can be uncommented if we want
         // to get rid of the jitters/mark the values only when the RPC count is
         // significant.
         /*
-        Double val = 0.0;
-        if (entry2.getValue() > 10) {
-          val = entry.getValue() / entry2.getValue();
+        double val = 0.0;
+        if (metricsDenom.values[floor] > 10) {
+          val = metricsNum.values[i] / metricsDenom.values[floor];
         }
         */
-        timeToVal.put(entry2.getKey(), val);
+        timeToVal.put(metricsDenom.timestampsSec[floor], val);
       }
     }
     return timeToVal;
   }
 
-  private NavigableMap<Long, Double> convertToGb(List<ResultSet> results) {
+  private TimeSeries convertToGb(List<TimeSeries> results) {
     return divideByConstant(results, BYTES_IN_GB);
   }
 
-  private NavigableMap<Long, Double> divideByConstant(List<ResultSet> results, double denom) {
-    NavigableMap<Long, Double> timeRangeMap = new TreeMap<>();
-    for (ResultSet rs : results) {
-      Iterator<Row> rowIter = rs.iterator();
-      while (rowIter.hasNext()) {
-        Row row = rowIter.next();
-        long timestampSec = row.getTimestamp("ts").getTime() / 1000;
-        double val = (double) getValue(row) / denom;
-        timeRangeMap.put(timestampSec, val);
-      }
+  private TimeSeries divideByConstant(List<TimeSeries> results, double denom) {
+    TimeSeries points = mergePoints(results);
+    TimeSeries timeToVal = new TimeSeries(points.size);
+    for (int i = 0; i < points.size; i++) {
+      timeToVal.put(points.timestampsSec[i], points.values[i] / denom);
     }
-    return timeRangeMap;
+    return timeToVal;
   }
 
-  private List<ResultSet> queryRunner(String metricName, Session session,
-                                      Map<String, String> tserverMap,
-                                      JsonNode params, Universe universe,
-                                      long start, long end) {
-    List<ResultSet> results = new ArrayList<>();
+  // Returns the tservers to report the metrics of.
+  private List<String> getTserverUUIDs(Map<String, String> tserverMap, JsonNode params) {
+    List<String> tserverUUIDs = new ArrayList<>();
     // Check if metric needs to be reported for only a single tserver.
     if (params.has("exported_instance")) {
-      String tserverName = params.path("exported_instance").asText();
-      ResultSet rs = cassandraTserverSelectQuery(metricName,
-                                                 tserverMap.get(tserverName),
-                                                 session, universe,
-                                                 start, end);
-      if (rs != null && rs.iterator().hasNext()) {
-        results.add(rs);
+      String tserverUUID = tserverMap.get(params.path("exported_instance").asText());
+      if (tserverUUID != null) {
+        tserverUUIDs.add(tserverUUID);
       }
     } else {
-      // TODO: Maybe query for all tservers and split here rather than make more
-      // database calls.
-      for (Entry<String, String> entry : tserverMap.entrySet()) {
-        ResultSet rs = cassandraTserverSelectQuery(metricName, entry.getValue(),
-                                                   session, universe, start, end);
-        if (rs != null && rs.iterator().hasNext()) {
-          results.add(rs);
-        }
+      tserverUUIDs.addAll(tserverMap.values());
+    }
+    return tserverUUIDs;
+  }
+
+  private List<TimeSeries> queryRunner(String metricName, CassandraConnection cc,
+                                       Map<String, String> tserverMap,
+                                       JsonNode params, long start, long end) {
+    List<String> tserverUUIDs = getTserverUUIDs(tserverMap, params);
+    List<TimeSeries> results = new ArrayList<>();
+    for (TimeSeries series : querySamples(cc, metricName, tserverUUIDs, start, end).values()) {
+      if (!series.isEmpty()) {
+        results.add(series);
       }
     }
     return results;
@@ -362,16 +588,132 @@ public class YBMetricQueryComponent {
   /**
    * Utility function for inserting calculated metrics with the proper formatting.
    */
-  private void insertMetrics(List<String> totalMetrics, Map<Long, Double> newVals,
-                             String method) {
+  private void insertMetrics(List<String> totalMetrics, TimeSeries newVals, String method) {
     if (!newVals.isEmpty()) {
       totalMetrics.add(String.format(SERVICE_METRIC_FORMAT, method,
-                                      mapToStringList(newVals)));
+                                      toStringList(newVals)));
       // Note that we are passing a List<String> to the %s parameter and expecting
       // it to be serialized as [ s1, s2 ], which also matches the json array format
     }
   }
 
+  private void queryMetrics(String queryKey, CassandraConnection cc, Universe universe,
+                            TServerMappings tserverMaps, JsonNode params,
+                            long startTime, long endTime, List<String> metricResults) {
+    switch (queryKey) {
+      case "total_rpcs_per_sec":
+        for (String method : serviceMethods) {
+          String metricName = String.format(COUNT_METRIC_STRING, method);
+          List<TimeSeries> results = queryRunner(
+            metricName,
+            cc,
+            tserverMaps.nameToUUID,
+            params,
+            startTime,
+            endTime
+          );
+          TimeSeries metricsVals = calculateRate(results, Function.Sum, results.size());
+          insertMetrics(metricResults, metricsVals, method);
+        }
+        break;
+      case "tserver_ops_latency":
+        for (String method : serviceMethods) {
+          String metricCount = String.format(COUNT_METRIC_STRING, method);
+          String metricSum = String.format(SUM_METRIC_STRING, method);
+          List<TimeSeries> resultCount = queryRunner(
+            metricCount,
+            cc,
+            tserverMaps.nameToUUID,
+            params,
+            startTime,
+            endTime
+          );
+          List<TimeSeries> resultSum = queryRunner(
+            metricSum,
+            cc,
+            tserverMaps.nameToUUID,
+            params,
+            startTime,
+            endTime
+          );
+          TimeSeries metricsCount = calculateRate(resultCount, Function.Average,
+                                                  resultCount.size());
+          TimeSeries metricsSum = calculateRate(resultSum, Function.Average, resultSum.size());
+          TimeSeries metricsVals = metricDivide(metricsSum, metricsCount);
+          insertMetrics(metricResults, metricsVals, method);
+        }
+        break;
+      case "disk_usage":
+        List<TimeSeries> totalDiskRaw = queryRunner(
+          TOTAL_DISK_STRING,
+          cc,
+          tserverMaps.nameToUUID,
+          params,
+          startTime,
+          endTime
+        );
+        List<TimeSeries> freeDiskRaw = queryRunner(
+          FREE_DISK_STRING,
+          cc,
+          tserverMaps.nameToUUID,
+          params,
+          startTime,
+          endTime
+        );
+        insertMetrics(metricResults, convertToGb(totalDiskRaw), "size");
+        insertMetrics(metricResults, convertToGb(freeDiskRaw), "free");
+        break;
+      case "cpu_usage":
+        List<TimeSeries> userCpuRaw = queryRunner(
+          CPU_USAGE_USER_STRING,
+          cc,
+          tserverMaps.nameToUUID,
+          params,
+          startTime,
+          endTime
+        );
+        List<TimeSeries> systemCpuRaw = queryRunner(
+          CPU_USAGE_SYSTEM_STRING,
+          cc,
+          tserverMaps.nameToUUID,
+          params,
+          startTime,
+          endTime
+        );
+        insertMetrics(metricResults, divideByConstant(userCpuRaw, 0.01), "user");
+        insertMetrics(metricResults, divideByConstant(systemCpuRaw, 0.01), "system");
+        break;
+      case "node_up":
+        List<String> tserverUUIDs = getTserverUUIDs(tserverMaps.nameToUUID, params);
+        Map<String, TimeSeries> results = querySamples(cc, "node_up", tserverUUIDs,
+                                                       startTime, endTime);
+        for (Entry<String, TimeSeries> nodeUpMetric : results.entrySet()) {
+          String nodeIP = tserverMaps.uuidToIP.get(nodeUpMetric.getKey());
+          if (nodeIP == null || nodeUpMetric.getValue().isEmpty()) {
+            continue;
+          }
+          List<String> vals = toStringList(nodeUpMetric.getValue());
+          metricResults.add(String.format(
+            NODE_METRIC_FORMAT,
+            nodeIP,
+            universe.getUniverseDetails().communicationPorts.masterHttpPort,
+            vals
+          ));
+          metricResults.add(String.format(
+            NODE_METRIC_FORMAT,
+            nodeIP,
+            universe.getUniverseDetails().communicationPorts.tserverHttpPort,
+            vals
+          ));
+          // Note that we are passing a List<String> to the %s parameter and expecting
+          // it to be serialized as [ s1, s2 ], which also matches the json array format
+        }
+        break;
+      default:
+        LOG.warn("Query: " + queryKey + " not supported.");
+    }
+  }
+
   /**
    * Query the metrics table in YB for a given metricType and query params
    * @param queryParams, Query params like start, end timestamps, even filters
@@ -407,177 +749,20 @@ public class YBMetricQueryComponent {
       }
       universe = Universe.get(universe.universeUUID);
       TServerMappings tserverMaps = getTservers(universe);
-      CassandraConnection cc = null;
-
-      switch (queryKey) {
-        case "total_rpcs_per_sec":
-          cc = createCassandraConnection(universe.universeUUID);
-          if (cc.session == null) {
-            return responseJson;
-          }
-          for (String method : serviceMethods) {
-            String metricName = String.format(COUNT_METRIC_STRING, method);
-            List<ResultSet> results = queryRunner(
-              metricName,
-              cc.session,
-              tserverMaps.nameToUUID,
-              params,
-              universe,
-              startTime,
-              endTime
-            );
-            NavigableMap<Long, Double> metricsVals = calculateRate(results, Function.Sum,
-                                                                   results.size());
-            insertMetrics(metricResults, metricsVals, method);
-          }
-          break;
-        case "tserver_ops_latency":
-          cc = createCassandraConnection(universe.universeUUID);
-          if (cc.session == null) {
-            return responseJson;
-          }
-          for (String method : serviceMethods) {
-            String metricCount = String.format(COUNT_METRIC_STRING, method);
-            String metricSum = String.format(SUM_METRIC_STRING, method);
-            List<ResultSet> resultCount = queryRunner(
-              metricCount,
-              cc.session,
-              tserverMaps.nameToUUID,
-              params,
-              universe,
-              startTime,
-              endTime
-            );
-            List<ResultSet> resultSum = queryRunner(
-              metricSum,
-              cc.session,
-              tserverMaps.nameToUUID,
-              params,
-              universe,
-              startTime,
-              endTime
-            );
-            NavigableMap<Long, Double> metricsCount = calculateRate(resultCount, Function.Average,
-                                                                    resultCount.size());
-            NavigableMap<Long, Double> metricsSum = calculateRate(resultSum, Function.Average,
-                                                                  resultSum.size());
-            TreeMap<Long, Double> metricsVals = metricDivide(metricsSum, metricsCount);
-            insertMetrics(metricResults, metricsVals, method);
-          }
-          break;
-        case "disk_usage":
-          cc = createCassandraConnection(universe.universeUUID);
-          if (cc.session == null) {
-            return responseJson;
-          }
-          List<ResultSet> totalDiskRaw = queryRunner(
-            TOTAL_DISK_STRING,
-            cc.session,
-            tserverMaps.nameToUUID,
-            params,
-            universe,
-            startTime,
-            endTime
-          );
-          List<ResultSet> freeDiskRaw = queryRunner(
-            FREE_DISK_STRING,
-            cc.session,
-            tserverMaps.nameToUUID,
-            params,
-            universe,
-            startTime,
-            endTime
-          );
-          NavigableMap<Long, Double> totalDiskMetrics = convertToGb(totalDiskRaw);
-          NavigableMap<Long, Double> freeDiskMetrics = convertToGb(freeDiskRaw);
-          insertMetrics(metricResults, totalDiskMetrics, "size");
-          insertMetrics(metricResults, freeDiskMetrics, "free");
-          break;
-        case "cpu_usage":
-          cc = createCassandraConnection(universe.universeUUID);
-          if (cc.session == null) {
-            return responseJson;
-          }
-          List<ResultSet> userCpuRaw = queryRunner(
-            CPU_USAGE_USER_STRING,
-            cc.session,
-            tserverMaps.nameToUUID,
-            params,
-            universe,
-            startTime,
-            endTime
-          );
-          List<ResultSet> systemCpuRaw = queryRunner(
-            CPU_USAGE_SYSTEM_STRING,
-            cc.session,
-            tserverMaps.nameToUUID,
-            params,
-            universe,
-            startTime,
-            endTime
-          );
-          NavigableMap<Long, Double> userCpuMetrics = divideByConstant(userCpuRaw, 0.01);
-          NavigableMap<Long, Double> systemCpuMetrics = divideByConstant(systemCpuRaw, 0.01);
-          insertMetrics(metricResults, userCpuMetrics, "user");
-          insertMetrics(metricResults, systemCpuMetrics, "system");
-          break;
-        case "node_up":
-          cc = createCassandraConnection(universe.universeUUID);
-          if (cc.session == null) {
-            return responseJson;
-          }
-          List<ResultSet> results = queryRunner(
-            "node_up",
-            cc.session,
-            tserverMaps.nameToUUID,
-            params,
-            universe,
-            startTime,
-            endTime
-          );
-          Map<String, List<String>> nodeUpMetrics = new HashMap<>();
-          for (ResultSet rs : results) {
-            Iterator<Row> rowIter = rs.iterator();
-            while (rowIter.hasNext()) {
-              Row row = rowIter.next();
-              String nodeIP = tserverMaps.uuidToIP.get(row.getString("node"));
-
-              if (null != nodeIP) {
-                long timestampSec = row.getTimestamp("ts").getTime() / 1000;
-                double val = (double) getValue(row);
-                String valStr = String.format(DATA_ENTRY_FORMAT, timestampSec, val);
-
-                if (null == nodeUpMetrics.get(nodeIP)) {
-                  nodeUpMetrics.put(nodeIP, new ArrayList<String>());
-                }
-                nodeUpMetrics.get(nodeIP).add(valStr);
-              }
-            }
-          }
-
-          for (Entry<String, List<String>> nodeUpMetric : nodeUpMetrics.entrySet()) {
-            metricResults.add(String.format(
-              NODE_METRIC_FORMAT,
-              nodeUpMetric.getKey(),
-              universe.getUniverseDetails().communicationPorts.masterHttpPort,
-              nodeUpMetric.getValue()
-            ));
-            metricResults.add(String.format(
-              NODE_METRIC_FORMAT,
-              nodeUpMetric.getKey(),
-              universe.getUniverseDetails().communicationPorts.tserverHttpPort,
-              nodeUpMetric.getValue()
-            ));
-            // Note that we are passing a List<String> to the %s parameter and expecting
-            // it to be serialized as [ s1, s2 ], which also matches the json array format
-          }
-          break;
-        default:
-          LOG.warn("Query: " + queryKey + " not supported.");
+      CassandraConnection cc = acquireCassandraConnection(universe);
+      if (cc == null) {
+        return responseJson;
       }
-      if (cc != null) {
-        if (cc.session != null) cc.session.close();
-        if (cc.cluster != null) cc.cluster.close();
+      boolean failed = false;
+      try {
+        queryMetrics(queryKey, cc, universe, tserverMaps, params, startTime, endTime,
+                     metricResults);
+      } catch (DriverException e) {
+        // The session may be unusable, reconnect on the next query.
+        failed = true;
+        throw e;
+      } finally {
+        releaseCassandraConnection(universe.universeUUID, cc, failed);
       }
       if (!metricResults.isEmpty()) {
         String returnJson = String.format(RESPONSE_FORMAT, metricResults);
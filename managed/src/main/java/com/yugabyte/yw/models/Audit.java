@@ -8,6 +8,7 @@ import io.ebean.annotation.*;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Joiner;
 
+import com.yugabyte.yw.common.AuditWriter;
 import com.yugabyte.yw.models.Users;
 
 import java.util.Date;
@@ -24,6 +25,7 @@ import javax.persistence.SequenceGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import play.api.Play;
 import play.data.validation.Constraints;
 import play.libs.Json;
 import play.mvc.Http;
@@ -51,8 +53,8 @@ public class Audit extends Model {
   private UUID customerUUID;
   public UUID getCustomerUUID() { return this.customerUUID; }
 
-  // The task creation time.
-  @CreatedTimestamp
+  // The time of the API call, set on creation as the entry may be written later.
+  @Column(nullable = false)
   private Date timestamp;
   public Date getTimestamp() { return this.timestamp; }
 
@@ -105,10 +107,42 @@ public class Audit extends Model {
 
   public static void createAuditEntry(Http.Context ctx, Http.Request request, JsonNode params,
                                       UUID taskUUID) {
+    createAuditEntry(ctx, request, params, taskUUID, false);
+  }
+
+  public static void createAuditEntry(Http.Context ctx, Http.Request request, JsonNode params,
+                                      boolean waitForWrite) {
+    createAuditEntry(ctx, request, params, null, waitForWrite);
+  }
+
+  /**
+   * Creates the audit entry of an API call. The entry is written in the background unless
+   * waitForWrite is set, for the sensitive calls which should not respond before their audit
+   * entry is stored.
+   */
+  public static void createAuditEntry(Http.Context ctx, Http.Request request, JsonNode params,
+                                      UUID taskUUID, boolean waitForWrite) {
     Users user = (Users) ctx.args.get("user");
     String method = request.method();
     String path = request.path();
-    Audit entry = Audit.create(user.uuid, user.customerUUID, path, method, params, taskUUID);
+    Audit entry = newEntry(user.uuid, user.customerUUID, path, method, params, taskUUID);
+    getWriter().write(entry, waitForWrite);
+  }
+
+  private static AuditWriter getWriter() {
+    return Play.current().injector().instanceOf(AuditWriter.class);
+  }
+
+  private static Audit newEntry(UUID userUUID, UUID customerUUID, String apiCall,
+                                String apiMethod, JsonNode body, UUID taskUUID) {
+    Audit entry = new Audit();
+    entry.customerUUID = customerUUID;
+    entry.userUUID = userUUID;
+    entry.apiCall = apiCall;
+    entry.apiMethod = apiMethod;
+    entry.taskUUID = taskUUID;
+    entry.payload = body;
+    return entry;
   }
 
   /**
@@ -123,26 +157,41 @@ public class Audit extends Model {
    */
   public static Audit create(UUID userUUID, UUID customerUUID, String apiCall,
                              String apiMethod, JsonNode body, UUID taskUUID) {
-    Audit entry = new Audit();
-    entry.customerUUID = customerUUID;
-    entry.userUUID = userUUID;
-    entry.apiCall = apiCall;
-    entry.apiMethod = apiMethod;
-    entry.taskUUID = taskUUID;
-    entry.payload = body;
+    Audit entry = newEntry(userUUID, customerUUID, apiCall, apiMethod, body, taskUUID);
     entry.save();
     return entry;
   }
 
+  // The reads first wait for the entries being written, to see the entries of the calls which
+  // already responded.
+
   public static List<Audit> getAll(UUID customerUUID) {
+    getWriter().flush();
     return find.query().where().eq("customer_uuid", customerUUID).findList();
   }
 
   public static Audit getFromTaskUUID(UUID taskUUID) {
+    getWriter().flush();
     return find.query().where().eq("task_uuid", taskUUID).findOne();
   }
 
   public static List<Audit> getAllUserEntries(UUID userUUID) {
+    getWriter().flush();
     return find.query().where().eq("user_uuid", userUUID).findList();
   }
+
+  /**
+   * Returns a page of the entries of a user, the most recent first.
+   *
+   * @param beforeID: only return the entries with a smaller id, null for the most recent ones.
+   * @param limit: maximum number of entries to return.
+   */
+  public static List<Audit> getUserEntriesPage(UUID userUUID, Long beforeID, int limit) {
+    getWriter().flush();
+    ExpressionList<Audit> query = find.query().where().eq("user_uuid", userUUID);
+    if (beforeID != null) {
+      query.lt("id", beforeID);
+    }
+    return query.orderBy("id desc").setMaxRows(limit).findList();
+  }
 }
@@ -7,6 +7,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Joiner;
 import com.yugabyte.yw.forms.UniverseDefinitionTaskParams.Cluster;
+import com.yugabyte.yw.models.helpers.UniverseSummary;
 import io.ebean.Finder;
 import io.ebean.Model;
 import org.slf4j.Logger;
@@ -92,6 +93,15 @@ public class Customer extends Model {
     return Universe.get(getUniverseUUIDs());
   }
 
+  /**
+   * Returns the summaries of the universes of this customer, see {@link UniverseSummary}. Use
+   * this rather than getUniverses() when the universe details are not needed.
+   */
+  @JsonIgnore
+  public List<UniverseSummary> getUniverseSummaries() {
+    return Universe.getSummaries(getUniverseUUIDs());
+  }
+
   @JsonIgnore
   public Set<Universe> getUniversesForProvider(UUID providerUUID) {
     Set<Universe> universesInProvider = getUniverses()
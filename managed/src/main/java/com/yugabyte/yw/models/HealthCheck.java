@@ -2,8 +2,18 @@
 
 package com.yugabyte.yw.models;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -37,45 +47,139 @@ public class HealthCheck extends Model {
   @Constraints.Required
   public Long customerId;
 
-  // The Json serialized version of the details. This is used only in read from and writing to the
-  // DB.
-  @Constraints.Required
-  @Column(columnDefinition = "TEXT", nullable = false)
+  // The Json serialized version of the details, only set for the checks stored before the
+  // details were compressed. Use getDetailsJson() to read the details of any check.
+  @Column(columnDefinition = "TEXT")
   public String detailsJson;
 
+  // The details as returned by the health check script, gzipped.
+  @Column(name = "details_gz", columnDefinition = "bytea")
+  public byte[] detailsGz;
+
+  // Copy of the top-level has_error field of the details.
+  @Column(name = "has_error", nullable = false)
+  public boolean errorFlag;
+
   public boolean hasError() {
-    JsonNode details = Json.parse(detailsJson);
-    JsonNode hasErrorField = details.get(FIELD_HAS_ERROR);
-    // Only return true if we have the top-level has_error field with a value of true.
-    return hasErrorField != null && hasErrorField.asBoolean();
+    if (detailsGz == null && detailsJson != null) {
+      return hasError(Json.parse(detailsJson));
+    }
+    return errorFlag;
+  }
+
+  public String getDetailsJson() {
+    return detailsGz != null ? decompress(detailsGz) : detailsJson;
+  }
+
+  /**
+   * The result of one check on one node, stored in health_check_status.
+   */
+  public static class NodeStatus {
+    public final String node;
+    public final String nodeName;
+    public final String process;
+    public final String checkName;
+    public final boolean hasError;
+
+    public NodeStatus(String node, String nodeName, String process, String checkName,
+                      boolean hasError) {
+      this.node = node;
+      this.nodeName = nodeName;
+      this.process = process;
+      this.checkName = checkName;
+      this.hasError = hasError;
+    }
   }
 
   public static final Finder<UUID, HealthCheck> find =
     new Finder<UUID, HealthCheck>(HealthCheck.class) {};
 
   /**
-   * Creates an empty universe.
-   * @param taskParams: The details that will describe the universe.
-   * @param customerId: UUID of the customer creating the universe
-   * @return the newly created universe
+   * Stores the result of a health check, and prunes the checks of the universe beyond the last
+   * RECORD_LIMIT ones.
+   * @param universeUUID: UUID of the checked universe.
+   * @param customerId: id of the customer owning the universe.
+   * @param details: The JSON report of the health check script.
+   * @return the newly stored check
    */
   public static HealthCheck addAndPrune(UUID universeUUID, Long customerId, String details) {
-    // Create the HealthCheck object.
+    // Parsing validates the details, the payload itself is stored as it was received.
+    JsonNode detailsNode = Json.parse(details);
     HealthCheck check = new HealthCheck();
     check.idKey = HealthCheckKey.create(universeUUID);
     check.customerId = customerId;
-    // Validate it is correct JSON.
-    check.detailsJson = Json.stringify(Json.parse(details));
-    // Save the object.
-    check.save();
+    check.detailsGz = compress(details);
+    check.errorFlag = hasError(detailsNode);
+
+    Transaction transaction = Ebean.beginTransaction();
+    try {
+      // The node statuses are sent to the DB in JDBC batches.
+      transaction.setBatchMode(true);
+      check.save();
+      insertNodeStatuses(check.idKey, detailsNode);
+      Ebean.commitTransaction();
+    } finally {
+      Ebean.endTransaction();
+    }
     keepOnlyLast(universeUUID, RECORD_LIMIT);
     return check;
   }
 
+  private static void insertNodeStatuses(HealthCheckKey key, JsonNode details) {
+    JsonNode entries = details.get("data");
+    if (entries == null || !entries.isArray() || entries.size() == 0) {
+      return;
+    }
+    String insert = "insert into health_check_status (universe_uuid, check_time, node, " +
+      "node_name, process, check_name, has_error) values (:universeUUID, :checkTime, :node, " +
+      ":nodeName, :process, :checkName, :hasError)";
+    for (JsonNode entry : entries) {
+      Ebean.createSqlUpdate(insert)
+        .setParameter("universeUUID", key.universeUUID)
+        .setParameter("checkTime", key.checkTime)
+        .setParameter("node", entry.path("node").asText(""))
+        .setParameter("nodeName", entry.path("node_name").asText(null))
+        .setParameter("process", entry.path("process").asText(null))
+        .setParameter("checkName", entry.path("message").asText(""))
+        .setParameter("hasError", entry.path(FIELD_HAS_ERROR).asBoolean(false))
+        .execute();
+    }
+  }
+
+  /**
+   * Deletes all but the last numChecks checks of the universe, with one statement per table.
+   */
   public static void keepOnlyLast(UUID universeUUID, int numChecks) {
-    List<HealthCheck> checks = getAll(universeUUID);
-    for (int i = 0; i < checks.size() - numChecks; ++i) {
-      checks.get(i).delete();
+    Date oldestKept = null;
+    if (numChecks > 0) {
+      SqlRow row = Ebean.createSqlQuery(
+        "select check_time from health_check where universe_uuid = :universeUUID " +
+        "order by check_time desc")
+        .setParameter("universeUUID", universeUUID)
+        .setFirstRow(numChecks - 1)
+        .setMaxRows(1)
+        .findOne();
+      if (row == null) {
+        // Not more than numChecks checks.
+        return;
+      }
+      oldestKept = row.getTimestamp("check_time");
+    }
+    String condition = " where universe_uuid = :universeUUID" +
+      (oldestKept == null ? "" : " and check_time < :oldestKept");
+    Ebean.beginTransaction();
+    try {
+      for (String table : new String[] {"health_check_status", "health_check"}) {
+        SqlUpdate delete = Ebean.createSqlUpdate("delete from " + table + condition)
+          .setParameter("universeUUID", universeUUID);
+        if (oldestKept != null) {
+          delete.setParameter("oldestKept", oldestKept);
+        }
+        delete.execute();
+      }
+      Ebean.commitTransaction();
+    } finally {
+      Ebean.endTransaction();
     }
   }
 
@@ -89,6 +193,40 @@ public class HealthCheck extends Model {
     return find.query().where().eq("universe_uuid", universeUUID).orderBy("check_time").findList();
   }
 
+  /**
+   * Returns a page of the checks of a universe, the most recent first.
+   *
+   * @param offset: number of more recent checks to skip.
+   * @param limit: maximum number of checks to return.
+   */
+  public static List<HealthCheck> getPage(UUID universeUUID, int offset, int limit) {
+    return find.query().where()
+      .eq("universe_uuid", universeUUID)
+      .orderBy("check_time desc")
+      .setFirstRow(offset)
+      .setMaxRows(limit)
+      .findList();
+  }
+
+  /**
+   * Returns the per node results of the latest check of a universe, read from
+   * health_check_status without loading the details.
+   */
+  public static List<NodeStatus> getLatestNodeStatuses(UUID universeUUID) {
+    List<NodeStatus> result = new ArrayList<>();
+    List<SqlRow> rows = Ebean.createSqlQuery(
+      "select node, node_name, process, check_name, has_error from health_check_status " +
+      "where universe_uuid = :universeUUID and check_time = (select max(check_time) from " +
+      "health_check where universe_uuid = :universeUUID) order by node, check_name")
+      .setParameter("universeUUID", universeUUID)
+      .findList();
+    for (SqlRow row : rows) {
+      result.add(new NodeStatus(row.getString("node"), row.getString("node_name"),
+        row.getString("process"), row.getString("check_name"), row.getBoolean("has_error")));
+    }
+    return result;
+  }
+
   public static HealthCheck getLatest(UUID universeUUID) {
     List<HealthCheck> checks = find.query().where()
       .eq("universe_uuid", universeUUID)
@@ -101,4 +239,34 @@ public class HealthCheck extends Model {
       return null;
     }
   }
+
+  private static boolean hasError(JsonNode details) {
+    JsonNode hasErrorField = details.get(FIELD_HAS_ERROR);
+    // Only return true if we have the top-level has_error field with a value of true.
+    return hasErrorField != null && hasErrorField.asBoolean();
+  }
+
+  private static byte[] compress(String details) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (OutputStream out = new GZIPOutputStream(bytes)) {
+      out.write(details.getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      throw new RuntimeException("Could not compress health check details", e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static String decompress(byte[] detailsGz) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(detailsGz))) {
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = in.read(buffer)) > 0) {
+        bytes.write(buffer, 0, read);
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Could not decompress health check details", e);
+    }
+    return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+  }
 }
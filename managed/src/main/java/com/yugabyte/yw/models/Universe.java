@@ -46,6 +46,7 @@ import com.yugabyte.yw.forms.UniverseDefinitionTaskParams.Cluster;
 import com.yugabyte.yw.forms.UniverseDefinitionTaskParams.ClusterType;
 import com.yugabyte.yw.forms.UniverseDefinitionTaskParams.UserIntent;
 import com.yugabyte.yw.models.helpers.NodeDetails;
+import com.yugabyte.yw.models.helpers.UniverseSummary;
 
 import org.yb.client.YBClient;
 import com.yugabyte.yw.common.services.YBClientService;
@@ -291,7 +292,11 @@ public class Universe extends Model {
     if (universe == null) {
       throw new RuntimeException("Cannot find universe " + universeUUID);
     }
+    return fillUniverseDetails(universe);
+  }
 
+  // Deserializes the details of a universe read from the DB.
+  private static Universe fillUniverseDetails(Universe universe) {
     JsonNode detailsJson = Json.parse(universe.universeDetailsJson);
     universe.universeDetails = Json.fromJson(detailsJson, UniverseDefinitionTaskParams.class);
 
@@ -308,12 +313,48 @@ public class Universe extends Model {
     return universe;
   }
 
+  /**
+   * Returns the universes with the given uuids, read with a single query. The details of the
+   * universes are deserialized in parallel.
+   *
+   * @param universeUUIDs
+   * @return the universe objects
+   */
   public static Set<Universe> get(Set<UUID> universeUUIDs) {
-    Set<Universe> universes = new HashSet<Universe>();
-    for (UUID universeUUID : universeUUIDs) {
-      universes.add(Universe.get(universeUUID));
+    if (universeUUIDs.isEmpty()) {
+      return new HashSet<>();
+    }
+    List<Universe> universes =
+        find.query().where().idIn(new ArrayList<>(universeUUIDs)).findList();
+    if (universes.size() != universeUUIDs.size()) {
+      Set<UUID> missing = new HashSet<>(universeUUIDs);
+      universes.forEach(u -> missing.remove(u.universeUUID));
+      throw new RuntimeException("Cannot find universe " + missing.iterator().next());
+    }
+    return universes.parallelStream()
+        .map(Universe::fillUniverseDetails)
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Returns the summaries of the universes with the given uuids. Only the columns needed are
+   * read, and the universe details are scanned instead of being deserialized.
+   *
+   * @param universeUUIDs
+   * @return the universe summaries, with no particular order
+   */
+  public static List<UniverseSummary> getSummaries(Set<UUID> universeUUIDs) {
+    if (universeUUIDs.isEmpty()) {
+      return new ArrayList<>();
     }
-    return universes;
+    return find.query()
+        .select("universeUUID, name, version, universeDetailsJson")
+        .where().idIn(new ArrayList<>(universeUUIDs))
+        .findList()
+        .stream()
+        .map(u -> UniverseSummary.create(u.universeUUID, u.name, u.version,
+            u.universeDetailsJson))
+        .collect(Collectors.toList());
   }
 
   public static Universe getUniverseByName(String universeName) {
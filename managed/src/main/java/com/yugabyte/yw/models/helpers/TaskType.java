@@ -181,7 +181,9 @@ public enum TaskType {
 
   UnivSetCertificate("subtasks.UnivSetCertificate"),
 
-  CreateAlertDefinitions("subtasks.CreateAlertDefinitions");
+  CreateAlertDefinitions("subtasks.CreateAlertDefinitions"),
+
+  WaitForUnderReplicatedTablets("subtasks.WaitForUnderReplicatedTablets");
 
   private String relativeClassPath;
 
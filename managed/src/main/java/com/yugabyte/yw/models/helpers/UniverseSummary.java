@@ -0,0 +1,68 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.models.helpers;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import play.libs.Json;
+
+/**
+ * The few fields of a universe needed by list views, read without deserializing the universe
+ * details into UniverseDefinitionTaskParams.
+ */
+public class UniverseSummary {
+  public final UUID universeUUID;
+
+  public final String name;
+
+  public final int version;
+
+  public final String nodePrefix;
+
+  public final int nodeCount;
+
+  public UniverseSummary(UUID universeUUID, String name, int version, String nodePrefix,
+                         int nodeCount) {
+    this.universeUUID = universeUUID;
+    this.name = name;
+    this.version = version;
+    this.nodePrefix = nodePrefix;
+    this.nodeCount = nodeCount;
+  }
+
+  /**
+   * Builds the summary of a universe from its serialized details. The details are scanned with a
+   * streaming parser: only nodePrefix is read, the nodes are counted and everything else is
+   * skipped without being materialized.
+   */
+  public static UniverseSummary create(UUID universeUUID, String name, int version,
+                                       String universeDetailsJson) {
+    String nodePrefix = null;
+    int nodeCount = 0;
+    try (JsonParser parser = Json.mapper().getFactory().createParser(universeDetailsJson)) {
+      if (parser.nextToken() == JsonToken.START_OBJECT) {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String field = parser.getCurrentName();
+          JsonToken value = parser.nextToken();
+          if ("nodePrefix".equals(field) && value == JsonToken.VALUE_STRING) {
+            nodePrefix = parser.getText();
+          } else if ("nodeDetailsSet".equals(field) && value == JsonToken.START_ARRAY) {
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+              nodeCount++;
+              parser.skipChildren();
+            }
+          } else {
+            parser.skipChildren();
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Invalid details for universe " + universeUUID, e);
+    }
+    return new UniverseSummary(universeUUID, name, version, nodePrefix, nodeCount);
+  }
+}
@@ -18,6 +18,8 @@ import play.libs.Json;
 
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 public class LiveQueryExecutor implements Callable<JsonNode> {
   public static final Logger LOG = LoggerFactory.getLogger(LiveQueryExecutor.class);
@@ -45,21 +47,36 @@ public class LiveQueryExecutor implements Callable<JsonNode> {
 
   @Override
   public JsonNode call() throws Exception {
+    return callAsync().toCompletableFuture().join();
+  }
+
+  /**
+   * Fetches the connections of the node without blocking. The returned stage is never completed
+   * exceptionally, errors are returned as a JSON object with an "error" field.
+   */
+  public CompletionStage<JsonNode> callAsync() {
     String url = String.format("http://%s:%d/rpcz", hostName, port);
+    CompletionStage<JsonNode> response;
     try {
-      JsonNode response = apiHelper.getRequest(url);
+      response = apiHelper.getRequestAsync(url);
+    } catch (Exception e) {
+      CompletableFuture<JsonNode> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      response = failed;
+    }
+    return response.thenApply(json -> {
       if (apiType == QueryApi.YSQL) {
-        return processYSQLRowData(response);
+        return processYSQLRowData(json);
       } else {
-        return processYCQLRowData(response);
+        return processYCQLRowData(json);
       }
-    } catch (Exception e) {
-      LOG.error("Exception while fetching url: {}; message: {}", url, e.getStackTrace());
+    }).exceptionally(e -> {
+      LOG.error("Exception while fetching url: {}; message: {}", url, e.getMessage());
       ObjectNode errorJson = Json.newObject();
       errorJson.put("error", e.getMessage());
       errorJson.put("type", apiType == QueryApi.YSQL ? "ysql" : "ycql");
       return errorJson;
-    }
+    });
   }
 
   // Processes YSQL connection data from /rpcz endpoint and transforms to row data
@@ -19,70 +19,69 @@ import play.libs.Json;
 
 import java.io.IOException;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 @Singleton
 public class LiveQueryHelper {
   public static final Logger LOG = LoggerFactory.getLogger(LiveQueryHelper.class);
-  public static final Integer QUERY_EXECUTOR_THREAD_POOL = 5;
 
   @Inject
   ApiHelper apiHelper;
 
   public JsonNode query(Universe universe) {
-    ExecutorService threadPool = Executors.newFixedThreadPool(QUERY_EXECUTOR_THREAD_POOL);
-    Set<Future<JsonNode>> futures = new HashSet<Future<JsonNode>>();
-    ObjectNode responseJson = Json.newObject();
-    ObjectNode ysqlJson = Json.newObject();
-    ysqlJson.put("errorCount", 0);
-    ysqlJson.putArray("queries");
-    ObjectNode ycqlJson = Json.newObject();
-    ycqlJson.put("errorCount", 0);
-    ycqlJson.putArray("queries");
+    return queryAsync(universe).toCompletableFuture().join();
+  }
+
+  /**
+   * Fetches the live queries of all the tservers of the universe at once, the returned stage is
+   * completed when every node has answered or failed.
+   */
+  public CompletionStage<JsonNode> queryAsync(Universe universe) {
+    List<CompletableFuture<JsonNode>> futures = new ArrayList<>();
     for (NodeDetails node : universe.getNodes()) {
       if (node.isActive() && node.isTserver) {
         String ip = node.cloudInfo.private_ip == null ?
           node.cloudInfo.private_dns :
           node.cloudInfo.private_ip;
-        Callable<JsonNode> callable = new LiveQueryExecutor(
+        LiveQueryExecutor executor = new LiveQueryExecutor(
           apiHelper,
           node.nodeName,
           ip,
           node.ysqlServerHttpPort,
           LiveQueryExecutor.QueryApi.YSQL
         );
-        Future<JsonNode> future = threadPool.submit(callable);
-        futures.add(future);
+        futures.add(executor.callAsync().toCompletableFuture());
 
-        callable = new LiveQueryExecutor(
+        executor = new LiveQueryExecutor(
           apiHelper,
           node.nodeName,
           ip,
           node.yqlServerHttpPort,
           LiveQueryExecutor.QueryApi.YCQL
         );
-        future = threadPool.submit(callable);
-        futures.add(future);
+        futures.add(executor.callAsync().toCompletableFuture());
       }
     }
 
-    try {
-      for (Future<JsonNode> future : futures) {
-        JsonNode response = future.get();
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(v -> {
+      ObjectNode responseJson = Json.newObject();
+      ObjectNode ysqlJson = Json.newObject();
+      ysqlJson.put("errorCount", 0);
+      ysqlJson.putArray("queries");
+      ObjectNode ycqlJson = Json.newObject();
+      ycqlJson.put("errorCount", 0);
+      ycqlJson.putArray("queries");
+      for (CompletableFuture<JsonNode> future : futures) {
+        JsonNode response = future.join();
         if (response.has("error")) {
           String type = response.get("type").asText();
-          if (type == "ysql") {
+          if (type.equals("ysql")) {
             ysqlJson.put("errorCount", ysqlJson.get("errorCount").asInt() + 1);
-          } else if (type == "ycql") {
+          } else if (type.equals("ycql")) {
             ycqlJson.put("errorCount", ycqlJson.get("errorCount").asInt() + 1);
           }
         } else {
@@ -96,20 +95,11 @@ public class LiveQueryHelper {
           }
         }
       }
-    } catch (InterruptedException e) {
-      LOG.error("Error fetching live query data", e);
-    } catch (ExecutionException e) {
-      LOG.error("Error fetching live query data", e);
-      e.printStackTrace();
-    } finally {
-      threadPool.shutdown();
-    }
-
-    responseJson.set("ysql", ysqlJson);
-    responseJson.set("ycql", ycqlJson);
 
-    threadPool.shutdown();
-    return responseJson;
+      responseJson.set("ysql", ysqlJson);
+      responseJson.set("ycql", ycqlJson);
+      return responseJson;
+    });
   }
 
   private void concatArrayNodes(ArrayNode destination, JsonNode source) {
@@ -0,0 +1,19 @@
+-- Copyright (c) YugaByte, Inc.
+
+-- New checks store their payload gzipped, details_json is only kept for the existing checks.
+alter table health_check alter column details_json drop not null;
+alter table health_check add column details_gz bytea;
+alter table health_check add column has_error boolean default false not null;
+
+-- One row per node and check of every health check, so the status of the nodes can be read
+-- without decompressing the payloads.
+create table health_check_status (
+  universe_uuid                 uuid not null,
+  check_time                    timestamp not null,
+  node                          varchar(255) not null,
+  node_name                     varchar(255),
+  process                       varchar(255),
+  check_name                    varchar(255) not null,
+  has_error                     boolean not null
+);
+create index ix_health_check_status_universe_time on health_check_status (universe_uuid, check_time);
@@ -0,0 +1,5 @@
+-- Copyright (c) YugaByte, Inc.
+
+-- The audit entries of a user or customer are read a page at a time, the most recent first.
+create index ix_audit_user_uuid_id on audit (user_uuid, id);
+create index ix_audit_customer_uuid_id on audit (customer_uuid, id);
@@ -0,0 +1,134 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.commissioner;
+
+import com.yugabyte.yw.commissioner.tasks.params.NodeTaskParams;
+import com.yugabyte.yw.common.DevopsBase.DevopsCommand;
+import com.yugabyte.yw.common.NodeManager;
+import com.yugabyte.yw.common.NodeManager.NodeCommandType;
+import com.yugabyte.yw.common.ShellResponse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class NodeCommandBatcherTest {
+
+  private NodeManager nodeManager;
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    nodeManager = mock(NodeManager.class);
+    when(nodeManager.getNodeCommand(any(), any())).thenReturn(mock(DevopsCommand.class));
+    // Each node gets its own name as message.
+    when(nodeManager.nodeCommands(anyMap())).thenAnswer(invocation -> {
+      Map<String, DevopsCommand> commands = invocation.getArgument(0);
+      Map<String, ShellResponse> responses = new HashMap<>();
+      for (String nodeName : commands.keySet()) {
+        responses.put(nodeName, ShellResponse.create(0, nodeName));
+      }
+      return responses;
+    });
+    executor = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private static NodeTaskParams params(String nodeName) {
+    NodeTaskParams params = new NodeTaskParams();
+    params.nodeName = nodeName;
+    return params;
+  }
+
+  private List<Future<ShellResponse>> submit(NodeCommandBatcher batcher, int numNodes) {
+    List<Future<ShellResponse>> futures = new ArrayList<>();
+    for (int i = 0; i < numNodes; i++) {
+      NodeTaskParams params = params("node-" + i);
+      futures.add(executor.submit(() -> batcher.run(NodeCommandType.Provision, params)));
+    }
+    return futures;
+  }
+
+  // Returns the number of commands of each batch run.
+  @SuppressWarnings("unchecked")
+  private List<Integer> getBatchSizes(int numBatches) {
+    ArgumentCaptor<Map> captor = ArgumentCaptor.forClass(Map.class);
+    verify(nodeManager, times(numBatches)).nodeCommands(captor.capture());
+    List<Integer> sizes = new ArrayList<>();
+    for (Map commands : captor.getAllValues()) {
+      sizes.add(commands.size());
+    }
+    return sizes;
+  }
+
+  @Test
+  public void testRunsOneBatchForAllTasks() throws Exception {
+    NodeCommandBatcher batcher = new NodeCommandBatcher(nodeManager, 3, 60000);
+    List<Future<ShellResponse>> futures = submit(batcher, 3);
+    for (int i = 0; i < 3; i++) {
+      assertEquals("node-" + i, futures.get(i).get(10, TimeUnit.SECONDS).message);
+    }
+    assertEquals(3, (int) getBatchSizes(1).get(0));
+  }
+
+  @Test
+  public void testRunsPartialBatchAfterLinger() throws Exception {
+    NodeCommandBatcher batcher = new NodeCommandBatcher(nodeManager, 3, 100);
+    List<Future<ShellResponse>> futures = submit(batcher, 2);
+    for (Future<ShellResponse> future : futures) {
+      assertEquals(0, future.get(10, TimeUnit.SECONDS).code);
+    }
+    assertEquals(2, (int) getBatchSizes(1).get(0));
+  }
+
+  @Test
+  public void testDoneTasksReleaseBatch() throws Exception {
+    NodeCommandBatcher batcher = new NodeCommandBatcher(nodeManager, 3, 60000);
+    List<Future<ShellResponse>> futures = submit(batcher, 2);
+    // The third task completes without running a command.
+    batcher.onTaskDone();
+    for (Future<ShellResponse> future : futures) {
+      assertEquals(0, future.get(10, TimeUnit.SECONDS).code);
+    }
+    assertEquals(2, (int) getBatchSizes(1).get(0));
+  }
+
+  @Test
+  public void testBatchErrorFailsAllTasks() throws Exception {
+    RuntimeException error = new RuntimeException("devops failed");
+    when(nodeManager.nodeCommands(anyMap())).thenThrow(error);
+    NodeCommandBatcher batcher = new NodeCommandBatcher(nodeManager, 2, 60000);
+    for (Future<ShellResponse> future : submit(batcher, 2)) {
+      try {
+        future.get(10, TimeUnit.SECONDS);
+        fail("Expected the batch error");
+      } catch (ExecutionException e) {
+        assertSame(error, e.getCause());
+      }
+    }
+  }
+}
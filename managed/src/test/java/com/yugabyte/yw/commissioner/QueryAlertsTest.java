@@ -0,0 +1,152 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.commissioner;
+
+import akka.actor.ActorSystem;
+import akka.actor.Scheduler;
+import com.typesafe.config.ConfigFactory;
+import com.yugabyte.yw.common.AlertManager;
+import com.yugabyte.yw.common.FakeDBApplication;
+import com.yugabyte.yw.common.ModelFactory;
+import com.yugabyte.yw.common.config.RuntimeConfigFactory;
+import com.yugabyte.yw.metrics.MetricQueryHelper;
+import com.yugabyte.yw.metrics.MetricQueryResponse;
+import com.yugabyte.yw.models.Alert;
+import com.yugabyte.yw.models.AlertDefinition;
+import com.yugabyte.yw.models.Customer;
+import com.yugabyte.yw.models.Universe;
+import io.prometheus.client.CollectorRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import scala.concurrent.ExecutionContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class QueryAlertsTest extends FakeDBApplication {
+  private static final String FIRING_QUERY = "up{node_prefix=\"yb-test\"} == 0";
+
+  private QueryAlerts queryAlerts;
+  private MetricQueryHelper mockQueryHelper;
+  private AlertManager mockAlertManager;
+  private Customer customer1;
+  private Customer customer2;
+  private Universe universe1;
+  private Universe universe2;
+
+  @Before
+  public void setUp() {
+    ActorSystem mockActorSystem = mock(ActorSystem.class);
+    when(mockActorSystem.scheduler()).thenReturn(mock(Scheduler.class));
+    RuntimeConfigFactory mockConfigFactory = mock(RuntimeConfigFactory.class);
+    when(mockConfigFactory.forCustomer(any())).thenReturn(ConfigFactory.empty());
+    when(mockConfigFactory.globalRuntimeConf())
+      .thenReturn(ConfigFactory.parseString(QueryAlerts.QUERY_TIMEOUT_KEY + " = 5 seconds"));
+    mockQueryHelper = mock(MetricQueryHelper.class);
+    mockAlertManager = mock(AlertManager.class);
+    queryAlerts = new QueryAlerts(mock(ExecutionContext.class), mockActorSystem,
+      mockAlertManager, mockQueryHelper, mockConfigFactory, new CollectorRegistry());
+
+    customer1 = ModelFactory.testCustomer("c1", "Customer 1");
+    customer2 = ModelFactory.testCustomer("c2", "Customer 2");
+    universe1 = ModelFactory.createUniverse("u1", customer1.getCustomerId());
+    universe2 = ModelFactory.createUniverse("u2", customer2.getCustomerId());
+  }
+
+  private static CompletableFuture<ArrayList<MetricQueryResponse.Entry>> result(int size) {
+    ArrayList<MetricQueryResponse.Entry> entries = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      entries.add(new MetricQueryResponse.Entry());
+    }
+    return CompletableFuture.completedFuture(entries);
+  }
+
+  @Test
+  public void testIdenticalQueriesAreSentOnce() {
+    AlertDefinition.create(customer1.uuid, universe1.universeUUID, "Down", FIRING_QUERY, true);
+    AlertDefinition.create(customer2.uuid, universe2.universeUUID, "Down", FIRING_QUERY, true);
+    AlertDefinition.create(customer2.uuid, universe2.universeUUID, "Fine", "up == 2", true);
+    when(mockQueryHelper.queryDirectAsync(eq(FIRING_QUERY), any())).thenReturn(result(1));
+    when(mockQueryHelper.queryDirectAsync(eq("up == 2"), any())).thenReturn(result(0));
+
+    queryAlerts.scheduleRunner();
+
+    verify(mockQueryHelper, times(1)).queryDirectAsync(eq(FIRING_QUERY), any());
+    verify(mockQueryHelper, times(1)).queryDirectAsync(eq("up == 2"), any());
+    assertEquals(1, Alert.list(customer1.uuid).size());
+    assertEquals(1, Alert.list(customer2.uuid).size());
+  }
+
+  @Test
+  public void testFailedQueryKeepsActiveAlert() {
+    AlertDefinition definition =
+      AlertDefinition.create(customer1.uuid, universe1.universeUUID, "Down", FIRING_QUERY, true);
+    Alert alert = Alert.create(customer1.uuid, universe1.universeUUID,
+      Alert.TargetType.UniverseType, "CUSTOMER_ALERT", "Error", "Down for u1 is firing", true,
+      definition.uuid);
+    alert.state = Alert.State.ACTIVE;
+    alert.save();
+    CompletableFuture<ArrayList<MetricQueryResponse.Entry>> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new RuntimeException("Connection refused"));
+    when(mockQueryHelper.queryDirectAsync(anyString(), any())).thenReturn(failed);
+
+    queryAlerts.scheduleRunner();
+    verify(mockAlertManager, never()).transitionAlert(any());
+
+    // Once the query succeeds and does not fire, the alert is resolved.
+    when(mockQueryHelper.queryDirectAsync(anyString(), any())).thenReturn(result(0));
+    queryAlerts.scheduleRunner();
+    verify(mockAlertManager, times(1)).transitionAlert(any());
+  }
+
+  @Test
+  public void testDefinitionsAreCompiledOnce() {
+    AlertDefinition definition =
+      AlertDefinition.create(customer1.uuid, universe1.universeUUID, "Down", FIRING_QUERY, true);
+    List<Customer> customers = Arrays.asList(customer1, customer2);
+
+    QueryAlerts.CompiledDefinition first = queryAlerts.compileDefinitions(customers).get(0);
+    // The query compiled by the first run is reused.
+    assertSame(first.query, queryAlerts.compileDefinitions(customers).get(0).query);
+
+    AlertDefinition.update(definition.uuid, "up == 0", true);
+    QueryAlerts.CompiledDefinition updated = queryAlerts.compileDefinitions(customers).get(0);
+    assertNotSame(first, updated);
+    assertEquals("up == 0", updated.query);
+
+    AlertDefinition.update(definition.uuid, "up == 0", false);
+    assertEquals(0, queryAlerts.compileDefinitions(customers).size());
+  }
+
+  @Test
+  public void testAlertUsesCurrentDefinition() {
+    AlertDefinition definition =
+      AlertDefinition.create(customer1.uuid, universe1.universeUUID, "Down", FIRING_QUERY, true);
+    when(mockQueryHelper.queryDirectAsync(anyString(), any())).thenReturn(result(0));
+    queryAlerts.scheduleRunner();
+    assertEquals(0, Alert.list(customer1.uuid).size());
+
+    // Renaming keeps the compiled query, the alert has the new name.
+    definition.name = "Node down";
+    definition.save();
+    when(mockQueryHelper.queryDirectAsync(anyString(), any())).thenReturn(result(1));
+    queryAlerts.scheduleRunner();
+    List<Alert> alerts = Alert.list(customer1.uuid);
+    assertEquals(1, alerts.size());
+    assertEquals("Node down for u1 is firing", alerts.get(0).message);
+  }
+}
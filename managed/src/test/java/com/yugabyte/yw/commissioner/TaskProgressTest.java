@@ -0,0 +1,82 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.commissioner;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.yugabyte.yw.commissioner.UserTaskDetails.SubTaskGroupType;
+import com.yugabyte.yw.models.TaskInfo;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TaskProgressTest {
+
+  private static SubTaskGroup mockGroup(int numTasks, SubTaskGroupType type) {
+    SubTaskGroup group = mock(SubTaskGroup.class);
+    when(group.getNumTasks()).thenReturn(numTasks);
+    when(group.getSubTaskGroupType()).thenReturn(type);
+    return group;
+  }
+
+  @Test
+  public void testPercentCompleted() {
+    TaskProgress progress = new TaskProgress();
+    assertEquals(0.0, progress.getPercentCompleted(), 0.01);
+    SubTaskGroup first = mockGroup(3, SubTaskGroupType.Provisioning);
+    SubTaskGroup second = mockGroup(1, SubTaskGroupType.ConfigureUniverse);
+    progress.addSubTaskGroup(first, 0);
+    progress.addSubTaskGroup(second, 1);
+
+    progress.onSubTaskGroupStateChanged(first, TaskInfo.State.Running);
+    assertEquals(0.0, progress.getPercentCompleted(), 0.01);
+    progress.onSubTaskGroupStateChanged(first, TaskInfo.State.Success);
+    assertEquals(75.0, progress.getPercentCompleted(), 0.01);
+    // A repeated notification does not count the group twice.
+    progress.onSubTaskGroupStateChanged(first, TaskInfo.State.Success);
+    assertEquals(75.0, progress.getPercentCompleted(), 0.01);
+    progress.onSubTaskGroupStateChanged(second, TaskInfo.State.Success);
+    assertEquals(100.0, progress.getPercentCompleted(), 0.01);
+  }
+
+  @Test
+  public void testUserTaskDetails() {
+    TaskProgress progress = new TaskProgress();
+    SubTaskGroup first = mockGroup(2, SubTaskGroupType.Provisioning);
+    SubTaskGroup hidden = mockGroup(1, SubTaskGroupType.Invalid);
+    SubTaskGroup second = mockGroup(1, SubTaskGroupType.Provisioning);
+    SubTaskGroup third = mockGroup(1, SubTaskGroupType.ConfigureUniverse);
+    progress.addSubTaskGroup(first, 0);
+    progress.addSubTaskGroup(hidden, 1);
+    progress.addSubTaskGroup(second, 2);
+    progress.addSubTaskGroup(third, 3);
+    progress.setTaskState(TaskInfo.State.Running);
+
+    progress.onSubTaskGroupStateChanged(first, TaskInfo.State.Success);
+    progress.onSubTaskGroupStateChanged(second, TaskInfo.State.Running);
+    JsonNode details = progress.getUserTaskDetails().get("taskDetails");
+    assertEquals(2, details.size());
+    assertEquals("Running", details.get(0).get("state").asText());
+    assertEquals("Created", details.get(1).get("state").asText());
+    // Unchanged progress is not recomputed.
+    assertSame(progress.getUserTaskDetails(), progress.getUserTaskDetails());
+
+    progress.onSubTaskGroupStateChanged(second, TaskInfo.State.Failure);
+    progress.setTaskState(TaskInfo.State.Failure);
+    details = progress.getUserTaskDetails().get("taskDetails");
+    assertEquals("Failure", details.get(0).get("state").asText());
+    assertEquals("Unknown", details.get(1).get("state").asText());
+  }
+
+  @Test
+  public void testGroupTypeChange() {
+    TaskProgress progress = new TaskProgress();
+    SubTaskGroup group = mockGroup(1, SubTaskGroupType.Invalid);
+    progress.addSubTaskGroup(group, 0);
+    assertEquals(0, progress.getUserTaskDetails().get("taskDetails").size());
+    progress.onSubTaskGroupTypeChanged(group, SubTaskGroupType.ConfigureUniverse);
+    assertEquals(1, progress.getUserTaskDetails().get("taskDetails").size());
+  }
+}
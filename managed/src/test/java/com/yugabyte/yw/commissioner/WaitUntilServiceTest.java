@@ -0,0 +1,176 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.commissioner;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class WaitUntilServiceTest {
+
+  private final WaitUntilService service = new WaitUntilService();
+
+  private static WaitUntilService.Options fastOptions() {
+    WaitUntilService.Options options = new WaitUntilService.Options();
+    options.minIntervalMs = 1;
+    options.maxIntervalMs = 10;
+    options.timeoutMs = TimeUnit.SECONDS.toMillis(10);
+    return options;
+  }
+
+  private static Throwable getError(CompletableFuture<?> future) throws Exception {
+    try {
+      future.get(10, TimeUnit.SECONDS);
+    } catch (ExecutionException e) {
+      return e.getCause();
+    }
+    fail("Wait did not fail");
+    return null;
+  }
+
+  @Test
+  public void testWaitUntilConditionHolds() throws Exception {
+    AtomicInteger counter = new AtomicInteger();
+    List<Integer> progress = Collections.synchronizedList(new ArrayList<>());
+    CompletableFuture<Integer> future = service.waitUntil("counter", counter::incrementAndGet,
+        value -> value >= 5, fastOptions(), (value, attempt, elapsedMs) -> progress.add(value));
+
+    assertEquals(5, (int) future.get(10, TimeUnit.SECONDS));
+    assertEquals(5, counter.get());
+    // Every check that did not end the wait is reported.
+    assertEquals(4, progress.size());
+    assertEquals(4, (int) progress.get(3));
+  }
+
+  @Test
+  public void testErrorsAreRetried() throws Exception {
+    AtomicInteger counter = new AtomicInteger();
+    CompletableFuture<Integer> future = service.waitUntil("flaky", () -> {
+      if (counter.incrementAndGet() < 3) {
+        throw new IllegalStateException("not yet");
+      }
+      return counter.get();
+    }, value -> true, fastOptions(), null);
+
+    assertEquals(3, (int) future.get(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testTooManyErrors() throws Exception {
+    AtomicInteger counter = new AtomicInteger();
+    WaitUntilService.Options options = fastOptions();
+    options.maxErrors = 2;
+    CompletableFuture<Integer> future = service.waitUntil("failing", () -> {
+      counter.incrementAndGet();
+      throw new IllegalStateException("down");
+    }, value -> true, options, null);
+
+    Throwable error = getError(future);
+    assertTrue(error instanceof IllegalStateException);
+    assertEquals(3, counter.get());
+  }
+
+  @Test
+  public void testTimeout() throws Exception {
+    WaitUntilService.Options options = fastOptions();
+    options.timeoutMs = 50;
+    CompletableFuture<Boolean> future =
+        service.waitUntil("never", () -> false, value -> value, options, null);
+
+    Throwable error = getError(future);
+    assertTrue(error instanceof TimeoutException);
+  }
+
+  @Test
+  public void testTimeoutInterruptsBlockedCheck() throws Exception {
+    AtomicInteger interrupted = new AtomicInteger();
+    WaitUntilService.Options options = fastOptions();
+    options.timeoutMs = 100;
+    long startMs = System.currentTimeMillis();
+    CompletableFuture<Boolean> future = service.waitUntil("blocked", () -> {
+      try {
+        // An RPC to an unreachable server.
+        Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+      } catch (InterruptedException e) {
+        interrupted.incrementAndGet();
+        throw e;
+      }
+      return true;
+    }, value -> value, options, null);
+
+    Throwable error = getError(future);
+    assertTrue(error instanceof TimeoutException);
+    assertTrue(System.currentTimeMillis() - startMs < TimeUnit.SECONDS.toMillis(5));
+    Thread.sleep(100);
+    assertEquals(1, interrupted.get());
+  }
+
+  @Test
+  public void testBlockedChecksDoNotDelayOtherWaits() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    List<CompletableFuture<Boolean>> blocked = new ArrayList<>();
+    try {
+      // More blocked checks than the service would have threads if it used a fixed pool.
+      for (int i = 0; i < 50; i++) {
+        blocked.add(service.waitUntil("blocked-" + i, () -> release.await(1, TimeUnit.MINUTES),
+            value -> value, fastOptions(), null));
+      }
+      AtomicInteger counter = new AtomicInteger();
+      CompletableFuture<Integer> future = service.waitUntil("counter", counter::incrementAndGet,
+          value -> value >= 3, fastOptions(), null);
+      assertEquals(3, (int) future.get(5, TimeUnit.SECONDS));
+    } finally {
+      release.countDown();
+    }
+    for (CompletableFuture<Boolean> wait : blocked) {
+      assertTrue(wait.get(10, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  public void testCancelStopsPolling() throws Exception {
+    AtomicInteger counter = new AtomicInteger();
+    WaitUntilService.Options options = fastOptions();
+    options.minIntervalMs = 20;
+    options.maxIntervalMs = 20;
+    CompletableFuture<Integer> future = service.waitUntil("cancelled", counter::incrementAndGet,
+        value -> false, options, null);
+    Thread.sleep(100);
+    future.cancel(false);
+    int checks = counter.get();
+    Thread.sleep(100);
+    // At most the check that was running when the wait was cancelled.
+    assertTrue(counter.get() <= checks + 1);
+  }
+
+  @Test
+  public void testIntervalBacksOffWhileValueDoesNotChange() throws Exception {
+    List<Long> checkTimes = Collections.synchronizedList(new ArrayList<>());
+    WaitUntilService.Options options = fastOptions();
+    options.minIntervalMs = 10;
+    options.maxIntervalMs = 80;
+    CompletableFuture<Integer> future = service.waitUntil("stalled", () -> {
+      checkTimes.add(System.nanoTime());
+      return 0;
+    }, value -> checkTimes.size() >= 6, options, null);
+    future.get(10, TimeUnit.SECONDS);
+
+    // Intervals of 10, 20, 40, 80 and 80 ms.
+    long lastIntervalMs = TimeUnit.NANOSECONDS.toMillis(checkTimes.get(5) - checkTimes.get(4));
+    long firstIntervalMs = TimeUnit.NANOSECONDS.toMillis(checkTimes.get(1) - checkTimes.get(0));
+    assertTrue(lastIntervalMs >= 80);
+    assertTrue(firstIntervalMs < lastIntervalMs);
+  }
+}
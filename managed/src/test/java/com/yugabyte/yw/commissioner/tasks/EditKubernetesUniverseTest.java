@@ -68,6 +68,7 @@ import static com.yugabyte.yw.models.TaskInfo.State.Success;
 
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyInt;
@@ -116,7 +117,9 @@ public class EditKubernetesUniverseTest extends CommissionerBaseTest {
     try {
       when(mockClient.getLoadMoveCompletion()).thenReturn(gpr);
     } catch (Exception e) {}
-    when(mockClient.waitForServer(any(), anyLong())).thenReturn(true);
+    try {
+      when(mockClient.ping(anyString(), anyInt())).thenReturn(true);
+    } catch (Exception e) {}
     when(mockClient.waitForLoadBalance(anyLong(), anyInt())).thenReturn(true);
     when(mockYBClient.getClient(any(), any())).thenReturn(mockClient);
   }
@@ -7,6 +7,7 @@ import com.yugabyte.yw.commissioner.tasks.MultiTableBackup;
 import com.yugabyte.yw.common.ModelFactory;
 import com.yugabyte.yw.common.ShellProcessHandler;
 import com.yugabyte.yw.common.ShellResponse;
+import com.yugabyte.yw.forms.BackupTableParams;
 import com.yugabyte.yw.models.Backup;
 import com.yugabyte.yw.models.CustomerTask;
 import com.yugabyte.yw.models.TaskInfo;
@@ -43,6 +44,7 @@ import static com.yugabyte.yw.models.Backup.BackupState.Failed;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
@@ -189,6 +191,50 @@ public class MultiTableBackupTest extends CommissionerBaseTest {
     assertEquals(TaskInfo.State.Success, taskInfo.getTaskState());
   }
 
+  @Test
+  public void testMultiTableBackupRetriesFailedTable() {
+    Map<String, String> config = new HashMap<>();
+    config.put(Universe.TAKE_BACKUPS, "true");
+    defaultUniverse.setConfig(config);
+    ShellResponse failedResponse =  new ShellResponse();
+    failedResponse.message = "{\"error\": \"Backup exception\"}";
+    failedResponse.code = 1;
+    ShellResponse shellResponse =  new ShellResponse();
+    shellResponse.message = "{\"snapshot_url\": \"s3://foo\", \"backup_size_in_bytes\": 100}";
+    shellResponse.code = 0;
+    when(mockTableManager.createBackup(any())).thenReturn(failedResponse, shellResponse);
+
+    // Entire universe backup, the only YCQL table fails once and is retried.
+    TaskInfo taskInfo = submitTask(null, new ArrayList<UUID>());
+    verify(mockTableManager, times(2)).createBackup(any());
+    assertEquals(TaskInfo.State.Success, taskInfo.getTaskState());
+    Backup backup = Backup.fetchByUniverseUUID(defaultCustomer.uuid,
+        defaultUniverse.universeUUID).get(0);
+    assertEquals(Completed, backup.state);
+    BackupTableParams tableBackup = backup.getBackupInfo().backupList.get(0);
+    assertTrue(tableBackup.backupCompleted);
+    assertEquals(2, tableBackup.backupAttempts);
+    assertEquals(100L, tableBackup.backupSizeInBytes);
+  }
+
+  @Test
+  public void testMultiTableBackupFailsAfterRetries() {
+    Map<String, String> config = new HashMap<>();
+    config.put(Universe.TAKE_BACKUPS, "true");
+    defaultUniverse.setConfig(config);
+    ShellResponse failedResponse =  new ShellResponse();
+    failedResponse.message = "{\"error\": \"Backup exception\"}";
+    failedResponse.code = 1;
+    when(mockTableManager.createBackup(any())).thenReturn(failedResponse);
+
+    TaskInfo taskInfo = submitTask(null, new ArrayList<UUID>());
+    verify(mockTableManager, times(2)).createBackup(any());
+    assertEquals(TaskInfo.State.Failure, taskInfo.getTaskState());
+    Backup backup = Backup.fetchByUniverseUUID(defaultCustomer.uuid,
+        defaultUniverse.universeUUID).get(0);
+    assertEquals(Failed, backup.state);
+  }
+
   @Test
   public void testMultiTableBackupKeyspace() {
     Map<String, String> config = new HashMap<>();
@@ -9,6 +9,7 @@ import com.google.common.net.HostAndPort;
 import com.yugabyte.yw.commissioner.Commissioner;
 import com.yugabyte.yw.commissioner.UserTaskDetails;
 import com.yugabyte.yw.commissioner.tasks.params.NodeTaskParams;
+import com.yugabyte.yw.common.ApiHelper;
 import com.yugabyte.yw.common.ApiUtils;
 import com.yugabyte.yw.common.ShellProcessHandler;
 import com.yugabyte.yw.common.ShellResponse;
@@ -23,6 +24,7 @@ import com.yugabyte.yw.models.CertificateInfo;
 import com.yugabyte.yw.models.Region;
 import com.yugabyte.yw.models.TaskInfo;
 import com.yugabyte.yw.models.Universe;
+import com.yugabyte.yw.models.helpers.NodeDetails;
 import com.yugabyte.yw.models.helpers.TaskType;
 import org.junit.Before;
 import org.junit.Ignore;
@@ -44,11 +46,13 @@ import java.io.File;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static com.yugabyte.yw.commissioner.UserTaskDetails.SubTaskGroupType.DownloadingSoftware;
@@ -57,6 +61,7 @@ import static com.yugabyte.yw.commissioner.tasks.UniverseDefinitionTaskBase.Serv
 import static com.yugabyte.yw.common.ModelFactory.createUniverse;
 import static com.yugabyte.yw.common.TestHelper.createTempFile;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
@@ -155,7 +160,9 @@ public class UpgradeUniverseTest extends CommissionerBaseTest {
       when(mockClient.getMasterClusterConfig()).thenReturn(mockConfigResponse);
     } catch (Exception e) {}
     when(mockYBClient.getClient(any(), any())).thenReturn(mockClient);
-    when(mockClient.waitForServer(any(HostAndPort.class), anyLong())).thenReturn(true);
+    try {
+      when(mockClient.ping(anyString(), anyInt())).thenReturn(true);
+    } catch (Exception e) {}
     when(mockClient.getLeaderMasterHostAndPort())
             .thenReturn(HostAndPort.fromString("host-n2").withDefaultPort(11));
     IsServerReadyResponse okReadyResp = new IsServerReadyResponse(0, "", null, 0, 0);
@@ -1180,4 +1187,112 @@ public class UpgradeUniverseTest extends CommissionerBaseTest {
     // In case of an exception, no task should be queued.
     assertEquals(0, taskInfo.getSubTasks().size());
   }
+
+  // Spreads the 3 nodes of the default universe and 3 new tservers over the given zones.
+  private Universe addTServersInZones(List<UUID> zones) {
+    return Universe.saveDetails(defaultUniverse.universeUUID, universe -> {
+      UniverseDefinitionTaskParams details = universe.getUniverseDetails();
+      UUID placementUuid = details.getPrimaryCluster().uuid;
+      for (NodeDetails node : details.nodeDetailsSet) {
+        node.azUuid = zones.get((node.nodeIdx - 1) % zones.size());
+      }
+      for (int idx = 4; idx <= 6; idx++) {
+        NodeDetails node = ApiUtils.getDummyNodeDetails(idx, NodeDetails.NodeState.Live);
+        node.placementUuid = placementUuid;
+        node.azUuid = zones.get((idx - 1) % zones.size());
+        details.nodeDetailsSet.add(node);
+      }
+      universe.setUniverseDetails(details);
+    });
+  }
+
+  private static List<List<String>> nodeNames(List<List<NodeDetails>> batches) {
+    return batches.stream()
+        .map(batch -> batch.stream().map(n -> n.nodeName).sorted().collect(Collectors.toList()))
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testRollingUpgradeBatchesByZone() {
+    List<UUID> zones = ImmutableList.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+    Universe universe = addTServersInZones(zones);
+    List<NodeDetails> tservers = universe.getTServers();
+    tservers.sort(Comparator.comparing(n -> n.nodeIdx));
+
+    List<List<NodeDetails>> batches =
+        UpgradeUniverse.getRollingUpgradeBatches(universe, tservers, 2);
+    assertEquals(ImmutableList.of(
+        ImmutableList.of("host-n1", "host-n4"),
+        ImmutableList.of("host-n2", "host-n5"),
+        ImmutableList.of("host-n3", "host-n6")), nodeNames(batches));
+
+    // A batch never spans zones, and is split when the zone has more nodes than the batch size.
+    batches = UpgradeUniverse.getRollingUpgradeBatches(universe, tservers, 1);
+    assertEquals(6, batches.size());
+    batches = UpgradeUniverse.getRollingUpgradeBatches(universe, tservers, 10);
+    assertEquals(3, batches.size());
+  }
+
+  @Test
+  public void testRollingUpgradeBatchesFewerZonesThanReplicationFactor() {
+    List<UUID> zones = ImmutableList.of(UUID.randomUUID(), UUID.randomUUID());
+    Universe universe = addTServersInZones(zones);
+    List<List<NodeDetails>> batches =
+        UpgradeUniverse.getRollingUpgradeBatches(universe, universe.getTServers(), 3);
+    // With RF 3 over 2 zones, a zone holds 2 replicas of some tablets.
+    assertEquals(6, batches.size());
+    for (List<NodeDetails> batch : batches) {
+      assertEquals(1, batch.size());
+    }
+  }
+
+  @Test
+  public void testRollingRestartInZoneBatches() throws Exception {
+    addTServersInZones(
+        ImmutableList.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()));
+    when(mockApiHelper.getRequestAsync(any(), any(), any(), any())).thenReturn(
+        CompletableFuture.completedFuture(Json.parse("{\"underreplicated_tablets\": []}")));
+
+    UpgradeUniverse.Params taskParams = new UpgradeUniverse.Params();
+    taskParams.rollingUpgradeBatchSize = 2;
+    TaskInfo taskInfo = submitTask(taskParams, UpgradeUniverse.UpgradeTaskType.Restart, 3);
+    assertEquals(TaskInfo.State.Success, taskInfo.getTaskState());
+    // A stop and a start per master and per tserver.
+    verify(mockNodeManager, times(18)).nodeCommand(any(), any());
+
+    Map<Integer, List<TaskInfo>> subTasksByPosition = taskInfo.getSubTasks().stream()
+        .collect(Collectors.groupingBy(w -> w.getPosition()));
+    int numUnderReplicatedWaits = 0;
+    int numTServerCtlGroups = 0;
+    for (List<TaskInfo> tasks : subTasksByPosition.values()) {
+      TaskType taskType = tasks.get(0).getTaskType();
+      // The load balancer is off during the upgrade, there is no load balance to wait for.
+      assertNotEquals(TaskType.WaitForLoadBalance, taskType);
+      if (taskType == TaskType.WaitForUnderReplicatedTablets) {
+        numUnderReplicatedWaits++;
+      } else if (taskType == TaskType.AnsibleClusterServerCtl && tasks.size() > 1) {
+        assertEquals(2, tasks.size());
+        numTServerCtlGroups++;
+      }
+    }
+    // One wait after each of the 3 batches.
+    assertEquals(3, numUnderReplicatedWaits);
+    // Stop and start of each batch.
+    assertEquals(6, numTServerCtlGroups);
+  }
+
+  @Test
+  public void testRollingRestartWithoutUnderReplicationEndpoint() throws Exception {
+    addTServersInZones(
+        ImmutableList.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()));
+    // A master that predates the endpoint answers with its "not found" page.
+    CompletableFuture<JsonNode> notFound = new CompletableFuture<>();
+    notFound.completeExceptionally(new ApiHelper.HttpStatusException("http://master", 404));
+    when(mockApiHelper.getRequestAsync(any(), any(), any(), any())).thenReturn(notFound);
+
+    UpgradeUniverse.Params taskParams = new UpgradeUniverse.Params();
+    taskParams.rollingUpgradeBatchSize = 2;
+    TaskInfo taskInfo = submitTask(taskParams, UpgradeUniverse.UpgradeTaskType.Restart, 3);
+    assertEquals(TaskInfo.State.Success, taskInfo.getTaskState());
+  }
 }
@@ -0,0 +1,104 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.commissioner.tasks.subtasks;
+
+import com.yugabyte.yw.common.ShellResponse;
+import com.yugabyte.yw.forms.BackupTableParams;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TableBackupSchedulerTest {
+
+  private static List<BackupTableParams> createBackups(int count) {
+    List<BackupTableParams> backups = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      BackupTableParams params = new BackupTableParams();
+      params.keyspace = "ks";
+      params.tableName = "table" + i;
+      backups.add(params);
+    }
+    return backups;
+  }
+
+  private static ShellResponse response(int code, String message) {
+    ShellResponse response = new ShellResponse();
+    response.code = code;
+    response.message = message;
+    return response;
+  }
+
+  @Test
+  public void testParallelismIsShared() {
+    assertEquals(2, TableBackupScheduler.getPerBackupParallelism(8, 4));
+    assertEquals(1, TableBackupScheduler.getPerBackupParallelism(2, 4));
+    assertEquals(8, TableBackupScheduler.getPerBackupParallelism(8, 1));
+
+    List<BackupTableParams> backups = createBackups(2);
+    // Only 2 backups, so only 2 run concurrently and each gets half of the budget.
+    new TableBackupScheduler(backups, 4, 8, 0, b -> null, () -> {});
+    assertEquals(4, backups.get(0).parallelism);
+  }
+
+  @Test
+  public void testConcurrencyCap() throws Exception {
+    List<BackupTableParams> backups = createBackups(20);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    AtomicInteger progressCalls = new AtomicInteger();
+    TableBackupScheduler scheduler = new TableBackupScheduler(backups, 3, 9, 0, b -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(10);
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      running.decrementAndGet();
+      return response(0, "{\"snapshot_url\": \"s3://foo\", \"backup_size_in_bytes\": 10}");
+    }, progressCalls::incrementAndGet);
+
+    assertTrue(scheduler.run().isEmpty());
+    assertTrue(maxRunning.get() <= 3);
+    assertEquals(20, progressCalls.get());
+    for (BackupTableParams backup : backups) {
+      assertTrue(backup.backupCompleted);
+      assertEquals(1, backup.backupAttempts);
+      assertEquals(10L, backup.backupSizeInBytes);
+      assertEquals(3, backup.parallelism);
+    }
+  }
+
+  @Test
+  public void testOnlyFailedBackupsAreRetried() throws Exception {
+    List<BackupTableParams> backups = createBackups(5);
+    // Completed by a previous run.
+    backups.get(4).backupCompleted = true;
+    Set<String> failedOnce = ConcurrentHashMap.newKeySet();
+    List<BackupTableParams> failed = new TableBackupScheduler(backups, 2, 8, 2, b -> {
+      if (b.tableName.equals("table0")) {
+        return response(1, "{\"error\": \"always fails\"}");
+      }
+      if (b.tableName.equals("table1") && failedOnce.add(b.tableName)) {
+        throw new RuntimeException("transient failure");
+      }
+      return response(0, "{\"snapshot_url\": \"s3://foo\"}");
+    }, () -> {}).run();
+
+    assertEquals(1, failed.size());
+    assertEquals("table0", failed.get(0).tableName);
+    assertFalse(backups.get(0).backupCompleted);
+    assertEquals(3, backups.get(0).backupAttempts);
+    assertTrue(backups.get(1).backupCompleted);
+    assertEquals(2, backups.get(1).backupAttempts);
+    assertEquals(1, backups.get(2).backupAttempts);
+    assertEquals(0, backups.get(4).backupAttempts);
+  }
+}
@@ -5,10 +5,12 @@ package com.yugabyte.yw.common;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import io.prometheus.client.CollectorRegistry;
 import org.hamcrest.CoreMatchers;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -18,15 +20,24 @@ import play.libs.ws.WSClient;
 import play.libs.ws.WSRequest;
 import play.libs.ws.WSResponse;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLStreamHandler;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static org.hamcrest.CoreMatchers.allOf;
 import static org.hamcrest.CoreMatchers.instanceOf;
@@ -35,6 +46,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.spy;
@@ -52,9 +65,17 @@ public class ApiHelperTest {
   @Mock
   HttpURLConnection mockConnection;
 
-  @InjectMocks
   ApiHelper apiHelper;
 
+  @Before
+  public void setUp() {
+    apiHelper = new ApiHelper(mockClient, new CollectorRegistry());
+  }
+
+  private static InputStream toStream(String body) {
+    return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+  }
+
   @Test
   public void testGetRequestValidJSONWithUrl() {
     CompletionStage<WSResponse> mockCompletion = CompletableFuture.completedFuture(mockResponse);
@@ -62,7 +83,7 @@ public class ApiHelperTest {
     jsonResponse.put("Foo", "Bar");
     when(mockClient.url(anyString())).thenReturn(mockRequest);
     when(mockRequest.get()).thenReturn(mockCompletion);
-    when(mockResponse.asJson()).thenReturn(jsonResponse);
+    when(mockResponse.getBodyAsStream()).thenReturn(toStream(jsonResponse.toString()));
     JsonNode result = apiHelper.getRequest("http://foo.com/test");
     Mockito.verify(mockClient, times(1)).url("http://foo.com/test");
     assertEquals(result.get("Foo").asText(), "Bar");
@@ -73,10 +94,30 @@ public class ApiHelperTest {
     CompletionStage<WSResponse> mockCompletion = CompletableFuture.completedFuture(mockResponse);
     when(mockClient.url(anyString())).thenReturn(mockRequest);
     when(mockRequest.get()).thenReturn(mockCompletion);
-    doThrow(new RuntimeException("Incorrect JSON")).when(mockResponse).asJson();
+    when(mockResponse.getBodyAsStream()).thenReturn(toStream("Incorrect JSON"));
     JsonNode result = apiHelper.getRequest("http://foo.com/test");
     Mockito.verify(mockClient, times(1)).url("http://foo.com/test");
-    assertThat(result.get("error").asText(), CoreMatchers.equalTo("java.lang.RuntimeException: Incorrect JSON"));
+    assertThat(result.get("error").asText(), CoreMatchers.startsWith(
+      "java.lang.RuntimeException: Invalid JSON response from http://foo.com/test"));
+  }
+
+  @Test
+  public void testGetRequestAsyncErrorStatusWithoutJSON() throws Exception {
+    CompletionStage<WSResponse> mockCompletion = CompletableFuture.completedFuture(mockResponse);
+    when(mockClient.url(anyString())).thenReturn(mockRequest);
+    when(mockRequest.get()).thenReturn(mockCompletion);
+    when(mockResponse.getStatus()).thenReturn(404);
+    when(mockResponse.getBodyAsStream()).thenReturn(toStream("No handler for URI /test"));
+
+    CompletableFuture<JsonNode> result =
+      apiHelper.getRequestAsync("http://foo.com/test").toCompletableFuture();
+    try {
+      result.get();
+      fail("Request did not fail");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), instanceOf(ApiHelper.HttpStatusException.class));
+      assertEquals(404, ((ApiHelper.HttpStatusException) e.getCause()).getStatus());
+    }
   }
 
   @Test
@@ -86,7 +127,7 @@ public class ApiHelperTest {
     jsonResponse.put("Foo", "Bar");
     when(mockClient.url(anyString())).thenReturn(mockRequest);
     when(mockRequest.get()).thenReturn(mockCompletion);
-    when(mockResponse.asJson()).thenReturn(jsonResponse);
+    when(mockResponse.getBodyAsStream()).thenReturn(toStream(jsonResponse.toString()));
 
     HashMap<String, String> headers = new HashMap<>();
     headers.put("header", "sample");
@@ -103,7 +144,7 @@ public class ApiHelperTest {
     jsonResponse.put("Foo", "Bar");
     when(mockClient.url(anyString())).thenReturn(mockRequest);
     when(mockRequest.get()).thenReturn(mockCompletion);
-    when(mockResponse.asJson()).thenReturn(jsonResponse);
+    when(mockResponse.getBodyAsStream()).thenReturn(toStream(jsonResponse.toString()));
 
     HashMap<String, String> params = new HashMap<>();
     params.put("param", "foo");
@@ -113,6 +154,82 @@ public class ApiHelperTest {
     assertEquals(result.get("Foo").asText(), "Bar");
   }
 
+  @Test
+  public void testGetRequestAsyncSetsDeadline() throws Exception {
+    CompletionStage<WSResponse> mockCompletion = CompletableFuture.completedFuture(mockResponse);
+    when(mockClient.url(anyString())).thenReturn(mockRequest);
+    when(mockRequest.get()).thenReturn(mockCompletion);
+    when(mockResponse.getBodyAsStream()).thenReturn(toStream("{\"Foo\": \"Bar\"}"));
+
+    JsonNode result = apiHelper.getRequestAsync("http://foo.com/test", new HashMap<>(),
+      new HashMap<>(), Duration.ofSeconds(5)).toCompletableFuture().get();
+    ArgumentCaptor<Duration> timeout = ArgumentCaptor.forClass(Duration.class);
+    Mockito.verify(mockRequest).setRequestTimeout(timeout.capture());
+    assertTrue(timeout.getValue().compareTo(Duration.ofSeconds(5)) <= 0);
+    assertEquals("Bar", result.get("Foo").asText());
+  }
+
+  @Test
+  public void testGetRequestAsyncLimitsRequestsPerHost() throws Exception {
+    List<CompletableFuture<WSResponse>> pending = new ArrayList<>();
+    when(mockClient.url(anyString())).thenReturn(mockRequest);
+    when(mockRequest.get()).thenAnswer(invocation -> {
+      CompletableFuture<WSResponse> response = new CompletableFuture<>();
+      pending.add(response);
+      return response;
+    });
+    when(mockResponse.getBodyAsStream()).thenAnswer(invocation -> toStream("{}"));
+
+    List<CompletableFuture<JsonNode>> results = new ArrayList<>();
+    for (int i = 0; i < ApiHelper.MAX_REQUESTS_PER_HOST + 2; i++) {
+      results.add(apiHelper.getRequestAsync("http://foo.com/test").toCompletableFuture());
+    }
+    // The requests over the limit are queued until a slot is released.
+    assertEquals(ApiHelper.MAX_REQUESTS_PER_HOST, pending.size());
+    pending.get(0).complete(mockResponse);
+    assertEquals(ApiHelper.MAX_REQUESTS_PER_HOST + 1, pending.size());
+    pending.get(1).completeExceptionally(new RuntimeException("Connection refused"));
+    assertEquals(ApiHelper.MAX_REQUESTS_PER_HOST + 2, pending.size());
+    for (CompletableFuture<WSResponse> response : new ArrayList<>(pending)) {
+      response.complete(mockResponse);
+    }
+    assertTrue(results.get(0).get().isObject());
+    assertTrue(results.get(1).isCompletedExceptionally());
+    assertTrue(results.get(results.size() - 1).get().isObject());
+  }
+
+  @Test
+  public void testGetRequestAsyncTimesOutWaitingForSlot() throws Exception {
+    List<CompletableFuture<WSResponse>> pending = new ArrayList<>();
+    when(mockClient.url(anyString())).thenReturn(mockRequest);
+    when(mockRequest.get()).thenAnswer(invocation -> {
+      CompletableFuture<WSResponse> response = new CompletableFuture<>();
+      pending.add(response);
+      return response;
+    });
+    when(mockResponse.getBodyAsStream()).thenAnswer(invocation -> toStream("{}"));
+
+    for (int i = 0; i < ApiHelper.MAX_REQUESTS_PER_HOST; i++) {
+      apiHelper.getRequestAsync("http://foo.com/test");
+    }
+    CompletableFuture<JsonNode> queued = apiHelper.getRequestAsync("http://foo.com/test",
+      new HashMap<>(), new HashMap<>(), Duration.ofMillis(50)).toCompletableFuture();
+    // Fails at its deadline while every slot is still taken.
+    try {
+      queued.get(10, TimeUnit.SECONDS);
+      fail("Request did not time out");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), instanceOf(TimeoutException.class));
+    }
+    assertEquals(ApiHelper.MAX_REQUESTS_PER_HOST, pending.size());
+
+    // The timed out request left the queue, the released slot is free for a new request.
+    pending.get(0).complete(mockResponse);
+    assertEquals(ApiHelper.MAX_REQUESTS_PER_HOST, pending.size());
+    apiHelper.getRequestAsync("http://foo.com/test");
+    assertEquals(ApiHelper.MAX_REQUESTS_PER_HOST + 1, pending.size());
+  }
+
   @Test
   public void testPostRequestWithValidURLAndData() {
     CompletionStage<WSResponse> mockCompletion = CompletableFuture.completedFuture(mockResponse);
@@ -0,0 +1,163 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.common;
+
+import com.google.common.collect.ImmutableMap;
+import com.typesafe.config.ConfigFactory;
+import com.yugabyte.yw.models.Audit;
+import io.prometheus.client.CollectorRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import play.inject.ApplicationLifecycle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class AuditWriterTest extends FakeDBApplication {
+  private static final int QUEUE_SIZE = 3;
+  private static final int BATCH_SIZE = 3;
+
+  private CollectorRegistry testRegistry;
+  private AuditWriter auditWriter;
+  private Callable<? extends CompletionStage<?>> stopHook;
+
+  // Released to let the writer go past the first entry it writes.
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  @Before
+  public void setUp() {
+    testRegistry = new CollectorRegistry();
+    ApplicationLifecycle lifecycle = mock(ApplicationLifecycle.class);
+    auditWriter = new AuditWriter(ConfigFactory.parseMap(ImmutableMap.of(
+        AuditWriter.ASYNC_WRITES_KEY, true,
+        AuditWriter.QUEUE_SIZE_KEY, QUEUE_SIZE,
+        AuditWriter.BATCH_SIZE_KEY, BATCH_SIZE)), lifecycle, testRegistry);
+    ArgumentCaptor<Callable> hook = ArgumentCaptor.forClass(Callable.class);
+    verify(lifecycle).addStopHook(hook.capture());
+    stopHook = hook.getValue();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    release.countDown();
+    stopHook.call();
+  }
+
+  private double getWrittenCount(String mode) {
+    Double value = testRegistry.getSampleValue("yw_audit_written_count",
+        new String[] {"mode"}, new String[] {mode});
+    return value == null ? 0 : value;
+  }
+
+  // Queues an entry whose write blocks the writer thread until release, and waits for the writer
+  // to pick it up, so that the next entries stay in the queue.
+  private Audit blockWriter() throws Exception {
+    CountDownLatch writing = new CountDownLatch(1);
+    Audit entry = mock(Audit.class);
+    doAnswer(invocation -> {
+      writing.countDown();
+      release.await();
+      return null;
+    }).when(entry).save();
+    auditWriter.write(entry, false);
+    assertTrue(writing.await(10, TimeUnit.SECONDS));
+    return entry;
+  }
+
+  private List<Audit> queueEntries(int count) {
+    List<Audit> entries = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Audit entry = mock(Audit.class);
+      auditWriter.write(entry, false);
+      entries.add(entry);
+    }
+    return entries;
+  }
+
+  @Test
+  public void testQueueFullWritesSynchronously() throws Exception {
+    blockWriter();
+    List<Audit> queued = queueEntries(QUEUE_SIZE);
+    for (Audit entry : queued) {
+      verify(entry, times(0)).save();
+    }
+
+    // The queue is full, the entry is written by the calling thread.
+    Audit overflow = mock(Audit.class);
+    auditWriter.write(overflow, false);
+    verify(overflow, times(1)).save();
+    assertEquals(1.0, testRegistry.getSampleValue("yw_audit_queue_full_count"), 0);
+    assertEquals(1.0, getWrittenCount("sync"), 0);
+
+    release.countDown();
+    auditWriter.flush();
+    for (Audit entry : queued) {
+      verify(entry, times(1)).save();
+    }
+    assertEquals(QUEUE_SIZE + 1, getWrittenCount("async"), 0);
+  }
+
+  @Test
+  public void testFailedBatchIsRetriedOneByOne() throws Exception {
+    blockWriter();
+    List<Audit> batch = queueEntries(BATCH_SIZE);
+    Audit bad = batch.get(1);
+    doThrow(new RuntimeException("Constraint violation")).when(bad).save();
+
+    release.countDown();
+    auditWriter.flush();
+
+    // The batch stopped at the bad entry, then every entry was saved on its own.
+    verify(batch.get(0), times(2)).save();
+    verify(bad, times(2)).save();
+    verify(batch.get(2), times(1)).save();
+    assertEquals(1.0, testRegistry.getSampleValue("yw_audit_write_error_count"), 0);
+    // The blocking entry and the two good entries of the batch.
+    assertEquals(3.0, getWrittenCount("async"), 0);
+  }
+
+  @Test
+  public void testStopDrainsQueue() throws Exception {
+    blockWriter();
+    List<Audit> queued = queueEntries(QUEUE_SIZE);
+
+    CompletableFuture<Void> stopped = CompletableFuture.runAsync(() -> {
+      try {
+        stopHook.call();
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    });
+    // The stop waits for the writer, which is still blocked.
+    Thread.sleep(100);
+    assertFalse(stopped.isDone());
+
+    release.countDown();
+    stopped.get(10, TimeUnit.SECONDS);
+    for (Audit entry : queued) {
+      verify(entry, times(1)).save();
+    }
+
+    // Once stopped, entries are written by the calling thread without counting a full queue.
+    Audit late = mock(Audit.class);
+    auditWriter.write(late, false);
+    verify(late, times(1)).save();
+    assertEquals(0.0, testRegistry.getSampleValue("yw_audit_queue_full_count"), 0);
+  }
+}
@@ -38,6 +38,8 @@ import play.libs.Json;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.function.Predicate;
@@ -515,6 +517,47 @@ public class NodeManagerTest extends FakeDBApplication {
     }
   }
 
+  @Test
+  public void testBatchedProvisionNodeCommands() throws IOException {
+    TestData t = testData.get(0);
+    Universe universe = Universe.saveDetails(createUniverse().universeUUID,
+        ApiUtils.mockUniverseUpdater(t.cloudType));
+    Map<String, DevopsBase.DevopsCommand> commands = new LinkedHashMap<>();
+    for (String nodeName : ImmutableList.of("host-n1", "host-n2")) {
+      AnsibleSetupServer.Params params = new AnsibleSetupServer.Params();
+      buildValidParams(t, params, universe);
+      params.nodeName = nodeName;
+      addValidDeviceInfo(t, params);
+      params.subnetId = t.zone.subnet;
+      commands.put(nodeName, nodeManager.getNodeCommand(NodeManager.NodeCommandType.Provision,
+                                                        params));
+    }
+
+    // Check the batch file and write the results of the nodes to the output file.
+    when(shellProcessHandler.run(anyList(), anyMap(), anyString())).thenAnswer(invocation -> {
+      List<String> command = invocation.getArgument(0);
+      assertEquals(ImmutableList.of(DevopsBase.YBCLOUD_SCRIPT, DevopsBase.BATCH_COMMAND,
+                                    "--parallelism", "1", "--output_file"),
+                   command.subList(0, 5));
+      JsonNode batch = Json.parse(new String(Files.readAllBytes(Paths.get(command.get(6)))));
+      assertEquals(2, batch.size());
+      for (JsonNode entry : batch) {
+        List<String> commandList = commands.get(entry.get("name").asText()).commandList;
+        assertEquals(Json.toJson(commandList.subList(1, commandList.size())), entry.get("args"));
+      }
+      Files.write(Paths.get(command.get(5)), ("{\"host-n1\": {\"code\": 0, \"message\": \"\"}, " +
+          "\"host-n2\": {\"code\": 1, \"message\": \"unreachable\"}}").getBytes());
+      return ShellResponse.create(0, "");
+    });
+
+    Map<String, ShellResponse> responses = nodeManager.nodeCommands(commands);
+    verify(shellProcessHandler, times(1)).run(anyList(), eq(t.region.provider.getConfig()),
+                                              anyString());
+    assertEquals(0, responses.get("host-n1").code);
+    assertEquals(1, responses.get("host-n2").code);
+    assertEquals("unreachable", responses.get("host-n2").message);
+  }
+
   @Test
   public void testProvisionNodeCommandWithoutAssignPublicIP() {
     for (TestData t : testData) {
@@ -17,6 +17,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import junitparams.JUnitParamsRunner;
@@ -71,6 +72,13 @@ import play.libs.Json;
 public class PlacementInfoUtilTest extends FakeDBApplication {
   private static final int REPLICATION_FACTOR = 3;
   private static final int INITIAL_NUM_NODES = REPLICATION_FACTOR * 3;
+  // Time budget of each configure step of a large universe.
+  private static final long MAX_CONFIGURE_MS = 5000;
+  // The timed configure runs are too slow and too noisy for the regular test runs, they only run
+  // when YB_RUN_MICROBENCHMARKS (or the yb.run.microbenchmarks system property) is true.
+  private static final boolean RUN_MICROBENCHMARKS =
+      "true".equalsIgnoreCase(System.getenv("YB_RUN_MICROBENCHMARKS")) ||
+      Boolean.getBoolean("yb.run.microbenchmarks");
   Random customerIdx = new Random();
 
   private class TestData {
@@ -945,6 +953,117 @@ public class PlacementInfoUtilTest extends FakeDBApplication {
     assertEquals(1, testPlacement.cloudList.get(0).regionList.get(0).azList.size());
   }
 
+  // Runs updateUniverseDefinition on the given cluster and returns how long it took, in ms.
+  private static long timeUpdateUniverseDefinition(UniverseDefinitionTaskParams taskParams,
+                                                   Customer customer, UUID clusterUUID) {
+    long startNs = System.nanoTime();
+    PlacementInfoUtil.updateUniverseDefinition(taskParams, customer.getCustomerId(), clusterUUID,
+        CREATE);
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
+  }
+
+  @Test
+  public void testConfigureLargeMultiRegionUniverse() {
+    configureLargeMultiRegionUniverse(200, false /* checkTimings */);
+  }
+
+  @Test
+  @Parameters({"200", "1000"})
+  public void testConfigureLargeMultiRegionUniverseTimings(int numNodes) {
+    if (!RUN_MICROBENCHMARKS) {
+      PlacementInfoUtil.LOG.info("Skipping the configure timings of {} nodes, " +
+          "YB_RUN_MICROBENCHMARKS is not set.", numNodes);
+      return;
+    }
+    configureLargeMultiRegionUniverse(numNodes, true /* checkTimings */);
+  }
+
+  private void configureLargeMultiRegionUniverse(int numNodes, boolean checkTimings) {
+    int replFactor = 7;
+    int numShrink = numNodes / 10;
+    Customer customer = ModelFactory.testCustomer(String.valueOf(customerIdx.nextInt(99999)),
+        "Large Universe Customer");
+    Provider p = ModelFactory.awsProvider(customer);
+    List<UUID> regionList = new ArrayList<>();
+    for (int rIdx = 1; rIdx <= 3; rIdx++) {
+      Region r = Region.create(p, "region-" + rIdx, "Region " + rIdx, "yb-image-1");
+      for (int azIdx = 1; azIdx <= 3; azIdx++) {
+        String code = String.format("az-%d-%d", rIdx, azIdx);
+        AvailabilityZone.create(r, code, "AZ " + code, "subnet-" + code);
+      }
+      regionList.add(r.uuid);
+    }
+    Universe universe = createUniverse("Large Universe", customer.getCustomerId());
+    UserIntent userIntent = new UserIntent();
+    userIntent.universeName = universe.name;
+    userIntent.replicationFactor = replFactor;
+    userIntent.numNodes = numNodes;
+    userIntent.provider = p.code;
+    userIntent.regionList = regionList;
+    userIntent.instanceType = ApiUtils.UTIL_INST_TYPE;
+    userIntent.ybSoftwareVersion = "0.0.1";
+    userIntent.accessKeyCode = "akc";
+    userIntent.providerType = CloudType.aws;
+    userIntent.preferredRegion = regionList.get(0);
+
+    // Place the nodes across one zone per replica in the three regions.
+    UniverseDefinitionTaskParams udtp = new UniverseDefinitionTaskParams();
+    udtp.universeUUID = universe.universeUUID;
+    udtp.upsertPrimaryCluster(userIntent, null);
+    UUID clusterUUID = udtp.getPrimaryCluster().uuid;
+    long createMs = timeUpdateUniverseDefinition(udtp, customer, clusterUUID);
+    PlacementInfo placementInfo = udtp.getPrimaryCluster().placementInfo;
+    assertEquals(3, placementInfo.cloudList.get(0).regionList.size());
+    assertEquals(numNodes, PlacementInfoUtil.getNodeCountInPlacement(placementInfo));
+    assertEquals(numNodes, PlacementInfoUtil.getTserversToProvision(udtp.nodeDetailsSet).size());
+
+    for (NodeDetails node : udtp.nodeDetailsSet) {
+      node.nodeName = "host-n" + node.nodeIdx;
+      node.state = Live;
+    }
+    PlacementInfoUtil.selectMasters(udtp.nodeDetailsSet, replFactor);
+    Universe.saveDetails(universe.universeUUID, u -> u.setUniverseDetails(udtp));
+
+    // Move two nodes from a zone of the first region to a zone of the second one.
+    UniverseDefinitionTaskParams moveParams = Universe.get(universe.universeUUID)
+        .getUniverseDetails();
+    List<PlacementRegion> regions =
+        moveParams.getPrimaryCluster().placementInfo.cloudList.get(0).regionList;
+    regions.get(0).azList.get(0).numNodesInAZ -= 2;
+    regions.get(1).azList.get(0).numNodesInAZ += 2;
+    long moveMs = timeUpdateUniverseDefinition(moveParams, customer, clusterUUID);
+    Set<NodeDetails> nodes = moveParams.nodeDetailsSet;
+    assertEquals(0, PlacementInfoUtil.getMastersToBeRemoved(nodes).size());
+    assertEquals(2, PlacementInfoUtil.getTserversToBeRemoved(nodes).size());
+    assertEquals(2, PlacementInfoUtil.getTserversToProvision(nodes).size());
+    UUID removedAZ = regions.get(0).azList.get(0).uuid;
+    assertTrue(PlacementInfoUtil.getTserversToBeRemoved(nodes).stream()
+        .allMatch(n -> n.azUuid.equals(removedAZ)));
+
+    // Shrink the universe by a tenth of its nodes.
+    UniverseDefinitionTaskParams shrinkParams = Universe.get(universe.universeUUID)
+        .getUniverseDetails();
+    shrinkParams.getPrimaryCluster().userIntent.numNodes = numNodes - numShrink;
+    long shrinkMs = timeUpdateUniverseDefinition(shrinkParams, customer, clusterUUID);
+    nodes = shrinkParams.nodeDetailsSet;
+    assertEquals(0, PlacementInfoUtil.getMastersToBeRemoved(nodes).size());
+    assertEquals(numShrink, PlacementInfoUtil.getTserversToBeRemoved(nodes).size());
+    assertEquals(0, PlacementInfoUtil.getTserversToProvision(nodes).size());
+    assertEquals(numNodes - numShrink, PlacementInfoUtil.getNodeCountInPlacement(
+        shrinkParams.getPrimaryCluster().placementInfo));
+
+    PlacementInfoUtil.LOG.info("Configured {} nodes: create {} ms, move {} ms, shrink {} ms.",
+        numNodes, createMs, moveMs, shrinkMs);
+    if (!checkTimings) {
+      return;
+    }
+    // The configure steps scale with the number of nodes, so even the largest universe is
+    // configured well within the time budget of a request.
+    assertTrue("Create took " + createMs + " ms", createMs < MAX_CONFIGURE_MS);
+    assertTrue("Move took " + moveMs + " ms", moveMs < MAX_CONFIGURE_MS);
+    assertTrue("Shrink took " + shrinkMs + " ms", shrinkMs < MAX_CONFIGURE_MS);
+  }
+
   @Test
   public void testUniverseDefinitionClone() {
     for (TestData t : testData) {
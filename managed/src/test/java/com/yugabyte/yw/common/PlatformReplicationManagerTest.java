@@ -14,21 +14,31 @@ import akka.actor.ActorSystem;
 import com.typesafe.config.Config;
 import com.yugabyte.yw.common.config.impl.RuntimeConfig;
 import com.yugabyte.yw.common.config.impl.SettableRuntimeConfigFactory;
+import com.yugabyte.yw.models.HighAvailabilityConfig;
+import com.yugabyte.yw.models.PlatformInstance;
 import io.ebean.Model;
 import junit.framework.TestCase;
 import junitparams.JUnitParamsRunner;
 import junitparams.Parameters;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import scala.concurrent.ExecutionContext;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.CRC32;
 
 import static org.mockito.Mockito.*;
 
@@ -51,6 +61,15 @@ public class PlatformReplicationManagerTest extends TestCase {
   @Mock
   SettableRuntimeConfigFactory mockRuntimeConfigFactory;
 
+  @Mock
+  PlatformInstanceClientFactory mockClientFactory;
+
+  @Mock
+  PlatformInstanceClient mockClient;
+
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
   @Before
   public void setUp() {
     MockitoAnnotations.initMocks(this);
@@ -168,4 +187,127 @@ public class PlatformReplicationManagerTest extends TestCase {
     verify(shellProcessHandler, times(1))
       .run(expectedCommandArgs, expectedEnvVars);
   }
+
+  private PlatformReplicationManager createStorageBackedManager() throws IOException {
+    when(mockConfig.getString(PlatformReplicationManager.STORAGE_PATH_KEY))
+      .thenReturn(tmpFolder.getRoot().getAbsolutePath());
+    when(mockConfig.getBytes(PlatformReplicationManager.REPLICATION_CHUNK_SIZE_KEY))
+      .thenReturn(4L);
+    when(mockRuntimeConfigFactory.globalRuntimeConf())
+      .thenReturn(new RuntimeConfig<>(mockConfig));
+    return new PlatformReplicationManager(
+      actorSystem,
+      executionContext,
+      shellProcessHandler,
+      mockRuntimeConfigFactory,
+      mockClientFactory
+    );
+  }
+
+  private static long crc(byte[] data) {
+    CRC32 crc = new CRC32();
+    crc.update(data);
+    return crc.getValue();
+  }
+
+  @Test
+  public void testSaveReplicationChunks() throws IOException {
+    PlatformReplicationManager manager = createStorageBackedManager();
+    String leader = "leader.yw.com";
+    String fileName = "backup_21-01-01-00-00.tgz";
+    byte[] chunk1 = "hello ".getBytes(StandardCharsets.UTF_8);
+    byte[] chunk2 = "world".getBytes(StandardCharsets.UTF_8);
+
+    assertEquals(0, manager.getReplicationUploadOffset(leader, fileName));
+    assertTrue(manager.saveReplicationChunk(leader, fileName, 0, chunk1, crc(chunk1)));
+    assertEquals(chunk1.length, manager.getReplicationUploadOffset(leader, fileName));
+    // Out of order and corrupted chunks are rejected.
+    assertFalse(manager.saveReplicationChunk(leader, fileName, 1, chunk2, crc(chunk2)));
+    assertFalse(manager.saveReplicationChunk(leader, fileName, chunk1.length, chunk2, 0));
+    assertTrue(manager.saveReplicationChunk(leader, fileName, chunk1.length, chunk2,
+      crc(chunk2)));
+
+    Path expected = tmpFolder.newFile("expected").toPath();
+    Files.write(expected, "hello world".getBytes(StandardCharsets.UTF_8));
+    String checksum = PlatformReplicationManager.computeChecksum(expected);
+    assertTrue(manager.completeReplicationUpload(leader, fileName, 11, checksum));
+    // Retrying the completion is harmless.
+    assertTrue(manager.completeReplicationUpload(leader, fileName, 11, checksum));
+
+    List<File> backups = manager.listBackups(leader);
+    assertEquals(1, backups.size());
+    assertEquals("hello world",
+      new String(Files.readAllBytes(backups.get(0).toPath()), StandardCharsets.UTF_8));
+    assertEquals(0, manager.getReplicationUploadOffset(leader, fileName));
+  }
+
+  @Test
+  public void testCompleteReplicationUploadChecksumMismatch() throws IOException {
+    PlatformReplicationManager manager = createStorageBackedManager();
+    String leader = "leader.yw.com";
+    String fileName = "backup_21-01-01-00-00.tgz";
+    byte[] chunk = "hello".getBytes(StandardCharsets.UTF_8);
+
+    assertTrue(manager.saveReplicationChunk(leader, fileName, 0, chunk, crc(chunk)));
+    assertFalse(manager.completeReplicationUpload(leader, fileName, chunk.length, "bad"));
+    assertEquals(0, manager.getReplicationUploadOffset(leader, fileName));
+    assertTrue(manager.listBackups(leader).isEmpty());
+  }
+
+  @Test
+  public void testSendBackupResumesFromRemoteOffset() throws IOException {
+    PlatformReplicationManager manager = createStorageBackedManager();
+    File backupFile = tmpFolder.newFile("backup_21-01-01-00-00.tgz");
+    Files.write(backupFile.toPath(), "0123456789".getBytes(StandardCharsets.UTF_8));
+    PlatformReplicationManager.BackupFile backup =
+      new PlatformReplicationManager.BackupFile(backupFile);
+
+    HighAvailabilityConfig config = mock(HighAvailabilityConfig.class);
+    PlatformInstance local = mock(PlatformInstance.class);
+    PlatformInstance remote = mock(PlatformInstance.class);
+    when(config.getClusterKey()).thenReturn("key");
+    when(config.getLocal()).thenReturn(local);
+    when(local.getAddress()).thenReturn("leader");
+    when(remote.getConfig()).thenReturn(config);
+    when(remote.getAddress()).thenReturn("follower");
+    when(mockClientFactory.getClient("key", "follower")).thenReturn(mockClient);
+    String fileName = backupFile.getName();
+    // The follower already has 2 bytes, then loses the connection on the next chunk.
+    when(mockClient.getUploadOffset(fileName, "leader")).thenReturn(2L, 6L);
+    doThrow(new RuntimeException("connection reset")).doNothing()
+      .when(mockClient).uploadChunk(eq(fileName), eq("leader"), eq(6L), any(), anyLong());
+
+    assertTrue(manager.sendBackup(remote, backup));
+
+    byte[] chunk1 = "2345".getBytes(StandardCharsets.UTF_8);
+    byte[] chunk2 = "6789".getBytes(StandardCharsets.UTF_8);
+    verify(mockClient).uploadChunk(fileName, "leader", 2L, chunk1, crc(chunk1));
+    verify(mockClient, times(2)).uploadChunk(fileName, "leader", 6L, chunk2, crc(chunk2));
+    verify(mockClient).completeUpload(fileName, "leader", 10L, backup.checksum);
+    verify(remote).updateLastBackup();
+  }
+
+  @Test
+  public void testSendBackupGivesUpAfterRetries() throws IOException {
+    PlatformReplicationManager manager = createStorageBackedManager();
+    File backupFile = tmpFolder.newFile("backup_21-01-01-00-00.tgz");
+    Files.write(backupFile.toPath(), "0123456789".getBytes(StandardCharsets.UTF_8));
+
+    HighAvailabilityConfig config = mock(HighAvailabilityConfig.class);
+    PlatformInstance local = mock(PlatformInstance.class);
+    PlatformInstance remote = mock(PlatformInstance.class);
+    when(config.getClusterKey()).thenReturn("key");
+    when(config.getLocal()).thenReturn(local);
+    when(local.getAddress()).thenReturn("leader");
+    when(remote.getConfig()).thenReturn(config);
+    when(remote.getAddress()).thenReturn("follower");
+    when(mockClientFactory.getClient("key", "follower")).thenReturn(mockClient);
+    when(mockClient.getUploadOffset(any(), any()))
+      .thenThrow(new RuntimeException("unreachable"));
+
+    assertFalse(manager.sendBackup(remote, new PlatformReplicationManager.BackupFile(backupFile)));
+    verify(mockClient, times(PlatformReplicationManager.MAX_CHUNK_RETRIES + 1))
+      .getUploadOffset(any(), any());
+    verify(remote, never()).updateLastBackup();
+  }
 }
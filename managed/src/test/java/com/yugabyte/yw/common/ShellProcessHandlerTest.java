@@ -2,12 +2,12 @@
 
 package com.yugabyte.yw.common;
 
+import io.prometheus.client.CollectorRegistry;
 import org.apache.commons.io.FileUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -28,7 +28,6 @@ import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ShellProcessHandlerTest {
-    @InjectMocks
     ShellProcessHandler shellProcessHandler;
 
     @Mock
@@ -39,6 +38,7 @@ public class ShellProcessHandlerTest {
     public void beforeTest() {
         new File(TMP_STORAGE_PATH).mkdirs();
         when(appConfig.getString("yb.devops.home")).thenReturn(TMP_STORAGE_PATH);
+        shellProcessHandler = new ShellProcessHandler(appConfig, new CollectorRegistry());
     }
 
     @After
@@ -0,0 +1,216 @@
+package com.yugabyte.yw.common.kms.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.prometheus.client.CollectorRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class EncryptionAtRestUniverseKeyCacheTest {
+  private static final byte[] KEY_REF = "some_key_ref".getBytes();
+  private static final byte[] KEY_VAL = "some_key_val".getBytes();
+
+  private ExecutorService executor;
+
+  private final List<EncryptionAtRestUniverseKeyCache> caches = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    executor = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+    caches.forEach(EncryptionAtRestUniverseKeyCache::stop);
+  }
+
+  private EncryptionAtRestUniverseKeyCache newCache(long ttlMs, int maxSize,
+                                                    long refreshBeforeMs) {
+    EncryptionAtRestUniverseKeyCache cache = new EncryptionAtRestUniverseKeyCache(
+        ttlMs, maxSize, refreshBeforeMs, new CollectorRegistry());
+    caches.add(cache);
+    return cache;
+  }
+
+  @Test
+  public void testGetReturnsCopy() {
+    EncryptionAtRestUniverseKeyCache cache = newCache(60000, 10, 0);
+    UUID universeUUID = UUID.randomUUID();
+    byte[] keyVal = KEY_VAL.clone();
+    cache.setCacheEntry(universeUUID, KEY_REF, keyVal);
+    keyVal[0] = 0;
+    byte[] result = cache.getCacheEntry(universeUUID, KEY_REF);
+    assertArrayEquals(KEY_VAL, result);
+    result[0] = 0;
+    assertArrayEquals(KEY_VAL, cache.getCacheEntry(universeUUID, KEY_REF));
+  }
+
+  @Test
+  public void testGetWithOtherKeyRef() {
+    EncryptionAtRestUniverseKeyCache cache = newCache(60000, 10, 0);
+    UUID universeUUID = UUID.randomUUID();
+    cache.setCacheEntry(universeUUID, KEY_REF, KEY_VAL);
+    assertNull(cache.getCacheEntry(universeUUID, "other_key_ref".getBytes()));
+  }
+
+  @Test
+  public void testEntryExpires() throws Exception {
+    EncryptionAtRestUniverseKeyCache cache = newCache(50, 10, 0);
+    UUID universeUUID = UUID.randomUUID();
+    cache.setCacheEntry(universeUUID, KEY_REF, KEY_VAL);
+    Thread.sleep(100);
+    assertNull(cache.getCacheEntry(universeUUID, KEY_REF));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testSweepRemovesExpiredEntries() throws Exception {
+    EncryptionAtRestUniverseKeyCache cache = newCache(50, 10, 0);
+    cache.setCacheEntry(UUID.randomUUID(), KEY_REF, KEY_VAL);
+    cache.setCacheEntry(UUID.randomUUID(), KEY_REF, KEY_VAL);
+    Thread.sleep(100);
+    cache.sweep();
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsed() throws Exception {
+    EncryptionAtRestUniverseKeyCache cache = newCache(60000, 2, 0);
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+    UUID third = UUID.randomUUID();
+    cache.setCacheEntry(first, KEY_REF, KEY_VAL);
+    Thread.sleep(5);
+    cache.setCacheEntry(second, KEY_REF, KEY_VAL);
+    Thread.sleep(5);
+    cache.getCacheEntry(first, KEY_REF);
+    Thread.sleep(5);
+    cache.setCacheEntry(third, KEY_REF, KEY_VAL);
+    assertEquals(2, cache.size());
+    assertArrayEquals(KEY_VAL, cache.getCacheEntry(first, KEY_REF));
+    assertNull(cache.getCacheEntry(second, KEY_REF));
+    assertArrayEquals(KEY_VAL, cache.getCacheEntry(third, KEY_REF));
+  }
+
+  @Test
+  public void testRemoveAndClear() {
+    EncryptionAtRestUniverseKeyCache cache = newCache(60000, 10, 0);
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+    cache.setCacheEntry(first, KEY_REF, KEY_VAL);
+    cache.setCacheEntry(second, KEY_REF, KEY_VAL);
+    cache.removeCacheEntry(first);
+    assertNull(cache.getCacheEntry(first, KEY_REF));
+    assertArrayEquals(KEY_VAL, cache.getCacheEntry(second, KEY_REF));
+    cache.clearCache();
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testConcurrentMissesLoadOnce() throws Exception {
+    EncryptionAtRestUniverseKeyCache cache = newCache(60000, 10, 0);
+    UUID universeUUID = UUID.randomUUID();
+    AtomicInteger numLoads = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    List<Future<byte[]>> futures = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      futures.add(executor.submit(() -> cache.getOrLoad(universeUUID, KEY_REF, () -> {
+        numLoads.incrementAndGet();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+        return KEY_VAL.clone();
+      })));
+    }
+    Thread.sleep(100);
+    release.countDown();
+    for (Future<byte[]> future : futures) {
+      assertArrayEquals(KEY_VAL, future.get(10, TimeUnit.SECONDS));
+    }
+    assertEquals(1, numLoads.get());
+    assertArrayEquals(KEY_VAL, cache.getCacheEntry(universeUUID, KEY_REF));
+  }
+
+  @Test
+  public void testLoadErrorIsNotCached() {
+    EncryptionAtRestUniverseKeyCache cache = newCache(60000, 10, 0);
+    UUID universeUUID = UUID.randomUUID();
+    RuntimeException error = new RuntimeException("KMS unavailable");
+    try {
+      cache.getOrLoad(universeUUID, KEY_REF, () -> { throw error; });
+      fail("Expected the load error");
+    } catch (RuntimeException e) {
+      assertEquals(error, e);
+    }
+    assertArrayEquals(KEY_VAL, cache.getOrLoad(universeUUID, KEY_REF, () -> KEY_VAL.clone()));
+  }
+
+  @Test
+  public void testRefreshBeforeExpiry() throws Exception {
+    EncryptionAtRestUniverseKeyCache cache = newCache(1000, 10, 900);
+    UUID universeUUID = UUID.randomUUID();
+    AtomicInteger numLoads = new AtomicInteger();
+    CountDownLatch refreshed = new CountDownLatch(2);
+    cache.getOrLoad(universeUUID, KEY_REF, () -> {
+      numLoads.incrementAndGet();
+      refreshed.countDown();
+      return KEY_VAL.clone();
+    });
+    // The entry is now within the refresh window: the hit reloads it in the background.
+    Thread.sleep(600);
+    assertArrayEquals(KEY_VAL, cache.getOrLoad(universeUUID, KEY_REF, () -> null));
+    assertTrue(refreshed.await(10, TimeUnit.SECONDS));
+    assertEquals(2, numLoads.get());
+  }
+
+  @Test
+  public void testPrefetch() throws Exception {
+    EncryptionAtRestUniverseKeyCache cache = newCache(60000, 10, 0);
+    UUID universeUUID = UUID.randomUUID();
+    CountDownLatch loaded = new CountDownLatch(1);
+    cache.prefetch(universeUUID, KEY_REF, () -> {
+      loaded.countDown();
+      return KEY_VAL.clone();
+    });
+    assertTrue(loaded.await(10, TimeUnit.SECONDS));
+    long deadline = System.currentTimeMillis() + 10000;
+    while (cache.size() == 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertArrayEquals(KEY_VAL, cache.getCacheEntry(universeUUID, KEY_REF));
+  }
+
+  @Test
+  public void testStop() {
+    EncryptionAtRestUniverseKeyCache cache = newCache(60000, 10, 0);
+    UUID universeUUID = UUID.randomUUID();
+    cache.setCacheEntry(universeUUID, KEY_REF, KEY_VAL);
+    cache.stop();
+    assertEquals(0, cache.size());
+    try {
+      cache.prefetch(universeUUID, KEY_REF, KEY_VAL::clone);
+      fail("Prefetch should be rejected once the cache is stopped.");
+    } catch (RejectedExecutionException e) {
+      // Expected.
+    }
+  }
+}
@@ -0,0 +1,81 @@
+// Copyright (c) YugaByte, Inc.
+
+package com.yugabyte.yw.common.services;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.yb.client.YBClient;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class LocalYBClientServiceTest {
+  // Clients connect lazily, so nothing needs to listen on these.
+  private static final String MASTERS = "127.0.0.1:17100,127.0.0.2:17100,127.0.0.3:17100";
+
+  private LocalYBClientService service;
+
+  @Before
+  public void setUp() {
+    service = new LocalYBClientService();
+  }
+
+  @After
+  public void tearDown() {
+    service.evictAllClients();
+  }
+
+  @Test
+  public void testNullMasters() {
+    assertNull(service.getClient(null));
+  }
+
+  @Test
+  public void testClientIsShared() {
+    YBClient client1 = service.getClient(MASTERS);
+    YBClient client2 = service.getClient("127.0.0.3:17100,127.0.0.1:17100,127.0.0.2:17100");
+    assertSame(client1, client2);
+    assertEquals(1, service.getPoolSize());
+
+    // A different certificate gets its own client.
+    YBClient tlsClient = service.getClient(MASTERS, "/tmp/ca.crt");
+    assertNotSame(client1, tlsClient);
+    assertEquals(2, service.getPoolSize());
+
+    service.closeClient(client1, MASTERS);
+    service.closeClient(client2, MASTERS);
+    service.closeClient(tlsClient, MASTERS);
+    // Released clients stay pooled until they are idle for long enough.
+    assertEquals(2, service.getPoolSize());
+    assertSame(client1, service.getClient(MASTERS));
+  }
+
+  @Test
+  public void testMasterChangeRetiresClient() {
+    YBClient oldClient = service.getClient(MASTERS);
+    String newMasters = "127.0.0.1:17100,127.0.0.2:17100,127.0.0.4:17100";
+    YBClient newClient = service.getClient(newMasters);
+    assertNotSame(oldClient, newClient);
+    assertEquals(1, service.getPoolSize());
+
+    // The old client is still usable by its holder, and is closed on release.
+    service.closeClient(oldClient, MASTERS);
+    YBClient client = service.getClient(MASTERS);
+    assertNotSame(oldClient, client);
+    service.closeClient(client, MASTERS);
+    service.closeClient(newClient, newMasters);
+  }
+
+  @Test
+  public void testUnrelatedUniversesArePooledSeparately() {
+    YBClient client1 = service.getClient(MASTERS);
+    YBClient client2 = service.getClient("127.0.1.1:17100");
+    assertNotSame(client1, client2);
+    assertEquals(2, service.getPoolSize());
+    service.closeClient(client1, MASTERS);
+    service.closeClient(client2, "127.0.1.1:17100");
+  }
+}
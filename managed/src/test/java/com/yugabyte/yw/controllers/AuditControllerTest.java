@@ -101,6 +101,35 @@ public class AuditControllerTest extends FakeDBApplication {
     assertEquals(json.size(), 2);
   }
 
+  @Test
+  public void testGetAuditListByUserPaged() {
+    Http.Cookie validCookie = Http.Cookie.builder("authToken", authToken1).build();
+    String route = "/api/customers/%s/users/%s/audit_trail?limit=1";
+    Result result = route(fakeRequest("GET",
+        String.format(route, customer1.uuid, user1.uuid)).cookie(validCookie));
+    assertEquals(OK, result.status());
+    JsonNode json = Json.parse(contentAsString(result));
+    assertEquals(1, json.size());
+    assertEquals(audit2.getAuditID().longValue(), json.get(0).path("auditID").asLong());
+
+    result = route(fakeRequest("GET",
+        String.format(route + "&before=%d", customer1.uuid, user1.uuid, audit2.getAuditID()))
+        .cookie(validCookie));
+    assertEquals(OK, result.status());
+    json = Json.parse(contentAsString(result));
+    assertEquals(1, json.size());
+    assertEquals(audit1.getAuditID().longValue(), json.get(0).path("auditID").asLong());
+  }
+
+  @Test
+  public void testGetAuditListByUserInvalidLimit() {
+    Http.Cookie validCookie = Http.Cookie.builder("authToken", authToken1).build();
+    String route = "/api/customers/%s/users/%s/audit_trail?limit=0";
+    Result result = route(fakeRequest("GET",
+        String.format(route, customer1.uuid, user1.uuid)).cookie(validCookie));
+    assertBadRequest(result, "Invalid limit or before.");
+  }
+
   @Test
   public void testGetListFailureIncorrectCustomer() {
     Http.Cookie validCookie = Http.Cookie.builder("authToken", authToken1).build();
@@ -14,6 +14,8 @@ import static org.hamcrest.CoreMatchers.allOf;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.core.StringContains.containsString;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
@@ -77,7 +79,9 @@ public class ImportControllerTest extends CommissionerBaseTest {
     when(mockApiHelper.getRequest(any(String.class))).thenReturn(Json.newObject());
     when(mockYBClient.getClient(any(), any())).thenReturn(mockClient);
     when(mockYBClient.getClient(any())).thenReturn(mockClient);
-    when(mockClient.waitForServer(any(), anyLong())).thenReturn(true);
+    try {
+      when(mockClient.ping(anyString(), anyInt())).thenReturn(true);
+    } catch (Exception e) {}
     when(mockResponse.getTabletServersCount()).thenReturn(3);
     List<ServerInfo> mockTabletSIs = new ArrayList<ServerInfo>();
     ServerInfo si = new ServerInfo("UUID1", "127.0.0.1", 9100, false, "ALIVE");
@@ -295,7 +299,9 @@ public class ImportControllerTest extends CommissionerBaseTest {
 
   @Test
   public void testFailedMasterImport() {
-    when(mockClient.waitForServer(any(), anyLong())).thenThrow(IllegalStateException.class);
+    try {
+      when(mockClient.ping(anyString(), anyInt())).thenThrow(IllegalStateException.class);
+    } catch (Exception e) {}
     String url = "/api/customers/" + customer.uuid + "/universes/import";
     ObjectNode bodyJson = Json.newObject()
                               .put("universeName", "importUniv")
@@ -17,6 +17,7 @@ import akka.util.ByteString;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
 import com.yugabyte.yw.common.FakeApiHelper;
 import com.yugabyte.yw.common.FakeDBApplication;
 import com.yugabyte.yw.common.ModelFactory;
@@ -40,11 +41,14 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Random;
 import java.util.Date;
 import java.util.UUID;
+import java.util.zip.CRC32;
 
 import static com.yugabyte.yw.common.AssertHelper.*;
 import static junit.framework.TestCase.assertEquals;
@@ -52,6 +56,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static play.libs.Files.singletonTemporaryFileCreator;
 import static play.mvc.Http.Status.BAD_REQUEST;
+import static play.mvc.Http.Status.REQUEST_ENTITY_TOO_LARGE;
 import static play.test.Helpers.contentAsString;
 import static play.test.Helpers.fakeRequest;
 
@@ -388,6 +393,95 @@ public class InternalHAControllerTest extends FakeDBApplication {
           mat));
   }
 
+  private Result sendBackupChunk(String clusterKey, String leaderAddr, String fileName,
+                                 long offset, byte[] chunk) {
+    CRC32 crc = new CRC32();
+    crc.update(chunk);
+    return Helpers.route(app,
+      fakeRequest()
+        .method("POST")
+        .uri("/api/settings/ha/internal/upload/" + fileName + "/chunk?leader=" + leaderAddr +
+          "&sender=" + leaderAddr + "&offset=" + offset + "&crc=" + crc.getValue())
+        .header(HAAuthenticator.HA_CLUSTER_KEY_TOKEN_HEADER, clusterKey)
+        .header("Content-Type", "application/octet-stream")
+        .bodyRaw(chunk));
+  }
+
+  @Test
+  public void testUploadBackupInChunks() throws IOException {
+    JsonNode haConfigJson = createHAConfig();
+    String leaderAddr = "leader.yw.com";
+    String clusterKey = createInstances(haConfigJson, leaderAddr);
+    File fakeDump = createFakeDump();
+    byte[] data = Files.readAllBytes(fakeDump.toPath());
+    String fileName = fakeDump.getName();
+    int half = data.length / 2;
+
+    assertOk(sendBackupChunk(clusterKey, leaderAddr, fileName, 0,
+      Arrays.copyOfRange(data, 0, half)));
+    Result offsetResult = FakeApiHelper.doRequestWithHAToken("GET",
+      "/api/settings/ha/internal/upload/" + fileName + "?leader=" + leaderAddr, clusterKey);
+    assertEquals(half, Json.parse(contentAsString(offsetResult)).get("offset").asInt());
+
+    // Chunks must follow each other.
+    Result result = sendBackupChunk(clusterKey, leaderAddr, fileName, half + 1,
+      Arrays.copyOfRange(data, half + 1, data.length));
+    assertBadRequest(result, "Rejected backup chunk at offset " + (half + 1) +
+      ", current offset is " + half);
+    assertOk(sendBackupChunk(clusterKey, leaderAddr, fileName, half,
+      Arrays.copyOfRange(data, half, data.length)));
+
+    String checksum = Hashing.sha256().hashBytes(data).toString();
+    result = FakeApiHelper.doRequestWithHATokenAndBody("POST",
+      "/api/settings/ha/internal/upload/" + fileName + "/complete?leader=" + leaderAddr +
+        "&sender=" + leaderAddr + "&size=" + data.length + "&checksum=" + checksum,
+      clusterKey, Json.newObject());
+    assertOk(result);
+
+    String storagePath = app.config().getString(PlatformReplicationManager.STORAGE_PATH_KEY);
+    File uploadedFile = Paths.get(storagePath,
+      PlatformReplicationManager.REPLICATION_DIR,
+      leaderAddr,
+      fileName
+    ).toFile();
+    assertTrue(uploadedFile.getAbsolutePath(), uploadedFile.exists());
+    assertTrue(FileUtils.contentEquals(uploadedFile, fakeDump));
+  }
+
+  @Test
+  public void testUploadBackupChunkInvalidFileName() {
+    JsonNode haConfigJson = createHAConfig();
+    String leaderAddr = "leader.yw.com";
+    String clusterKey = createInstances(haConfigJson, leaderAddr);
+    Result result = sendBackupChunk(clusterKey, leaderAddr, "..%2Fbackup_1.tgz", 0,
+      new byte[] {1, 2, 3});
+    assertBadRequest(result, "Invalid backup file name: ../backup_1.tgz");
+  }
+
+  @Test
+  public void testUploadBackupChunkUnknownLeader() {
+    JsonNode haConfigJson = createHAConfig();
+    String clusterKey = createInstances(haConfigJson, "leader.yw.com");
+    String fileName = "backup_1.tgz";
+    Result result = sendBackupChunk(clusterKey, "..", fileName, 0, new byte[] {1, 2, 3});
+    assertBadRequest(result, "Unknown leader: ..");
+    result = FakeApiHelper.doRequestWithHAToken("GET",
+      "/api/settings/ha/internal/upload/" + fileName + "?leader=..", clusterKey);
+    assertBadRequest(result, "Unknown leader: ..");
+  }
+
+  @Test
+  public void testUploadBackupChunkTooLarge() {
+    JsonNode haConfigJson = createHAConfig();
+    String leaderAddr = "leader.yw.com";
+    String clusterKey = createInstances(haConfigJson, leaderAddr);
+    int maxChunkSize = (int) app.config()
+      .getBytes(PlatformReplicationManager.REPLICATION_CHUNK_SIZE_KEY).longValue();
+    Result result = sendBackupChunk(clusterKey, leaderAddr, "backup_1.tgz", 0,
+      new byte[maxChunkSize + 1]);
+    assertEquals(REQUEST_ENTITY_TOO_LARGE, result.status());
+  }
+
   @Test
   public void testSyncInstancesFromStaleLeader() {
     JsonNode haConfigJson = createHAConfig();
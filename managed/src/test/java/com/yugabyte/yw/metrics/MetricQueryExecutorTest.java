@@ -17,6 +17,7 @@ import play.libs.Json;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.hamcrest.core.*;
 import static org.junit.Assert.assertEquals;
@@ -68,7 +69,8 @@ public class MetricQueryExecutorTest extends FakeDBApplication {
                                          " {\"cpu\":\"system\"},\"value\":[1479278137,\"0.027751899056199826\"]},{\"metric\":\n" +
                                          " {\"cpu\":\"system\"}, \"value\":[1479278137,\"0.04329469299783263\"]}]}}");
 
-    when(mockApiHelper.getRequest(eq("foo://bar/query"), anyMap(), anyMap())).thenReturn(Json.toJson(responseJson));
+    when(mockApiHelper.getRequestAsync(eq("foo://bar/query"), anyMap(), anyMap()))
+      .thenReturn(CompletableFuture.completedFuture(Json.toJson(responseJson)));
 
     JsonNode result = qe.call();
     assertThat(
@@ -158,9 +160,10 @@ public class MetricQueryExecutorTest extends FakeDBApplication {
     ArgumentCaptor<Map> queryParam = ArgumentCaptor.forClass(Map.class);
 
 
-    when(mockApiHelper.getRequest(anyString(), anyMap(), anyMap())).thenReturn(Json.toJson(responseJson));
+    when(mockApiHelper.getRequestAsync(anyString(), anyMap(), anyMap()))
+      .thenReturn(CompletableFuture.completedFuture(Json.toJson(responseJson)));
     qe.call();
-    verify(mockApiHelper).getRequest(queryUrl.capture(), anyMap(), (Map<String, String>) queryParam.capture());
+    verify(mockApiHelper).getRequestAsync(queryUrl.capture(), anyMap(), (Map<String, String>) queryParam.capture());
 
     assertThat(
       queryUrl.getValue(),
@@ -194,9 +197,10 @@ public class MetricQueryExecutorTest extends FakeDBApplication {
     ArgumentCaptor<Map> queryParam = ArgumentCaptor.forClass(Map.class);
 
 
-    when(mockApiHelper.getRequest(anyString(), anyMap(), anyMap())).thenReturn(Json.toJson(responseJson));
+    when(mockApiHelper.getRequestAsync(anyString(), anyMap(), anyMap()))
+      .thenReturn(CompletableFuture.completedFuture(Json.toJson(responseJson)));
     qe.call();
-    verify(mockApiHelper).getRequest(queryUrl.capture(), anyMap(), (Map<String, String>) queryParam.capture());
+    verify(mockApiHelper).getRequestAsync(queryUrl.capture(), anyMap(), (Map<String, String>) queryParam.capture());
 
     assertThat(
       queryUrl.getValue(),
@@ -223,7 +227,8 @@ public class MetricQueryExecutorTest extends FakeDBApplication {
 
     JsonNode responseJson = Json.parse("{\"status\":\"error\",\"errorType\":\"bad_data\"," +
             "\"error\":\"parse error at char 44: unexpected \\\"{\\\" in aggregation, expected \\\")\\\"\"}");
-    when(mockApiHelper.getRequest(anyString(), anyMap(), anyMap())).thenReturn(Json.toJson(responseJson));
+    when(mockApiHelper.getRequestAsync(anyString(), anyMap(), anyMap()))
+      .thenReturn(CompletableFuture.completedFuture(Json.toJson(responseJson)));
     JsonNode response = qe.call();
     assertThat(response.get("error").asText(), AllOf.allOf(
       IsNull.notNullValue(), IsEqual.equalTo("parse error at char 44: unexpected " +
@@ -23,6 +23,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static junit.framework.TestCase.assertTrue;
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -95,9 +96,10 @@ public class MetricQueryHelperTest extends FakeDBApplication {
     ArgumentCaptor<String> queryUrl = ArgumentCaptor.forClass(String.class);
     ArgumentCaptor<Map> queryParam = ArgumentCaptor.forClass(Map.class);
 
-    when(mockApiHelper.getRequest(anyString(), anyMap(), anyMap())).thenReturn(responseJson);
+    when(mockApiHelper.getRequestAsync(anyString(), anyMap(), anyMap()))
+      .thenReturn(CompletableFuture.completedFuture(responseJson));
     metricQueryHelper.query(ImmutableList.of("valid_metric"), params);
-    verify(mockApiHelper).getRequest(queryUrl.capture(), anyMap(), (Map<String, String>) queryParam.capture());
+    verify(mockApiHelper).getRequestAsync(queryUrl.capture(), anyMap(), (Map<String, String>) queryParam.capture());
 
     assertThat(queryUrl.getValue(), allOf(notNullValue(), equalTo("foo://bar/query")));
     assertThat(
@@ -127,9 +129,10 @@ public class MetricQueryHelperTest extends FakeDBApplication {
     ArgumentCaptor<String> queryUrl = ArgumentCaptor.forClass(String.class);
     ArgumentCaptor<Map> queryParam = ArgumentCaptor.forClass(Map.class);
 
-    when(mockApiHelper.getRequest(anyString(), anyMap(), anyMap())).thenReturn(responseJson);
+    when(mockApiHelper.getRequestAsync(anyString(), anyMap(), anyMap()))
+      .thenReturn(CompletableFuture.completedFuture(responseJson));
     metricQueryHelper.query(ImmutableList.of("valid_metric"), params);
-    verify(mockApiHelper).getRequest(queryUrl.capture(), anyMap(), (Map<String, String>) queryParam.capture());
+    verify(mockApiHelper).getRequestAsync(queryUrl.capture(), anyMap(), (Map<String, String>) queryParam.capture());
 
     assertThat(queryUrl.getValue(), allOf(notNullValue(), equalTo("foo://bar/query_range")));
     assertThat(
@@ -198,9 +201,10 @@ public class MetricQueryHelperTest extends FakeDBApplication {
     ArgumentCaptor<Map> queryParam = ArgumentCaptor.forClass(Map.class);
     List<String> metricKeys = ImmutableList.of("valid_metric2", "valid_metric");
 
-    when(mockApiHelper.getRequest(anyString(), anyMap(), anyMap())).thenReturn(responseJson);
+    when(mockApiHelper.getRequestAsync(anyString(), anyMap(), anyMap()))
+      .thenReturn(CompletableFuture.completedFuture(responseJson));
     JsonNode result = metricQueryHelper.query(metricKeys, params);
-    verify(mockApiHelper, times(2)).getRequest(queryUrl.capture(), anyMap(), (Map<String, String>) queryParam.capture());
+    verify(mockApiHelper, times(2)).getRequestAsync(queryUrl.capture(), anyMap(), (Map<String, String>) queryParam.capture());
     assertThat(queryUrl.getValue(), allOf(notNullValue(), equalTo("foo://bar/query_range")));
     assertThat(
       queryParam.getValue(),
@@ -2,8 +2,6 @@
 
 package com.yugabyte.yw.metrics;
 
-import com.datastax.driver.core.ResultSet;
-import com.datastax.driver.core.Row;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -19,7 +17,7 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.mockito.InjectMocks;
-import org.mockito.stubbing.OngoingStubbing;
+import play.inject.ApplicationLifecycle;
 import play.libs.Json;
 
 import java.util.HashMap;
@@ -28,7 +26,6 @@ import java.util.List;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
-import java.util.Iterator;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -49,83 +46,40 @@ import static com.yugabyte.yw.metrics.YBMetricQueryComponent.Function.Average;
 @RunWith(MockitoJUnitRunner.class)
 public class YBMetricQueryComponentTest extends FakeDBApplication {
 
+  @Mock
+  ApplicationLifecycle lifecycle;
+
   @InjectMocks
   YBMetricQueryComponent ybMetricQueryComponent;
 
   private class MockResultSet {
     List<Date> times;
     List<Long> values;
-    List<Boolean> hasNexts;
   }
 
-  // Takes a MockResultSet that contains the information to mock the iterator's
-  // next values. MockResultSet.hasNexts is expected to have 2x + 1 the values of the
-  // other members since it is queried twice in each call (three times in the first iteration).
-  public List<ResultSet> setupCalculate(List<MockResultSet> mockResultSet) {
-    List<ResultSet> allRS = new ArrayList<>();
-    ResultSet rs1 = Mockito.mock(ResultSet.class);
-    ResultSet rs2 = Mockito.mock(ResultSet.class);
-    ResultSet rs3 = Mockito.mock(ResultSet.class);
-    allRS.add(rs1);
-    allRS.add(rs2);
-    allRS.add(rs3);
-
-    Row row1 = Mockito.mock(Row.class);
-    Row row2 = Mockito.mock(Row.class);
-    Row row3 = Mockito.mock(Row.class);
-
-    OngoingStubbing timestamps1 = when(row1.getTimestamp("ts"));
-    for (Date time : mockResultSet.get(0).times) {
-      timestamps1 = timestamps1.thenReturn(time);
-    }
-    OngoingStubbing timestamps2 = when(row2.getTimestamp("ts"));
-    for (Date time : mockResultSet.get(1).times) {
-      timestamps2 = timestamps2.thenReturn(time);
-    }
-    OngoingStubbing timestamps3 = when(row3.getTimestamp("ts"));
-    for (Date time : mockResultSet.get(2).times) {
-      timestamps3 = timestamps3.thenReturn(time);
-    }
-
-    OngoingStubbing values1 = when(row1.getLong("value"));
-    for (Long value : mockResultSet.get(0).values) {
-      values1 = values1.thenReturn(value);
+  // Builds the series of the samples of each MockResultSet, whose samples are in decreasing
+  // timestamp order as returned by the metrics table.
+  public List<YBMetricQueryComponent.TimeSeries> setupCalculate(
+      List<MockResultSet> mockResultSet) {
+    List<YBMetricQueryComponent.TimeSeries> allSeries = new ArrayList<>();
+    for (MockResultSet rs : mockResultSet) {
+      YBMetricQueryComponent.TimeSeries series =
+          new YBMetricQueryComponent.TimeSeries(rs.times.size());
+      for (int i = 0; i < rs.times.size(); i++) {
+        series.add(rs.times.get(i).getTime() / 1000, rs.values.get(i));
+      }
+      series.reverse();
+      allSeries.add(series);
     }
-    OngoingStubbing values2 = when(row2.getLong("value"));
-    for (Long value : mockResultSet.get(1).values) {
-      values2 = values2.thenReturn(value);
-    }
-    OngoingStubbing values3 = when(row3.getLong("value"));
-    for (Long value : mockResultSet.get(2).values) {
-      values3 = values3.thenReturn(value);
-    }
-
-    Iterator iterator1 = Mockito.mock(Iterator.class);
-    Iterator iterator2 = Mockito.mock(Iterator.class);
-    Iterator iterator3 = Mockito.mock(Iterator.class);
-
-    when(rs1.iterator()).thenReturn(iterator1);
-    when(rs2.iterator()).thenReturn(iterator2);
-    when(rs3.iterator()).thenReturn(iterator3);
+    return allSeries;
+  }
 
-    OngoingStubbing iteratorNext1 = when(iterator1.hasNext());
-    for (Boolean hasNext : mockResultSet.get(0).hasNexts) {
-      iteratorNext1 = iteratorNext1.thenReturn(hasNext);
-    }
-    OngoingStubbing iteratorNext2 = when(iterator2.hasNext());
-    for (Boolean hasNext : mockResultSet.get(1).hasNexts) {
-      iteratorNext2 = iteratorNext2.thenReturn(hasNext);
-    }
-    OngoingStubbing iteratorNext3 = when(iterator3.hasNext());
-    for (Boolean hasNext : mockResultSet.get(2).hasNexts) {
-      iteratorNext3 = iteratorNext3.thenReturn(hasNext);
+  private Map<Long, Double> toMap(YBMetricQueryComponent.TimeSeries series) {
+    Map<Long, Double> map = new HashMap<>();
+    for (int i = 0; i < series.size; i++) {
+      map.put(series.timestampsSec[i], series.values[i]);
     }
-
-    when(iterator1.next()).thenReturn(row1);
-    when(iterator2.next()).thenReturn(row2);
-    when(iterator3.next()).thenReturn(row3);
-
-    return allRS;
+    return map;
   }
 
   @Test
@@ -139,17 +93,15 @@ public class YBMetricQueryComponentTest extends FakeDBApplication {
                                         new Date(timeVal - interval * 3),
                                         new Date(timeVal - interval * 4));
     mockResultSet.values = Arrays.asList(16000L, 12000L, 10000L, 7000L, 5000L);
-    mockResultSet.hasNexts = Arrays.asList(true, true, true, true, true,
-                                          true, true, true, true, false);
 
-    List<ResultSet> allRS = setupCalculate(Arrays.asList(mockResultSet, mockResultSet,
-                                                         mockResultSet));
+    List<YBMetricQueryComponent.TimeSeries> allRS =
+        setupCalculate(Arrays.asList(mockResultSet, mockResultSet, mockResultSet));
 
     Map<Long, Double> expectedValues = ImmutableMap.of(2323163L, (200.0 / 3) * 3,
                                                        2323193L, (300.0 / 3) * 3,
                                                        2323223L, (200.0 / 3) * 3,
                                                        2323253L, (400.0 / 3) * 3);
-    assertEquals(expectedValues, ybMetricQueryComponent.calculateRate(allRS, Sum, 3));
+    assertEquals(expectedValues, toMap(ybMetricQueryComponent.calculateRate(allRS, Sum, 3)));
   }
 
   @Test
@@ -163,17 +115,16 @@ public class YBMetricQueryComponentTest extends FakeDBApplication {
                                         new Date(timeVal - interval * 3),
                                         new Date(timeVal - interval * 4));
     mockResultSet.values = Arrays.asList(16000L, 12000L, 10000L, 7000L, 5000L);
-    mockResultSet.hasNexts = Arrays.asList(true, true, true, true, true,
-                                          true, true, true, true, false);
 
-    List<ResultSet> allRS = setupCalculate(Arrays.asList(mockResultSet, mockResultSet,
-                                                         mockResultSet));
+    List<YBMetricQueryComponent.TimeSeries> allRS =
+        setupCalculate(Arrays.asList(mockResultSet, mockResultSet, mockResultSet));
 
     Map<Long, Double> expectedValues = ImmutableMap.of(2323163L, 200.0 / 3,
                                                        2323193L, 300.0 / 3,
                                                        2323223L, 200.0 / 3,
                                                        2323253L, 400.0 / 3);
-    assertEquals(expectedValues, ybMetricQueryComponent.calculateRate(allRS, Average, 3));
+    assertEquals(expectedValues,
+                 toMap(ybMetricQueryComponent.calculateRate(allRS, Average, 3)));
   }
 
   @Test
@@ -195,18 +146,25 @@ public class YBMetricQueryComponentTest extends FakeDBApplication {
     mockResultSet.values = Arrays.asList(16000L, 12000L, 10000L, 7000L, 5000L);
     mockResultSetMissing.values = Arrays.asList(16000L, 12000L, 7000L, 5000L);
 
-    mockResultSet.hasNexts = Arrays.asList(true, true, true, true, true,
-                                          true, true, true, true, false);
-    mockResultSetMissing.hasNexts = Arrays.asList(true, true, true, true,
-                                                 true, true, true, false);
-
-    List<ResultSet> allRS = setupCalculate(Arrays.asList(mockResultSet, mockResultSet,
-                                                         mockResultSetMissing));
+    List<YBMetricQueryComponent.TimeSeries> allRS =
+        setupCalculate(Arrays.asList(mockResultSet, mockResultSet, mockResultSetMissing));
 
     Map<Long, Double> expectedValues = ImmutableMap.of(2323163L, (200.0 / 3) * 3,
                                                        2323193L, (300.0 / 3) * 2 + (500.0 / 6),
                                                        2323223L, (200.0 / 3) * 2,
                                                        2323253L, (400.0 / 3) * 3);
-    assertEquals(expectedValues, ybMetricQueryComponent.calculateRate(allRS, Sum, 3));
+    assertEquals(expectedValues, toMap(ybMetricQueryComponent.calculateRate(allRS, Sum, 3)));
+  }
+
+  @Test
+  public void testMetricDivide() {
+    YBMetricQueryComponent.TimeSeries sum = new YBMetricQueryComponent.TimeSeries(
+        new long[] {100L, 130L, 165L, 250L}, new double[] {40.0, 90.0, 30.0, 10.0});
+    YBMetricQueryComponent.TimeSeries count = new YBMetricQueryComponent.TimeSeries(
+        new long[] {95L, 130L, 200L}, new double[] {4.0, 10.0, 5.0});
+
+    // 165 and 250 have no count within the range.
+    Map<Long, Double> expectedValues = ImmutableMap.of(95L, 10.0, 130L, 9.0);
+    assertEquals(expectedValues, toMap(ybMetricQueryComponent.metricDivide(sum, count)));
   }
 }
@@ -124,6 +124,24 @@ public class AuditTest extends FakeDBApplication {
     assertNotNull(entries.get(0).getTimestamp());
   }
 
+  @Test
+  public void testCreateAuditEntryWaitForWrite() {
+    ObjectNode testPayload = Json.newObject().put("foo", "bar");
+    Audit.createAuditEntry(context, request, testPayload, true);
+    List<Audit> entries = Audit.find.query().where().eq("customer_uuid", customer.uuid).findList();
+    assertEquals(1, entries.size());
+    assertEquals(testPayload, entries.get(0).getPayload());
+  }
+
+  @Test
+  public void testCreateManyAuditEntries() {
+    for (int i = 0; i < 500; i++) {
+      Audit.createAuditEntry(context, request, Json.newObject().put("index", i));
+    }
+    List<Audit> entries = Audit.getAll(customer.uuid);
+    assertEquals(500, entries.size());
+  }
+
   @Test
   public void testGetAll() {
     UUID randUUID = UUID.randomUUID();
@@ -158,4 +176,17 @@ public class AuditTest extends FakeDBApplication {
     assertEquals(entries.size(), 2);
     assertEquals(entries1.size(), 1);
   }
+
+  @Test
+  public void testGetUserEntriesPage() {
+    for (int i = 0; i < 5; i++) {
+      createEntry(UUID.randomUUID(), user);
+    }
+    List<Audit> page = Audit.getUserEntriesPage(user.uuid, null, 2);
+    assertEquals(2, page.size());
+    assertTrue(page.get(0).getAuditID() > page.get(1).getAuditID());
+    List<Audit> nextPage = Audit.getUserEntriesPage(user.uuid, page.get(1).getAuditID(), 10);
+    assertEquals(3, nextPage.size());
+    assertTrue(nextPage.get(0).getAuditID() < page.get(1).getAuditID());
+  }
 }
@@ -105,4 +105,58 @@ public class HealthCheckTest extends FakeDBApplication {
   public void testInvalidDetailsJson() {
     HealthCheck shouldThrow = addCheck(UUID.randomUUID(), "invalid_json");
   }
+
+  @Test
+  public void testDetailsAreStoredCompressed() {
+    UUID universeUUID = UUID.randomUUID();
+    String details = "{\"timestamp\": \"2020-01-01 00:00:00\", \"data\": []}";
+    addCheck(universeUUID, details);
+    HealthCheck latest = HealthCheck.getLatest(universeUUID);
+    assertNull(latest.detailsJson);
+    assertNotNull(latest.detailsGz);
+    assertEquals(details, latest.getDetailsJson());
+  }
+
+  @Test
+  public void testNodeStatuses() {
+    UUID universeUUID = UUID.randomUUID();
+    addCheck(universeUUID, "{\"data\": [{\"node\": \"10.0.0.1\", \"message\": \"Disk\"," +
+        " \"has_error\": false}]}");
+    addCheck(universeUUID, "{\"has_error\": true, \"data\": [" +
+        "{\"node\": \"10.0.0.1\", \"node_name\": \"n1\", \"message\": \"Disk\"," +
+        " \"has_error\": false}," +
+        "{\"node\": \"10.0.0.2\", \"node_name\": \"n2\", \"process\": \"yb-tserver\"," +
+        " \"message\": \"Uptime\", \"has_error\": true}]}");
+
+    List<HealthCheck.NodeStatus> statuses = HealthCheck.getLatestNodeStatuses(universeUUID);
+    assertEquals(2, statuses.size());
+    assertEquals("n1", statuses.get(0).nodeName);
+    assertFalse(statuses.get(0).hasError);
+    assertNull(statuses.get(0).process);
+    assertEquals("10.0.0.2", statuses.get(1).node);
+    assertEquals("yb-tserver", statuses.get(1).process);
+    assertEquals("Uptime", statuses.get(1).checkName);
+    assertTrue(statuses.get(1).hasError);
+  }
+
+  @Test
+  public void testPruneDeletesNodeStatuses() {
+    UUID universeUUID = UUID.randomUUID();
+    addCheck(universeUUID, "{\"data\": [{\"node\": \"10.0.0.1\", \"message\": \"Disk\"}]}");
+    HealthCheck.keepOnlyLast(universeUUID, 0);
+    assertNull(HealthCheck.getLatest(universeUUID));
+    assertTrue(HealthCheck.getLatestNodeStatuses(universeUUID).isEmpty());
+  }
+
+  @Test
+  public void testGetPage() {
+    UUID universeUUID = UUID.randomUUID();
+    addChecks(universeUUID, 5);
+    List<HealthCheck> all = HealthCheck.getAll(universeUUID);
+    List<HealthCheck> page = HealthCheck.getPage(universeUUID, 1, 2);
+    assertEquals(2, page.size());
+    // Most recent first, skipping the latest check.
+    assertEquals(all.get(3).idKey.checkTime, page.get(0).idKey.checkTime);
+    assertEquals(all.get(2).idKey.checkTime, page.get(1).idKey.checkTime);
+  }
 }
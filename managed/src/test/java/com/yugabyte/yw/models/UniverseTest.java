@@ -19,6 +19,7 @@ import com.yugabyte.yw.models.helpers.CloudSpecificInfo;
 import com.yugabyte.yw.models.helpers.DeviceInfo;
 import com.yugabyte.yw.models.helpers.NodeDetails;
 import com.yugabyte.yw.models.helpers.NodeDetails.NodeState;
+import com.yugabyte.yw.models.helpers.UniverseSummary;
 
 import junitparams.JUnitParamsRunner;
 import junitparams.Parameters;
@@ -113,6 +114,34 @@ public class UniverseTest extends FakeDBApplication {
     Universe u = Universe.get(unknownUUID);
   }
 
+  @Test(expected = RuntimeException.class)
+  public void testGetMultipleUniverseWithUnknownUniverse() {
+    Universe u1 = createUniverse("Universe1", defaultCustomer.getCustomerId());
+    Universe.get(Sets.newHashSet(u1.universeUUID, UUID.randomUUID()));
+  }
+
+  @Test
+  public void testGetSummaries() {
+    Universe u1 = createUniverse("Universe1", defaultCustomer.getCustomerId());
+    u1 = Universe.saveDetails(u1.universeUUID, ApiUtils.mockUniverseUpdater("host-1"));
+    Universe u2 = createUniverse("Universe2", defaultCustomer.getCustomerId());
+
+    Map<UUID, UniverseSummary> summaries = new HashMap<>();
+    for (UniverseSummary summary : Customer.get(defaultCustomer.uuid).getUniverseSummaries()) {
+      summaries.put(summary.universeUUID, summary);
+    }
+    assertEquals(2, summaries.size());
+    UniverseSummary s1 = summaries.get(u1.universeUUID);
+    assertEquals("Universe1", s1.name);
+    assertEquals(u1.version, s1.version);
+    assertEquals("host-1", s1.nodePrefix);
+    assertTrue(s1.nodeCount > 0);
+    assertEquals(u1.getNodes().size(), s1.nodeCount);
+    UniverseSummary s2 = summaries.get(u2.universeUUID);
+    assertEquals("Universe2", s2.nodePrefix);
+    assertEquals(0, s2.nodeCount);
+  }
+
   @Test
   public void testParallelSaveDetails() {
     int numNodes = 100;